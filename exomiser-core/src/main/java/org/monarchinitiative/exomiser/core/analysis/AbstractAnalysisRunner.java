@@ -24,28 +24,25 @@
 import org.monarchinitiative.exomiser.core.analysis.util.*;
 import org.monarchinitiative.exomiser.core.filters.*;
 import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
-import org.monarchinitiative.exomiser.core.genome.VcfFiles;
 import org.monarchinitiative.exomiser.core.model.*;
 import org.monarchinitiative.exomiser.core.prioritisers.Prioritiser;
 import org.monarchinitiative.exomiser.core.prioritisers.PriorityType;
+import org.monarchinitiative.exomiser.core.writers.VariantEffectCounter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
-import static java.util.stream.Collectors.toConcurrentMap;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
@@ -60,11 +57,19 @@ abstract class AbstractAnalysisRunner implements AnalysisRunner {
     protected final VariantFilterRunner variantFilterRunner;
     private final GeneFilterRunner geneFilterRunner;
 
+    // used for the independent per-gene inheritance mode analysis and scoring
+    private final GeneWorkerPool geneWorkerPool;
+
     public AbstractAnalysisRunner(GenomeAnalysisService genomeAnalysisService, VariantFilterRunner variantFilterRunner, GeneFilterRunner geneFilterRunner) {
+        this(genomeAnalysisService, variantFilterRunner, geneFilterRunner, GeneWorkerPool.singleThreaded());
+    }
+
+    public AbstractAnalysisRunner(GenomeAnalysisService genomeAnalysisService, VariantFilterRunner variantFilterRunner, GeneFilterRunner geneFilterRunner, GeneWorkerPool geneWorkerPool) {
         this.genomeAnalysisService = genomeAnalysisService;
 
         this.variantFilterRunner = variantFilterRunner;
         this.geneFilterRunner = geneFilterRunner;
+        this.geneWorkerPool = geneWorkerPool;
     }
 
     @Override
@@ -74,58 +79,73 @@ public AnalysisResults run(Analysis analysis) {
         //all the sample-related bits, might be worth encapsulating
         Path vcfPath = analysis.getVcfPath();
 
-        VCFHeader vcfHeader = VcfFiles.readVcfHeader(vcfPath);
+        VCFHeader vcfHeader = analysis.getVcfHeader();
         List<String> sampleNames = vcfHeader.getGenotypeSamples();
         logger.info("Checking proband and pedigree for VCF {}", vcfPath);
 
         SampleIdentifier probandSample = SampleIdentifierUtil.createProbandIdentifier(analysis.getProbandSampleName(), sampleNames);
         Pedigree validatedPedigree = PedigreeSampleValidator.validate(analysis.getPedigree(), probandSample, sampleNames);
         InheritanceModeOptions inheritanceModeOptions = analysis.getInheritanceModeOptions();
+        // only the genotypes of the pedigree members are decoded from the VCF, any other samples are ignored
+        List<String> analysedSampleNames = getPedigreeSampleNames(validatedPedigree, sampleNames);
 
         InheritanceModeAnnotator inheritanceModeAnnotator = new InheritanceModeAnnotator(validatedPedigree, inheritanceModeOptions);
 
         List<String> hpoIds = analysis.getHpoIds();
         //now run the analysis on the sample
-        logger.info("Running analysis for proband {} (sample {} in VCF) from samples: {}", probandSample.getId(), probandSample.getGenotypePosition() + 1, sampleNames);
+        logger.info("Running analysis for proband {} (sample {} in VCF) from samples: {}", probandSample.getId(), probandSample.getGenotypePosition() + 1, analysedSampleNames);
         Instant timeStart = Instant.now();
         //soo many comments - this is a bad sign that this is too complicated.
         Map<String, Gene> allGenes = makeKnownGenes();
         List<VariantEvaluation> variantEvaluations = new ArrayList<>();
         FilterStats filterStats = new FilterStats();
+        // counted as the variants are loaded so that the counts do not depend on which variants are retained
+        VariantEffectCounter variantEffectCounter = new VariantEffectCounter(analysedSampleNames.size());
 //        some kind of multi-map with ordered duplicate keys would allow for easy grouping of steps for running the groups together.
         List<List<AnalysisStep>> analysisStepGroups = analysis.getAnalysisStepsGroupedByFunction();
-        boolean variantsLoaded = false;
-        for (List<AnalysisStep> analysisGroup : analysisStepGroups) {
-            //this is admittedly pretty confusing code and I'm sorry. It's easiest to follow if you turn on debugging.
-            //The analysis steps are run in groups of VARIANT_FILTER, GENE_ONLY_DEPENDENT or INHERITANCE_MODE_DEPENDENT
-            AnalysisStep firstStep = analysisGroup.get(0);
-            logger.debug("Running {} group: {}", firstStep.getType(), analysisGroup);
-            if (firstStep.isVariantFilter() && !variantsLoaded) {
-                //variants take up 99% of all the memory in an analysis - this scales approximately linearly with the sample size
-                //so for whole genomes this is best run as a stream to filter out the unwanted variants with as many filters as possible in one go
-                variantEvaluations = loadAndFilterVariants(vcfPath, probandSample, allGenes, analysisGroup, analysis, filterStats);
-                //this is done here as there are GeneFilter steps which may require Variants in the genes, or the InheritanceModeDependent steps which definitely need them...
-                assignVariantsToGenes(variantEvaluations, allGenes);
-                variantsLoaded = true;
-            } else {
-                runSteps(analysisGroup, hpoIds, new ArrayList<>(allGenes.values()), inheritanceModeAnnotator, filterStats);
+        RawScoreGeneScorer geneScorer = new RawScoreGeneScorer(probandSample, inheritanceModeAnnotator);
+        List<Gene> genes;
+        List<Gene> notEvaluatedGenes = Collections.emptyList();
+        if (canEvaluateTopGenesOnly(analysis)) {
+            PriorityFirstEvaluation priorityFirstEvaluation = new PriorityFirstEvaluation(analysis.getNumGenesToEvaluate(), hpoIds, inheritanceModeAnnotator, geneScorer, filterStats);
+            variantEvaluations = priorityFirstEvaluation.run(vcfPath, analysedSampleNames, probandSample, allGenes, analysis, variantEffectCounter);
+            genes = priorityFirstEvaluation.getEvaluatedGenes();
+            notEvaluatedGenes = priorityFirstEvaluation.getNotEvaluatedGenes();
+        } else {
+            boolean variantsLoaded = false;
+            for (List<AnalysisStep> analysisGroup : analysisStepGroups) {
+                //this is admittedly pretty confusing code and I'm sorry. It's easiest to follow if you turn on debugging.
+                //The analysis steps are run in groups of VARIANT_FILTER, GENE_ONLY_DEPENDENT or INHERITANCE_MODE_DEPENDENT
+                AnalysisStep firstStep = analysisGroup.get(0);
+                logger.debug("Running {} group: {}", firstStep.getType(), analysisGroup);
+                if (firstStep.isVariantFilter() && !variantsLoaded) {
+                    //variants take up 99% of all the memory in an analysis - this scales approximately linearly with the sample size
+                    //so for whole genomes this is best run as a stream to filter out the unwanted variants with as many filters as possible in one go
+                    variantEvaluations = loadAndFilterVariants(vcfPath, analysedSampleNames, probandSample, allGenes, analysisGroup, analysis, filterStats, variantEffectCounter);
+                    //this is done here as there are GeneFilter steps which may require Variants in the genes, or the InheritanceModeDependent steps which definitely need them...
+                    assignVariantsToGenes(variantEvaluations, allGenes);
+                    variantsLoaded = true;
+                } else {
+                    runSteps(analysisGroup, hpoIds, new ArrayList<>(allGenes.values()), inheritanceModeAnnotator, filterStats);
+                }
             }
-        }
-        //maybe only the non-variant dependent steps have been run in which case we need to load the variants although
-        //the results might be a bit meaningless.
-        //See issue #129 This is an excellent place to put the output of a gene phenotype score only run.
-        //i.e. stream in the variants, annotate them (assign a gene symbol) then write out that variant with the calculated GENE_PHENO_SCORE (prioritiser scores).
-        //this would fit well with a lot of people's pipelines where they only want the phenotype score as they are using VEP or ANNOVAR for variant analysis.
-        if (!variantsLoaded) {
-            try(Stream<VariantEvaluation> variantStream = loadVariants(vcfPath)) {
-                variantEvaluations = variantStream.collect(toList());
+            //maybe only the non-variant dependent steps have been run in which case we need to load the variants although
+            //the results might be a bit meaningless.
+            //See issue #129 This is an excellent place to put the output of a gene phenotype score only run.
+            //i.e. stream in the variants, annotate them (assign a gene symbol) then write out that variant with the calculated GENE_PHENO_SCORE (prioritiser scores).
+            //this would fit well with a lot of people's pipelines where they only want the phenotype score as they are using VEP or ANNOVAR for variant analysis.
+            if (!variantsLoaded) {
+                try(Stream<VariantEvaluation> variantStream = loadVariants(vcfPath, analysedSampleNames)) {
+                    variantEvaluations = variantStream
+                            .peek(variantEffectCounter::countVariant)
+                            .collect(toList());
+                }
+                assignVariantsToGenes(variantEvaluations, allGenes);
             }
-            assignVariantsToGenes(variantEvaluations, allGenes);
-        }
 
-        logger.info("Scoring genes");
-        GeneScorer geneScorer = new RawScoreGeneScorer(probandSample, inheritanceModeAnnotator);
-        List<Gene> genes = geneScorer.scoreGenes(getGenesWithVariants(allGenes).collect(toList()));
+            logger.info("Scoring genes");
+            genes = geneScorer.scoreGenes(getGenesWithVariants(allGenes.values()).collect(toList()), geneWorkerPool);
+        }
         List<VariantEvaluation> variants = getFinalVariantList(variantEvaluations);
         logger.info("Analysed {} genes containing {} filtered variants", genes.size(), variants.size());
 
@@ -139,9 +159,11 @@ public AnalysisResults run(Analysis analysis) {
         logger.info("Creating analysis results from VCF {}", vcfPath);
         AnalysisResults analysisResults = AnalysisResults.builder()
                 .probandSampleName(probandSample.getId())
-                .sampleNames(sampleNames)
+                .sampleNames(analysedSampleNames)
                 .genes(genes)
                 .variantEvaluations(variants)
+                .variantEffectCounter(variantEffectCounter)
+                .notEvaluatedGenes(notEvaluatedGenes)
                 .build();
 
         Duration duration = Duration.between(timeStart, Instant.now());
@@ -154,18 +176,33 @@ public AnalysisResults run(Analysis analysis) {
      * @return a map of genes indexed by gene symbol.
      */
     private Map<String, Gene> makeKnownGenes() {
-        return genomeAnalysisService.getKnownGenes()
-                .parallelStream()
-                .collect(toConcurrentMap(Gene::getGeneSymbol, Function.identity()));
+        // The Gene objects are cheap to create as their per-analysis state is only allocated once they are used, so
+        // this is faster single-threaded than paying the overhead of a parallel stream and a ConcurrentMap.
+        // The map is only read from once created.
+        List<Gene> knownGenes = genomeAnalysisService.getKnownGenes();
+        Map<String, Gene> allGenes = new LinkedHashMap<>(knownGenes.size() * 4 / 3 + 1);
+        for (Gene gene : knownGenes) {
+            allGenes.put(gene.getGeneSymbol(), gene);
+        }
+        return allGenes;
+    }
+
+    /**
+     * @return the names of the samples in the pedigree in the order in which they occur in the VCF file.
+     */
+    private List<String> getPedigreeSampleNames(Pedigree pedigree, List<String> sampleNames) {
+        return sampleNames.stream()
+                .filter(pedigree::containsId)
+                .collect(toList());
     }
 
-    private List<VariantEvaluation> loadAndFilterVariants(Path vcfPath, SampleIdentifier probandSample, Map<String, Gene> allGenes, List<AnalysisStep> analysisGroup, Analysis analysis, FilterStats filterStats) {
+    private List<VariantEvaluation> loadAndFilterVariants(Path vcfPath, List<String> sampleNames, SampleIdentifier probandSample, Map<String, Gene> allGenes, List<AnalysisStep> analysisGroup, Analysis analysis, FilterStats filterStats, VariantEffectCounter variantEffectCounter) {
         GeneReassigner geneReassigner = createNonCodingVariantGeneReassigner(analysis, allGenes);
         List<VariantFilter> variantFilters = getVariantFilterSteps(analysisGroup);
 
         List<VariantEvaluation> filteredVariants;
         VariantLogger variantLogger = new VariantLogger();
-        try (Stream<VariantEvaluation> variantStream = loadVariants(vcfPath)) {
+        try (Stream<VariantEvaluation> variantStream = loadVariants(vcfPath, sampleNames)) {
             filteredVariants = variantStream
                     .peek(variantLogger.logLoadedAndPassedVariants())
                     .filter(isObservedInProband(probandSample))
@@ -174,6 +211,7 @@ private List<VariantEvaluation> loadAndFilterVariants(Path vcfPath, SampleIdenti
                     //TODO: is this a good idea here? This could seriously impact performance.
                     // An alternative would be in a VariantFilterDataProvider
                     .map(flagWhiteListedVariants())
+                    .peek(countVariantEffectsInKnownGenes(variantEffectCounter, allGenes))
                     .filter(isAssociatedWithKnownGene(allGenes))
                     .filter(runVariantFilters(variantFilters, filterStats))
                     .peek(variantLogger.countPassedVariant())
@@ -200,9 +238,9 @@ private List<VariantFilter> getVariantFilterSteps(List<AnalysisStep> analysisSte
                 .collect(toList());
     }
 
-    private Stream<VariantEvaluation> loadVariants(Path vcfPath) {
+    private Stream<VariantEvaluation> loadVariants(Path vcfPath, List<String> sampleNames) {
         //WARNING!!! THIS IS NOT THREADSAFE DO NOT USE PARALLEL STREAMS
-        return genomeAnalysisService.createVariantEvaluations(vcfPath);
+        return genomeAnalysisService.createVariantEvaluations(vcfPath, sampleNames);
     }
 
     private Predicate<VariantEvaluation> isObservedInProband(SampleIdentifier probandSample) {
@@ -241,6 +279,19 @@ private Function<VariantEvaluation, VariantEvaluation> flagWhiteListedVariants()
         };
     }
 
+    /**
+     * Counts the variants in the known genes once their effect and gene have been finalised, but before the runner
+     * decides whether to retain them. This means the counts are the same for all runners, including those which drop
+     * the variants which fail the filters.
+     */
+    private Consumer<VariantEvaluation> countVariantEffectsInKnownGenes(VariantEffectCounter variantEffectCounter, Map<String, Gene> allGenes) {
+        return variantEvaluation -> {
+            if (allGenes.containsKey(variantEvaluation.getGeneSymbol())) {
+                variantEffectCounter.countVariant(variantEvaluation);
+            }
+        };
+    }
+
     /**
      * Defines the filtering behaviour of the runner when performing the initial load and filter of variants. Allows the
      * concrete runner to define whether a variant should pass or fail depending on the gene or status of the gene it is
@@ -273,17 +324,62 @@ private void assignVariantsToGenes(List<VariantEvaluation> variantEvaluations, M
     }
 
     /**
-     * @param allGenes
+     * @param genes
      * @return
      */
-    protected Stream<Gene> getGenesWithVariants(Map<String, Gene> allGenes) {
-        return allGenes.values()
-                .stream()
+    protected Stream<Gene> getGenesWithVariants(Collection<Gene> genes) {
+        return genes.stream()
                 .filter(Gene::hasVariants);
     }
 
     abstract List<VariantEvaluation> getFinalVariantList(List<VariantEvaluation> variants);
 
+    /**
+     * The top genes can only be evaluated on their own when the analysis steps are already in the order in which
+     * {@link PriorityFirstEvaluation} runs them, i.e. all the gene only dependent steps, then all the variant filters,
+     * then all the inheritance mode dependent steps. Any other order would change the results, so the full analysis is
+     * run instead.
+     */
+    private boolean canEvaluateTopGenesOnly(Analysis analysis) {
+        int numGenesToEvaluate = analysis.getNumGenesToEvaluate();
+        if (numGenesToEvaluate <= 0) {
+            return false;
+        }
+        List<AnalysisStep> analysisSteps = analysis.getAnalysisSteps();
+        if (!hasVariantFilter(analysisSteps)) {
+            logger.warn("Ignoring numGenesToEvaluate: {} - the analysis has no variant filters so all genes will be evaluated", numGenesToEvaluate);
+            return false;
+        }
+        if (!isInPriorityFirstOrder(analysisSteps)) {
+            logger.warn("Ignoring numGenesToEvaluate: {} - the analysis steps must run the gene only dependent steps (e.g. prioritisers), then the variant filters, then the inheritance mode dependent steps. All genes will be evaluated using the steps in the order given: {}", numGenesToEvaluate, analysisSteps);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean hasVariantFilter(List<AnalysisStep> analysisSteps) {
+        return analysisSteps.stream().anyMatch(AnalysisStep::isVariantFilter);
+    }
+
+    private boolean isInPriorityFirstOrder(List<AnalysisStep> analysisSteps) {
+        int previousRank = 0;
+        for (AnalysisStep analysisStep : analysisSteps) {
+            int rank = priorityFirstRank(analysisStep);
+            if (rank < previousRank) {
+                return false;
+            }
+            previousRank = rank;
+        }
+        return true;
+    }
+
+    private int priorityFirstRank(AnalysisStep analysisStep) {
+        if (analysisStep.isInheritanceModeDependent()) {
+            return 2;
+        }
+        return analysisStep.isVariantFilter() ? 1 : 0;
+    }
+
     //might this be a nascent class waiting to get out here?
     private void runSteps(List<AnalysisStep> analysisSteps, List<String> hpoIds, List<Gene> genes, InheritanceModeAnnotator inheritanceModeAnnotator, FilterStats filterStats) {
         boolean inheritanceModesCalculated = false;
@@ -304,7 +400,7 @@ private void runSteps(List<AnalysisStep> analysisSteps, List<String> hpoIds, Lis
     private void analyseGeneCompatibilityWithInheritanceMode(List<Gene> genes, InheritanceModeAnnotator inheritanceModeAnnotator) {
         logger.info("Checking inheritance mode compatibility with {} for genes which passed filters", inheritanceModeAnnotator.getDefinedModes());
         InheritanceModeAnalyser inheritanceModeAnalyser = new InheritanceModeAnalyser(inheritanceModeAnnotator);
-        inheritanceModeAnalyser.analyseInheritanceModes(genes);
+        inheritanceModeAnalyser.analyseInheritanceModes(genes, geneWorkerPool);
     }
 
     private void runStep(AnalysisStep analysisStep, List<String> hpoIds, List<Gene> genes) {
@@ -352,6 +448,124 @@ private void collectFilterStatsForFilter(Filter filter, List<Gene> genes, Filter
         }
     }
 
+    /**
+     * Runs the analysis steps when only the top genes of an {@link Analysis} are required. The prioritisers are run
+     * before the variants are loaded, which only runs the variant filters preceding the first filter requiring frequency
+     * or pathogenicity data. The remaining variant filters and the inheritance mode dependent steps are then run in
+     * batches of genes in descending order of their maximum possible combined score. This stops once the maximum
+     * possible score of the next gene is lower than the score needed to be ranked in the top genes overall and for each
+     * mode of inheritance, as neither that gene nor any following it could be ranked there.
+     */
+    private class PriorityFirstEvaluation {
+
+        private final int numGenesToEvaluate;
+        private final List<String> hpoIds;
+        private final InheritanceModeAnnotator inheritanceModeAnnotator;
+        private final RawScoreGeneScorer geneScorer;
+        private final FilterStats filterStats;
+
+        private final List<Gene> evaluatedGenes = new ArrayList<>();
+        private final List<Gene> notEvaluatedGenes = new ArrayList<>();
+
+        private PriorityFirstEvaluation(int numGenesToEvaluate, List<String> hpoIds, InheritanceModeAnnotator inheritanceModeAnnotator, RawScoreGeneScorer geneScorer, FilterStats filterStats) {
+            this.numGenesToEvaluate = numGenesToEvaluate;
+            this.hpoIds = hpoIds;
+            this.inheritanceModeAnnotator = inheritanceModeAnnotator;
+            this.geneScorer = geneScorer;
+            this.filterStats = filterStats;
+        }
+
+        /**
+         * @return the variants of the evaluated genes
+         */
+        List<VariantEvaluation> run(Path vcfPath, List<String> sampleNames, SampleIdentifier probandSample, Map<String, Gene> allGenes, Analysis analysis, VariantEffectCounter variantEffectCounter) {
+            List<AnalysisStep> geneOnlyDependentSteps = new ArrayList<>();
+            List<AnalysisStep> loadVariantFilterSteps = new ArrayList<>();
+            List<VariantFilter> deferredVariantFilters = new ArrayList<>();
+            List<AnalysisStep> inheritanceModeDependentSteps = new ArrayList<>();
+            for (AnalysisStep analysisStep : analysis.getAnalysisSteps()) {
+                if (analysisStep.isVariantFilter()) {
+                    if (deferredVariantFilters.isEmpty() && !(analysisStep instanceof VariantFilterDataProvider)) {
+                        loadVariantFilterSteps.add(analysisStep);
+                    } else {
+                        deferredVariantFilters.add((VariantFilter) analysisStep);
+                    }
+                } else if (analysisStep.isInheritanceModeDependent()) {
+                    inheritanceModeDependentSteps.add(analysisStep);
+                } else {
+                    geneOnlyDependentSteps.add(analysisStep);
+                }
+            }
+
+            logger.info("Prioritising genes before loading variants to evaluate the top {} genes", numGenesToEvaluate);
+            List<Gene> knownGenes = new ArrayList<>(allGenes.values());
+            runSteps(geneOnlyDependentSteps, hpoIds, knownGenes, inheritanceModeAnnotator, filterStats);
+
+            List<VariantEvaluation> variantEvaluations = loadAndFilterVariants(vcfPath, sampleNames, probandSample, allGenes, loadVariantFilterSteps, analysis, filterStats, variantEffectCounter);
+            assignVariantsToGenes(variantEvaluations, allGenes);
+
+            List<Gene> candidateGenes = getGenesWithVariants(knownGenes).collect(toList());
+            Map<String, Float> maxCombinedScores = new HashMap<>(candidateGenes.size() * 4 / 3 + 1);
+            for (Gene gene : candidateGenes) {
+                maxCombinedScores.put(gene.getGeneSymbol(), geneScorer.calculateMaximumCombinedScore(gene));
+            }
+            candidateGenes.sort(Comparator.comparing((Gene gene) -> maxCombinedScores.get(gene.getGeneSymbol())).reversed());
+
+            logger.info("Filtering variants in genes which could be ranked in the top {} with:", numGenesToEvaluate);
+            deferredVariantFilters.forEach(variantFilter -> logger.info("{}", variantFilter));
+            Predicate<VariantEvaluation> deferredVariantFilterRunner = runVariantFilters(deferredVariantFilters, filterStats);
+            TopGeneScores topGeneScores = new TopGeneScores(numGenesToEvaluate, inheritanceModeAnnotator.getDefinedModes());
+            int next = 0;
+            while (next < candidateGenes.size()) {
+                // the threshold only increases as genes are added, so this can be fixed for the batch
+                float threshold = topGeneScores.getThreshold();
+                List<Gene> batch = new ArrayList<>(numGenesToEvaluate);
+                while (next < candidateGenes.size() && batch.size() < numGenesToEvaluate) {
+                    Gene gene = candidateGenes.get(next);
+                    if (maxCombinedScores.get(gene.getGeneSymbol()) < threshold) {
+                        break;
+                    }
+                    batch.add(gene);
+                    next++;
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<Gene> scoredGenes = evaluate(batch, deferredVariantFilterRunner, inheritanceModeDependentSteps);
+                scoredGenes.forEach(topGeneScores::add);
+                evaluatedGenes.addAll(scoredGenes);
+            }
+            notEvaluatedGenes.addAll(candidateGenes.subList(next, candidateGenes.size()));
+            Collections.sort(evaluatedGenes);
+            logger.info("Evaluated {} of {} genes with variants - the remaining {} genes cannot be ranked in the top {}", next, candidateGenes.size(), notEvaluatedGenes.size(), numGenesToEvaluate);
+
+            Set<String> notEvaluatedGeneSymbols = notEvaluatedGenes.stream()
+                    .map(Gene::getGeneSymbol)
+                    .collect(toSet());
+            return variantEvaluations.stream()
+                    .filter(variantEvaluation -> !notEvaluatedGeneSymbols.contains(variantEvaluation.getGeneSymbol()))
+                    .collect(toList());
+        }
+
+        private List<Gene> evaluate(List<Gene> genes, Predicate<VariantEvaluation> deferredVariantFilterRunner, List<AnalysisStep> inheritanceModeDependentSteps) {
+            for (Gene gene : genes) {
+                for (VariantEvaluation variantEvaluation : gene.getVariantEvaluations()) {
+                    deferredVariantFilterRunner.test(variantEvaluation);
+                }
+            }
+            runSteps(inheritanceModeDependentSteps, hpoIds, genes, inheritanceModeAnnotator, filterStats);
+            return geneScorer.scoreGenes(getGenesWithVariants(genes).collect(toList()), geneWorkerPool);
+        }
+
+        List<Gene> getEvaluatedGenes() {
+            return evaluatedGenes;
+        }
+
+        List<Gene> getNotEvaluatedGenes() {
+            return notEvaluatedGenes;
+        }
+    }
+
     /**
      * Utility class for logging numbers of processed and passed variants.
      */
@@ -33,8 +33,10 @@
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 import de.charite.compbio.jannovar.mendel.SubModeOfInheritance;
+import htsjdk.variant.vcf.VCFHeader;
 import org.monarchinitiative.exomiser.core.analysis.util.InheritanceModeOptions;
 import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.VcfFiles;
 import org.monarchinitiative.exomiser.core.model.Pedigree;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
@@ -57,7 +59,7 @@
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  */
 @JsonDeserialize(builder = Analysis.Builder.class)
-@JsonPropertyOrder({"vcf", "genomeAssembly", "pedigree", "proband", "hpoIds", "inheritanceModes", "analysisMode", "frequencySources", "pathogenicitySources", "analysisSteps"})
+@JsonPropertyOrder({"vcf", "genomeAssembly", "pedigree", "proband", "hpoIds", "inheritanceModes", "analysisMode", "frequencySources", "pathogenicitySources", "numGenesToEvaluate", "analysisSteps"})
 public class Analysis {
 
     private static final Logger logger = LoggerFactory.getLogger(Analysis.class);
@@ -82,8 +84,12 @@ public class Analysis {
     private final AnalysisMode analysisMode;
     private final Set<FrequencySource> frequencySources;
     private final Set<PathogenicitySource> pathogenicitySources;
+    private final int numGenesToEvaluate;
     private final List<AnalysisStep> analysisSteps;
 
+    //lazily read from the vcfPath - this is not part of the analysis settings.
+    private volatile VCFHeader vcfHeader;
+
     private Analysis(Builder builder) {
         this.vcfPath = builder.vcfPath;
         this.genomeAssembly = builder.genomeAssembly;
@@ -95,6 +101,7 @@ private Analysis(Builder builder) {
         this.analysisMode = builder.analysisMode;
         this.frequencySources = Sets.immutableEnumSet(builder.frequencySources);
         this.pathogenicitySources = Sets.immutableEnumSet(builder.pathogenicitySources);
+        this.numGenesToEvaluate = builder.numGenesToEvaluate;
         this.analysisSteps = ImmutableList.copyOf(builder.analysisSteps);
     }
 
@@ -102,6 +109,28 @@ public Path getVcfPath() {
         return vcfPath;
     }
 
+    /**
+     * Returns the header of the input VCF file. This is only read from disk the first time it is requested, after which
+     * the same instance is returned so callers must not modify it.
+     *
+     * @return the {@link VCFHeader} of the file at the vcfPath
+     * @since 12.1.0
+     */
+    @JsonIgnore
+    public VCFHeader getVcfHeader() {
+        VCFHeader header = vcfHeader;
+        if (header == null) {
+            synchronized (this) {
+                header = vcfHeader;
+                if (header == null) {
+                    header = VcfFiles.readVcfHeader(vcfPath);
+                    vcfHeader = header;
+                }
+            }
+        }
+        return header;
+    }
+
     public GenomeAssembly getGenomeAssembly() {
         return genomeAssembly;
     }
@@ -140,6 +169,20 @@ public Set<PathogenicitySource> getPathogenicitySources() {
         return pathogenicitySources;
     }
 
+    /**
+     * The number of top-ranked genes required from the analysis. When this is greater than zero the genes are
+     * prioritised before the variants are loaded and the variant filters which require frequency or pathogenicity data
+     * are only run for the genes which could still be ranked in the top genes for one of the inheritance modes. The
+     * remaining genes are reported as not evaluated. The ranks and scores of the top genes are the same as those of an
+     * analysis with the prioritisers run first.
+     *
+     * @return the number of top genes to be evaluated, or 0 if all the genes are to be evaluated.
+     * @since 12.1.0
+     */
+    public int getNumGenesToEvaluate() {
+        return numGenesToEvaluate;
+    }
+
     public List<AnalysisStep> getAnalysisSteps() {
         return analysisSteps;
     }
@@ -220,6 +263,7 @@ public Builder copy() {
                 .analysisMode(analysisMode)
                 .frequencySources(frequencySources)
                 .pathogenicitySources(pathogenicitySources)
+                .numGenesToEvaluate(numGenesToEvaluate)
                 .steps(analysisSteps);
     }
 
@@ -237,6 +281,7 @@ public static class Builder {
         private InheritanceModeOptions inheritanceModeOptions = InheritanceModeOptions.empty();
         private Set<FrequencySource> frequencySources = EnumSet.noneOf(FrequencySource.class);
         private Set<PathogenicitySource> pathogenicitySources = EnumSet.noneOf(PathogenicitySource.class);
+        private int numGenesToEvaluate = 0;
         private List<AnalysisStep> analysisSteps = new ArrayList<>();
 
         public Analysis build() {
@@ -308,6 +353,22 @@ public Builder pathogenicitySources(Set<PathogenicitySource> pathogenicitySource
             return this;
         }
 
+        /**
+         * Limits the full evaluation of the variants to the genes which could be ranked in the top number of genes
+         * given. A value of 0, the default, will evaluate all the genes.
+         *
+         * @param numGenesToEvaluate the number of top-ranked genes required. Must not be negative.
+         * @return the current Builder object
+         * @since 12.1.0
+         */
+        public Builder numGenesToEvaluate(int numGenesToEvaluate) {
+            if (numGenesToEvaluate < 0) {
+                throw new IllegalArgumentException("numGenesToEvaluate must not be negative, but was " + numGenesToEvaluate);
+            }
+            this.numGenesToEvaluate = numGenesToEvaluate;
+            return this;
+        }
+
         public Builder addStep(AnalysisStep step) {
             this.analysisSteps.add(step);
             return this;
@@ -334,16 +395,17 @@ public boolean equals(Object o) {
                 analysisMode == analysis.analysisMode &&
                 Objects.equals(frequencySources, analysis.frequencySources) &&
                 Objects.equals(pathogenicitySources, analysis.pathogenicitySources) &&
+                numGenesToEvaluate == analysis.numGenesToEvaluate &&
                 Objects.equals(analysisSteps, analysis.analysisSteps);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(vcfPath, genomeAssembly, pedigree, probandSampleName, hpoIds, inheritanceModeOptions, analysisMode, frequencySources, pathogenicitySources, analysisSteps);
+        return Objects.hash(vcfPath, genomeAssembly, pedigree, probandSampleName, hpoIds, inheritanceModeOptions, analysisMode, frequencySources, pathogenicitySources, numGenesToEvaluate, analysisSteps);
     }
 
     @Override
     public String toString() {
-        return "Analysis{" + "vcfPath=" + vcfPath + ", genomeAssembly=" + genomeAssembly + ", pedigree=" + pedigree + ", probandSampleName=" + probandSampleName + ", hpoIds=" + hpoIds + ", inheritanceModeOptions=" + inheritanceModeOptions + ", analysisMode=" + analysisMode + ", frequencySources=" + frequencySources + ", pathogenicitySources=" + pathogenicitySources + ", analysisSteps=" + analysisSteps + '}';
+        return "Analysis{" + "vcfPath=" + vcfPath + ", genomeAssembly=" + genomeAssembly + ", pedigree=" + pedigree + ", probandSampleName=" + probandSampleName + ", hpoIds=" + hpoIds + ", inheritanceModeOptions=" + inheritanceModeOptions + ", analysisMode=" + analysisMode + ", frequencySources=" + frequencySources + ", pathogenicitySources=" + pathogenicitySources + ", numGenesToEvaluate=" + numGenesToEvaluate + ", analysisSteps=" + analysisSteps + '}';
     }
 }
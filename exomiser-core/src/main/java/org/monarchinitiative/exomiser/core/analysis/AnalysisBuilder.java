@@ -78,10 +78,47 @@ public class AnalysisBuilder {
 
     public Analysis build() {
         new AnalysisStepChecker().check(analysisSteps);
-        builder.steps(analysisSteps);
+        builder.steps(preloadVariantData(analysisSteps));
         return builder.build();
     }
 
+    /**
+     * Where an analysis contains both frequency and pathogenicity dependent steps, the first of these is replaced with
+     * a data provider which loads both the frequency and pathogenicity data in a single lookup. This is only done when
+     * all the sources are held in the default variant store, otherwise variants which fail the first filter would incur
+     * extra lookups of the tabix-backed sources. Variants which fail the first filter do not keep the preloaded data,
+     * so the results are the same as those of the analysis steps as given.
+     */
+    private List<AnalysisStep> preloadVariantData(List<AnalysisStep> steps) {
+        boolean hasFrequencyStep = steps.stream().anyMatch(FrequencyDataProvider.class::isInstance);
+        boolean hasPathogenicityStep = steps.stream().anyMatch(PathogenicityDataProvider.class::isInstance);
+        if (!hasFrequencyStep || !hasPathogenicityStep || !allSourcesInVariantStore()) {
+            return steps;
+        }
+        List<AnalysisStep> preloadingSteps = new ArrayList<>(steps);
+        for (int i = 0; i < preloadingSteps.size(); i++) {
+            AnalysisStep step = preloadingSteps.get(i);
+            if (step instanceof FrequencyDataProvider) {
+                VariantFilter filter = ((FrequencyDataProvider) step).getDecoratedFilter();
+                preloadingSteps.set(i, new FrequencyDataProvider(getGenomeAnalysisService(), frequencySources, pathogenicitySources, filter));
+                break;
+            }
+            if (step instanceof PathogenicityDataProvider) {
+                VariantFilter filter = ((PathogenicityDataProvider) step).getDecoratedFilter();
+                preloadingSteps.set(i, new PathogenicityDataProvider(getGenomeAnalysisService(), pathogenicitySources, frequencySources, filter));
+                break;
+            }
+        }
+        return preloadingSteps;
+    }
+
+    private boolean allSourcesInVariantStore() {
+        return !frequencySources.contains(FrequencySource.LOCAL)
+                && !pathogenicitySources.contains(PathogenicitySource.CADD)
+                && !pathogenicitySources.contains(PathogenicitySource.REMM)
+                && !pathogenicitySources.contains(PathogenicitySource.TEST);
+    }
+
     public AnalysisBuilder vcfPath(Path vcfPath) {
         builder.vcfPath(vcfPath);
         return this;
@@ -132,6 +169,17 @@ public AnalysisBuilder pathogenicitySources(Set<PathogenicitySource> pathogenici
         return this;
     }
 
+    /**
+     * Limits the full evaluation of the variants to the genes which could be ranked in the top number of genes given.
+     *
+     * @param numGenesToEvaluate the number of top-ranked genes required, or 0 to evaluate all the genes.
+     * @since 12.1.0
+     */
+    public AnalysisBuilder numGenesToEvaluate(int numGenesToEvaluate) {
+        builder.numGenesToEvaluate(numGenesToEvaluate);
+        return this;
+    }
+
     //Filters
 
     /**
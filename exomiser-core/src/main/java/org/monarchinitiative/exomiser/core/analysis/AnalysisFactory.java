@@ -21,6 +21,7 @@
 package org.monarchinitiative.exomiser.core.analysis;
 
 import org.monarchinitiative.exomiser.core.Exomiser;
+import org.monarchinitiative.exomiser.core.analysis.util.GeneWorkerPool;
 import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
 import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisServiceProvider;
 import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
@@ -49,12 +50,22 @@ public class AnalysisFactory {
     private final GenomeAnalysisServiceProvider genomeAnalysisServiceProvider;
     private final PriorityFactory priorityFactory;
     private final OntologyService ontologyService;
+    private final GeneWorkerPool geneWorkerPool;
 
-    @Autowired
     public AnalysisFactory(GenomeAnalysisServiceProvider genomeAnalysisServiceProvider, PriorityFactory priorityFactory, OntologyService ontologyService) {
+        this(genomeAnalysisServiceProvider, priorityFactory, ontologyService, GeneWorkerPool.singleThreaded());
+    }
+
+    /**
+     * @param geneWorkerPool used to run the per-gene inheritance mode analysis and scoring of the analyses in parallel.
+     * @since 12.1.0
+     */
+    @Autowired
+    public AnalysisFactory(GenomeAnalysisServiceProvider genomeAnalysisServiceProvider, PriorityFactory priorityFactory, OntologyService ontologyService, GeneWorkerPool geneWorkerPool) {
         this.genomeAnalysisServiceProvider = genomeAnalysisServiceProvider;
         this.priorityFactory = priorityFactory;
         this.ontologyService = ontologyService;
+        this.geneWorkerPool = geneWorkerPool;
     }
 
     public AnalysisRunner getAnalysisRunner(GenomeAssembly genomeAssembly, AnalysisMode analysisMode) {
@@ -65,11 +76,11 @@ public AnalysisRunner getAnalysisRunner(GenomeAssembly genomeAssembly, AnalysisM
 
         switch (analysisMode) {
             case FULL:
-                return new SimpleAnalysisRunner(genomeAnalysisService);
+                return new SimpleAnalysisRunner(genomeAnalysisService, geneWorkerPool);
             case PASS_ONLY:
             default:
                 //this guy takes up the least RAM
-                return new PassOnlyAnalysisRunner(genomeAnalysisService);
+                return new PassOnlyAnalysisRunner(genomeAnalysisService, geneWorkerPool);
         }
     }
 
@@ -136,6 +136,7 @@ public OutputSettings construct(Map analysisMap) {
             return OutputSettings.builder()
                     .outputContributingVariantsOnly(parseOutputVariantsOption(analysisMap))
                     .numberOfGenesToShow(parseNumberOfGenesToShow(analysisMap))
+                    .htmlPageSize(parseHtmlPageSize(analysisMap))
                     .outputPrefix(parseOutputPrefix(analysisMap))
                     .outputFormats(parseOutputFormats(analysisMap))
                     .build();
@@ -168,6 +169,14 @@ private int parseNumberOfGenesToShow(Map<String, Integer> analysisMap) {
             return genesToShow;
         }
 
+        private int parseHtmlPageSize(Map<String, Integer> analysisMap) {
+            Integer htmlPageSize = analysisMap.get("htmlPageSize");
+            if (htmlPageSize == null) {
+                htmlPageSize = 0;
+            }
+            return htmlPageSize;
+        }
+
         private String parseOutputPrefix(Map<String, String> analysisMap) {
             String outputPrefix = analysisMap.get("outputPrefix");
             if (outputPrefix == null) {
@@ -201,6 +210,10 @@ private Set<OutputFormat> parseOutputFormats(Map<String, List<String>> analysisM
                     case "VCF":
                         parsedOutputFormats.add(OutputFormat.VCF);
                         break;
+                    case "VCF_GZ":
+                    case "VCF-GZ":
+                        parsedOutputFormats.add(OutputFormat.VCF_GZ);
+                        break;
                     case "PHENOGRID":
                         parsedOutputFormats.add(OutputFormat.PHENOGRID);
                         break;
@@ -208,7 +221,7 @@ private Set<OutputFormat> parseOutputFormats(Map<String, List<String>> analysisM
                         parsedOutputFormats.add(OutputFormat.JSON);
                         break;
                     default:
-                        logger.info("{} is not a recognised output format. Please choose one or more of HTML, TSV_GENE, TSV_VARIANT, VCF, JSON - defaulting to HTML", name);
+                        logger.info("{} is not a recognised output format. Please choose one or more of HTML, TSV_GENE, TSV_VARIANT, VCF, VCF_GZ, JSON - defaulting to HTML", name);
                         parsedOutputFormats.add(OutputFormat.HTML);
                         break;
                 }
@@ -235,7 +248,8 @@ public Analysis construct(Map analysisMap) {
                     .inheritanceModes(inheritanceModeOptions(analysisMap))
                     .analysisMode(parseAnalysisMode(analysisMap))
                     .frequencySources(parseFrequencySources(analysisMap))
-                    .pathogenicitySources(parsePathogenicitySources(analysisMap));
+                    .pathogenicitySources(parsePathogenicitySources(analysisMap))
+                    .numGenesToEvaluate(parseNumGenesToEvaluate(analysisMap));
 
             addAnalysisSteps(analysisMap, analysisBuilder);
 
@@ -291,6 +305,17 @@ private List<String> parseHpoIds(Map<String, List<String>> analysisMap) {
             return hpoIds;
         }
 
+        private int parseNumGenesToEvaluate(Map<String, Integer> analysisMap) {
+            Integer numGenesToEvaluate = analysisMap.get("numGenesToEvaluate");
+            if (numGenesToEvaluate == null) {
+                return 0;
+            }
+            if (numGenesToEvaluate < 0) {
+                throw new AnalysisParserException("numGenesToEvaluate must be 0 or greater.", analysisMap);
+            }
+            return numGenesToEvaluate;
+        }
+
         private InheritanceModeOptions inheritanceModeOptions(Map<String, Object> analysisMap) {
             String modeOfInheritanceInput = (String) analysisMap.get("modeOfInheritance");
 
@@ -31,11 +31,13 @@
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.GeneScore;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.writers.VariantEffectCounter;
 
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
@@ -56,6 +58,10 @@ public class AnalysisResults {
     private final List<Gene> genes;
     @JsonIgnore
     private final List<VariantEvaluation> variantEvaluations;
+    @JsonIgnore
+    private final VariantEffectCounter variantEffectCounter;
+    @JsonIgnore
+    private final List<Gene> notEvaluatedGenes;
 
     public AnalysisResults(Builder builder) {
         this.probandSampleName = builder.probandSampleName;
@@ -64,6 +70,8 @@ public AnalysisResults(Builder builder) {
 
         this.genes = builder.genes;
         this.variantEvaluations = builder.variantEvaluations;
+        this.variantEffectCounter = builder.variantEffectCounter;
+        this.notEvaluatedGenes = builder.notEvaluatedGenes;
     }
 
     /**
@@ -111,6 +119,34 @@ public List<VariantEvaluation> getVariantEvaluations() {
         return variantEvaluations;
     }
 
+    /**
+     * The counts of the {@link org.monarchinitiative.exomiser.core.model.VariantEvaluation} effects per sample made
+     * while the variants were loaded. These include variants which may have been removed from the
+     * {@code getVariantEvaluations()} during the analysis.
+     *
+     * @return the variant effect counts for the analysis, or an empty {@link Optional} if these were not counted.
+     * @since 12.1.0
+     */
+    @JsonIgnore
+    public Optional<VariantEffectCounter> getVariantEffectCounter() {
+        return Optional.ofNullable(variantEffectCounter);
+    }
+
+    /**
+     * The genes containing variants which were not fully evaluated as their maximum possible combined score was lower
+     * than the scores required to be ranked in the top genes requested by {@link Analysis#getNumGenesToEvaluate()}.
+     * These genes have been prioritised, but the variant filters requiring frequency or pathogenicity data were not run
+     * for their variants, so they are not scored and are not included in the {@code getGenes()}.
+     *
+     * @return the genes which were not evaluated, ordered by their maximum possible combined score, or an empty list
+     * if all the genes were evaluated.
+     * @since 12.1.0
+     */
+    @JsonIgnore
+    public List<Gene> getNotEvaluatedGenes() {
+        return notEvaluatedGenes;
+    }
+
     /**
      * Returns a list of {@link GeneScore} objects computed from the gene results. These {@link GeneScore} will be ranked
      * by the combined score and will contain the results for all {@link ModeOfInheritance}. The {@link GeneScore} objects
@@ -231,6 +267,8 @@ public static class Builder {
 
         private List<VariantEvaluation> variantEvaluations = Collections.emptyList();
         private List<Gene> genes = Collections.emptyList();
+        private VariantEffectCounter variantEffectCounter = null;
+        private List<Gene> notEvaluatedGenes = Collections.emptyList();
 
         public Builder probandSampleName(String probandSampleName) {
             this.probandSampleName = probandSampleName;
@@ -252,6 +290,22 @@ public Builder genes(List<Gene> geneList) {
             return this;
         }
 
+        /**
+         * @since 12.1.0
+         */
+        public Builder variantEffectCounter(VariantEffectCounter variantEffectCounter) {
+            this.variantEffectCounter = variantEffectCounter;
+            return this;
+        }
+
+        /**
+         * @since 12.1.0
+         */
+        public Builder notEvaluatedGenes(List<Gene> notEvaluatedGenes) {
+            this.notEvaluatedGenes = notEvaluatedGenes;
+            return this;
+        }
+
         public AnalysisResults build() {
             return new AnalysisResults(this);
         }
@@ -20,6 +20,7 @@
 
 package org.monarchinitiative.exomiser.core.analysis;
 
+import org.monarchinitiative.exomiser.core.analysis.util.GeneWorkerPool;
 import org.monarchinitiative.exomiser.core.filters.FilterResult;
 import org.monarchinitiative.exomiser.core.filters.SimpleGeneFilterRunner;
 import org.monarchinitiative.exomiser.core.filters.SparseVariantFilterRunner;
@@ -28,6 +29,7 @@
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -43,7 +45,11 @@
 class PassOnlyAnalysisRunner extends AbstractAnalysisRunner {
 
     PassOnlyAnalysisRunner(GenomeAnalysisService genomeAnalysisService) {
-        super(genomeAnalysisService, new SparseVariantFilterRunner(), new SimpleGeneFilterRunner());
+        this(genomeAnalysisService, GeneWorkerPool.singleThreaded());
+    }
+
+    PassOnlyAnalysisRunner(GenomeAnalysisService genomeAnalysisService, GeneWorkerPool geneWorkerPool) {
+        super(genomeAnalysisService, new SparseVariantFilterRunner(), new SimpleGeneFilterRunner(), geneWorkerPool);
     }
 
     @Override
@@ -74,9 +80,8 @@ protected Predicate<VariantEvaluation> runVariantFilters(List<VariantFilter> var
     }
 
     @Override
-    protected Stream<Gene> getGenesWithVariants(Map<String, Gene> allGenes) {
-        return allGenes.values()
-                .stream()
+    protected Stream<Gene> getGenesWithVariants(Collection<Gene> genes) {
+        return genes.stream()
                 .filter(Gene::hasVariants)
                 .filter(Gene::passedFilters)
                 .map(removeFailedVariants());
@@ -20,6 +20,7 @@
 
 package org.monarchinitiative.exomiser.core.analysis;
 
+import org.monarchinitiative.exomiser.core.analysis.util.GeneWorkerPool;
 import org.monarchinitiative.exomiser.core.filters.FilterResult;
 import org.monarchinitiative.exomiser.core.filters.SimpleGeneFilterRunner;
 import org.monarchinitiative.exomiser.core.filters.SimpleVariantFilterRunner;
@@ -40,7 +41,11 @@
 class SimpleAnalysisRunner extends AbstractAnalysisRunner {
 
     SimpleAnalysisRunner(GenomeAnalysisService genomeAnalysisService) {
-        super(genomeAnalysisService, new SimpleVariantFilterRunner(), new SimpleGeneFilterRunner());
+        this(genomeAnalysisService, GeneWorkerPool.singleThreaded());
+    }
+
+    SimpleAnalysisRunner(GenomeAnalysisService genomeAnalysisService, GeneWorkerPool geneWorkerPool) {
+        super(genomeAnalysisService, new SimpleVariantFilterRunner(), new SimpleGeneFilterRunner(), geneWorkerPool);
     }
 
     @Override
@@ -0,0 +1,143 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import org.monarchinitiative.exomiser.core.model.Gene;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the highest combined scores of the genes which passed the filters, both overall and for each of the defined
+ * modes of inheritance, in order to find the lowest score a gene needs to be ranked in the top genes of any of these.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+class TopGeneScores {
+
+    private final int numGenes;
+    private final ScoreHeap topScores;
+    private final Map<ModeOfInheritance, ScoreHeap> topScoresByMode = new EnumMap<>(ModeOfInheritance.class);
+
+    TopGeneScores(int numGenes, Set<ModeOfInheritance> modesOfInheritance) {
+        if (numGenes < 1) {
+            throw new IllegalArgumentException("numGenes must be greater than 0, but was " + numGenes);
+        }
+        this.numGenes = numGenes;
+        this.topScores = new ScoreHeap(numGenes);
+        for (ModeOfInheritance modeOfInheritance : modesOfInheritance) {
+            if (modeOfInheritance != ModeOfInheritance.ANY) {
+                topScoresByMode.put(modeOfInheritance, new ScoreHeap(numGenes));
+            }
+        }
+    }
+
+    /**
+     * Adds the scores of a gene which has been filtered and scored. Genes which failed the filters are ignored.
+     */
+    void add(Gene gene) {
+        if (!gene.passedFilters()) {
+            return;
+        }
+        topScores.offer(gene.getCombinedScore());
+        for (Map.Entry<ModeOfInheritance, ScoreHeap> entry : topScoresByMode.entrySet()) {
+            ModeOfInheritance modeOfInheritance = entry.getKey();
+            if (gene.isCompatibleWith(modeOfInheritance)) {
+                entry.getValue().offer(gene.getCombinedScoreForMode(modeOfInheritance));
+            }
+        }
+    }
+
+    /**
+     * @return the lowest combined score which could still place a gene in the top genes overall or for one of the
+     * modes of inheritance. This is negative infinity until each of these has the required number of genes. A gene
+     * with a maximum possible score lower than this cannot be ranked in the top genes.
+     */
+    float getThreshold() {
+        float threshold = topScores.lowestTopScore();
+        for (ScoreHeap scores : topScoresByMode.values()) {
+            threshold = Math.min(threshold, scores.lowestTopScore());
+        }
+        return threshold;
+    }
+
+    /**
+     * Fixed capacity binary min-heap of the highest scores offered, stored in a primitive array to avoid boxing.
+     */
+    private static class ScoreHeap {
+
+        private final float[] scores;
+        private int size;
+
+        private ScoreHeap(int capacity) {
+            this.scores = new float[capacity];
+        }
+
+        private void offer(float score) {
+            if (size < scores.length) {
+                scores[size] = score;
+                siftUp(size);
+                size++;
+            } else if (score > scores[0]) {
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        private float lowestTopScore() {
+            return size < scores.length ? Float.NEGATIVE_INFINITY : scores[0];
+        }
+
+        private void siftUp(int index) {
+            float score = scores[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (scores[parent] <= score) {
+                    break;
+                }
+                scores[index] = scores[parent];
+                index = parent;
+            }
+            scores[index] = score;
+        }
+
+        private void siftDown(int index) {
+            float score = scores[index];
+            int half = size >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                int right = child + 1;
+                if (right < size && scores[right] < scores[child]) {
+                    child = right;
+                }
+                if (score <= scores[child]) {
+                    break;
+                }
+                scores[index] = scores[child];
+                index = child;
+            }
+            scores[index] = score;
+        }
+    }
+}
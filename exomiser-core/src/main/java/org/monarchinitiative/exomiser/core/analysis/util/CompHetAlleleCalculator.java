@@ -22,19 +22,35 @@
 
 import com.google.common.collect.ImmutableList;
 import de.charite.compbio.jannovar.mendel.SubModeOfInheritance;
+import org.monarchinitiative.exomiser.core.model.SampleGenotype;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 
 import java.util.*;
 
 /**
+ * Finds pairs of alleles compatible with a compound heterozygous mode of inheritance.
+ * <p>
+ * Whether or not a pair of alleles is compatible with a compound heterozygous mode of inheritance depends only on the
+ * pedigree, the type of chromosome and the genotypes of each allele along with whether or not they are under the
+ * frequency threshold for the comp-het sub-modes. Rather than check every pair of alleles against the pedigree with
+ * Jannovar, which is O(n<sup>2</sup>) in the number of checks, the alleles are grouped into buckets of identical
+ * genotype patterns and the Jannovar check is only performed once for each pair of buckets. The compatible pairs of
+ * alleles are then produced by joining the compatible buckets. For large genes (e.g. TTN, MUC16) in a genome there are
+ * usually only a handful of distinct genotype patterns for thousands of alleles.
+ *
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
 class CompHetAlleleCalculator {
 
     private final InheritanceModeAnnotator inheritanceAnnotator;
+    private final float maxFreqForAutosomalCompHet;
+    private final float maxFreqForXCompHet;
 
     CompHetAlleleCalculator(InheritanceModeAnnotator inheritanceAnnotator) {
         this.inheritanceAnnotator = inheritanceAnnotator;
+        InheritanceModeOptions inheritanceModeOptions = inheritanceAnnotator.getInheritanceModeOptions();
+        this.maxFreqForAutosomalCompHet = inheritanceModeOptions.getMaxFreqForSubMode(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET);
+        this.maxFreqForXCompHet = inheritanceModeOptions.getMaxFreqForSubMode(SubModeOfInheritance.X_RECESSIVE_COMP_HET);
     }
 
     /**
@@ -46,18 +62,62 @@ class CompHetAlleleCalculator {
      * @return a list of allele pairs compatible with an autosomal recessive compound heterozygous inheritance pattern.
      */
     public List<List<VariantEvaluation>> findCompatibleCompHetAlleles(List<VariantEvaluation> passedVariantEvaluations) {
+        return findCompatibleCompHetAlleles(passedVariantEvaluations, new GeneGenotypeCalls(inheritanceAnnotator));
+    }
+
+    /**
+     * As {@link #findCompatibleCompHetAlleles(List)}, using the genotype calls already built for the variants of the
+     * gene.
+     */
+    List<List<VariantEvaluation>> findCompatibleCompHetAlleles(List<VariantEvaluation> passedVariantEvaluations, GeneGenotypeCalls geneGenotypeCalls) {
         //Cant't be comp het if there's only one allele.
         if (passedVariantEvaluations.size() <= 1) {
             return Collections.emptyList();
         }
 
+        int numVariants = passedVariantEvaluations.size();
+        // classify each allele by its genotype pattern, then collect the alleles in each pattern bucket in input order
+        Map<GenotypePattern, Integer> patternIds = new HashMap<>();
+        List<List<Integer>> buckets = new ArrayList<>();
+        int[] variantPatterns = new int[numVariants];
+        for (int i = 0; i < numVariants; i++) {
+            GenotypePattern genotypePattern = genotypePattern(passedVariantEvaluations.get(i));
+            Integer patternId = patternIds.get(genotypePattern);
+            if (patternId == null) {
+                patternId = buckets.size();
+                patternIds.put(genotypePattern, patternId);
+                buckets.add(new ArrayList<>());
+            }
+            variantPatterns[i] = patternId;
+            buckets.get(patternId).add(i);
+        }
+
+        int numPatterns = buckets.size();
+        // lazily computed compatibility of the (first, second) pattern pairs - null means not yet checked
+        Boolean[][] compatiblePatterns = new Boolean[numPatterns][numPatterns];
+
         List<List<VariantEvaluation>> compatibleAllelePairs = new ArrayList<>();
+        int[] partners = new int[numVariants];
         //don't do all vs all otherwise we'll get the reciprocal pairs being tested so only check one side of the diagonal
-        for (int i = 0; i < passedVariantEvaluations.size(); i++) {
-            for (int j = i + 1; j < passedVariantEvaluations.size(); j++) {
-                VariantEvaluation ve1 = passedVariantEvaluations.get(i);
-                VariantEvaluation ve2 = passedVariantEvaluations.get(j);
-                if (!ve1.equals(ve2) && isCompHetCompatible(ve1, ve2)) {
+        for (int i = 0; i < numVariants - 1; i++) {
+            VariantEvaluation ve1 = passedVariantEvaluations.get(i);
+            int firstPattern = variantPatterns[i];
+            int numPartners = 0;
+            for (int secondPattern = 0; secondPattern < numPatterns; secondPattern++) {
+                List<Integer> bucket = buckets.get(secondPattern);
+                // only the alleles after i in the input list are candidate partners
+                int fromIndex = firstIndexAfter(bucket, i);
+                if (fromIndex < bucket.size() && isCompHetCompatible(compatiblePatterns, buckets, passedVariantEvaluations, geneGenotypeCalls, firstPattern, secondPattern)) {
+                    for (int b = fromIndex; b < bucket.size(); b++) {
+                        partners[numPartners++] = bucket.get(b);
+                    }
+                }
+            }
+            // partners from different buckets need to be put back into input order
+            Arrays.sort(partners, 0, numPartners);
+            for (int p = 0; p < numPartners; p++) {
+                VariantEvaluation ve2 = passedVariantEvaluations.get(partners[p]);
+                if (!ve1.equals(ve2)) {
                     compatibleAllelePairs.add(ImmutableList.of(ve1, ve2));
                 }
             }
@@ -65,10 +125,54 @@ public List<List<VariantEvaluation>> findCompatibleCompHetAlleles(List<VariantEv
         return ImmutableList.copyOf(compatibleAllelePairs);
     }
 
-    private boolean isCompHetCompatible(VariantEvaluation ve1, VariantEvaluation ve2) {
+    private static int firstIndexAfter(List<Integer> sortedIndices, int index) {
+        int low = 0;
+        int high = sortedIndices.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedIndices.get(mid) <= index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean isCompHetCompatible(Boolean[][] compatiblePatterns, List<List<Integer>> buckets, List<VariantEvaluation> variantEvaluations, GeneGenotypeCalls geneGenotypeCalls, int firstPattern, int secondPattern) {
+        Boolean compatible = compatiblePatterns[firstPattern][secondPattern];
+        if (compatible == null) {
+            compatible = checkRepresentativePair(buckets, variantEvaluations, geneGenotypeCalls, firstPattern, secondPattern);
+            compatiblePatterns[firstPattern][secondPattern] = compatible;
+        }
+        return compatible;
+    }
+
+    /**
+     * Checks a representative pair of alleles from the first and second pattern buckets. Any other pair of distinct
+     * alleles taken from the same buckets will have an identical result as they are indistinguishable to the checker.
+     */
+    private boolean checkRepresentativePair(List<List<Integer>> buckets, List<VariantEvaluation> variantEvaluations, GeneGenotypeCalls geneGenotypeCalls, int firstPattern, int secondPattern) {
+        List<Integer> firstBucket = buckets.get(firstPattern);
+        VariantEvaluation ve1 = variantEvaluations.get(firstBucket.get(0));
+        if (firstPattern != secondPattern) {
+            VariantEvaluation ve2 = variantEvaluations.get(buckets.get(secondPattern).get(0));
+            return isCompHetCompatible(ve1, ve2, geneGenotypeCalls);
+        }
+        for (int i = 1; i < firstBucket.size(); i++) {
+            VariantEvaluation ve2 = variantEvaluations.get(firstBucket.get(i));
+            if (!ve1.equals(ve2)) {
+                return isCompHetCompatible(ve1, ve2, geneGenotypeCalls);
+            }
+        }
+        // only duplicates of the same allele in this bucket, so there are no pairs to find
+        return false;
+    }
+
+    private boolean isCompHetCompatible(VariantEvaluation ve1, VariantEvaluation ve2, GeneGenotypeCalls geneGenotypeCalls) {
         List<VariantEvaluation> pair = Arrays.asList(ve1, ve2);
         Map<SubModeOfInheritance, List<VariantEvaluation>> compatibleSubModesMap = inheritanceAnnotator
-                .computeCompatibleInheritanceSubModes(pair);
+                .computeCompatibleInheritanceSubModes(pair, geneGenotypeCalls);
         if (compatibleSubModesMap.containsKey(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET)) {
             List<VariantEvaluation> compHetPair = compatibleSubModesMap.get(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET);
             return compHetPair.size() == 2;
@@ -78,4 +182,56 @@ private boolean isCompHetCompatible(VariantEvaluation ve1, VariantEvaluation ve2
         }
         return false;
     }
+
+    private GenotypePattern genotypePattern(VariantEvaluation variantEvaluation) {
+        return new GenotypePattern(chromosomeType(variantEvaluation.getChromosome()),
+                isUnderMaxFreq(variantEvaluation, maxFreqForAutosomalCompHet),
+                isUnderMaxFreq(variantEvaluation, maxFreqForXCompHet),
+                variantEvaluation.getSampleGenotypes());
+    }
+
+    private static boolean isUnderMaxFreq(VariantEvaluation variantEvaluation, float maxFreq) {
+        return variantEvaluation.getFrequencyData().getMaxFreq() <= maxFreq || variantEvaluation.isWhiteListed();
+    }
+
+    /**
+     * Mirrors the chromosome types used by the {@link InheritanceModeAnnotator}: 0 autosomal, 23 X, 24 Y and 25 MT.
+     */
+    private static int chromosomeType(int chromosome) {
+        return chromosome >= 23 && chromosome <= 25 ? chromosome : 0;
+    }
+
+    /**
+     * Everything about an allele which is inspected when checking a pair of alleles for compound heterozygosity.
+     */
+    private static final class GenotypePattern {
+
+        private final int chromosomeType;
+        private final boolean underAutosomalCompHetMaxFreq;
+        private final boolean underXCompHetMaxFreq;
+        private final Map<String, SampleGenotype> sampleGenotypes;
+
+        private GenotypePattern(int chromosomeType, boolean underAutosomalCompHetMaxFreq, boolean underXCompHetMaxFreq, Map<String, SampleGenotype> sampleGenotypes) {
+            this.chromosomeType = chromosomeType;
+            this.underAutosomalCompHetMaxFreq = underAutosomalCompHetMaxFreq;
+            this.underXCompHetMaxFreq = underXCompHetMaxFreq;
+            this.sampleGenotypes = sampleGenotypes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            GenotypePattern that = (GenotypePattern) o;
+            return chromosomeType == that.chromosomeType &&
+                    underAutosomalCompHetMaxFreq == that.underAutosomalCompHetMaxFreq &&
+                    underXCompHetMaxFreq == that.underXCompHetMaxFreq &&
+                    sampleGenotypes.equals(that.sampleGenotypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(chromosomeType, underAutosomalCompHetMaxFreq, underXCompHetMaxFreq, sampleGenotypes);
+        }
+    }
 }
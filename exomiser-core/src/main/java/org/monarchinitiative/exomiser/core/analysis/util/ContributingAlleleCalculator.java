@@ -44,10 +44,12 @@ class ContributingAlleleCalculator {
     private static final Logger logger = LoggerFactory.getLogger(ContributingAlleleCalculator.class);
 
     private final SampleIdentifier probandSampleIdentifier;
+    private final InheritanceModeAnnotator inheritanceModeAnnotator;
     private final CompHetAlleleCalculator compHetAlleleCalculator;
 
     ContributingAlleleCalculator(SampleIdentifier probandSampleIdentifier, InheritanceModeAnnotator inheritanceModeAnnotator) {
         this.probandSampleIdentifier = probandSampleIdentifier;
+        this.inheritanceModeAnnotator = inheritanceModeAnnotator;
         this.compHetAlleleCalculator = new CompHetAlleleCalculator(inheritanceModeAnnotator);
     }
 
@@ -64,6 +66,14 @@ class ContributingAlleleCalculator {
      * twice).
      */
     protected List<VariantEvaluation> findContributingVariantsForInheritanceMode(ModeOfInheritance modeOfInheritance, List<VariantEvaluation> variantEvaluations) {
+        return findContributingVariantsForInheritanceMode(modeOfInheritance, variantEvaluations, new GeneGenotypeCalls(inheritanceModeAnnotator));
+    }
+
+    /**
+     * As {@link #findContributingVariantsForInheritanceMode(ModeOfInheritance, List)}, using the genotype calls already
+     * built for the variants of the gene so that these are shared between the modes of inheritance.
+     */
+    List<VariantEvaluation> findContributingVariantsForInheritanceMode(ModeOfInheritance modeOfInheritance, List<VariantEvaluation> variantEvaluations, GeneGenotypeCalls geneGenotypeCalls) {
         List<VariantEvaluation> variantsCompatibleWithMode = variantEvaluations.stream()
                 //It is critical only the PASS variants are used in the scoring
                 .filter(VariantEvaluation::passedFilters)
@@ -76,19 +86,19 @@ protected List<VariantEvaluation> findContributingVariantsForInheritanceMode(Mod
         switch (modeOfInheritance) {
             case AUTOSOMAL_RECESSIVE:
             case X_RECESSIVE:
-                return findAutosomalRecessiveContributingVariants(modeOfInheritance, variantsCompatibleWithMode);
+                return findAutosomalRecessiveContributingVariants(modeOfInheritance, variantsCompatibleWithMode, geneGenotypeCalls);
             default:
                 return findNonAutosomalRecessiveContributingVariants(modeOfInheritance, variantsCompatibleWithMode);
         }
 
     }
 
-    private List<VariantEvaluation> findAutosomalRecessiveContributingVariants(ModeOfInheritance modeOfInheritance, List<VariantEvaluation> variantEvaluations) {
+    private List<VariantEvaluation> findAutosomalRecessiveContributingVariants(ModeOfInheritance modeOfInheritance, List<VariantEvaluation> variantEvaluations, GeneGenotypeCalls geneGenotypeCalls) {
         if (variantEvaluations.isEmpty()) {
             return Collections.emptyList();
         }
 
-        Optional<CompHetPair> bestCompHetPair = compHetAlleleCalculator.findCompatibleCompHetAlleles(variantEvaluations)
+        Optional<CompHetPair> bestCompHetPair = compHetAlleleCalculator.findCompatibleCompHetAlleles(variantEvaluations, geneGenotypeCalls)
                 .stream()
                 .map(pair -> new CompHetPair(pair.get(0), pair.get(1)))
                 .max(Comparator.comparing(CompHetPair::getScore));
@@ -0,0 +1,64 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis.util;
+
+import de.charite.compbio.jannovar.mendel.GenotypeCalls;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Jannovar {@link GenotypeCalls} of the variants of a single gene, built once by the {@link InheritanceModeAnnotator}
+ * on first use and then shared by all the inheritance mode checks of that gene. As a gene is only ever analysed by one
+ * thread at a time this is deliberately not thread-safe and should not be shared between genes.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+class GeneGenotypeCalls {
+
+    private final InheritanceModeAnnotator inheritanceModeAnnotator;
+    private final Map<VariantEvaluation, GenotypeCalls> genotypeCalls = new IdentityHashMap<>();
+
+    GeneGenotypeCalls(InheritanceModeAnnotator inheritanceModeAnnotator) {
+        this.inheritanceModeAnnotator = inheritanceModeAnnotator;
+    }
+
+    GenotypeCalls get(VariantEvaluation variantEvaluation) {
+        GenotypeCalls calls = genotypeCalls.get(variantEvaluation);
+        if (calls == null) {
+            calls = inheritanceModeAnnotator.buildGenotypeCalls(variantEvaluation);
+            genotypeCalls.put(variantEvaluation, calls);
+        }
+        return calls;
+    }
+
+    List<GenotypeCalls> get(List<VariantEvaluation> variantEvaluations) {
+        List<GenotypeCalls> result = new ArrayList<>(variantEvaluations.size());
+        for (VariantEvaluation variantEvaluation : variantEvaluations) {
+            result.add(get(variantEvaluation));
+        }
+        return result;
+    }
+}
@@ -42,6 +42,11 @@
  * Reassigns regulatory non-coding variants to the gene with the best phenotype score in a topological domain
  * (doi:10.1038/nature11082). 'Recent research shows that high-order chromosome structures make an important contribution
  * to enhancer functionality by triggering their physical interactions with target genes.' (doi:10.1038/nature12753).
+ * <p>
+ * The TADs are found using a {@link ChromosomalRegionIndex.Sweep}, which holds its position in the TAD index between
+ * calls. Hence this class is <b>not thread-safe</b>. A new instance should be created for each stream of variants, which
+ * should be in genomic order and only used by a single thread. Variants out of order are still reassigned correctly,
+ * albeit more slowly.
  *
  * @author Damian Smedley <damian.smedley@sanger.ac.uk>
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
@@ -51,7 +56,9 @@ public class GeneReassigner {
     private static final Logger logger = LoggerFactory.getLogger(GeneReassigner.class);
 
     private final PriorityType priorityType;
-    private final ChromosomalRegionIndex<TopologicalDomain> tadIndex;
+    // variants are streamed in genomic order so the TADs are swept through in a single pass rather than looked-up for
+    // each variant
+    private final ChromosomalRegionIndex.Sweep<TopologicalDomain> tadSweep;
     private final Map<String, Gene> allGenes;
 
     /**
@@ -59,7 +66,7 @@ public class GeneReassigner {
      * @param tadIndex
      */
     public GeneReassigner(PriorityType priorityType, Map<String, Gene> allGenes, ChromosomalRegionIndex<TopologicalDomain> tadIndex) {
-        this.tadIndex = tadIndex;
+        this.tadSweep = tadIndex.sweep();
         this.allGenes = allGenes;
         this.priorityType = priorityType;
         logger.debug("Made new GeneReassigner for {}", priorityType);
@@ -103,7 +110,7 @@ private void assignVariantToGeneWithHighestPhenotypeScore(VariantEvaluation vari
     }
 
     private List<Gene> getGenesInTadForVariant(VariantEvaluation variantEvaluation) {
-        return tadIndex.getRegionsContainingVariant(variantEvaluation).stream()
+        return tadSweep.getRegionsContainingVariant(variantEvaluation).stream()
                 .map(TopologicalDomain::getGenes)
                 .flatMap(geneMap -> geneMap.keySet().stream())
                 .map(allGenes::get)
@@ -42,8 +42,19 @@ public interface GeneScorer {
     public Function<Gene, List<GeneScore>> scoreGene();
 
     default List<Gene> scoreGenes(List<Gene> genes) {
-        genes.forEach(gene -> {
-            List<GeneScore> geneScores = scoreGene().apply(gene);
+        return scoreGenes(genes, GeneWorkerPool.singleThreaded());
+    }
+
+    /**
+     * Scores the genes using the threads of the {@link GeneWorkerPool}. The genes are sorted once they have all been
+     * scored so the output order is the same regardless of the number of threads used.
+     *
+     * @since 12.1.0
+     */
+    default List<Gene> scoreGenes(List<Gene> genes, GeneWorkerPool geneWorkerPool) {
+        Function<Gene, List<GeneScore>> geneScorer = scoreGene();
+        geneWorkerPool.forEach(genes, gene -> {
+            List<GeneScore> geneScores = geneScorer.apply(gene);
             for (GeneScore score : geneScores) {
                 gene.addGeneScore(score);
             }
@@ -0,0 +1,128 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis.util;
+
+import org.monarchinitiative.exomiser.core.model.Gene;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Runs independent per-gene tasks, such as the inheritance mode analysis and gene scoring, over a list of genes using
+ * a fixed number of threads. The tasks are required to only mutate the state of the {@link Gene} they are given and its
+ * {@link org.monarchinitiative.exomiser.core.model.VariantEvaluation}, which are not shared between genes. All tasks
+ * will have completed, and their changes will be visible to the calling thread, by the time a method returns.
+ * <p>
+ * Running on more than one thread does not change the outcome of an analysis - the input order of the genes is not
+ * altered and the results are only sorted once all of the genes have been processed.
+ * <p>
+ * Each parallel instance holds a single {@link ForkJoinPool}, which is re-used for every call, so instances should be
+ * shared rather than created for each analysis. The pool threads are daemon threads which are stopped after a period of
+ * inactivity, or by calling {@link #shutdown()}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class GeneWorkerPool {
+
+    private static final GeneWorkerPool SINGLE_THREADED = new GeneWorkerPool(1);
+
+    private final int numThreads;
+    // null if single-threaded
+    private final ForkJoinPool forkJoinPool;
+
+    private GeneWorkerPool(int numThreads) {
+        this.numThreads = numThreads;
+        this.forkJoinPool = numThreads > 1 ? new ForkJoinPool(numThreads) : null;
+    }
+
+    public static GeneWorkerPool singleThreaded() {
+        return SINGLE_THREADED;
+    }
+
+    /**
+     * @param numThreads the number of threads used to process the genes. Values less than 2 will run the tasks on the
+     *                   calling thread.
+     * @return a {@code GeneWorkerPool} using the given number of threads.
+     */
+    public static GeneWorkerPool of(int numThreads) {
+        if (numThreads <= 1) {
+            return SINGLE_THREADED;
+        }
+        return new GeneWorkerPool(numThreads);
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    public boolean isParallel() {
+        return numThreads > 1;
+    }
+
+    /**
+     * Performs the action for each of the genes and waits for them all to complete.
+     *
+     * @param genes  the genes to process
+     * @param action the action to perform on each gene. This is required to only alter the state of the input gene.
+     */
+    public void forEach(List<Gene> genes, Consumer<Gene> action) {
+        if (!isParallel() || genes.size() < 2) {
+            genes.forEach(action);
+            return;
+        }
+        try {
+            // a parallel stream started from inside a ForkJoinPool task will use that pool rather than the common pool
+            forkJoinPool.submit(() -> genes.parallelStream().forEach(action)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while processing genes", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Stops the threads of the pool once any running tasks have completed. The pool cannot be used after this has been
+     * called.
+     */
+    public void shutdown() {
+        if (forkJoinPool != null) {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GeneWorkerPool{" +
+                "numThreads=" + numThreads +
+                '}';
+    }
+}
@@ -66,6 +66,16 @@ public void analyseInheritanceModes(Collection<Gene> genes) {
         genes.forEach(analyseInheritanceModes());
     }
 
+    /**
+     * Analyses the compatibility of a list of {@link Gene} with the {@link ModeOfInheritance} used in the constructor
+     * of this class, using the threads of the {@link GeneWorkerPool}. Each gene is analysed independently of the others.
+     *
+     * @since 12.1.0
+     */
+    public void analyseInheritanceModes(List<Gene> genes, GeneWorkerPool geneWorkerPool) {
+        geneWorkerPool.forEach(genes, analyseInheritanceModes());
+    }
+
     /**
      * Analyses the compatibility of a {@link Gene} with the {@link ModeOfInheritance} used in the constructor
      * of this class according to the observed pattern of inheritance in the {@link Pedigree}. This will only be applied
@@ -97,7 +107,7 @@ private void checkInheritanceCompatibilityOfPassedVariants(Gene gene) {
         }
 
         Map<ModeOfInheritance, List<VariantEvaluation>> compatibleInheritanceModes = inheritanceAnnotator
-                .computeCompatibleInheritanceModes(passedVariantEvaluations);
+                .computeCompatibleInheritanceModes(passedVariantEvaluations, new GeneGenotypeCalls(inheritanceAnnotator));
 
         compatibleInheritanceModes.forEach((mode, variants) -> logger.debug("{} {}", mode, variants));
 
@@ -25,12 +25,14 @@
 import org.monarchinitiative.exomiser.core.model.AlleleCall;
 import org.monarchinitiative.exomiser.core.model.Pedigree;
 import org.monarchinitiative.exomiser.core.model.SampleGenotype;
+import org.monarchinitiative.exomiser.core.model.SampleGenotypes;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Native wrapper for the Jannovar {@link MendelianInheritanceChecker} rather than relying on the Jannovar HTSJDK bridge.
@@ -47,6 +49,15 @@ public class InheritanceModeAnnotator {
 
     private final MendelianInheritanceChecker mendelChecker;
 
+    // The pedigree compiled into the form required by the MendelianInheritanceChecker. Only the genotypes of these
+    // samples are checked so there is no point in converting those of any other samples.
+    private final String[] pedigreeSampleNames;
+    // There are only a handful of distinct genotypes in an analysis so these are converted once and shared.
+    private final Map<SampleGenotype, Genotype> genotypeCache = new ConcurrentHashMap<>();
+    // All the variants of an analysis share the same interned SampleNames, so the index of each pedigree sample is
+    // resolved once and not looked up by name for every variant.
+    private volatile PedigreeSampleIndices pedigreeSampleIndices;
+
     public InheritanceModeAnnotator(Pedigree pedigree, InheritanceModeOptions inheritanceModeOptions) {
         Objects.requireNonNull(pedigree);
         if (pedigree.isEmpty()){
@@ -56,6 +67,7 @@ public InheritanceModeAnnotator(Pedigree pedigree, InheritanceModeOptions inheri
         Objects.requireNonNull(inheritanceModeOptions);
         this.inheritanceModeOptions = inheritanceModeOptions;
         this.mendelChecker = new MendelianInheritanceChecker(PedigreeConverter.convertToJannovarPedigree(pedigree));
+        this.pedigreeSampleNames = pedigree.getIdentifiers().toArray(new String[0]);
     }
 
     public Pedigree getPedigree() {
@@ -80,7 +92,15 @@ public Set<ModeOfInheritance> getDefinedModes() {
      * @return a map of inheritance modes and the variants which are compatible with them
      */
     public Map<ModeOfInheritance, List<VariantEvaluation>> computeCompatibleInheritanceModes(List<VariantEvaluation> variantEvaluations) {
-        List<GenotypeCalls> genotypeCalls = buildGenotypeCalls(variantEvaluations);
+        return computeCompatibleInheritanceModes(variantEvaluations, new GeneGenotypeCalls(this));
+    }
+
+    /**
+     * As {@link #computeCompatibleInheritanceModes(List)}, using the genotype calls already built for the variants of
+     * the gene.
+     */
+    Map<ModeOfInheritance, List<VariantEvaluation>> computeCompatibleInheritanceModes(List<VariantEvaluation> variantEvaluations, GeneGenotypeCalls geneGenotypeCalls) {
+        List<GenotypeCalls> genotypeCalls = geneGenotypeCalls.get(variantEvaluations);
         try {
             Map<ModeOfInheritance, ImmutableList<GenotypeCalls>> compatibilityCalls = mendelChecker.checkMendelianInheritance(genotypeCalls);
             logger.debug("{}", compatibilityCalls);
@@ -101,7 +121,15 @@ public Map<ModeOfInheritance, List<VariantEvaluation>> computeCompatibleInherita
      * @return a map of sub-inheritance modes and the variants which are compatible with them
      */
     public Map<SubModeOfInheritance, List<VariantEvaluation>> computeCompatibleInheritanceSubModes(List<VariantEvaluation> variantEvaluations) {
-        List<GenotypeCalls> genotypeCalls = buildGenotypeCalls(variantEvaluations);
+        return computeCompatibleInheritanceSubModes(variantEvaluations, new GeneGenotypeCalls(this));
+    }
+
+    /**
+     * As {@link #computeCompatibleInheritanceSubModes(List)}, using the genotype calls already built for the variants
+     * of the gene.
+     */
+    Map<SubModeOfInheritance, List<VariantEvaluation>> computeCompatibleInheritanceSubModes(List<VariantEvaluation> variantEvaluations, GeneGenotypeCalls geneGenotypeCalls) {
+        List<GenotypeCalls> genotypeCalls = geneGenotypeCalls.get(variantEvaluations);
         try {
             Map<SubModeOfInheritance, ImmutableList<GenotypeCalls>> compatibilityCalls = mendelChecker.checkMendelianInheritanceSub(genotypeCalls);
             logger.debug("{}", compatibilityCalls);
@@ -157,50 +185,87 @@ private List<VariantEvaluation> getCompatibleVariantsUnderFrequencyThreshold(Lis
         return compatibleVariants;
     }
 
-    private List<GenotypeCalls> buildGenotypeCalls(List<VariantEvaluation> variantEvaluations) {
-        ArrayList<GenotypeCalls> result = new ArrayList<>();
-
-        for (VariantEvaluation variantEvaluation : variantEvaluations) {
-            GenotypeCallsBuilder builder = new GenotypeCallsBuilder();
-
-            builder.setPayload(variantEvaluation);
-
-            ChromosomeType chromosomeType = toChromosomeType(variantEvaluation.getChromosome());
-            builder.setChromType(chromosomeType);
-
-            //This could be moved into the VariantFactory and a getSampleGenotypes() method added to the VariantEvaluation
-            //then we can mostly discard the VariantContext, apart from writing out again...
-            Map<String, SampleGenotype> sampleGenotypes = variantEvaluation.getSampleGenotypes();
-            logger.debug("Converting {} {} {}", variantEvaluation.getRef(), variantEvaluation.getAlt(), sampleGenotypes);
-            for (Map.Entry<String, SampleGenotype> entry : sampleGenotypes.entrySet()) {
-                String sampleName = entry.getKey();
-                SampleGenotype sampleGenotype = entry.getValue();
-
-                GenotypeBuilder gtBuilder = new GenotypeBuilder();
-                for (AlleleCall alleleCall : sampleGenotype.getCalls()) {
-                    switch (alleleCall) {
-                        case REF:
-                            gtBuilder.getAlleleNumbers().add(Genotype.REF_CALL);
-                            break;
-                        case ALT:
-                            gtBuilder.getAlleleNumbers().add(1);
-                            break;
-                        case OTHER_ALT:
-                            gtBuilder.getAlleleNumbers().add(2);
-                            break;
-                        case NO_CALL:
-                        default:
-                            gtBuilder.getAlleleNumbers().add(Genotype.NO_CALL);
-                    }
+    GenotypeCalls buildGenotypeCalls(VariantEvaluation variantEvaluation) {
+        GenotypeCallsBuilder builder = new GenotypeCallsBuilder();
+
+        builder.setPayload(variantEvaluation);
+
+        ChromosomeType chromosomeType = toChromosomeType(variantEvaluation.getChromosome());
+        builder.setChromType(chromosomeType);
+
+        Map<String, SampleGenotype> sampleGenotypes = variantEvaluation.getSampleGenotypes();
+        logger.debug("Converting {} {} {}", variantEvaluation.getRef(), variantEvaluation.getAlt(), sampleGenotypes);
+        if (sampleGenotypes instanceof SampleGenotypes) {
+            SampleGenotypes indexedSampleGenotypes = (SampleGenotypes) sampleGenotypes;
+            int[] sampleIndices = getPedigreeSampleIndices(indexedSampleGenotypes.getSampleNames());
+            for (int i = 0; i < pedigreeSampleNames.length; i++) {
+                int sampleIndex = sampleIndices[i];
+                if (sampleIndex >= 0) {
+                    putGenotype(builder, pedigreeSampleNames[i], indexedSampleGenotypes.getSampleGenotypeAt(sampleIndex));
                 }
-                Genotype genotype = gtBuilder.build();
-                logger.debug("Converted {} {} to {}", sampleName, sampleGenotype, genotype);
-                builder.getSampleToGenotype().put(sampleName, genotype);
             }
-            result.add(builder.build());
+        } else {
+            for (String sampleName : pedigreeSampleNames) {
+                SampleGenotype sampleGenotype = sampleGenotypes.get(sampleName);
+                if (sampleGenotype != null) {
+                    putGenotype(builder, sampleName, sampleGenotype);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private void putGenotype(GenotypeCallsBuilder builder, String sampleName, SampleGenotype sampleGenotype) {
+        builder.getSampleToGenotype().put(sampleName, genotypeCache.computeIfAbsent(sampleGenotype, InheritanceModeAnnotator::toGenotype));
+    }
+
+    private int[] getPedigreeSampleIndices(SampleGenotypes.SampleNames sampleNames) {
+        PedigreeSampleIndices current = pedigreeSampleIndices;
+        if (current == null || current.sampleNames != sampleNames) {
+            // a benign race - at worst the indices are resolved more than once
+            current = new PedigreeSampleIndices(sampleNames, pedigreeSampleNames);
+            pedigreeSampleIndices = current;
+        }
+        return current.indices;
+    }
+
+    /**
+     * The index of each of the pedigree samples in the {@link SampleGenotypes.SampleNames}, or -1 where a sample is
+     * not present.
+     */
+    private static final class PedigreeSampleIndices {
+
+        private final SampleGenotypes.SampleNames sampleNames;
+        private final int[] indices;
+
+        private PedigreeSampleIndices(SampleGenotypes.SampleNames sampleNames, String[] pedigreeSampleNames) {
+            this.sampleNames = sampleNames;
+            this.indices = new int[pedigreeSampleNames.length];
+            for (int i = 0; i < pedigreeSampleNames.length; i++) {
+                indices[i] = sampleNames.indexOf(pedigreeSampleNames[i]);
+            }
         }
+    }
 
-        return result;
+    private static Genotype toGenotype(SampleGenotype sampleGenotype) {
+        GenotypeBuilder gtBuilder = new GenotypeBuilder();
+        for (AlleleCall alleleCall : sampleGenotype.getCalls()) {
+            switch (alleleCall) {
+                case REF:
+                    gtBuilder.getAlleleNumbers().add(Genotype.REF_CALL);
+                    break;
+                case ALT:
+                    gtBuilder.getAlleleNumbers().add(1);
+                    break;
+                case OTHER_ALT:
+                    gtBuilder.getAlleleNumbers().add(2);
+                    break;
+                case NO_CALL:
+                default:
+                    gtBuilder.getAlleleNumbers().add(Genotype.NO_CALL);
+            }
+        }
+        return gtBuilder.build();
     }
 
     private ChromosomeType toChromosomeType(int chromosome) {
@@ -49,6 +49,7 @@ public class RawScoreGeneScorer implements GeneScorer {
     private static final EnumSet<ModeOfInheritance> JUST_ANY = EnumSet.of(ModeOfInheritance.ANY);
 
     private final Set<ModeOfInheritance> inheritanceModes;
+    private final InheritanceModeAnnotator inheritanceModeAnnotator;
 
     private final ContributingAlleleCalculator contributingAlleleCalculator;
     private final GenePriorityScoreCalculator genePriorityScoreCalculator;
@@ -63,6 +64,7 @@ public RawScoreGeneScorer(SampleIdentifier probandSampleIdentifier, InheritanceM
         Objects.requireNonNull(probandSampleIdentifier);
         Objects.requireNonNull(inheritanceModeAnnotator);
         this.inheritanceModes = inheritanceModeAnnotator.getDefinedModes();
+        this.inheritanceModeAnnotator = inheritanceModeAnnotator;
         this.contributingAlleleCalculator = new ContributingAlleleCalculator(probandSampleIdentifier, inheritanceModeAnnotator);
         this.genePriorityScoreCalculator = new GenePriorityScoreCalculator();
     }
@@ -81,14 +83,16 @@ public Function<Gene, List<GeneScore>> scoreGene() {
         return gene -> {
             //Handle the scenario where no inheritance mode-dependent step was run
             if (inheritanceModes.isEmpty() || inheritanceModes.equals(JUST_ANY)) {
-                GeneScore geneScore = calculateGeneScore(gene, ModeOfInheritance.ANY);
+                GeneScore geneScore = calculateGeneScore(gene, ModeOfInheritance.ANY, new GeneGenotypeCalls(inheritanceModeAnnotator));
                 logger.debug("{}", geneScore);
                 return Collections.singletonList(geneScore);
             }
 
             List<GeneScore> geneScores = new ArrayList<>(inheritanceModes.size());
+            // the genotype calls of the gene's variants are shared by all the modes of inheritance
+            GeneGenotypeCalls geneGenotypeCalls = new GeneGenotypeCalls(inheritanceModeAnnotator);
             for (ModeOfInheritance modeOfInheritance : inheritanceModes) {
-                GeneScore geneScore = calculateGeneScore(gene, modeOfInheritance);
+                GeneScore geneScore = calculateGeneScore(gene, modeOfInheritance, geneGenotypeCalls);
                 logger.debug("{}", geneScore);
                 // IMPORTANT: Do not skip score without variants!
                 // A gene needs to have a score for each MOI as this will effect the overall ranks depending on the inheritance mode
@@ -99,9 +103,25 @@ public Function<Gene, List<GeneScore>> scoreGene() {
         };
     }
 
-    private GeneScore calculateGeneScore(Gene gene, ModeOfInheritance modeOfInheritance) {
+    /**
+     * Calculates the highest combined score the gene could be given, under any mode of inheritance, once its variants
+     * have been filtered and scored. This uses the current priority score of the gene and the maximum possible variant
+     * score of 1. As the combined score increases with both of these and the OmimPrioritiser can only lower the
+     * priority score for a mode of inheritance, this is an upper bound for the gene provided it is calculated after
+     * the prioritisers, other than the OmimPrioritiser, have been run.
+     *
+     * @param gene a prioritised gene
+     * @return the maximum combined score the gene could have
+     * @since 12.1.0
+     */
+    public float calculateMaximumCombinedScore(Gene gene) {
+        float priorityScore = (float) genePriorityScoreCalculator.calculateGenePriorityScoreForMode(gene, ModeOfInheritance.ANY);
+        return calculateCombinedScore(1f, priorityScore, gene.getPriorityResults().keySet());
+    }
+
+    private GeneScore calculateGeneScore(Gene gene, ModeOfInheritance modeOfInheritance, GeneGenotypeCalls geneGenotypeCalls) {
         //It is critical only the PASS variants are used in the scoring
-        List<VariantEvaluation> contributingVariants = contributingAlleleCalculator.findContributingVariantsForInheritanceMode(modeOfInheritance, gene.getPassedVariantEvaluations());
+        List<VariantEvaluation> contributingVariants = contributingAlleleCalculator.findContributingVariantsForInheritanceMode(modeOfInheritance, gene.getPassedVariantEvaluations(), geneGenotypeCalls);
 
         float priorityScore = (float) genePriorityScoreCalculator.calculateGenePriorityScoreForMode(gene, modeOfInheritance);
 
@@ -25,8 +25,13 @@
  */
 package org.monarchinitiative.exomiser.core.filters;
 
+import org.monarchinitiative.exomiser.core.genome.VariantData;
 import org.monarchinitiative.exomiser.core.genome.VariantDataService;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
+
+import java.util.Set;
 
 /**
  * Provides the base functionality for VariantFilterDataProviders.
@@ -60,6 +65,18 @@ public FilterResult runFilter(VariantEvaluation variantEvaluation) {
         return variantFilter.runFilter(variantEvaluation);
     }
 
+    /**
+     * Sets both the frequency and pathogenicity data on the {@link VariantEvaluation} from a single call to the
+     * {@link VariantDataService}.
+     *
+     * @since 12.1.0
+     */
+    protected void provideFrequencyAndPathogenicityData(VariantEvaluation variantEvaluation, Set<FrequencySource> frequencySources, Set<PathogenicitySource> pathogenicitySources) {
+        VariantData variantData = variantDataService.getVariantData(variantEvaluation, frequencySources, pathogenicitySources);
+        variantEvaluation.setFrequencyData(variantData.getFrequencyData());
+        variantEvaluation.setPathogenicityData(variantData.getPathogenicityData());
+    }
+
     @Override
     public FilterType getFilterType() {
         return variantFilter.getFilterType();
@@ -24,6 +24,8 @@
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
 
 import java.util.EnumSet;
 import java.util.Set;
@@ -37,8 +39,21 @@
 public class FrequencyDataProvider extends AbstractFilterDataProvider {
 
     private final Set<FrequencySource> frequencySources;
+    private final Set<PathogenicitySource> preloadPathogenicitySources;
 
     public FrequencyDataProvider(VariantDataService variantDataService, Set<FrequencySource> frequencySources, VariantFilter variantFilter) {
+        this(variantDataService, frequencySources, EnumSet.noneOf(PathogenicitySource.class), variantFilter);
+    }
+
+    /**
+     * Creates a {@link FrequencyDataProvider} which will also load the pathogenicity data for the variant from the
+     * given sources in the same lookup, so that a later {@link PathogenicityDataProvider} does not need to go back to
+     * the data store. Variants which fail the filter are left without the preloaded pathogenicity data, as they would
+     * be without the preloading.
+     *
+     * @since 12.1.0
+     */
+    public FrequencyDataProvider(VariantDataService variantDataService, Set<FrequencySource> frequencySources, Set<PathogenicitySource> preloadPathogenicitySources, VariantFilter variantFilter) {
         super(variantDataService, variantFilter);
 
         if (frequencySources.isEmpty()) {
@@ -46,6 +61,22 @@ public FrequencyDataProvider(VariantDataService variantDataService, Set<Frequenc
         } else {
             this.frequencySources = EnumSet.copyOf(frequencySources);
         }
+        if (preloadPathogenicitySources.isEmpty()) {
+            this.preloadPathogenicitySources = EnumSet.noneOf(PathogenicitySource.class);
+        } else {
+            this.preloadPathogenicitySources = EnumSet.copyOf(preloadPathogenicitySources);
+        }
+    }
+
+    @Override
+    public FilterResult runFilter(VariantEvaluation variantEvaluation) {
+        boolean preloadsPathogenicityData = preloadsPathogenicityData(variantEvaluation);
+        PathogenicityData originalPathogenicityData = variantEvaluation.getPathogenicityData();
+        FilterResult filterResult = super.runFilter(variantEvaluation);
+        if (preloadsPathogenicityData && filterResult.failed()) {
+            variantEvaluation.setPathogenicityData(originalPathogenicityData);
+        }
+        return filterResult;
     }
 
     @Override
@@ -53,9 +84,19 @@ public void provideVariantData(VariantEvaluation variantEvaluation) {
         //check there are no frequencies first - this may be genuine, or possibly the variant hasn't yet had the data added
         //this will cut down on trips to the database if multiple filters require frequency data.
         if (!variantEvaluation.getFrequencyData().hasKnownFrequency()) {
+            if (preloadsPathogenicityData(variantEvaluation)) {
+                provideFrequencyAndPathogenicityData(variantEvaluation, frequencySources, preloadPathogenicitySources);
+                return;
+            }
             FrequencyData frequencyData = variantDataService.getVariantFrequencyData(variantEvaluation, frequencySources);
             variantEvaluation.setFrequencyData(frequencyData);
         }
     }
 
+    private boolean preloadsPathogenicityData(VariantEvaluation variantEvaluation) {
+        return !preloadPathogenicitySources.isEmpty()
+                && !variantEvaluation.getFrequencyData().hasKnownFrequency()
+                && variantEvaluation.getPathogenicityData().isEmpty();
+    }
+
 }
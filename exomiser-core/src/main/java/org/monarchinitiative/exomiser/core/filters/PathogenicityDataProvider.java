@@ -27,6 +27,8 @@
 
 import org.monarchinitiative.exomiser.core.genome.VariantDataService;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
 
@@ -40,8 +42,21 @@
 public class PathogenicityDataProvider extends AbstractFilterDataProvider {
 
     private final Set<PathogenicitySource> pathogenicitySources;
+    private final Set<FrequencySource> preloadFrequencySources;
 
     public PathogenicityDataProvider(VariantDataService variantDataService, Set<PathogenicitySource> pathogenicitySources, VariantFilter variantFilter) {
+        this(variantDataService, pathogenicitySources, EnumSet.noneOf(FrequencySource.class), variantFilter);
+    }
+
+    /**
+     * Creates a {@link PathogenicityDataProvider} which will also load the frequency data for the variant from the
+     * given sources in the same lookup, so that a later {@link FrequencyDataProvider} does not need to go back to the
+     * data store. Variants which fail the filter are left without the preloaded frequency data, as they would be
+     * without the preloading.
+     *
+     * @since 12.1.0
+     */
+    public PathogenicityDataProvider(VariantDataService variantDataService, Set<PathogenicitySource> pathogenicitySources, Set<FrequencySource> preloadFrequencySources, VariantFilter variantFilter) {
         super(variantDataService, variantFilter);
 
         if (pathogenicitySources.isEmpty()) {
@@ -49,14 +64,40 @@ public PathogenicityDataProvider(VariantDataService variantDataService, Set<Path
         } else {
             this.pathogenicitySources = EnumSet.copyOf(pathogenicitySources);
         }
+        if (preloadFrequencySources.isEmpty()) {
+            this.preloadFrequencySources = EnumSet.noneOf(FrequencySource.class);
+        } else {
+            this.preloadFrequencySources = EnumSet.copyOf(preloadFrequencySources);
+        }
+    }
+
+    @Override
+    public FilterResult runFilter(VariantEvaluation variantEvaluation) {
+        boolean preloadsFrequencyData = preloadsFrequencyData(variantEvaluation);
+        FrequencyData originalFrequencyData = variantEvaluation.getFrequencyData();
+        FilterResult filterResult = super.runFilter(variantEvaluation);
+        if (preloadsFrequencyData && filterResult.failed()) {
+            variantEvaluation.setFrequencyData(originalFrequencyData);
+        }
+        return filterResult;
     }
 
     @Override
     public void provideVariantData(VariantEvaluation variantEvaluation) {
         if (variantEvaluation.getPathogenicityData().isEmpty()) {
+            if (preloadsFrequencyData(variantEvaluation)) {
+                provideFrequencyAndPathogenicityData(variantEvaluation, preloadFrequencySources, pathogenicitySources);
+                return;
+            }
             PathogenicityData pathData = variantDataService.getVariantPathogenicityData(variantEvaluation, pathogenicitySources);
             variantEvaluation.setPathogenicityData(pathData);
         }
     }
 
+    private boolean preloadsFrequencyData(VariantEvaluation variantEvaluation) {
+        return !preloadFrequencySources.isEmpty()
+                && variantEvaluation.getPathogenicityData().isEmpty()
+                && !variantEvaluation.getFrequencyData().hasKnownFrequency();
+    }
+
 }
@@ -36,7 +36,6 @@
 import java.util.*;
 import java.util.function.Function;
 
-import static java.util.stream.Collectors.toList;
 
 /**
  * Creates a {@code List} of {@code Gene} from a {@code List} of
@@ -50,7 +49,9 @@ public class GeneFactory {
 
     private final JannovarData jannovarData;
 
-    private Set<GeneIdentifier> geneIdentifiers;
+    // Immutable and shared between all analyses run against this assembly. Only the Gene objects created from these
+    // hold any per-analysis state.
+    private volatile Set<GeneIdentifier> geneIdentifiers;
 
     public GeneFactory(JannovarData jannovarData) {
         this.jannovarData = jannovarData;
@@ -61,11 +62,13 @@ public GeneFactory(JannovarData jannovarData) {
      * @return a mutable list of {@link Gene} objects. DO NOT SHARE THESE. If you need a new list, call this method again.
      */
     public List<Gene> createKnownGenes() {
-        List<Gene> knownGenes = getGeneIdentifiers().stream()
-                // We're assuming the GeneIdentifier includes Entrez ids here. They should be present.
-                // If not the entire analysis will fail.
-                .map(Gene::new)
-                .collect(toList());
+        Set<GeneIdentifier> identifiers = getGeneIdentifiers();
+        List<Gene> knownGenes = new ArrayList<>(identifiers.size());
+        // We're assuming the GeneIdentifier includes Entrez ids here. They should be present.
+        // If not the entire analysis will fail.
+        for (GeneIdentifier geneIdentifier : identifiers) {
+            knownGenes.add(new Gene(geneIdentifier));
+        }
         logger.debug("Created {} known genes.", knownGenes.size());
         return knownGenes;
     }
@@ -74,10 +77,14 @@ public List<Gene> createKnownGenes() {
      * @return an immutable set of {@link GeneIdentifier} objects.
      */
     public Set<GeneIdentifier> getGeneIdentifiers() {
-        return geneIdentifiers == null ? createKnownGeneIds() : geneIdentifiers;
+        Set<GeneIdentifier> identifiers = geneIdentifiers;
+        return identifiers == null ? createKnownGeneIds() : identifiers;
     }
 
-    private Set<GeneIdentifier> createKnownGeneIds() {
+    private synchronized Set<GeneIdentifier> createKnownGeneIds() {
+        if (geneIdentifiers != null) {
+            return geneIdentifiers;
+        }
         ImmutableSet.Builder<GeneIdentifier> geneIdentifierBuilder = ImmutableSet.builder();
         int identifiers = 0;
         int noEntrezId = 0;
@@ -20,15 +20,18 @@
 
 package org.monarchinitiative.exomiser.core.genome;
 
-import com.google.common.collect.ImmutableMap;
 import htsjdk.variant.variantcontext.Allele;
 import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.GenotypesContext;
 import htsjdk.variant.variantcontext.VariantContext;
 import org.monarchinitiative.exomiser.core.model.AlleleCall;
 import org.monarchinitiative.exomiser.core.model.SampleGenotype;
+import org.monarchinitiative.exomiser.core.model.SampleGenotypes;
+import org.monarchinitiative.exomiser.core.model.SampleGenotypes.SampleNames;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -59,7 +62,35 @@ private VariantContextSampleGenotypeConverter() {
      * @return
      */
     public static Map<String, SampleGenotype> createAlleleSampleGenotypes(VariantContext variantContext, int altAlleleId) {
-        ImmutableMap.Builder<String, SampleGenotype> builder = ImmutableMap.builder();
+        return createAlleleSampleGenotypes(variantContext, altAlleleId, SampleGenotypes.builder());
+    }
+
+    /**
+     * As for {@link #createAlleleSampleGenotypes(VariantContext, int)}, but using the {@link SampleNames} already
+     * resolved for the samples in the VCF file.
+     *
+     * @since 12.1.0
+     */
+    public static Map<String, SampleGenotype> createAlleleSampleGenotypes(VariantContext variantContext, int altAlleleId, SampleNames sampleNames) {
+        return createAlleleSampleGenotypes(variantContext, altAlleleId, SampleGenotypes.builder(sampleNames));
+    }
+
+    /**
+     * Resolves the {@link SampleNames} from the order of the genotypes in the {@link VariantContext}. All the records in
+     * a VCF file have their genotypes in the same order, so this need only be called once per file.
+     *
+     * @since 12.1.0
+     */
+    public static SampleNames resolveSampleNames(VariantContext variantContext) {
+        GenotypesContext genotypes = variantContext.getGenotypes();
+        List<String> sampleNames = new ArrayList<>(genotypes.size());
+        for (Genotype genotype : genotypes) {
+            sampleNames.add(genotype.getSampleName());
+        }
+        return SampleGenotypes.sampleNames(sampleNames);
+    }
+
+    private static Map<String, SampleGenotype> createAlleleSampleGenotypes(VariantContext variantContext, int altAlleleId, SampleGenotypes.Builder builder) {
         Allele refAllele = variantContext.getReference();
         Allele altAllele = variantContext.getAlternateAllele(altAlleleId);
         logger.debug("Making sample genotypes for altAllele: {} {} {} {}", altAlleleId, refAllele, altAllele, variantContext);
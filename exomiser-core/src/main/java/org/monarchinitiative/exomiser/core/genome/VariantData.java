@@ -0,0 +1,79 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+
+import java.util.Objects;
+
+/**
+ * The frequency and pathogenicity data of a variant, as returned by
+ * {@link VariantDataService#getVariantData(org.monarchinitiative.exomiser.core.model.Variant, java.util.Set, java.util.Set)}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class VariantData {
+
+    private final FrequencyData frequencyData;
+    private final PathogenicityData pathogenicityData;
+
+    private VariantData(FrequencyData frequencyData, PathogenicityData pathogenicityData) {
+        this.frequencyData = Objects.requireNonNull(frequencyData);
+        this.pathogenicityData = Objects.requireNonNull(pathogenicityData);
+    }
+
+    public static VariantData of(FrequencyData frequencyData, PathogenicityData pathogenicityData) {
+        return new VariantData(frequencyData, pathogenicityData);
+    }
+
+    public FrequencyData getFrequencyData() {
+        return frequencyData;
+    }
+
+    public PathogenicityData getPathogenicityData() {
+        return pathogenicityData;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        VariantData that = (VariantData) o;
+        return frequencyData.equals(that.frequencyData) &&
+                pathogenicityData.equals(that.pathogenicityData);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(frequencyData, pathogenicityData);
+    }
+
+    @Override
+    public String toString() {
+        return "VariantData{" +
+                "frequencyData=" + frequencyData +
+                ", pathogenicityData=" + pathogenicityData +
+                '}';
+    }
+}
@@ -45,4 +45,15 @@ public interface VariantDataService {
 
     PathogenicityData getVariantPathogenicityData(Variant variant, Set<PathogenicitySource> pathogenicitySources);
 
+    /**
+     * Returns both the frequency and pathogenicity data for a variant. This is equivalent to calling
+     * {@link #getVariantFrequencyData(Variant, Set)} and {@link #getVariantPathogenicityData(Variant, Set)}, but
+     * implementations can retrieve both from a single lookup where they share a data source.
+     *
+     * @since 12.1.0
+     */
+    default VariantData getVariantData(Variant variant, Set<FrequencySource> frequencySources, Set<PathogenicitySource> pathogenicitySources) {
+        return VariantData.of(getVariantFrequencyData(variant, frequencySources), getVariantPathogenicityData(variant, pathogenicitySources));
+    }
+
 }
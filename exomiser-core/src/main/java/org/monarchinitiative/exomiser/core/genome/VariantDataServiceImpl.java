@@ -22,10 +22,12 @@
 package org.monarchinitiative.exomiser.core.genome;
 
 import de.charite.compbio.jannovar.annotation.VariantEffect;
+import org.monarchinitiative.exomiser.core.genome.dao.AllelePropertiesDao;
 import org.monarchinitiative.exomiser.core.genome.dao.FrequencyDao;
 import org.monarchinitiative.exomiser.core.genome.dao.InMemoryVariantWhiteList;
 import org.monarchinitiative.exomiser.core.genome.dao.PathogenicityDao;
 import org.monarchinitiative.exomiser.core.genome.dao.VariantWhiteList;
+import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
 import org.monarchinitiative.exomiser.core.model.Variant;
 import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
@@ -33,6 +35,7 @@
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityScore;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,6 +58,8 @@ public class VariantDataServiceImpl implements VariantDataService {
     // Default data sources
     private final FrequencyDao defaultFrequencyDao;
     private final PathogenicityDao defaultPathogenicityDao;
+    // Optional source of both the default frequency and pathogenicity data, used for combined lookups
+    private final AllelePropertiesDao allelePropertiesDao;
 
     // Optional data sources
     private final FrequencyDao localFrequencyDao;
@@ -68,6 +73,7 @@ private VariantDataServiceImpl(Builder builder) {
 
         this.defaultFrequencyDao = builder.defaultFrequencyDao;
         this.defaultPathogenicityDao = builder.defaultPathogenicityDao;
+        this.allelePropertiesDao = builder.allelePropertiesDao;
 
         this.localFrequencyDao = builder.localFrequencyDao;
         this.caddDao = builder.caddDao;
@@ -82,10 +88,32 @@ public boolean variantIsWhiteListed(Variant variant) {
 
     @Override
     public FrequencyData getVariantFrequencyData(Variant variant, Set<FrequencySource> frequencySources) {
-
-        // This could be run alongside the pathogenicities as they are all stored in the same datastore
         FrequencyData defaultFrequencyData = defaultFrequencyDao.getFrequencyData(variant);
+        return buildFrequencyData(variant, defaultFrequencyData, frequencySources);
+    }
 
+    @Override
+    public PathogenicityData getVariantPathogenicityData(Variant variant, Set<PathogenicitySource> pathogenicitySources) {
+        PathogenicityData defaultPathogenicityData = defaultPathogenicityDao.getPathogenicityData(variant);
+        return buildPathogenicityData(variant, defaultPathogenicityData, pathogenicitySources);
+    }
+
+    /**
+     * Returns the frequency and pathogenicity data for the variant using a single lookup of the default data, if an
+     * {@link AllelePropertiesDao} has been provided.
+     */
+    @Override
+    public VariantData getVariantData(Variant variant, Set<FrequencySource> frequencySources, Set<PathogenicitySource> pathogenicitySources) {
+        if (allelePropertiesDao == null) {
+            return VariantData.of(getVariantFrequencyData(variant, frequencySources), getVariantPathogenicityData(variant, pathogenicitySources));
+        }
+        AlleleProperties alleleProperties = allelePropertiesDao.getAlleleProperties(variant);
+        FrequencyData frequencyData = buildFrequencyData(variant, AlleleProtoAdaptor.toFrequencyData(alleleProperties), frequencySources);
+        PathogenicityData pathogenicityData = buildPathogenicityData(variant, AlleleProtoAdaptor.toPathogenicityData(alleleProperties), pathogenicitySources);
+        return VariantData.of(frequencyData, pathogenicityData);
+    }
+
+    private FrequencyData buildFrequencyData(Variant variant, FrequencyData defaultFrequencyData, Set<FrequencySource> frequencySources) {
         List<Frequency> allFrequencies = new ArrayList<>();
         for (Frequency frequency : defaultFrequencyData.getKnownFrequencies()) {
             if (frequencySources.contains(frequency.getSource())) {
@@ -101,11 +129,7 @@ public FrequencyData getVariantFrequencyData(Variant variant, Set<FrequencySourc
         return FrequencyData.of(defaultFrequencyData.getRsId(), allFrequencies);
     }
 
-    @Override
-    public PathogenicityData getVariantPathogenicityData(Variant variant, Set<PathogenicitySource> pathogenicitySources) {
-
-        // This could be run alongside the frequencies as they are all stored in the same datastore
-        PathogenicityData defaultPathogenicityData = defaultPathogenicityDao.getPathogenicityData(variant);
+    private PathogenicityData buildPathogenicityData(Variant variant, PathogenicityData defaultPathogenicityData, Set<PathogenicitySource> pathogenicitySources) {
         if (pathogenicitySources.isEmpty()) {
             // Fast-path for the unlikely case when no sources are defined - we'll just return the ClinVar data
             return PathogenicityData.of(defaultPathogenicityData.getClinVarData());
@@ -165,6 +189,7 @@ public static class Builder {
 
         private FrequencyDao defaultFrequencyDao;
         private PathogenicityDao defaultPathogenicityDao;
+        private AllelePropertiesDao allelePropertiesDao;
 
         private FrequencyDao localFrequencyDao;
 
@@ -187,6 +212,17 @@ public Builder defaultPathogenicityDao(PathogenicityDao defaultPathogenicityDao)
             return this;
         }
 
+        /**
+         * Optional {@link AllelePropertiesDao} providing the same data as the default frequency and pathogenicity
+         * DAOs. This is used to retrieve both in a single lookup by {@link #getVariantData(Variant, Set, Set)}.
+         *
+         * @since 12.1.0
+         */
+        public Builder allelePropertiesDao(AllelePropertiesDao allelePropertiesDao) {
+            this.allelePropertiesDao = allelePropertiesDao;
+            return this;
+        }
+
         public Builder localFrequencyDao(FrequencyDao localFrequencyDao) {
             this.localFrequencyDao = localFrequencyDao;
             return this;
@@ -0,0 +1,155 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import com.google.common.collect.Sets;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Pre-populates the caches of a {@link VariantDataService} by looking up the variant data for a list of alleles, for
+ * example the recurrent alleles of a cohort or the hot alleles exported from the caches of a previous run. Only the
+ * sources held in the variants store are looked-up.
+ * <p>
+ * Allele files are tab-separated with the columns chr, pos, ref and alt. Lines starting with '#' are ignored.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class VariantDataWarmer {
+
+    private static final Logger logger = LoggerFactory.getLogger(VariantDataWarmer.class);
+
+    private static final Set<FrequencySource> FREQUENCY_SOURCES = Sets.immutableEnumSet(EnumSet.complementOf(EnumSet.of(FrequencySource.LOCAL)));
+    private static final Set<PathogenicitySource> PATHOGENICITY_SOURCES = Sets.immutableEnumSet(EnumSet.complementOf(EnumSet.of(PathogenicitySource.CADD, PathogenicitySource.REMM, PathogenicitySource.TEST)));
+
+    private final VariantDataService variantDataService;
+    private final GenomeAssembly genomeAssembly;
+
+    public VariantDataWarmer(VariantDataService variantDataService, GenomeAssembly genomeAssembly) {
+        this.variantDataService = Objects.requireNonNull(variantDataService);
+        this.genomeAssembly = Objects.requireNonNull(genomeAssembly);
+    }
+
+    /**
+     * Looks-up the variant data for each of the alleles. Failures are logged and do not stop the remaining alleles
+     * from being looked-up.
+     *
+     * @return the number of alleles successfully looked-up
+     */
+    public int warmUp(Collection<AlleleKey> alleleKeys) {
+        int count = 0;
+        for (AlleleKey alleleKey : alleleKeys) {
+            if (Thread.currentThread().isInterrupted()) {
+                logger.debug("Interrupted after warming up {} of {} alleles", count, alleleKeys.size());
+                break;
+            }
+            Variant variant = VariantEvaluation.builder(alleleKey.getChr(), alleleKey.getPosition(), alleleKey.getRef(), alleleKey.getAlt())
+                    .genomeAssembly(genomeAssembly)
+                    .build();
+            try {
+                variantDataService.getVariantData(variant, FREQUENCY_SOURCES, PATHOGENICITY_SOURCES);
+                count++;
+            } catch (RuntimeException e) {
+                logger.debug("Unable to look-up {} {}", genomeAssembly, alleleKey, e);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reads the alleles from a tab-separated file of chr, pos, ref and alt. Lines which cannot be parsed are logged and
+     * skipped.
+     */
+    public static List<AlleleKey> readAlleleKeys(Path allelesPath) {
+        List<AlleleKey> alleleKeys = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(allelesPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                AlleleKey alleleKey = parseAlleleKey(line);
+                if (alleleKey == null) {
+                    logger.debug("Skipping invalid allele line '{}' in {}", line, allelesPath);
+                } else {
+                    alleleKeys.add(alleleKey);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read alleles from " + allelesPath, e);
+        }
+        return alleleKeys;
+    }
+
+    private static AlleleKey parseAlleleKey(String line) {
+        String[] fields = line.split("\t");
+        if (fields.length < 4) {
+            return null;
+        }
+        int chr = Contig.parseId(fields[0]);
+        if (chr == 0) {
+            return null;
+        }
+        try {
+            int pos = Integer.parseInt(fields[1]);
+            return AlleleKey.newBuilder()
+                    .setChr(chr)
+                    .setPosition(pos)
+                    .setRef(fields[2])
+                    .setAlt(fields[3])
+                    .build();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the alleles to a tab-separated file of chr, pos, ref and alt, which can be read by
+     * {@link #readAlleleKeys(Path)}.
+     */
+    public static void writeAlleleKeys(Path allelesPath, Collection<AlleleKey> alleleKeys) {
+        try (BufferedWriter writer = Files.newBufferedWriter(allelesPath, StandardCharsets.UTF_8)) {
+            writer.write("#chr\tpos\tref\talt");
+            writer.newLine();
+            for (AlleleKey alleleKey : alleleKeys) {
+                writer.write(alleleKey.getChr() + "\t" + alleleKey.getPosition() + "\t" + alleleKey.getRef() + "\t" + alleleKey.getAlt());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write alleles to " + allelesPath, e);
+        }
+    }
+}
@@ -24,6 +24,7 @@
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.stream.Stream;
 
 /**
@@ -39,6 +40,19 @@ default Stream<VariantEvaluation> createVariantEvaluations(Path vcfPath) {
         return createVariantEvaluations(VcfFiles.readVariantContexts(vcfPath));
     }
 
+    /**
+     * Creates {@link VariantEvaluation} from the VCF file, only decoding the genotypes of the named samples. This is
+     * useful for analysing a single family from a large joint-called cohort VCF.
+     *
+     * @param vcfPath     path of the VCF file
+     * @param sampleNames names of the samples whose genotypes are required
+     * @return a {@code Stream} of {@link VariantEvaluation} containing only the genotypes of the named samples
+     * @since 12.1.0
+     */
+    default Stream<VariantEvaluation> createVariantEvaluations(Path vcfPath, Collection<String> sampleNames) {
+        return createVariantEvaluations(VcfFiles.readVariantContexts(vcfPath, sampleNames));
+    }
+
     Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext> variantContextStream);
 
 }
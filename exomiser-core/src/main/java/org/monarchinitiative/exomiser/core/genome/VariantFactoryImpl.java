@@ -31,6 +31,7 @@
 import htsjdk.variant.variantcontext.GenotypesContext;
 import htsjdk.variant.variantcontext.VariantContext;
 import org.monarchinitiative.exomiser.core.model.SampleGenotype;
+import org.monarchinitiative.exomiser.core.model.SampleGenotypes.SampleNames;
 import org.monarchinitiative.exomiser.core.model.TranscriptAnnotation;
 import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
@@ -66,9 +67,10 @@ public VariantFactoryImpl(VariantAnnotator variantAnnotator) {
     public Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext> variantContextStream) {
         logger.info("Annotating variant records, trimming sequences and normalising positions...");
         VariantCounter counter = new VariantCounter();
+        SampleNamesResolver sampleNamesResolver = new SampleNamesResolver();
         return variantContextStream
                 .peek(counter.countVariantContext())
-                .flatMap(toVariantEvaluations())
+                .flatMap(toVariantEvaluations(sampleNamesResolver))
                 .peek(counter.countAnnotatedVariant())
                 .onClose(counter::logCount);
     }
@@ -78,19 +80,22 @@ public Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext>
      * This means that a multi allele Variant record in a VCF can result in several VariantEvaluations - one for each
      * alternate allele.
      */
-    private Function<VariantContext, Stream<VariantEvaluation>> toVariantEvaluations() {
-        return variantContext -> variantContext.getAlternateAlleles().stream()
-                .map(buildAlleleVariantEvaluation(variantContext))
-                .filter(Optional::isPresent)
-                .map(Optional::get);
+    private Function<VariantContext, Stream<VariantEvaluation>> toVariantEvaluations(SampleNamesResolver sampleNamesResolver) {
+        return variantContext -> {
+            SampleNames sampleNames = sampleNamesResolver.resolve(variantContext);
+            return variantContext.getAlternateAlleles().stream()
+                    .map(buildAlleleVariantEvaluation(variantContext, sampleNames))
+                    .filter(Optional::isPresent)
+                    .map(Optional::get);
+        };
     }
 
-    private Function<Allele, Optional<VariantEvaluation>> buildAlleleVariantEvaluation(VariantContext variantContext) {
+    private Function<Allele, Optional<VariantEvaluation>> buildAlleleVariantEvaluation(VariantContext variantContext, SampleNames sampleNames) {
         return altAllele -> {
             //alternate Alleles are always after the reference allele, which is 0
             int altAlleleId = variantContext.getAlleleIndex(altAllele) - 1;
             if (alleleIsObservedInGenotypes(altAllele, variantContext.getGenotypes())) {
-                return Optional.of(buildVariantEvaluation(variantContext, altAlleleId, altAllele));
+                return Optional.of(buildVariantEvaluation(variantContext, altAlleleId, altAllele, sampleNames));
             }
             return Optional.empty();
         };
@@ -113,6 +118,10 @@ private synchronized boolean alleleIsObservedInGenotypes(Allele allele, Genotype
      */
     //This is package-private as it is used by the TestVariantFactory
     VariantEvaluation buildVariantEvaluation(VariantContext variantContext, int altAlleleId, Allele altAllele) {
+        return buildVariantEvaluation(variantContext, altAlleleId, altAllele, VariantContextSampleGenotypeConverter.resolveSampleNames(variantContext));
+    }
+
+    private VariantEvaluation buildVariantEvaluation(VariantContext variantContext, int altAlleleId, Allele altAllele, SampleNames sampleNames) {
         VariantAnnotation variantAnnotation = annotateVariantAllele(variantContext, altAllele);
         // symbolic alleles are reported as VariantEffect.STRUCTURAL_VARIANT
         // but have a default pathogenicity score of zero
@@ -124,7 +133,7 @@ VariantEvaluation buildVariantEvaluation(VariantContext variantContext, int altA
         // also consider <STR27> RU=CAG expands to (CAG)*27 STR = Short Tandem Repeats RU = Repeat Unit
         // link to https://panelapp.genomicsengland.co.uk/panels/20/str/PPP2R2B_CAG/
         // https://panelapp.genomicsengland.co.uk/WebServices/get_panel/20/?format=json
-        return buildVariantEvaluation(variantContext, altAlleleId, variantAnnotation);
+        return buildVariantEvaluation(variantContext, altAlleleId, variantAnnotation, sampleNames);
     }
 
     private VariantAnnotation annotateVariantAllele(VariantContext variantContext, Allele altAllele) {
@@ -136,10 +145,10 @@ private VariantAnnotation annotateVariantAllele(VariantContext variantContext, A
         return variantAnnotator.annotate(contig, pos, ref, alt);
     }
 
-    private VariantEvaluation buildVariantEvaluation(VariantContext variantContext, int altAlleleId, VariantAnnotation variantAnnotation) {
+    private VariantEvaluation buildVariantEvaluation(VariantContext variantContext, int altAlleleId, VariantAnnotation variantAnnotation, SampleNames sampleNames) {
 
         //See also notes in InheritanceModeAnnotator.
-        Map<String, SampleGenotype> sampleGenotypes = VariantContextSampleGenotypeConverter.createAlleleSampleGenotypes(variantContext, altAlleleId);
+        Map<String, SampleGenotype> sampleGenotypes = VariantContextSampleGenotypeConverter.createAlleleSampleGenotypes(variantContext, altAlleleId, sampleNames);
 
         GenomeAssembly genomeAssembly = variantAnnotation.getGenomeAssembly();
         int chr = variantAnnotation.getChromosome();
@@ -176,6 +185,23 @@ private VariantEvaluation buildVariantEvaluation(VariantContext variantContext,
                 .build();
     }
 
+    /**
+     * Resolves the sample names from the first record of a VCF file so that they are shared by all of its variants,
+     * rather than being resolved again for each one.
+     */
+    private static class SampleNamesResolver {
+        private volatile SampleNames sampleNames;
+
+        SampleNames resolve(VariantContext variantContext) {
+            SampleNames resolved = sampleNames;
+            if (resolved == null) {
+                resolved = VariantContextSampleGenotypeConverter.resolveSampleNames(variantContext);
+                sampleNames = resolved;
+            }
+            return resolved;
+        }
+    }
+
     /**
      * Data class for tracking number of annotated variants
      */
@@ -20,13 +20,20 @@
 
 package org.monarchinitiative.exomiser.core.genome;
 
+import htsjdk.samtools.util.IOUtil;
 import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
 import htsjdk.variant.vcf.VCFFileReader;
 import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Objects;
 import java.util.stream.Stream;
 
@@ -57,6 +64,57 @@ public static Stream<VariantContext> readVariantContexts(Path vcfPath) {
         }
     }
 
+    /**
+     * Creates a {@code Stream} of {@code VariantContext} from the indicated VCF file containing only the genotypes of
+     * the named samples. The genotype columns of all other samples are removed from each line before it is decoded so
+     * that, for a wide multi-sample VCF, only the genotypes of the samples of interest (e.g. the members of the
+     * {@link org.monarchinitiative.exomiser.core.model.Pedigree}) are ever parsed. Sample names which are not present in
+     * the VCF are ignored. If all the samples in the VCF are requested, or none are, this is equivalent to
+     * {@link #readVariantContexts(Path)}.
+     * <p>
+     * The returned stream holds an open file handle so should be closed after use.
+     *
+     * @param vcfPath     path of the VCF file
+     * @param sampleNames names of the samples whose genotypes are to be decoded
+     * @return a {@code Stream} of {@code VariantContext} containing only the genotypes of the requested samples
+     * @since 12.1.0
+     */
+    public static Stream<VariantContext> readVariantContexts(Path vcfPath, Collection<String> sampleNames) {
+        Objects.requireNonNull(vcfPath, "Cannot read from null vcfPath");
+        Objects.requireNonNull(sampleNames, "Cannot read from null sampleNames");
+        VCFHeader vcfHeader = readVcfHeader(vcfPath);
+        VcfSampleColumnFilter sampleColumnFilter = VcfSampleColumnFilter.of(vcfHeader.getGenotypeSamples(), sampleNames);
+        if (sampleNames.isEmpty() || sampleColumnFilter.retainsAllSamples()) {
+            return readVariantContexts(vcfPath);
+        }
+        logger.debug("Reading variants for samples {} from VCF file {}", sampleColumnFilter.getRetainedSampleNames(), vcfPath);
+        VCFCodec vcfCodec = createSampleSubsetCodec(vcfHeader, sampleColumnFilter);
+        BufferedReader bufferedReader = IOUtil.openFileForBufferedReading(vcfPath);
+        return bufferedReader.lines()
+                .filter(line -> !line.startsWith("#"))
+                .map(sampleColumnFilter::filterLine)
+                .map(vcfCodec::decode)
+                .onClose(closeReader(bufferedReader));
+    }
+
+    private static VCFCodec createSampleSubsetCodec(VCFHeader vcfHeader, VcfSampleColumnFilter sampleColumnFilter) {
+        VCFHeader subsetHeader = new VCFHeader(vcfHeader.getMetaDataInInputOrder(), sampleColumnFilter.getRetainedSampleNames());
+        VCFHeaderVersion vcfHeaderVersion = vcfHeader.getVCFHeaderVersion() == null ? VCFHeaderVersion.VCF4_2 : vcfHeader.getVCFHeaderVersion();
+        VCFCodec vcfCodec = new VCFCodec();
+        vcfCodec.setVCFHeader(subsetHeader, vcfHeaderVersion);
+        return vcfCodec;
+    }
+
+    private static Runnable closeReader(BufferedReader bufferedReader) {
+        return () -> {
+            try {
+                bufferedReader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
     /**
      * Reads the header of the provided VCF file and returns a {@code VCFHeader}.
      *
@@ -0,0 +1,135 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Removes the genotype columns of unwanted samples from a VCF data line before it is handed to HTSJDK for decoding.
+ * For a joint-called cohort VCF with hundreds of samples this means only the columns for the samples of interest are
+ * ever parsed, rather than relying on the {@link htsjdk.variant.variantcontext.LazyGenotypesContext} which decodes
+ * all of the genotypes as soon as any one of them is accessed.
+ * <p>
+ * Sample columns are always retained in the order in which they appear in the VCF header.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+class VcfSampleColumnFilter {
+
+    // CHROM POS ID REF ALT QUAL FILTER INFO FORMAT
+    private static final int NUM_FIXED_COLUMNS = 9;
+
+    private final boolean[] retainedSamples;
+    private final int lastRetainedSample;
+    private final List<String> retainedSampleNames;
+
+    private VcfSampleColumnFilter(boolean[] retainedSamples, List<String> retainedSampleNames) {
+        this.retainedSamples = retainedSamples;
+        this.retainedSampleNames = retainedSampleNames;
+        int last = -1;
+        for (int i = 0; i < retainedSamples.length; i++) {
+            if (retainedSamples[i]) {
+                last = i;
+            }
+        }
+        this.lastRetainedSample = last;
+    }
+
+    /**
+     * @param vcfSampleNames   the genotype sample names, in order, from the VCF header
+     * @param samplesToRetain  names of the samples whose columns should be kept. Names not present in the VCF are ignored.
+     * @return a filter retaining only the columns of the requested samples
+     */
+    static VcfSampleColumnFilter of(List<String> vcfSampleNames, Collection<String> samplesToRetain) {
+        boolean[] retainedSamples = new boolean[vcfSampleNames.size()];
+        List<String> retainedSampleNames = new ArrayList<>(samplesToRetain.size());
+        for (int i = 0; i < vcfSampleNames.size(); i++) {
+            String sampleName = vcfSampleNames.get(i);
+            if (samplesToRetain.contains(sampleName)) {
+                retainedSamples[i] = true;
+                retainedSampleNames.add(sampleName);
+            }
+        }
+        return new VcfSampleColumnFilter(retainedSamples, Collections.unmodifiableList(retainedSampleNames));
+    }
+
+    /**
+     * @return the names of the retained samples in VCF header order
+     */
+    List<String> getRetainedSampleNames() {
+        return retainedSampleNames;
+    }
+
+    /**
+     * @return true if all of the samples in the VCF will be retained, in which case there is no point in filtering.
+     */
+    boolean retainsAllSamples() {
+        return retainedSampleNames.size() == retainedSamples.length;
+    }
+
+    /**
+     * Returns a copy of the input data line containing only the fixed columns, the FORMAT column and the columns of the
+     * retained samples. Columns following the last retained sample are not scanned at all.
+     *
+     * @param line a tab-delimited VCF data line
+     * @return the line with the genotype columns of non-retained samples removed
+     */
+    String filterLine(String line) {
+        int fixedColumnsEnd = indexOfTab(line, 0, NUM_FIXED_COLUMNS);
+        if (fixedColumnsEnd < 0) {
+            // sites-only line - nothing to remove
+            return line;
+        }
+        StringBuilder stringBuilder = new StringBuilder(fixedColumnsEnd + retainedSampleNames.size() * 16);
+        stringBuilder.append(line, 0, fixedColumnsEnd);
+        int start = fixedColumnsEnd + 1;
+        for (int sample = 0; sample <= lastRetainedSample && start <= line.length(); sample++) {
+            int end = line.indexOf('\t', start);
+            if (end < 0) {
+                end = line.length();
+            }
+            if (retainedSamples[sample]) {
+                stringBuilder.append('\t').append(line, start, end);
+            }
+            start = end + 1;
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Returns the index of the nth tab character in the line, starting from the fromIndex, or -1 if there are fewer
+     * than n tabs.
+     */
+    private static int indexOfTab(String line, int fromIndex, int n) {
+        int index = fromIndex - 1;
+        for (int i = 0; i < n; i++) {
+            index = line.indexOf('\t', index + 1);
+            if (index < 0) {
+                return -1;
+            }
+        }
+        return index;
+    }
+}
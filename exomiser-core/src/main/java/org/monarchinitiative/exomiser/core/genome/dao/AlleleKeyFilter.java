@@ -0,0 +1,503 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import com.google.common.hash.Funnel;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.PrimitiveSink;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Bloom filter of the {@link AlleleKey} present in a variants MVStore. This is used to quickly identify alleles which
+ * are definitely not in the store, so that the store itself is only searched for alleles which are, or with the false
+ * positive rate of the filter, may be present. The filter is created when the variants store is built and saved
+ * alongside it.
+ * <p>
+ * A filter of 5x10<sup>8</sup> alleles at a false positive rate of 0.01 is around 600 MB, so the filter files are
+ * memory-mapped rather than read onto the heap. Only the pages of the filter which are used are loaded by the OS, and
+ * these can be shared between processes using the same data release.
+ * <p>
+ * Each filter records the {@link Fingerprint} of the store it was built from, which should be checked against the
+ * store before the filter is used as a filter of a different store will reject alleles which are present in it.
+ * <p>
+ * The file format is a header of the magic number, format version, number of hash functions, number of bits, number of
+ * set bits, number of alleles and the build id, followed by the bits. All values are big-endian.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class AlleleKeyFilter {
+
+    // 'EXAF'
+    private static final int MAGIC = 0x45584146;
+    private static final int VERSION = 1;
+    private static final int BIT_COUNT_OFFSET = 3 * Integer.BYTES + Long.BYTES;
+    private static final int FIXED_HEADER_BYTES = 4 * Integer.BYTES + 3 * Long.BYTES;
+
+    // the bits are mapped in segments as a single mapping is limited to 2 GB
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private static final AlleleKeyFilter ACCEPT_ALL = new AlleleKeyFilter(null, 0, 0, null, Fingerprint.of(0, ""));
+
+    // null for the accept-all instance
+    private final ByteBuffer[] segments;
+    private final int numHashFunctions;
+    private final long numBits;
+    // only present for a writable, file-backed filter
+    private final MappedByteBuffer header;
+    private final Fingerprint fingerprint;
+    private long bitCount;
+
+    private AlleleKeyFilter(ByteBuffer[] segments, int numHashFunctions, long numBits, MappedByteBuffer header, Fingerprint fingerprint) {
+        this.segments = segments;
+        this.numHashFunctions = numHashFunctions;
+        this.numBits = numBits;
+        this.header = header;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * @return a filter which will report that all alleles might be present. This is used when there is no filter
+     * for a variants store.
+     */
+    public static AlleleKeyFilter acceptAll() {
+        return ACCEPT_ALL;
+    }
+
+    /**
+     * Creates an empty, in-memory filter for the expected number of alleles. This is intended for small numbers of
+     * alleles, for larger numbers use {@link #create(Path, Fingerprint, double)}.
+     *
+     * @param expectedAlleles   the number of alleles to be added to the filter
+     * @param falsePositiveRate the desired probability of {@link #mightContain(AlleleKey)} returning true for an
+     *                          allele which has not been added to the filter. Must be greater than 0 and less than 1.
+     */
+    public static AlleleKeyFilter create(long expectedAlleles, double falsePositiveRate) {
+        checkFalsePositiveRate(falsePositiveRate);
+        long numBits = optimalNumBits(expectedAlleles, falsePositiveRate);
+        ByteBuffer[] segments = new ByteBuffer[numSegments(numBits)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocate(segmentBytes(numBits, i));
+        }
+        return new AlleleKeyFilter(segments, optimalNumHashFunctions(expectedAlleles, numBits), numBits, null, Fingerprint.of(expectedAlleles, ""));
+    }
+
+    /**
+     * Creates an empty filter for the alleles of the store with the given {@link Fingerprint}, memory-mapped to the
+     * file. The alleles added to the filter are written to the file, which is complete once {@link #flush()} has been
+     * called and can then be opened with {@link #open(Path)}.
+     *
+     * @param path              the file to write the filter to. Any existing file will be overwritten.
+     * @param fingerprint       of the store the filter is being built from. The expected number of alleles is the
+     *                          number of alleles in the store.
+     * @param falsePositiveRate the desired probability of {@link #mightContain(AlleleKey)} returning true for an
+     *                          allele which has not been added to the filter. Must be greater than 0 and less than 1.
+     */
+    public static AlleleKeyFilter create(Path path, Fingerprint fingerprint, double falsePositiveRate) {
+        checkFalsePositiveRate(falsePositiveRate);
+        long numBits = optimalNumBits(fingerprint.getNumAlleles(), falsePositiveRate);
+        int numHashFunctions = optimalNumHashFunctions(fingerprint.getNumAlleles(), numBits);
+        byte[] buildId = fingerprint.getBuildId().getBytes(StandardCharsets.UTF_8);
+        int headerBytes = FIXED_HEADER_BYTES + buildId.length;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(numHashFunctions);
+            out.writeLong(numBits);
+            out.writeLong(0L);
+            out.writeLong(fingerprint.getNumAlleles());
+            out.writeInt(buildId.length);
+            out.write(buildId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write allele filter " + path, e);
+        }
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // mapping beyond the end of the file extends it with zeros, which are the unset bits
+            MappedByteBuffer header = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, headerBytes);
+            ByteBuffer[] segments = mapSegments(fileChannel, FileChannel.MapMode.READ_WRITE, headerBytes, numBits);
+            return new AlleleKeyFilter(segments, numHashFunctions, numBits, header, fingerprint);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write allele filter " + path, e);
+        }
+    }
+
+    /**
+     * Memory-maps a filter file written by {@link #create(Path, Fingerprint, double)}.
+     *
+     * @throws IllegalStateException if the file is not an allele filter in the expected format
+     */
+    public static AlleleKeyFilter open(Path path) {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer fixedHeader = ByteBuffer.allocate(FIXED_HEADER_BYTES);
+            readFully(fileChannel, fixedHeader, 0);
+            if (fixedHeader.remaining() < FIXED_HEADER_BYTES || fixedHeader.getInt(0) != MAGIC) {
+                throw new IllegalStateException(path + " is not an allele filter file");
+            }
+            int version = fixedHeader.getInt(Integer.BYTES);
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported allele filter version " + version + " in " + path + " - expected " + VERSION);
+            }
+            int numHashFunctions = fixedHeader.getInt(2 * Integer.BYTES);
+            long numBits = fixedHeader.getLong(3 * Integer.BYTES);
+            long bitCount = fixedHeader.getLong(BIT_COUNT_OFFSET);
+            long numAlleles = fixedHeader.getLong(BIT_COUNT_OFFSET + Long.BYTES);
+            ByteBuffer buildIdBytes = ByteBuffer.allocate(fixedHeader.getInt(BIT_COUNT_OFFSET + 2 * Long.BYTES));
+            readFully(fileChannel, buildIdBytes, FIXED_HEADER_BYTES);
+            int headerBytes = FIXED_HEADER_BYTES + buildIdBytes.capacity();
+            if (fileChannel.size() != headerBytes + numBits / Byte.SIZE) {
+                throw new IllegalStateException("Incomplete allele filter file " + path);
+            }
+            // the mappings remain valid once the channel has been closed
+            ByteBuffer[] segments = mapSegments(fileChannel, FileChannel.MapMode.READ_ONLY, headerBytes, numBits);
+            Fingerprint fingerprint = Fingerprint.of(numAlleles, new String(buildIdBytes.array(), StandardCharsets.UTF_8));
+            AlleleKeyFilter alleleKeyFilter = new AlleleKeyFilter(segments, numHashFunctions, numBits, null, fingerprint);
+            alleleKeyFilter.bitCount = bitCount;
+            return alleleKeyFilter;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read allele filter " + path, e);
+        }
+    }
+
+    private static void readFully(FileChannel fileChannel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (fileChannel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    private static ByteBuffer[] mapSegments(FileChannel fileChannel, FileChannel.MapMode mapMode, long offset, long numBits) throws IOException {
+        ByteBuffer[] segments = new ByteBuffer[numSegments(numBits)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = fileChannel.map(mapMode, offset + ((long) i << SEGMENT_SHIFT), segmentBytes(numBits, i));
+        }
+        return segments;
+    }
+
+    private static int numSegments(long numBits) {
+        long numBytes = numBits / Byte.SIZE;
+        return (int) ((numBytes + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+    }
+
+    private static int segmentBytes(long numBits, int segment) {
+        long numBytes = numBits / Byte.SIZE;
+        return (int) Math.min(1L << SEGMENT_SHIFT, numBytes - ((long) segment << SEGMENT_SHIFT));
+    }
+
+    private static void checkFalsePositiveRate(double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be greater than 0 and less than 1, but was " + falsePositiveRate);
+        }
+    }
+
+    /**
+     * The number of bits for the optimal false positive rate, rounded up to a whole number of longs.
+     */
+    private static long optimalNumBits(long expectedAlleles, double falsePositiveRate) {
+        long n = Math.max(1L, expectedAlleles);
+        long numBits = (long) (-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        return Math.max(1L, (numBits + Long.SIZE - 1) / Long.SIZE) * Long.SIZE;
+    }
+
+    private static int optimalNumHashFunctions(long expectedAlleles, long numBits) {
+        long n = Math.max(1L, expectedAlleles);
+        return Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+    }
+
+    /**
+     * @return the fingerprint of the store from which the filter was built.
+     */
+    public Fingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    public void put(AlleleKey alleleKey) {
+        if (segments == null) {
+            throw new IllegalStateException("Unable to add alleles to an accept-all filter");
+        }
+        probe(alleleKey, true);
+    }
+
+    /**
+     * @return false if the allele is definitely not present, true if it might be present.
+     */
+    public boolean mightContain(AlleleKey alleleKey) {
+        if (segments == null) {
+            return true;
+        }
+        return probe(alleleKey, false);
+    }
+
+    /**
+     * Hashes the allele with 128-bit murmur3, as Guava's {@link Hashing#murmur3_128()} would hash the bytes written by
+     * the {@link AlleleKeyFunnel}, and either sets or checks the bits of the two 64-bit halves of the hash combined as
+     * in Guava's BloomFilter. This is done directly on the fields of the allele so that no hasher, hash code or byte
+     * arrays are allocated for each allele. Alleles with non-ASCII bases, which should not exist, are hashed with Guava.
+     *
+     * @return true if all the bits for the allele are set, only checked when not setting the bits
+     */
+    private boolean probe(AlleleKey alleleKey, boolean setBits) {
+        String ref = alleleKey.getRef();
+        String alt = alleleKey.getAlt();
+        if (!isAscii(ref) || !isAscii(alt)) {
+            byte[] hash = HASH_FUNCTION.hashObject(alleleKey, AlleleKeyFunnel.INSTANCE).asBytes();
+            return probe(littleEndianLong(hash, 0), littleEndianLong(hash, Long.BYTES), setBits);
+        }
+        int chr = alleleKey.getChr();
+        int position = alleleKey.getPosition();
+        int length = 3 * Integer.BYTES + ref.length() + alt.length();
+
+        long h1 = 0;
+        long h2 = 0;
+        int blockStart = 0;
+        for (; blockStart + 2 * Long.BYTES <= length; blockStart += 2 * Long.BYTES) {
+            long k1 = littleEndianLong(chr, position, ref, alt, blockStart, blockStart + Long.BYTES);
+            long k2 = littleEndianLong(chr, position, ref, alt, blockStart + Long.BYTES, blockStart + 2 * Long.BYTES);
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+        int k1End = Math.min(blockStart + Long.BYTES, length);
+        h1 ^= mixK1(littleEndianLong(chr, position, ref, alt, blockStart, k1End));
+        h2 ^= mixK2(littleEndianLong(chr, position, ref, alt, k1End, length));
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        return probe(h1, h2, setBits);
+    }
+
+    private boolean probe(long hash1, long hash2, boolean setBits) {
+        long combinedHash = hash1;
+        for (int i = 0; i < numHashFunctions; i++) {
+            long bitIndex = (combinedHash & Long.MAX_VALUE) % numBits;
+            if (setBits) {
+                if (setBit(bitIndex)) {
+                    bitCount++;
+                }
+            } else if (!getBit(bitIndex)) {
+                return false;
+            }
+            combinedHash += hash2;
+        }
+        return true;
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the little-endian long of the bytes from the start (inclusive) to the end (exclusive) index of the
+     * funnelled allele, i.e. the little-endian chromosome, position and ref length ints followed by the ref and alt.
+     */
+    private static long littleEndianLong(int chr, int position, String ref, String alt, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value |= (long) funnelledByte(chr, position, ref, alt, i) << ((i - start) * Byte.SIZE);
+        }
+        return value;
+    }
+
+    private static int funnelledByte(int chr, int position, String ref, String alt, int index) {
+        if (index < Integer.BYTES) {
+            return (chr >>> (index * Byte.SIZE)) & 0xff;
+        }
+        if (index < 2 * Integer.BYTES) {
+            return (position >>> ((index - Integer.BYTES) * Byte.SIZE)) & 0xff;
+        }
+        if (index < 3 * Integer.BYTES) {
+            return (ref.length() >>> ((index - 2 * Integer.BYTES) * Byte.SIZE)) & 0xff;
+        }
+        int refIndex = index - 3 * Integer.BYTES;
+        return refIndex < ref.length() ? ref.charAt(refIndex) : alt.charAt(refIndex - ref.length());
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= 0x87c37b91114253d5L;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= 0x4cf5ad432745937fL;
+        return k1;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= 0x4cf5ad432745937fL;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= 0x87c37b91114253d5L;
+        return k2;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static long littleEndianLong(byte[] bytes, int offset) {
+        return ByteBuffer.wrap(bytes, offset, Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).getLong();
+    }
+
+    private boolean getBit(long bitIndex) {
+        long byteIndex = (bitIndex >>> 6) << 3;
+        long word = segments[(int) (byteIndex >>> SEGMENT_SHIFT)].getLong((int) (byteIndex & SEGMENT_MASK));
+        return (word & (1L << bitIndex)) != 0;
+    }
+
+    private boolean setBit(long bitIndex) {
+        long byteIndex = (bitIndex >>> 6) << 3;
+        ByteBuffer segment = segments[(int) (byteIndex >>> SEGMENT_SHIFT)];
+        int offset = (int) (byteIndex & SEGMENT_MASK);
+        long word = segment.getLong(offset);
+        long updated = word | (1L << bitIndex);
+        if (updated == word) {
+            return false;
+        }
+        segment.putLong(offset, updated);
+        return true;
+    }
+
+    /**
+     * Writes the alleles added to a file-backed filter to disk. This has no effect on an in-memory filter.
+     */
+    public void flush() {
+        if (header != null) {
+            header.putLong(BIT_COUNT_OFFSET, bitCount);
+            header.force();
+            for (ByteBuffer segment : segments) {
+                ((MappedByteBuffer) segment).force();
+            }
+        }
+    }
+
+    /**
+     * @return the probability of {@link #mightContain(AlleleKey)} returning true for an allele which has not been
+     * added to the filter, given the alleles added so far.
+     */
+    public double expectedFalsePositiveRate() {
+        return segments == null ? 1d : Math.pow((double) bitCount / numBits, numHashFunctions);
+    }
+
+    @Override
+    public String toString() {
+        return "AlleleKeyFilter{" +
+                "fingerprint=" + fingerprint +
+                ", expectedFalsePositiveRate=" + expectedFalsePositiveRate() +
+                '}';
+    }
+
+    /**
+     * Identifies the store from which a filter was built by the number of alleles in the store and the id of the build
+     * which wrote it.
+     */
+    public static final class Fingerprint {
+
+        private final long numAlleles;
+        private final String buildId;
+
+        private Fingerprint(long numAlleles, String buildId) {
+            this.numAlleles = numAlleles;
+            this.buildId = Objects.requireNonNull(buildId);
+        }
+
+        public static Fingerprint of(long numAlleles, String buildId) {
+            return new Fingerprint(numAlleles, buildId);
+        }
+
+        public long getNumAlleles() {
+            return numAlleles;
+        }
+
+        public String getBuildId() {
+            return buildId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Fingerprint that = (Fingerprint) o;
+            return numAlleles == that.numAlleles &&
+                    buildId.equals(that.buildId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(numAlleles, buildId);
+        }
+
+        @Override
+        public String toString() {
+            return "Fingerprint{" +
+                    "numAlleles=" + numAlleles +
+                    ", buildId='" + buildId + '\'' +
+                    '}';
+        }
+    }
+
+    private enum AlleleKeyFunnel implements Funnel<AlleleKey> {
+        INSTANCE;
+
+        @Override
+        public void funnel(AlleleKey alleleKey, PrimitiveSink into) {
+            // the ref length is included so that, for example, A>TA and AT>A are distinct
+            into.putInt(alleleKey.getChr())
+                    .putInt(alleleKey.getPosition())
+                    .putInt(alleleKey.getRef().length())
+                    .putString(alleleKey.getRef(), StandardCharsets.UTF_8)
+                    .putString(alleleKey.getAlt(), StandardCharsets.UTF_8);
+        }
+    }
+}
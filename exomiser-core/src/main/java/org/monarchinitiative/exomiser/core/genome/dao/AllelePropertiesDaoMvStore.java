@@ -44,9 +44,26 @@ public class AllelePropertiesDaoMvStore implements AllelePropertiesDao {
     private static final Logger logger = LoggerFactory.getLogger(AllelePropertiesDaoMvStore.class);
 
     private final MVMap<AlleleProto.AlleleKey, AlleleProto.AlleleProperties> map;
+    private final AlleleKeyFilter alleleKeyFilter;
+    private final boolean verifyAlleleKeyFilter;
 
     public AllelePropertiesDaoMvStore(MVStore mvStore) {
-        map = MvStoreUtil.openAlleleMVMap(mvStore);
+        this(mvStore, AlleleKeyFilter.acceptAll(), false);
+    }
+
+    /**
+     * @param mvStore               the variants store
+     * @param alleleKeyFilter       filter of the alleles in the store, used to avoid searching the store for alleles
+     *                              which are not present
+     * @param verifyAlleleKeyFilter if true the store is also searched for alleles rejected by the filter and an error
+     *                              is logged should any be found. The data from the store is always returned in this
+     *                              mode, so the results are the same as when the filter is not used.
+     * @since 12.1.0
+     */
+    public AllelePropertiesDaoMvStore(MVStore mvStore, AlleleKeyFilter alleleKeyFilter, boolean verifyAlleleKeyFilter) {
+        this.map = MvStoreUtil.openAlleleMVMap(mvStore);
+        this.alleleKeyFilter = alleleKeyFilter;
+        this.verifyAlleleKeyFilter = verifyAlleleKeyFilter;
     }
 
     @Caching(cacheable = {
@@ -55,6 +72,9 @@ public AllelePropertiesDaoMvStore(MVStore mvStore) {
     })
     @Override
     public AlleleProto.AlleleProperties getAlleleProperties(AlleleProto.AlleleKey alleleKey, GenomeAssembly genomeAssembly) {
+        if (!alleleKeyFilter.mightContain(alleleKey)) {
+            return verifyAlleleKeyFilter ? verifyAbsent(alleleKey) : AlleleProto.AlleleProperties.getDefaultInstance();
+        }
         AlleleProto.AlleleProperties alleleProperties = map.getOrDefault(alleleKey, AlleleProto.AlleleProperties.getDefaultInstance());
         logger.debug("{} {}", alleleKey, alleleProperties);
         return alleleProperties;
@@ -70,4 +90,13 @@ public AlleleProto.AlleleProperties getAlleleProperties(Variant variant) {
         return getAlleleProperties(alleleKey, variant.getGenomeAssembly());
     }
 
+    private AlleleProto.AlleleProperties verifyAbsent(AlleleProto.AlleleKey alleleKey) {
+        AlleleProto.AlleleProperties alleleProperties = map.get(alleleKey);
+        if (alleleProperties != null) {
+            logger.error("Allele {} was rejected by the allele filter but is present in the variants store - the filter does not match the store", alleleKey);
+            return alleleProperties;
+        }
+        return AlleleProto.AlleleProperties.getDefaultInstance();
+    }
+
 }
@@ -0,0 +1,103 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.h2.mvstore.MVStore;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+
+import java.util.Map;
+
+/**
+ * {@link AllelePropertiesDao} for variant data split into one {@link MVStore} per chromosome, as described by a
+ * {@link VariantStoreManifest}. Lookups are routed to the store for the chromosome of the allele, so threads working on
+ * different chromosomes use separate stores and page caches. Alleles on chromosomes without a store are reported as
+ * having no properties.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class ChromosomeShardedAllelePropertiesDao implements AllelePropertiesDao {
+
+    private static final AllelePropertiesDao EMPTY_SHARD = new AllelePropertiesDao() {
+        @Override
+        public AlleleProto.AlleleProperties getAlleleProperties(AlleleProto.AlleleKey alleleKey, GenomeAssembly genomeAssembly) {
+            return AlleleProto.AlleleProperties.getDefaultInstance();
+        }
+
+        @Override
+        public AlleleProto.AlleleProperties getAlleleProperties(Variant variant) {
+            return AlleleProto.AlleleProperties.getDefaultInstance();
+        }
+    };
+
+    // indexed by chromosome id
+    private final AllelePropertiesDao[] shards;
+
+    public ChromosomeShardedAllelePropertiesDao(Map<Integer, MVStore> mvStoresByChr) {
+        this(mvStoresByChr, AlleleKeyFilter.acceptAll(), false);
+    }
+
+    /**
+     * @param mvStoresByChr         the variant store for each chromosome id
+     * @param alleleKeyFilter       filter of the alleles in all of the stores
+     * @param verifyAlleleKeyFilter see {@link AllelePropertiesDaoMvStore#AllelePropertiesDaoMvStore(MVStore, AlleleKeyFilter, boolean)}
+     */
+    public ChromosomeShardedAllelePropertiesDao(Map<Integer, MVStore> mvStoresByChr, AlleleKeyFilter alleleKeyFilter, boolean verifyAlleleKeyFilter) {
+        int maxChr = mvStoresByChr.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        this.shards = new AllelePropertiesDao[maxChr + 1];
+        for (int chr = 0; chr <= maxChr; chr++) {
+            MVStore mvStore = mvStoresByChr.get(chr);
+            shards[chr] = mvStore == null ? EMPTY_SHARD : new AllelePropertiesDaoMvStore(mvStore, alleleKeyFilter, verifyAlleleKeyFilter);
+        }
+    }
+
+    @Caching(cacheable = {
+            @Cacheable(cacheNames = "hg19.allele", condition = "#genomeAssembly == T(org.monarchinitiative.exomiser.core.genome.GenomeAssembly).HG19"),
+            @Cacheable(cacheNames = "hg38.allele", condition = "#genomeAssembly == T(org.monarchinitiative.exomiser.core.genome.GenomeAssembly).HG38"),
+    })
+    @Override
+    public AlleleProto.AlleleProperties getAlleleProperties(AlleleProto.AlleleKey alleleKey, GenomeAssembly genomeAssembly) {
+        return shardFor(alleleKey.getChr()).getAlleleProperties(alleleKey, genomeAssembly);
+    }
+
+    @Caching(cacheable = {
+            @Cacheable(cacheNames = "hg19.allele", keyGenerator = "variantKeyGenerator", condition = "#variant.genomeAssembly == T(org.monarchinitiative.exomiser.core.genome.GenomeAssembly).HG19"),
+            @Cacheable(cacheNames = "hg38.allele", keyGenerator = "variantKeyGenerator", condition = "#variant.genomeAssembly == T(org.monarchinitiative.exomiser.core.genome.GenomeAssembly).HG38"),
+    })
+    @Override
+    public AlleleProto.AlleleProperties getAlleleProperties(Variant variant) {
+        AlleleProto.AlleleKey alleleKey = AlleleProtoAdaptor.toAlleleKey(variant);
+        return getAlleleProperties(alleleKey, variant.getGenomeAssembly());
+    }
+
+    private AllelePropertiesDao shardFor(int chr) {
+        if (chr < 0 || chr >= shards.length) {
+            return EMPTY_SHARD;
+        }
+        return shards[chr];
+    }
+}
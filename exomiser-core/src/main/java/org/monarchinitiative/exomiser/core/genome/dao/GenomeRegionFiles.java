@@ -0,0 +1,175 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.monarchinitiative.exomiser.core.model.RegulatoryFeature;
+import org.monarchinitiative.exomiser.core.model.TopologicalDomain;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reads and writes the compact binary files of the topologically associated domains and regulatory features, which
+ * are built alongside the genome database so that these can be loaded without a JDBC connection.
+ * <p>
+ * Both files start with a header of a magic number, format version and the number of records. Regulatory features
+ * are fixed-width records of chromosome, start, end and feature type. TADs are records of chromosome, start, end and
+ * the number of genes, followed by the symbol and Entrez id of each gene. All values are big-endian.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class GenomeRegionFiles {
+
+    // 'EXTD'
+    private static final int TAD_MAGIC = 0x45585444;
+    // 'EXRF'
+    private static final int REGULATORY_FEATURE_MAGIC = 0x45585246;
+    private static final int VERSION = 1;
+    // gene symbols can be missing from the TAD data
+    private static final int NULL_STRING_LENGTH = 0xFFFF;
+
+    private static final RegulatoryFeature.FeatureType[] FEATURE_TYPES = RegulatoryFeature.FeatureType.values();
+
+    private GenomeRegionFiles() {
+        // static utility class
+    }
+
+    public static List<TopologicalDomain> readTads(Path path) {
+        ByteBuffer buffer = map(path, TAD_MAGIC);
+        int numTads = buffer.getInt();
+        List<TopologicalDomain> tads = new ArrayList<>(numTads);
+        for (int i = 0; i < numTads; i++) {
+            int chr = buffer.getInt();
+            int start = buffer.getInt();
+            int end = buffer.getInt();
+            int numGenes = buffer.getInt();
+            Map<String, Integer> genes = new LinkedHashMap<>();
+            for (int j = 0; j < numGenes; j++) {
+                String geneSymbol = readString(buffer);
+                genes.put(geneSymbol, buffer.getInt());
+            }
+            tads.add(new TopologicalDomain(chr, start, end, genes));
+        }
+        return tads;
+    }
+
+    public static void writeTads(Collection<TopologicalDomain> tads, Path path) {
+        try (DataOutputStream out = newDataOutputStream(path, TAD_MAGIC, tads.size())) {
+            for (TopologicalDomain tad : tads) {
+                out.writeInt(tad.getChromosome());
+                out.writeInt(tad.getStart());
+                out.writeInt(tad.getEnd());
+                Map<String, Integer> genes = tad.getGenes();
+                out.writeInt(genes.size());
+                for (Map.Entry<String, Integer> gene : genes.entrySet()) {
+                    writeString(out, gene.getKey());
+                    out.writeInt(gene.getValue());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write TADs to " + path, e);
+        }
+    }
+
+    public static List<RegulatoryFeature> readRegulatoryFeatures(Path path) {
+        ByteBuffer buffer = map(path, REGULATORY_FEATURE_MAGIC);
+        int numFeatures = buffer.getInt();
+        List<RegulatoryFeature> regulatoryFeatures = new ArrayList<>(numFeatures);
+        for (int i = 0; i < numFeatures; i++) {
+            int chr = buffer.getInt();
+            int start = buffer.getInt();
+            int end = buffer.getInt();
+            int featureType = buffer.get();
+            regulatoryFeatures.add(new RegulatoryFeature(chr, start, end, FEATURE_TYPES[featureType]));
+        }
+        return regulatoryFeatures;
+    }
+
+    public static void writeRegulatoryFeatures(Collection<RegulatoryFeature> regulatoryFeatures, Path path) {
+        try (DataOutputStream out = newDataOutputStream(path, REGULATORY_FEATURE_MAGIC, regulatoryFeatures.size())) {
+            for (RegulatoryFeature regulatoryFeature : regulatoryFeatures) {
+                out.writeInt(regulatoryFeature.getChromosome());
+                out.writeInt(regulatoryFeature.getStart());
+                out.writeInt(regulatoryFeature.getEnd());
+                out.writeByte(regulatoryFeature.getFeatureType().ordinal());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write regulatory features to " + path, e);
+        }
+    }
+
+    /**
+     * Maps the file and checks the header, returning the buffer positioned at the number of records.
+     */
+    private static ByteBuffer map(Path path, int expectedMagic) {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+            if (buffer.remaining() < 3 * Integer.BYTES || buffer.getInt() != expectedMagic) {
+                throw new IllegalStateException(path + " is not a genome region file of the expected type");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported genome region file version " + version + " in " + path + " - expected " + VERSION);
+            }
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read genome region file " + path, e);
+        }
+    }
+
+    private static DataOutputStream newDataOutputStream(Path path, int magic, int numRecords) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        out.writeInt(magic);
+        out.writeInt(VERSION);
+        out.writeInt(numRecords);
+        return out;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        if (length == NULL_STRING_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(NULL_STRING_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
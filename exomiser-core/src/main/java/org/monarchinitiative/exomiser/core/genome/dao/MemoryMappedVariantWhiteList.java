@@ -0,0 +1,271 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A {@link VariantWhiteList} backed by a memory-mapped binary file, so that the whitelist does not need to be parsed
+ * and held on the heap. The alleles are stored as a sorted array of fixed-width {@code long} keys, which are binary
+ * searched without allocating any objects. Alleles which are too long to be encoded in a {@code long} are stored in a variable-width section at the end of the file and are
+ * loaded into memory. There are relatively few of these in the ClinVar whitelist.
+ * <p>
+ * The file format is a header of the magic number, format version and number of keys, followed by the keys and then
+ * the number of long alleles and the long alleles themselves. All values are big-endian. The key encoding is part of
+ * the file format, so any change to it requires a new {@link #VERSION}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class MemoryMappedVariantWhiteList implements VariantWhiteList {
+
+    // 'EXWL'
+    private static final int MAGIC = 0x4558574C;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+    // key layout for VERSION 1 files
+    private static final int CHROMOSOME_BITS = 5;
+    private static final int POSITION_BITS = 28;
+    private static final int REF_LENGTH_BITS = 4;
+    private static final int ALLELE_BITS = Long.SIZE - CHROMOSOME_BITS - POSITION_BITS - REF_LENGTH_BITS;
+
+    static final long UNENCODABLE = 0L;
+
+    private final ByteBuffer keys;
+    private final int numKeys;
+    private final Set<AlleleKey> longAlleles;
+
+    private MemoryMappedVariantWhiteList(ByteBuffer keys, int numKeys, Set<AlleleKey> longAlleles) {
+        this.keys = keys;
+        this.numKeys = numKeys;
+        this.longAlleles = longAlleles;
+    }
+
+    /**
+     * Memory-maps a whitelist file written by {@link #write(Collection, Path)}.
+     *
+     * @throws IllegalStateException if the file is not a whitelist in the expected format
+     */
+    public static MemoryMappedVariantWhiteList open(Path path) {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping remains valid once the channel has been closed
+            ByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IllegalStateException(path + " is not a variant whitelist file");
+            }
+            int version = buffer.getInt(Integer.BYTES);
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported variant whitelist version " + version + " in " + path + " - expected " + VERSION);
+            }
+            int numKeys = buffer.getInt(2 * Integer.BYTES);
+            int keysEnd = HEADER_BYTES + numKeys * Long.BYTES;
+            buffer.position(HEADER_BYTES).limit(keysEnd);
+            ByteBuffer keys = buffer.slice();
+
+            buffer.limit(buffer.capacity()).position(keysEnd);
+            Set<AlleleKey> longAlleles = readLongAlleles(buffer);
+            return new MemoryMappedVariantWhiteList(keys, numKeys, longAlleles);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read variant whitelist " + path, e);
+        }
+    }
+
+    private static Set<AlleleKey> readLongAlleles(ByteBuffer buffer) {
+        int numLongAlleles = buffer.getInt();
+        if (numLongAlleles == 0) {
+            return Collections.emptySet();
+        }
+        Set<AlleleKey> longAlleles = new HashSet<>(numLongAlleles * 2);
+        for (int i = 0; i < numLongAlleles; i++) {
+            AlleleKey alleleKey = AlleleKey.newBuilder()
+                    .setChr(buffer.getInt())
+                    .setPosition(buffer.getInt())
+                    .setRef(readString(buffer))
+                    .setAlt(readString(buffer))
+                    .build();
+            longAlleles.add(alleleKey);
+        }
+        return longAlleles;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the alleles to a whitelist file which can be read by {@link #open(Path)}.
+     */
+    public static void write(Collection<AlleleKey> alleleKeys, Path path) {
+        long[] keys = new long[alleleKeys.size()];
+        int numKeys = 0;
+        Set<AlleleKey> longAlleles = new LinkedHashSet<>();
+        for (AlleleKey alleleKey : alleleKeys) {
+            long key = encodeKey(alleleKey.getChr(), alleleKey.getPosition(), alleleKey.getRef(), alleleKey.getAlt());
+            if (key == UNENCODABLE) {
+                longAlleles.add(alleleKey);
+            } else {
+                keys[numKeys++] = key;
+            }
+        }
+        long[] sortedKeys = Arrays.stream(keys, 0, numKeys).sorted().distinct().toArray();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sortedKeys.length);
+            for (long key : sortedKeys) {
+                out.writeLong(key);
+            }
+            out.writeInt(longAlleles.size());
+            for (AlleleKey alleleKey : longAlleles) {
+                out.writeInt(alleleKey.getChr());
+                out.writeInt(alleleKey.getPosition());
+                writeString(out, alleleKey.getRef());
+                writeString(out, alleleKey.getAlt());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write variant whitelist " + path, e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    @Override
+    public boolean contains(Variant variant) {
+        return contains(variant.getChromosome(), variant.getPosition(), variant.getRef(), variant.getAlt());
+    }
+
+    /**
+     * Checks the whitelist for the allele. This does not allocate any objects unless the alleles are too long to be
+     * encoded, in which case the in-memory set of long alleles is checked.
+     */
+    public boolean contains(int chr, int pos, String ref, String alt) {
+        long key = encodeKey(chr, pos, ref, alt);
+        if (key == UNENCODABLE) {
+            return !longAlleles.isEmpty() && longAlleles.contains(AlleleKey.newBuilder()
+                    .setChr(chr)
+                    .setPosition(pos)
+                    .setRef(ref)
+                    .setAlt(alt)
+                    .build());
+        }
+        return binarySearch(key);
+    }
+
+    /**
+     * Encodes the allele as a {@code long} with the chromosome in the highest 5 bits, followed by 28 bits of position,
+     * 4 bits of ref allele length, then a single set bit followed by the ref and alt alleles as 2 bits per base.
+     *
+     * @return the encoded allele or {@link #UNENCODABLE} if the allele cannot be represented in 64 bits.
+     */
+    static long encodeKey(int chromosome, int position, String ref, String alt) {
+        if (chromosome <= 0 || chromosome >= 1 << CHROMOSOME_BITS || position <= 0 || position >= 1 << POSITION_BITS) {
+            return UNENCODABLE;
+        }
+        int refLength = ref.length();
+        int altLength = alt.length();
+        if (refLength == 0 || altLength == 0 || refLength >= 1 << REF_LENGTH_BITS || 2 * (refLength + altLength) + 1 > ALLELE_BITS) {
+            return UNENCODABLE;
+        }
+        long alleles = 1;
+        for (int i = 0; i < refLength; i++) {
+            int base = encodeBase(ref.charAt(i));
+            if (base < 0) {
+                return UNENCODABLE;
+            }
+            alleles = (alleles << 2) | base;
+        }
+        for (int i = 0; i < altLength; i++) {
+            int base = encodeBase(alt.charAt(i));
+            if (base < 0) {
+                return UNENCODABLE;
+            }
+            alleles = (alleles << 2) | base;
+        }
+        return ((long) chromosome << (Long.SIZE - CHROMOSOME_BITS))
+                | ((long) position << (REF_LENGTH_BITS + ALLELE_BITS))
+                | ((long) refLength << ALLELE_BITS)
+                | alleles;
+    }
+
+    private static int encodeBase(char base) {
+        switch (base) {
+            case 'A':
+                return 0;
+            case 'C':
+                return 1;
+            case 'G':
+                return 2;
+            case 'T':
+                return 3;
+            default:
+                return -1;
+        }
+    }
+
+    private boolean binarySearch(long key) {
+        int low = 0;
+        int high = numKeys - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = keys.getLong(mid * Long.BYTES);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return numKeys + longAlleles.size();
+    }
+
+    @Override
+    public String toString() {
+        return "MemoryMappedVariantWhiteList{" +
+                "size=" + size() +
+                '}';
+    }
+}
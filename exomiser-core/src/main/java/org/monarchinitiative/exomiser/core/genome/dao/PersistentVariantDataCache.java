@@ -0,0 +1,309 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.type.DataType;
+import org.h2.mvstore.type.ObjectDataType;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.AlleleKeyDataType;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.AllelePropertiesDataType;
+import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.frequency.RsId;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityScore;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A size-bounded cache of variant data which is persisted to a local {@link MVStore} file so that it can be re-used by
+ * subsequent runs. This is intended for repeated analyses of the same samples where the same alleles are looked-up in
+ * the variant data sources on each run.
+ * <p>
+ * The data for each source and genome assembly are stored in separate regions of the cache, with each region tagged
+ * with the version of the data source it was populated from. Should the version of a data source change, the region is
+ * cleared when the cache is next used with that source. Each region holds at most the maximum number of entries
+ * specified, split between a current and a previous generation. Once the current generation is full, the previous one
+ * is discarded and replaced by the current one. Entries which are read from the previous generation are copied to the
+ * current one, so frequently used alleles are retained.
+ * <p>
+ * Only one process can open the cache file at a time.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class PersistentVariantDataCache implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistentVariantDataCache.class);
+
+    private static final String VERSIONS_MAP_NAME = "versions";
+    private static final String GENERATIONS_MAP_NAME = "generations";
+
+    private final MVStore mvStore;
+    private final long maxEntriesPerSource;
+    private final MVMap<String, String> versions;
+    private final MVMap<String, Integer> generations;
+
+    private PersistentVariantDataCache(MVStore mvStore, long maxEntriesPerSource) {
+        this.mvStore = mvStore;
+        this.maxEntriesPerSource = maxEntriesPerSource;
+        this.versions = mvStore.openMap(VERSIONS_MAP_NAME);
+        this.generations = mvStore.openMap(GENERATIONS_MAP_NAME);
+    }
+
+    /**
+     * Opens, or creates, the cache stored in the file.
+     *
+     * @param cacheFile           the path of the cache file
+     * @param maxEntriesPerSource the maximum number of alleles to be held for each data source and genome assembly
+     * @return a cache backed by the file
+     * @throws IllegalStateException if the file is in use by another process or cannot be opened
+     */
+    public static PersistentVariantDataCache open(Path cacheFile, long maxEntriesPerSource) {
+        Objects.requireNonNull(cacheFile);
+        if (maxEntriesPerSource < 2) {
+            throw new IllegalArgumentException("maxEntriesPerSource must be greater than 1, but was " + maxEntriesPerSource);
+        }
+        MVStore mvStore = new MVStore.Builder()
+                .fileName(cacheFile.toAbsolutePath().toString())
+                .compress()
+                .open();
+        logger.info("Opened persistent variant data cache {} (maxEntriesPerSource={})", cacheFile, maxEntriesPerSource);
+        return new PersistentVariantDataCache(mvStore, maxEntriesPerSource);
+    }
+
+    /**
+     * Returns an {@link AllelePropertiesDao} which will check this cache before using the one provided.
+     *
+     * @param allelePropertiesDao the {@code AllelePropertiesDao} providing the data
+     * @param genomeAssembly      genome assembly of the data
+     * @param dataVersion         version of the data provided
+     */
+    public AllelePropertiesDao cachingAllelePropertiesDao(AllelePropertiesDao allelePropertiesDao, GenomeAssembly genomeAssembly, String dataVersion) {
+        CacheRegion<AlleleProperties> cacheRegion = openRegion(genomeAssembly, "allele", dataVersion, AllelePropertiesDataType.INSTANCE);
+        return new AllelePropertiesDao() {
+            @Override
+            public AlleleProperties getAlleleProperties(AlleleKey alleleKey, GenomeAssembly assembly) {
+                return cacheRegion.get(alleleKey, key -> allelePropertiesDao.getAlleleProperties(key, assembly));
+            }
+
+            @Override
+            public AlleleProperties getAlleleProperties(Variant variant) {
+                AlleleKey alleleKey = AlleleProtoAdaptor.toAlleleKey(variant);
+                return cacheRegion.get(alleleKey, key -> allelePropertiesDao.getAlleleProperties(variant));
+            }
+        };
+    }
+
+    /**
+     * Returns a {@link FrequencyDao} which will check this cache before using the one provided.
+     *
+     * @param source       name of the data source, e.g. 'local'
+     * @param frequencyDao the {@code FrequencyDao} providing the data
+     * @param genomeAssembly genome assembly of the data
+     * @param dataVersion  version of the data provided
+     */
+    public FrequencyDao cachingFrequencyDao(String source, FrequencyDao frequencyDao, GenomeAssembly genomeAssembly, String dataVersion) {
+        CacheRegion<byte[]> cacheRegion = openRegion(genomeAssembly, source, dataVersion, new ObjectDataType());
+        return variant -> {
+            AlleleKey alleleKey = AlleleProtoAdaptor.toAlleleKey(variant);
+            byte[] bytes = cacheRegion.get(alleleKey, key -> encodeFrequencyData(frequencyDao.getFrequencyData(variant)));
+            return decodeFrequencyData(bytes);
+        };
+    }
+
+    /**
+     * Returns a {@link PathogenicityDao} which will check this cache before using the one provided. Only the predicted
+     * pathogenicity scores are stored, so this is intended for sources such as CADD or REMM, which do not provide
+     * ClinVar data.
+     *
+     * @param source           name of the data source, e.g. 'cadd'
+     * @param pathogenicityDao the {@code PathogenicityDao} providing the data
+     * @param genomeAssembly   genome assembly of the data
+     * @param dataVersion      version of the data provided
+     */
+    public PathogenicityDao cachingPathogenicityDao(String source, PathogenicityDao pathogenicityDao, GenomeAssembly genomeAssembly, String dataVersion) {
+        CacheRegion<byte[]> cacheRegion = openRegion(genomeAssembly, source, dataVersion, new ObjectDataType());
+        return variant -> {
+            AlleleKey alleleKey = AlleleProtoAdaptor.toAlleleKey(variant);
+            byte[] bytes = cacheRegion.get(alleleKey, key -> encodePathogenicityData(pathogenicityDao.getPathogenicityData(variant)));
+            return decodePathogenicityData(bytes);
+        };
+    }
+
+    private synchronized <V> CacheRegion<V> openRegion(GenomeAssembly genomeAssembly, String source, String dataVersion, DataType valueType) {
+        String regionName = genomeAssembly.toString() + '.' + source;
+        MVMap.Builder<AlleleKey, V> mapBuilder = new MVMap.Builder<AlleleKey, V>()
+                .keyType(AlleleKeyDataType.INSTANCE)
+                .valueType(valueType);
+        MVMap<AlleleKey, V> generation0 = mvStore.openMap(regionName + ".0", mapBuilder);
+        MVMap<AlleleKey, V> generation1 = mvStore.openMap(regionName + ".1", mapBuilder);
+
+        String cachedVersion = versions.get(regionName);
+        if (!dataVersion.equals(cachedVersion)) {
+            if (cachedVersion != null) {
+                logger.info("Clearing persistent cache of {} data version {} - data version is now {}", regionName, cachedVersion, dataVersion);
+            }
+            generation0.clear();
+            generation1.clear();
+            generations.put(regionName, 0);
+            versions.put(regionName, dataVersion);
+            mvStore.commit();
+        }
+        int currentGeneration = generations.getOrDefault(regionName, 0);
+        logger.debug("Using persistent cache of {} data version {} with {} entries", regionName, dataVersion, generation0.sizeAsLong() + generation1.sizeAsLong());
+        return new CacheRegion<>(regionName, generation0, generation1, currentGeneration);
+    }
+
+    /**
+     * Writes any outstanding changes to the cache file and closes it.
+     */
+    @Override
+    public void close() {
+        if (!mvStore.isClosed()) {
+            logger.debug("Closing persistent variant data cache");
+            mvStore.close();
+        }
+    }
+
+    private class CacheRegion<V> {
+
+        private final String regionName;
+        private final List<MVMap<AlleleKey, V>> generationMaps = new ArrayList<>(2);
+        private volatile int currentGeneration;
+
+        private CacheRegion(String regionName, MVMap<AlleleKey, V> generation0, MVMap<AlleleKey, V> generation1, int currentGeneration) {
+            this.regionName = regionName;
+            this.generationMaps.add(generation0);
+            this.generationMaps.add(generation1);
+            this.currentGeneration = currentGeneration;
+        }
+
+        private V get(AlleleKey alleleKey, Function<AlleleKey, V> loader) {
+            int generation = currentGeneration;
+            MVMap<AlleleKey, V> current = generationMaps.get(generation);
+            V value = current.get(alleleKey);
+            if (value != null) {
+                return value;
+            }
+            value = generationMaps.get(1 - generation).get(alleleKey);
+            if (value == null) {
+                value = loader.apply(alleleKey);
+            }
+            put(alleleKey, value);
+            return value;
+        }
+
+        private synchronized void put(AlleleKey alleleKey, V value) {
+            MVMap<AlleleKey, V> current = generationMaps.get(currentGeneration);
+            current.put(alleleKey, value);
+            if (current.sizeAsLong() >= maxEntriesPerSource / 2) {
+                int nextGeneration = 1 - currentGeneration;
+                generationMaps.get(nextGeneration).clear();
+                currentGeneration = nextGeneration;
+                generations.put(regionName, nextGeneration);
+                logger.debug("Persistent cache of {} is full - discarded oldest {} entries", regionName, current.sizeAsLong());
+            }
+        }
+    }
+
+    static byte[] encodeFrequencyData(FrequencyData frequencyData) {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(byteArrayOutputStream)) {
+            out.writeInt(frequencyData.getRsId().getId());
+            List<Frequency> frequencies = frequencyData.getKnownFrequencies();
+            out.writeShort(frequencies.size());
+            for (Frequency frequency : frequencies) {
+                out.writeUTF(frequency.getSource().name());
+                out.writeFloat(frequency.getFrequency());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    static FrequencyData decodeFrequencyData(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            RsId rsId = RsId.of(in.readInt());
+            int numFrequencies = in.readShort();
+            if (rsId.isEmpty() && numFrequencies == 0) {
+                return FrequencyData.empty();
+            }
+            List<Frequency> frequencies = new ArrayList<>(numFrequencies);
+            for (int i = 0; i < numFrequencies; i++) {
+                FrequencySource source = FrequencySource.valueOf(in.readUTF());
+                frequencies.add(Frequency.of(source, in.readFloat()));
+            }
+            return FrequencyData.of(rsId, frequencies);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] encodePathogenicityData(PathogenicityData pathogenicityData) {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(byteArrayOutputStream)) {
+            List<PathogenicityScore> scores = pathogenicityData.getPredictedPathogenicityScores();
+            out.writeShort(scores.size());
+            for (PathogenicityScore score : scores) {
+                out.writeUTF(score.getSource().name());
+                out.writeFloat(score.getRawScore());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    static PathogenicityData decodePathogenicityData(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int numScores = in.readShort();
+            if (numScores == 0) {
+                return PathogenicityData.empty();
+            }
+            List<PathogenicityScore> scores = new ArrayList<>(numScores);
+            for (int i = 0; i < numScores; i++) {
+                PathogenicitySource source = PathogenicitySource.valueOf(in.readUTF());
+                scores.add(PathogenicityScore.of(source, in.readFloat()));
+            }
+            return PathogenicityData.of(scores);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
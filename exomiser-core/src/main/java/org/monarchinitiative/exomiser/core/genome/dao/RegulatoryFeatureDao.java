@@ -30,13 +30,16 @@
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 /**
  *
@@ -47,12 +50,28 @@ public class RegulatoryFeatureDao {
     private final Logger logger = LoggerFactory.getLogger(RegulatoryFeatureDao.class);
 
     private final DataSource dataSource;
+    // binary file of the regulatory features - this is used in place of the database when present
+    private final Path regulatoryFeaturesPath;
 
     public RegulatoryFeatureDao(DataSource genomeDataSource) {
         this.dataSource = genomeDataSource;
+        this.regulatoryFeaturesPath = null;
+    }
+
+    /**
+     * @param regulatoryFeaturesPath file of regulatory features written by
+     *                               {@link GenomeRegionFiles#writeRegulatoryFeatures(Collection, Path)}
+     * @since 12.1.0
+     */
+    public RegulatoryFeatureDao(Path regulatoryFeaturesPath) {
+        this.dataSource = null;
+        this.regulatoryFeaturesPath = Objects.requireNonNull(regulatoryFeaturesPath);
     }
 
     public List<RegulatoryFeature> getRegulatoryFeatures() {
+        if (regulatoryFeaturesPath != null) {
+            return GenomeRegionFiles.readRegulatoryFeatures(regulatoryFeaturesPath);
+        }
         try (
                 Connection connection = dataSource.getConnection();
                 PreparedStatement preparedStatement = connection.prepareStatement("select CHROMOSOME as chr, START as start, \"end\" as end, FEATURE_TYPE as feature_type from REGULATORY_REGIONS");
@@ -30,6 +30,7 @@
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -44,13 +45,27 @@ public class TadDao {
     private final Logger logger = LoggerFactory.getLogger(TadDao.class);
 
     private final DataSource dataSource;
+    // binary file of the TADs - this is used in place of the database when present
+    private final Path tadsPath;
 
     public TadDao(DataSource genomeDataSource) {
         this.dataSource = genomeDataSource;
+        this.tadsPath = null;
     }
 
+    /**
+     * @param tadsPath file of TADs written by {@link GenomeRegionFiles#writeTads(Collection, Path)}
+     * @since 12.1.0
+     */
+    public TadDao(Path tadsPath) {
+        this.dataSource = null;
+        this.tadsPath = Objects.requireNonNull(tadsPath);
+    }
 
     public List<TopologicalDomain> getAllTads() {
+        if (tadsPath != null) {
+            return GenomeRegionFiles.readTads(tadsPath);
+        }
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement("select CHROMOSOME as chr, START as start, \"end\" as end, ENTREZID as geneId, SYMBOL as geneSymbol from tad");
              ResultSet rs = preparedStatement.executeQuery()) {
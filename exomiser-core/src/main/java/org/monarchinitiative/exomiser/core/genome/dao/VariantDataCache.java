@@ -0,0 +1,400 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Size-bounded in-memory cache of variant data which is intended to be used directly in front of the variant data DAOs
+ * without the allocations incurred by the Spring cache abstraction for every call. The variants are encoded as a
+ * primitive {@code long} of their chromosome, position, ref and alt alleles and held in open-addressing tables so that
+ * no key objects are created for the lookups. Variants which cannot be encoded, such as long or symbolic alleles, are
+ * not cached and are always loaded from the delegate.
+ * <p>
+ * Each key is stored within a short probe sequence of its preferred slot. Should all of these slots be in use, one of
+ * them is replaced, so the cache never holds more than the maximum number of entries specified.
+ * <p>
+ * This class is thread-safe. The table is split into segments, each guarded by its own lock.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class VariantDataCache<V> {
+
+    private static final int NUM_SEGMENTS = 16;
+    private static final int PROBE_LENGTH = 8;
+
+    private static final int CHROMOSOME_BITS = 5;
+    private static final int POSITION_BITS = 28;
+    private static final int REF_LENGTH_BITS = 4;
+    private static final int ALLELE_BITS = Long.SIZE - CHROMOSOME_BITS - POSITION_BITS - REF_LENGTH_BITS;
+
+    static final long UNENCODABLE = 0L;
+
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+
+    private final int maxSize;
+    private final Segment<V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    private VariantDataCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.segments = new Segment[NUM_SEGMENTS];
+        int segmentCapacity = Math.max(1, (maxSize + NUM_SEGMENTS - 1) / NUM_SEGMENTS);
+        for (int i = 0; i < NUM_SEGMENTS; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    /**
+     * @param maxSize the maximum number of variants to be held in the cache. The actual limit is rounded up to the next
+     *                multiple of the number of segments.
+     * @return an empty cache
+     */
+    public static <V> VariantDataCache<V> withMaxSize(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be greater than 0, but was " + maxSize);
+        }
+        return new VariantDataCache<>(maxSize);
+    }
+
+    /**
+     * Returns a {@link FrequencyDao} which will check the cache before using the one provided.
+     */
+    public static FrequencyDao cachingFrequencyDao(FrequencyDao frequencyDao, VariantDataCache<FrequencyData> cache) {
+        Function<Variant, FrequencyData> loader = frequencyDao::getFrequencyData;
+        return variant -> cache.get(variant, loader);
+    }
+
+    /**
+     * Returns a {@link PathogenicityDao} which will check the cache before using the one provided.
+     */
+    public static PathogenicityDao cachingPathogenicityDao(PathogenicityDao pathogenicityDao, VariantDataCache<PathogenicityData> cache) {
+        Function<Variant, PathogenicityData> loader = pathogenicityDao::getPathogenicityData;
+        return variant -> cache.get(variant, loader);
+    }
+
+    /**
+     * Returns an {@link AllelePropertiesDao} which will check the cache before using the one provided for lookups by
+     * {@link Variant}. Lookups by {@link AlleleKey} are passed directly to the {@code AllelePropertiesDao} provided.
+     */
+    public static AllelePropertiesDao cachingAllelePropertiesDao(AllelePropertiesDao allelePropertiesDao, VariantDataCache<AlleleProperties> cache) {
+        Function<Variant, AlleleProperties> loader = allelePropertiesDao::getAlleleProperties;
+        return new AllelePropertiesDao() {
+            @Override
+            public AlleleProperties getAlleleProperties(AlleleKey alleleKey, GenomeAssembly genomeAssembly) {
+                return allelePropertiesDao.getAlleleProperties(alleleKey, genomeAssembly);
+            }
+
+            @Override
+            public AlleleProperties getAlleleProperties(Variant variant) {
+                return cache.get(variant, loader);
+            }
+        };
+    }
+
+    /**
+     * Returns the value associated with the variant, using the loader to obtain and cache it if it is not present.
+     */
+    public V get(Variant variant, Function<Variant, V> loader) {
+        long key = encodeKey(variant);
+        if (key == UNENCODABLE) {
+            return loader.apply(variant);
+        }
+        long hash = mix(key);
+        Segment<V> segment = segments[(int) (hash >>> 60) & (NUM_SEGMENTS - 1)];
+        V value = segment.get(key, hash);
+        if (value == null) {
+            value = loader.apply(variant);
+            if (value != null) {
+                segment.put(key, hash, value);
+            }
+        }
+        return value;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return a snapshot of the keys of the variants currently held in the cache.
+     */
+    public List<AlleleKey> getAlleleKeys() {
+        List<AlleleKey> alleleKeys = new ArrayList<>();
+        for (Segment<V> segment : segments) {
+            for (long key : segment.keys()) {
+                alleleKeys.add(decodeKey(key));
+            }
+        }
+        return alleleKeys;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        long hits = 0;
+        for (Segment<V> segment : segments) {
+            hits += segment.hits();
+        }
+        return hits;
+    }
+
+    public long getMissCount() {
+        long misses = 0;
+        for (Segment<V> segment : segments) {
+            misses += segment.misses();
+        }
+        return misses;
+    }
+
+    public long getEvictionCount() {
+        long evictions = 0;
+        for (Segment<V> segment : segments) {
+            evictions += segment.evictions();
+        }
+        return evictions;
+    }
+
+    /**
+     * @return the proportion of lookups which were found in the cache, or 0 if the cache has not been used.
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long requests = hits + getMissCount();
+        return requests == 0 ? 0d : (double) hits / requests;
+    }
+
+    /**
+     * Encodes the variant as a {@code long} with the chromosome in the highest 5 bits, followed by 28 bits of position,
+     * 4 bits of ref allele length, then the ref and alt alleles as 2 bits per base. The alleles are prefixed with a
+     * single set bit so that their combined length, and so the length of the alt allele, can be recovered.
+     *
+     * @return the encoded variant or {@link #UNENCODABLE} if the variant cannot be represented in 64 bits.
+     */
+    static long encodeKey(Variant variant) {
+        int chromosome = variant.getChromosome();
+        int position = variant.getPosition();
+        if (chromosome <= 0 || chromosome >= 1 << CHROMOSOME_BITS || position <= 0 || position >= 1 << POSITION_BITS) {
+            return UNENCODABLE;
+        }
+        String ref = variant.getRef();
+        String alt = variant.getAlt();
+        int refLength = ref.length();
+        int altLength = alt.length();
+        if (refLength == 0 || altLength == 0 || refLength >= 1 << REF_LENGTH_BITS || 2 * (refLength + altLength) + 1 > ALLELE_BITS) {
+            return UNENCODABLE;
+        }
+        long alleles = 1;
+        for (int i = 0; i < refLength; i++) {
+            int base = encodeBase(ref.charAt(i));
+            if (base < 0) {
+                return UNENCODABLE;
+            }
+            alleles = (alleles << 2) | base;
+        }
+        for (int i = 0; i < altLength; i++) {
+            int base = encodeBase(alt.charAt(i));
+            if (base < 0) {
+                return UNENCODABLE;
+            }
+            alleles = (alleles << 2) | base;
+        }
+        return ((long) chromosome << (Long.SIZE - CHROMOSOME_BITS))
+                | ((long) position << (REF_LENGTH_BITS + ALLELE_BITS))
+                | ((long) refLength << ALLELE_BITS)
+                | alleles;
+    }
+
+    /**
+     * Decodes a key created by {@link #encodeKey(Variant)}.
+     */
+    static AlleleKey decodeKey(long key) {
+        int chromosome = (int) (key >>> (Long.SIZE - CHROMOSOME_BITS));
+        int position = (int) ((key >>> (REF_LENGTH_BITS + ALLELE_BITS)) & ((1L << POSITION_BITS) - 1));
+        int refLength = (int) ((key >>> ALLELE_BITS) & ((1L << REF_LENGTH_BITS) - 1));
+        long alleles = key & ((1L << ALLELE_BITS) - 1);
+        int numBases = (Long.SIZE - 1 - Long.numberOfLeadingZeros(alleles)) / 2;
+        char[] bases = new char[numBases];
+        for (int i = numBases - 1; i >= 0; i--) {
+            bases[i] = BASES[(int) (alleles & 3)];
+            alleles >>>= 2;
+        }
+        return AlleleKey.newBuilder()
+                .setChr(chromosome)
+                .setPosition(position)
+                .setRef(new String(bases, 0, refLength))
+                .setAlt(new String(bases, refLength, numBases - refLength))
+                .build();
+    }
+
+    private static int encodeBase(char base) {
+        switch (base) {
+            case 'A':
+                return 0;
+            case 'C':
+                return 1;
+            case 'G':
+                return 2;
+            case 'T':
+                return 3;
+            default:
+                return -1;
+        }
+    }
+
+    // MurmurHash3 64-bit finaliser - spreads the position bits, which vary the most, over the whole hash
+    private static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "VariantDataCache{" +
+                "maxSize=" + maxSize +
+                ", size=" + size() +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", evictions=" + getEvictionCount() +
+                '}';
+    }
+
+    private static class Segment<V> {
+
+        private final long[] keys;
+        private final Object[] values;
+        private int size;
+        private int nextVictim;
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        private Segment(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized V get(long key, long hash) {
+            int capacity = keys.length;
+            int index = startIndex(hash, capacity);
+            int probes = Math.min(PROBE_LENGTH, capacity);
+            for (int i = 0; i < probes; i++) {
+                long slotKey = keys[index];
+                if (slotKey == key) {
+                    hits++;
+                    return (V) values[index];
+                }
+                if (slotKey == UNENCODABLE) {
+                    break;
+                }
+                index = nextIndex(index, capacity);
+            }
+            misses++;
+            return null;
+        }
+
+        private synchronized void put(long key, long hash, V value) {
+            int capacity = keys.length;
+            int start = startIndex(hash, capacity);
+            int probes = Math.min(PROBE_LENGTH, capacity);
+            int index = start;
+            for (int i = 0; i < probes; i++) {
+                long slotKey = keys[index];
+                if (slotKey == key) {
+                    values[index] = value;
+                    return;
+                }
+                if (slotKey == UNENCODABLE) {
+                    keys[index] = key;
+                    values[index] = value;
+                    size++;
+                    return;
+                }
+                index = nextIndex(index, capacity);
+            }
+            // all the slots for this key are in use, so replace one of them in turn
+            int victim = (start + nextVictim) % capacity;
+            nextVictim = (nextVictim + 1) % probes;
+            keys[victim] = key;
+            values[victim] = value;
+            evictions++;
+        }
+
+        private static int startIndex(long hash, int capacity) {
+            return (int) ((hash & Long.MAX_VALUE) % capacity);
+        }
+
+        private static int nextIndex(int index, int capacity) {
+            int next = index + 1;
+            return next == capacity ? 0 : next;
+        }
+
+        private synchronized long[] keys() {
+            long[] occupied = new long[size];
+            int count = 0;
+            for (long key : keys) {
+                if (key != UNENCODABLE) {
+                    occupied[count++] = key;
+                }
+            }
+            return occupied;
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized long hits() {
+            return hits;
+        }
+
+        private synchronized long misses() {
+            return misses;
+        }
+
+        private synchronized long evictions() {
+            return evictions;
+        }
+    }
+}
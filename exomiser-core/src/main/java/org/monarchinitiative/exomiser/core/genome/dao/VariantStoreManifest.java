@@ -0,0 +1,234 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Describes a variants store which has been split into one MVStore file per chromosome. The manifest is a tab-separated
+ * file with a line for each chromosome giving the chromosome id, the name of the store file, relative to the manifest,
+ * the number of alleles in it and the build id of the variants store it was split from. e.g.
+ * <pre>
+ * #chr	file	alleles	build_id
+ * 1	1902_hg19_variants_chr1.mv.db	40123456	8f2c1d5e-3b7a-4c9e-a1d2-6e5f4b3a2c1d
+ * </pre>
+ * Manifests written before the build id was recorded have an empty build id for each chromosome.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class VariantStoreManifest {
+
+    private static final String HEADER = "#chr\tfile\talleles\tbuild_id";
+
+    private final SortedMap<Integer, Shard> shards;
+
+    private VariantStoreManifest(SortedMap<Integer, Shard> shards) {
+        this.shards = Collections.unmodifiableSortedMap(shards);
+    }
+
+    public static VariantStoreManifest of(Collection<Shard> shards) {
+        SortedMap<Integer, Shard> shardsByChr = new TreeMap<>();
+        for (Shard shard : shards) {
+            Shard previous = shardsByChr.put(shard.getChr(), shard);
+            if (previous != null) {
+                throw new IllegalArgumentException("Duplicate shards for chromosome " + shard.getChr());
+            }
+        }
+        return new VariantStoreManifest(shardsByChr);
+    }
+
+    public static VariantStoreManifest read(Path manifestPath) {
+        List<Shard> shards = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(manifestPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#") || line.isEmpty()) {
+                    continue;
+                }
+                String[] tokens = line.split("\t");
+                if (tokens.length < 3) {
+                    throw new IllegalArgumentException("Invalid line in variant store manifest " + manifestPath + ": " + line);
+                }
+                String buildId = tokens.length > 3 ? tokens[3] : "";
+                shards.add(Shard.of(Integer.parseInt(tokens[0]), tokens[1], Long.parseLong(tokens[2]), buildId));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read variant store manifest " + manifestPath, e);
+        }
+        return of(shards);
+    }
+
+    public void write(Path manifestPath) {
+        try (BufferedWriter writer = Files.newBufferedWriter(manifestPath, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Shard shard : shards.values()) {
+                writer.write(shard.getChr() + "\t" + shard.getFileName() + "\t" + shard.getNumAlleles() + "\t" + shard.getBuildId());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write variant store manifest " + manifestPath, e);
+        }
+    }
+
+    /**
+     * @return a new manifest with the shards provided replacing any existing shards for the same chromosome.
+     */
+    public VariantStoreManifest withShards(Collection<Shard> replacementShards) {
+        SortedMap<Integer, Shard> shardsByChr = new TreeMap<>(shards);
+        for (Shard shard : replacementShards) {
+            shardsByChr.put(shard.getChr(), shard);
+        }
+        return new VariantStoreManifest(shardsByChr);
+    }
+
+    /**
+     * @return the shards in order of chromosome
+     */
+    public List<Shard> getShards() {
+        return Collections.unmodifiableList(new ArrayList<>(shards.values()));
+    }
+
+    public Optional<Shard> getShard(int chr) {
+        return Optional.ofNullable(shards.get(chr));
+    }
+
+    public long getNumAlleles() {
+        long numAlleles = 0;
+        for (Shard shard : shards.values()) {
+            numAlleles += shard.getNumAlleles();
+        }
+        return numAlleles;
+    }
+
+    /**
+     * Returns the build id of the variants store the shards were split from. Where only some of the shards have been
+     * rewritten from a newer variants store the shards will have different build ids, in which case the manifest no
+     * longer describes a single variants store and this will be empty.
+     *
+     * @return the build id shared by all of the shards, or empty if there are no shards or they do not all share the
+     * same build id.
+     */
+    public Optional<String> getBuildId() {
+        Set<String> buildIds = new HashSet<>();
+        for (Shard shard : shards.values()) {
+            buildIds.add(shard.getBuildId());
+        }
+        return buildIds.size() == 1 ? Optional.of(buildIds.iterator().next()) : Optional.empty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        VariantStoreManifest that = (VariantStoreManifest) o;
+        return shards.equals(that.shards);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(shards);
+    }
+
+    @Override
+    public String toString() {
+        return "VariantStoreManifest{" +
+                "shards=" + shards.values() +
+                '}';
+    }
+
+    /**
+     * A single chromosome store within the manifest.
+     */
+    public static class Shard {
+
+        private final int chr;
+        private final String fileName;
+        private final long numAlleles;
+        private final String buildId;
+
+        private Shard(int chr, String fileName, long numAlleles, String buildId) {
+            this.chr = chr;
+            this.fileName = Objects.requireNonNull(fileName);
+            this.numAlleles = numAlleles;
+            this.buildId = Objects.requireNonNull(buildId);
+        }
+
+        public static Shard of(int chr, String fileName, long numAlleles) {
+            return new Shard(chr, fileName, numAlleles, "");
+        }
+
+        public static Shard of(int chr, String fileName, long numAlleles, String buildId) {
+            return new Shard(chr, fileName, numAlleles, buildId);
+        }
+
+        public int getChr() {
+            return chr;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public long getNumAlleles() {
+            return numAlleles;
+        }
+
+        public String getBuildId() {
+            return buildId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Shard shard = (Shard) o;
+            return chr == shard.chr &&
+                    numAlleles == shard.numAlleles &&
+                    fileName.equals(shard.fileName) &&
+                    buildId.equals(shard.buildId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(chr, fileName, numAlleles, buildId);
+        }
+
+        @Override
+        public String toString() {
+            return "Shard{" +
+                    "chr=" + chr +
+                    ", fileName='" + fileName + '\'' +
+                    ", numAlleles=" + numAlleles +
+                    ", buildId='" + buildId + '\'' +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.dao.serialisers;
+
+import org.h2.mvstore.type.DataType;
+
+/**
+ * The formats in which the {@link org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties} values of
+ * the alleles map can be stored. The format of a store is recorded when the map is created by
+ * {@link MvStoreUtil#openAlleleMVMap(org.h2.mvstore.MVStore, AllelePropertiesFormat)}. Stores without a recorded
+ * format are in the original {@link #PROTOBUF} format.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public enum AllelePropertiesFormat {
+
+    /**
+     * Length-prefixed protobuf messages, as used by all stores built prior to 12.1.0.
+     */
+    PROTOBUF(AllelePropertiesDataType.INSTANCE),
+    /**
+     * Bitmask of the properties present followed by their values as 32-bit floats.
+     */
+    COMPACT(CompactAllelePropertiesDataType.INSTANCE),
+    /**
+     * As {@link #COMPACT}, but with the values quantised to 16-bit floats.
+     */
+    COMPACT_FLOAT16(CompactAllelePropertiesDataType.FLOAT16_INSTANCE);
+
+    private final DataType dataType;
+
+    AllelePropertiesFormat(DataType dataType) {
+        this.dataType = dataType;
+    }
+
+    public DataType getDataType() {
+        return dataType;
+    }
+}
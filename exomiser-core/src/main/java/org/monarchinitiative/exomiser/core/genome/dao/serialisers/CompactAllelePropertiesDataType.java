@@ -0,0 +1,374 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.dao.serialisers;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.h2.mvstore.DataUtils;
+import org.h2.mvstore.WriteBuffer;
+import org.h2.mvstore.type.DataType;
+import org.h2.util.Utils;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.ClinVar;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact {@link DataType} for (de)serialising {@link AlleleProperties} objects into and out of the
+ * {@link org.h2.mvstore.MVStore}. Rather than writing the string keys of the properties map, each value is written
+ * as a header byte, a bitmask of the known properties present and their values in a fixed order, optionally quantised
+ * to 16-bit floats.
+ * <p>
+ * The known properties are decoded into the {@code property_mask} and {@code property_values} fields of the
+ * {@link AlleleProperties} rather than its properties map, so that no keys are parsed and no values boxed. These are
+ * read using the index of each property in {@link #getPropertyKeys()}, as done by the
+ * {@link org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor}. Consequently a decoded value is not equal to
+ * the value written from a properties map, although it holds the same data. Use {@link #expandPropertyMask} to convert
+ * a decoded value back into the properties map form before comparing or merging it with other values. Should a key be
+ * present in both the mask and the properties map, the value in the properties map is used.
+ * <p>
+ * The order of {@link #PROPERTY_KEYS} is part of the stored format. New keys can be appended to the end of the array,
+ * but existing keys must never be re-ordered or removed. Any properties not in the array are written in full after the
+ * known properties.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class CompactAllelePropertiesDataType implements DataType {
+
+    public static final CompactAllelePropertiesDataType INSTANCE = new CompactAllelePropertiesDataType(false);
+    /**
+     * Writes the property values as 16-bit floats. This is lossy, with a relative precision of about 0.1% for
+     * values over 6.1e-5, becoming progressively coarser below this.
+     */
+    public static final CompactAllelePropertiesDataType FLOAT16_INSTANCE = new CompactAllelePropertiesDataType(true);
+
+    static final String[] PROPERTY_KEYS = {
+            "KG", "TOPMED", "UK10K",
+            "ESP_EA", "ESP_AA", "ESP_ALL",
+            "EXAC_AFR", "EXAC_AMR", "EXAC_EAS", "EXAC_FIN", "EXAC_NFE", "EXAC_OTH", "EXAC_SAS",
+            "GNOMAD_E_AFR", "GNOMAD_E_AMR", "GNOMAD_E_ASJ", "GNOMAD_E_EAS", "GNOMAD_E_FIN", "GNOMAD_E_NFE", "GNOMAD_E_OTH", "GNOMAD_E_SAS",
+            "GNOMAD_G_AFR", "GNOMAD_G_AMR", "GNOMAD_G_ASJ", "GNOMAD_G_EAS", "GNOMAD_G_FIN", "GNOMAD_G_NFE", "GNOMAD_G_OTH",
+            "SIFT", "POLYPHEN", "MUT_TASTER", "CADD", "REMM",
+            "REVEL", "MCAP", "MPC", "MVP", "PRIMATE_AI",
+            "GNOMAD_G_SAS"
+    };
+
+    private static final List<String> PROPERTY_KEY_LIST = Collections.unmodifiableList(Arrays.asList(PROPERTY_KEYS));
+
+    private static final Map<String, Integer> PROPERTY_INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < PROPERTY_KEYS.length; i++) {
+            PROPERTY_INDEX.put(PROPERTY_KEYS[i], i);
+        }
+    }
+
+    // header flags
+    private static final int NUMERIC_RS_ID = 1;
+    private static final int STRING_RS_ID = 1 << 1;
+    private static final int CLINVAR = 1 << 2;
+    private static final int FLOAT16 = 1 << 3;
+    private static final int OTHER_PROPERTIES = 1 << 4;
+
+    private final boolean float16;
+
+    private CompactAllelePropertiesDataType(boolean float16) {
+        this.float16 = float16;
+    }
+
+    /**
+     * @return the keys of the known properties, indexed by their bit in the {@code property_mask} of the decoded
+     * {@link AlleleProperties}
+     */
+    public static List<String> getPropertyKeys() {
+        return PROPERTY_KEY_LIST;
+    }
+
+    /**
+     * Moves the values of the {@code property_mask} and {@code property_values} fields into the properties map, so that
+     * the result can be compared or merged with properties built using the map. Where a key is present in both, the
+     * value already in the properties map is kept.
+     *
+     * @param alleleProperties properties which may have been read by this {@link DataType}
+     * @return properties with all the values held in the properties map
+     * @throws IllegalArgumentException if the number of values does not match the property mask
+     */
+    public static AlleleProperties expandPropertyMask(AlleleProperties alleleProperties) {
+        long propertyMask = alleleProperties.getPropertyMask();
+        checkPropertyValuesMatchMask(alleleProperties);
+        if (propertyMask == 0) {
+            return alleleProperties;
+        }
+        AlleleProperties.Builder builder = alleleProperties.toBuilder()
+                .clearPropertyMask()
+                .clearPropertyValues();
+        for (int i = 0; propertyMask != 0; i++) {
+            String key = PROPERTY_KEYS[Long.numberOfTrailingZeros(propertyMask)];
+            if (!alleleProperties.containsProperties(key)) {
+                builder.putProperties(key, alleleProperties.getPropertyValues(i));
+            }
+            propertyMask &= propertyMask - 1;
+        }
+        return builder.build();
+    }
+
+    private static void checkPropertyValuesMatchMask(AlleleProperties props) {
+        long propertyMask = props.getPropertyMask();
+        if (Long.bitCount(propertyMask) != props.getPropertyValuesCount()) {
+            throw new IllegalArgumentException("Property mask " + Long.toBinaryString(propertyMask) + " does not match the " + props.getPropertyValuesCount() + " property values");
+        }
+    }
+
+    @Override
+    public int compare(Object a, Object b) {
+        return -1;
+    }
+
+    @Override
+    public int getMemory(Object obj) {
+        AlleleProperties props = (AlleleProperties) obj;
+        return props.getSerializedSize();
+    }
+
+    @Override
+    public void read(ByteBuffer buff, Object[] obj, int len, boolean key) {
+        for (int i = 0; i < len; i++) {
+            obj[i] = read(buff);
+        }
+    }
+
+    @Override
+    public void write(WriteBuffer buff, Object[] obj, int len, boolean key) {
+        for (int i = 0; i < len; i++) {
+            write(buff, obj[i]);
+        }
+    }
+
+    @Override
+    public AlleleProperties read(ByteBuffer buff) {
+        int header = buff.get();
+        AlleleProperties.Builder builder = AlleleProperties.newBuilder();
+
+        long presentProperties = DataUtils.readVarLong(buff);
+        if (presentProperties >>> PROPERTY_KEYS.length != 0) {
+            throw new InvalidAlleleProtoException(new IllegalStateException("Unknown properties in bitmask " + Long.toBinaryString(presentProperties)));
+        }
+        builder.setPropertyMask(presentProperties);
+        int numValues = Long.bitCount(presentProperties);
+        boolean float16Values = (header & FLOAT16) != 0;
+        for (int i = 0; i < numValues; i++) {
+            builder.addPropertyValues(float16Values ? fromFloat16(buff.getShort()) : buff.getFloat());
+        }
+        if ((header & OTHER_PROPERTIES) != 0) {
+            int numOther = DataUtils.readVarInt(buff);
+            for (int i = 0; i < numOther; i++) {
+                builder.putProperties(readString(buff), buff.getFloat());
+            }
+        }
+
+        if ((header & NUMERIC_RS_ID) != 0) {
+            builder.setRsId("rs" + DataUtils.readVarLong(buff));
+        } else if ((header & STRING_RS_ID) != 0) {
+            builder.setRsId(readString(buff));
+        }
+
+        if ((header & CLINVAR) != 0) {
+            int len = DataUtils.readVarInt(buff);
+            byte[] data = Utils.newBytes(len);
+            buff.get(data);
+            try {
+                builder.setClinVar(ClinVar.parseFrom(data));
+            } catch (InvalidProtocolBufferException e) {
+                throw new InvalidAlleleProtoException(e);
+            }
+        }
+        return builder.build();
+    }
+
+    private static String readString(ByteBuffer buff) {
+        int len = DataUtils.readVarInt(buff);
+        return DataUtils.readString(buff, len);
+    }
+
+    @Override
+    public void write(WriteBuffer buff, Object obj) {
+        AlleleProperties props = (AlleleProperties) obj;
+
+        float[] values = new float[PROPERTY_KEYS.length];
+        // values previously read from this format are written straight back, followed by any in the properties map. A
+        // key present in both is only written once, with the value from the properties map.
+        checkPropertyValuesMatchMask(props);
+        long presentProperties = props.getPropertyMask();
+        long mask = presentProperties;
+        for (int i = 0; mask != 0; i++) {
+            values[Long.numberOfTrailingZeros(mask)] = props.getPropertyValues(i);
+            mask &= mask - 1;
+        }
+
+        Map<String, Float> properties = props.getPropertiesMap();
+        Map<String, Float> otherProperties = new HashMap<>();
+        for (Map.Entry<String, Float> entry : properties.entrySet()) {
+            Integer index = PROPERTY_INDEX.get(entry.getKey());
+            if (index == null) {
+                otherProperties.put(entry.getKey(), entry.getValue());
+            } else {
+                presentProperties |= 1L << index;
+                values[index] = entry.getValue();
+            }
+        }
+
+        String rsId = props.getRsId();
+        long rsIdNumber = parseRsIdNumber(rsId);
+        // an explicitly set, but empty, ClinVar is written as zero bytes so that it is still set once read
+        boolean hasClinVar = props.hasClinVar();
+
+        int header = 0;
+        if (rsIdNumber >= 0) {
+            header |= NUMERIC_RS_ID;
+        } else if (!rsId.isEmpty()) {
+            header |= STRING_RS_ID;
+        }
+        if (hasClinVar) {
+            header |= CLINVAR;
+        }
+        if (float16) {
+            header |= FLOAT16;
+        }
+        if (!otherProperties.isEmpty()) {
+            header |= OTHER_PROPERTIES;
+        }
+        buff.put((byte) header);
+
+        buff.putVarLong(presentProperties);
+        while (presentProperties != 0) {
+            int index = Long.numberOfTrailingZeros(presentProperties);
+            if (float16) {
+                buff.putShort(toFloat16(values[index]));
+            } else {
+                buff.putFloat(values[index]);
+            }
+            presentProperties &= presentProperties - 1;
+        }
+        if (!otherProperties.isEmpty()) {
+            buff.putVarInt(otherProperties.size());
+            for (Map.Entry<String, Float> entry : otherProperties.entrySet()) {
+                writeString(buff, entry.getKey());
+                buff.putFloat(entry.getValue());
+            }
+        }
+
+        if (rsIdNumber >= 0) {
+            buff.putVarLong(rsIdNumber);
+        } else if (!rsId.isEmpty()) {
+            writeString(buff, rsId);
+        }
+
+        if (hasClinVar) {
+            byte[] data = props.getClinVar().toByteArray();
+            buff.putVarInt(data.length).put(data);
+        }
+    }
+
+    private static void writeString(WriteBuffer buff, String value) {
+        int len = value.length();
+        buff.putVarInt(len).putStringData(value, len);
+    }
+
+    /**
+     * Returns the number of an rsId in the canonical form 'rs1234', or -1 if the rsId is not of this form and needs to
+     * be written as a string. Leading zeros are not canonical, as these would be lost on reading.
+     */
+    private static long parseRsIdNumber(String rsId) {
+        int length = rsId.length();
+        if (length < 3 || length > 20 || !rsId.startsWith("rs") || rsId.charAt(2) == '0') {
+            return -1;
+        }
+        long number = 0;
+        for (int i = 2; i < length; i++) {
+            char c = rsId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    /**
+     * Converts a float to the bits of the nearest IEEE 754 half-precision float. Values too large for a half-precision
+     * float become infinity.
+     */
+    static short toFloat16(float value) {
+        int bits = Float.floatToIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        if (Float.isNaN(value)) {
+            return (short) (sign | 0x7e00);
+        }
+        int abs = bits & 0x7fffffff;
+        // add half of the lowest retained mantissa bit to round the result
+        int rounded = abs + 0x1000;
+        if (rounded >= 0x47800000) {
+            // infinity or too large to be represented
+            return (short) (sign | 0x7c00);
+        }
+        if (rounded >= 0x38800000) {
+            // normal half-precision value - re-bias the exponent from 127 to 15
+            return (short) (sign | ((rounded - 0x38000000) >>> 13));
+        }
+        if (abs < 0x33000000) {
+            // too small to be represented as a sub-normal value
+            return (short) sign;
+        }
+        int exponent = abs >>> 23;
+        int mantissa = (abs & 0x7fffff) | 0x800000;
+        return (short) (sign | ((mantissa + (0x800000 >>> (exponent - 102))) >>> (126 - exponent)));
+    }
+
+    /**
+     * Converts the bits of an IEEE 754 half-precision float to a float.
+     */
+    static float fromFloat16(short half) {
+        int sign = (half & 0x8000) << 16;
+        int exponent = half & 0x7c00;
+        int mantissa = half & 0x03ff;
+        if (exponent == 0x7c00) {
+            // infinity or NaN
+            exponent = 0x3fc00;
+        } else if (exponent != 0) {
+            // normal value - re-bias the exponent from 15 to 127
+            exponent += 0x1c000;
+        } else if (mantissa != 0) {
+            // sub-normal value - normalise the mantissa
+            exponent = 0x1c400;
+            do {
+                mantissa <<= 1;
+                exponent -= 0x400;
+            } while ((mantissa & 0x400) == 0);
+            mantissa &= 0x3ff;
+        }
+        return Float.intBitsToFloat(sign | (exponent | mantissa) << 13);
+    }
+}
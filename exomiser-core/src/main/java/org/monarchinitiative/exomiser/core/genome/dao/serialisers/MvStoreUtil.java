@@ -39,6 +39,9 @@ public class MvStoreUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(MvStoreUtil.class);
     private static final String ALLELE_MAP_NAME = "alleles";
+    private static final String ALLELE_FORMAT_MAP_NAME = "alleles_format";
+    private static final String ALLELE_FORMAT_KEY = "format";
+    private static final String BUILD_ID_KEY = "build_id";
 
     private MvStoreUtil() {
         //static utility class - not instantiable
@@ -57,16 +60,93 @@ public static MVMap<AlleleKey, AlleleProperties> openAlleleMVMap(MVStore mvStore
         if (!mvStore.hasMap(ALLELE_MAP_NAME)) {
             logger.warn("MVStore does not contain map '{}' - creating new map instance.", ALLELE_MAP_NAME);
         }
-        MVMap<AlleleKey, AlleleProperties> map = mvStore.openMap(ALLELE_MAP_NAME, MvStoreUtil.alleleMapBuilder());
+        AllelePropertiesFormat format = getAllelePropertiesFormat(mvStore);
+        MVMap<AlleleKey, AlleleProperties> map = mvStore.openMap(ALLELE_MAP_NAME, MvStoreUtil.alleleMapBuilder(format));
         if (!map.isEmpty()) {
-            logger.debug("MVMap '{}' opened with {} entries", ALLELE_MAP_NAME, map.size());
+            logger.debug("MVMap '{}' opened with {} entries in {} format", ALLELE_MAP_NAME, map.size(), format);
         }
         return map;
     }
 
+    /**
+     * Opens the 'alleles' map from the {@link MVStore} for writing values in the given format. If the store does not
+     * already contain this map, a new one will be created and the format recorded in the store.
+     *
+     * @param mvStore The {@code MVStore} to be used for the 'alleles' {@link MVMap}
+     * @param format  The format of the {@link AlleleProperties} values
+     * @return an instance of the {@link MVMap}. This map may be empty.
+     * @throws IllegalStateException if the store already contains an 'alleles' map in a different format
+     * @since 12.1.0
+     */
+    public static MVMap<AlleleKey, AlleleProperties> openAlleleMVMap(MVStore mvStore, AllelePropertiesFormat format) {
+        Objects.requireNonNull(mvStore);
+        Objects.requireNonNull(format);
+        if (mvStore.hasMap(ALLELE_MAP_NAME)) {
+            AllelePropertiesFormat storedFormat = getAllelePropertiesFormat(mvStore);
+            if (storedFormat != format) {
+                throw new IllegalStateException(String.format("MVStore map '%s' is stored in %s format, not %s", ALLELE_MAP_NAME, storedFormat, format));
+            }
+        } else {
+            MVMap<String, String> formatMap = mvStore.openMap(ALLELE_FORMAT_MAP_NAME);
+            formatMap.put(ALLELE_FORMAT_KEY, format.name());
+        }
+        return mvStore.openMap(ALLELE_MAP_NAME, MvStoreUtil.alleleMapBuilder(format));
+    }
+
+    /**
+     * Returns the format of the {@link AlleleProperties} values in the 'alleles' map of the {@link MVStore}. Stores
+     * without a recorded format are assumed to be in the {@link AllelePropertiesFormat#PROTOBUF} format.
+     *
+     * @param mvStore The {@code MVStore} containing the 'alleles' {@link MVMap}
+     * @return the format of the allele values in the store
+     * @since 12.1.0
+     */
+    public static AllelePropertiesFormat getAllelePropertiesFormat(MVStore mvStore) {
+        if (!mvStore.hasMap(ALLELE_FORMAT_MAP_NAME)) {
+            return AllelePropertiesFormat.PROTOBUF;
+        }
+        MVMap<String, String> formatMap = mvStore.openMap(ALLELE_FORMAT_MAP_NAME);
+        String format = formatMap.get(ALLELE_FORMAT_KEY);
+        return format == null ? AllelePropertiesFormat.PROTOBUF : AllelePropertiesFormat.valueOf(format);
+    }
+
+    /**
+     * Records the id of the build which wrote the 'alleles' map, so that files derived from the store, such as the
+     * {@link org.monarchinitiative.exomiser.core.genome.dao.AlleleKeyFilter}, can be checked against it.
+     *
+     * @param mvStore The {@code MVStore} containing the 'alleles' {@link MVMap}
+     * @param buildId A unique id for the build of the store
+     * @since 12.1.0
+     */
+    public static void setBuildId(MVStore mvStore, String buildId) {
+        Objects.requireNonNull(buildId);
+        MVMap<String, String> formatMap = mvStore.openMap(ALLELE_FORMAT_MAP_NAME);
+        formatMap.put(BUILD_ID_KEY, buildId);
+    }
+
+    /**
+     * @param mvStore The {@code MVStore} containing the 'alleles' {@link MVMap}
+     * @return the id of the build which wrote the store, or an empty string for stores without a recorded build id
+     * @since 12.1.0
+     */
+    public static String getBuildId(MVStore mvStore) {
+        if (!mvStore.hasMap(ALLELE_FORMAT_MAP_NAME)) {
+            return "";
+        }
+        MVMap<String, String> formatMap = mvStore.openMap(ALLELE_FORMAT_MAP_NAME);
+        return formatMap.getOrDefault(BUILD_ID_KEY, "");
+    }
+
     public static MVMap.Builder<AlleleKey, AlleleProperties> alleleMapBuilder() {
+        return alleleMapBuilder(AllelePropertiesFormat.PROTOBUF);
+    }
+
+    /**
+     * @since 12.1.0
+     */
+    public static MVMap.Builder<AlleleKey, AlleleProperties> alleleMapBuilder(AllelePropertiesFormat format) {
         return new MVMap.Builder<AlleleKey, AlleleProperties>()
                 .keyType(AlleleKeyDataType.INSTANCE)
-                .valueType(AllelePropertiesDataType.INSTANCE);
+                .valueType(format.getDataType());
     }
 }
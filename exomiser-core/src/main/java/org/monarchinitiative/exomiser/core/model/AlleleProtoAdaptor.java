@@ -21,6 +21,7 @@
 package org.monarchinitiative.exomiser.core.model;
 
 import com.google.common.collect.ImmutableMap;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.CompactAllelePropertiesDataType;
 import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
@@ -95,6 +96,21 @@ public class AlleleProtoAdaptor {
             .put("PRIMATE_AI", PRIMATE_AI)
             .build();
 
+    // The sources of the values in the AlleleProto.AlleleProperties property_values, indexed by their bit in the
+    // property_mask. These are null where the property is not of the source type. Where a property is also present in
+    // the propertiesMap the value from the map is used, as in the CompactAllelePropertiesDataType.
+    private static final List<String> PROPERTY_KEYS = CompactAllelePropertiesDataType.getPropertyKeys();
+    private static final FrequencySource[] INDEXED_FREQUENCY_SOURCES = indexSources(FREQUENCY_SOURCE_MAP, new FrequencySource[0]);
+    private static final PathogenicitySource[] INDEXED_PATHOGENICITY_SOURCES = indexSources(PATHOGENICITY_SOURCE_MAP, new PathogenicitySource[0]);
+
+    private static <T> T[] indexSources(Map<String, T> sourceMap, T[] type) {
+        T[] indexedSources = Arrays.copyOf(type, PROPERTY_KEYS.size());
+        for (int i = 0; i < PROPERTY_KEYS.size(); i++) {
+            indexedSources[i] = sourceMap.get(PROPERTY_KEYS.get(i));
+        }
+        return indexedSources;
+    }
+
     private AlleleProtoAdaptor() {
         //un-instantiable utility class
     }
@@ -117,12 +133,22 @@ public static FrequencyData toFrequencyData(AlleleProperties alleleProperties) {
             return FrequencyData.empty();
         }
         RsId rsId = RsId.of(alleleProperties.getRsId());
-        List<Frequency> frequencies = parseFrequencyData(alleleProperties.getPropertiesMap());
+        List<Frequency> frequencies = parseFrequencyData(alleleProperties);
         return FrequencyData.of(rsId, frequencies);
     }
 
-    private static List<Frequency> parseFrequencyData(Map<String, Float> values) {
-        List<Frequency> frequencies = new ArrayList<>(values.size());
+    private static List<Frequency> parseFrequencyData(AlleleProperties alleleProperties) {
+        Map<String, Float> values = alleleProperties.getPropertiesMap();
+        List<Frequency> frequencies = new ArrayList<>(alleleProperties.getPropertyValuesCount() + values.size());
+        long propertyMask = alleleProperties.getPropertyMask();
+        for (int i = 0; propertyMask != 0; i++) {
+            int index = Long.numberOfTrailingZeros(propertyMask);
+            FrequencySource source = INDEXED_FREQUENCY_SOURCES[index];
+            if (source != null && !isInPropertiesMap(values, index)) {
+                frequencies.add(Frequency.of(source, alleleProperties.getPropertyValues(i)));
+            }
+            propertyMask &= propertyMask - 1;
+        }
         for (Map.Entry<String, Float> field : values.entrySet()) {
             String key = field.getKey();
             if (FREQUENCY_SOURCE_MAP.containsKey(key)) {
@@ -134,17 +160,31 @@ private static List<Frequency> parseFrequencyData(Map<String, Float> values) {
         return frequencies;
     }
 
+    private static boolean isInPropertiesMap(Map<String, Float> values, int propertyIndex) {
+        return !values.isEmpty() && values.containsKey(PROPERTY_KEYS.get(propertyIndex));
+    }
+
     public static PathogenicityData toPathogenicityData(AlleleProperties alleleProperties) {
         if (alleleProperties.equals(AlleleProperties.getDefaultInstance())) {
             return PathogenicityData.empty();
         }
-        List<PathogenicityScore> pathogenicityScores = parsePathogenicityData(alleleProperties.getPropertiesMap());
+        List<PathogenicityScore> pathogenicityScores = parsePathogenicityData(alleleProperties);
         ClinVarData clinVarData = parseClinVarData(alleleProperties.getClinVar());
         return PathogenicityData.of(clinVarData, pathogenicityScores);
     }
 
-    private static List<PathogenicityScore> parsePathogenicityData(Map<String, Float> values) {
+    private static List<PathogenicityScore> parsePathogenicityData(AlleleProperties alleleProperties) {
+        Map<String, Float> values = alleleProperties.getPropertiesMap();
         List<PathogenicityScore> pathogenicityScores = new ArrayList<>();
+        long propertyMask = alleleProperties.getPropertyMask();
+        for (int i = 0; propertyMask != 0; i++) {
+            int index = Long.numberOfTrailingZeros(propertyMask);
+            PathogenicitySource source = INDEXED_PATHOGENICITY_SOURCES[index];
+            if (source != null && !isInPropertiesMap(values, index)) {
+                pathogenicityScores.add(PathogenicityScore.of(source, alleleProperties.getPropertyValues(i)));
+            }
+            propertyMask &= propertyMask - 1;
+        }
         for (Map.Entry<String, Float> field : values.entrySet()) {
             String key = field.getKey();
             if(PATHOGENICITY_SOURCE_MAP.containsKey(key)) {
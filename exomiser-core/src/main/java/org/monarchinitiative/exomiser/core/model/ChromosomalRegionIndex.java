@@ -1,7 +1,7 @@
 /*
  * The Exomiser - A tool to annotate and prioritize genomic variants
  *
- * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2016-2019 Queen Mary University of London.
  * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
  *
  * This program is free software: you can redistribute it and/or modify
@@ -20,33 +20,38 @@
 
 package org.monarchinitiative.exomiser.core.model;
 
-import com.google.common.collect.ImmutableMap;
-import de.charite.compbio.jannovar.impl.intervals.IntervalArray;
-import de.charite.compbio.jannovar.impl.intervals.IntervalEndExtractor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 
 import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toSet;
+import static java.util.stream.Collectors.toList;
 
 /**
- * Interval tree-backed index for chromosomal regions. It enables extremely fast in-memory lookups to find the regions
- * in which a variant can be found.
+ * Flat, sorted-array backed index for chromosomal regions. It enables extremely fast in-memory lookups to find the
+ * regions in which a variant can be found.
+ * <p>
+ * The regions of each chromosome are held in parallel primitive arrays of start, end and running maximum end positions
+ * sorted by start position, so a lookup is a binary search followed by a short backwards scan. Where the positions to be
+ * queried are in genomic order, as they are when streaming variants from a sorted VCF file, a {@link Sweep} will answer
+ * them in a single linear merge over the index.
  *
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  */
 public class ChromosomalRegionIndex<T extends ChromosomalRegion> {
 
-    private static final ChromosomalRegionIndex EMPTY = new ChromosomalRegionIndex<>(ImmutableMap.of());
-
     private static final Logger logger = LoggerFactory.getLogger(ChromosomalRegionIndex.class);
 
-    private final Map<Integer, IntervalArray<T>> index;
+    private static final ChromosomalRegionIndex EMPTY = new ChromosomalRegionIndex<>(new ChromosomeRegions[0], 0);
+
+    // indexed by chromosome number - null where there are no regions on a chromosome
+    private final ChromosomeRegions<T>[] index;
+    private final int size;
 
-    private ChromosomalRegionIndex(Map<Integer, IntervalArray<T>> index) {
+    private ChromosomalRegionIndex(ChromosomeRegions<T>[] index, int size) {
         this.index = index;
+        this.size = size;
     }
 
     /**
@@ -58,16 +63,24 @@ private ChromosomalRegionIndex(Map<Integer, IntervalArray<T>> index) {
      * @return a {@link ChromosomalRegionIndex} containing the input {@link ChromosomalRegion} objects
      * @since 11.0.0
      */
+    @SuppressWarnings("unchecked")
     public static <T extends ChromosomalRegion> ChromosomalRegionIndex<T> of(Collection<T> chromosomalRegions) {
-        Map<Integer, Set<T>> regionIndex = chromosomalRegions.stream().collect(groupingBy(T::getChromosome, toSet()));
+        Map<Integer, List<T>> regionIndex = chromosomalRegions.stream()
+                .filter(region -> region.getChromosome() >= 0)
+                .distinct()
+                .collect(groupingBy(T::getChromosome, toList()));
 
-        Map<Integer, IntervalArray<T>> intervalTreeIndex = new HashMap<>();
-        for (Map.Entry<Integer, Set<T>> entry : regionIndex.entrySet()) {
-            intervalTreeIndex.put(entry.getKey(), new IntervalArray<>(entry.getValue(), new ChromosomalRegionEndExtractor<>()));
+        int maxChromosome = regionIndex.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1);
+        ChromosomeRegions<T>[] index = new ChromosomeRegions[maxChromosome + 1];
+        int size = 0;
+        for (Map.Entry<Integer, List<T>> entry : regionIndex.entrySet()) {
+            ChromosomeRegions<T> chromosomeRegions = new ChromosomeRegions<>(entry.getValue());
+            index[entry.getKey()] = chromosomeRegions;
+            size += chromosomeRegions.size();
         }
-        logger.debug("Created index for {} chromosomes totalling {} regions", intervalTreeIndex.keySet().size(), intervalTreeIndex.values().stream().mapToInt(IntervalArray::size).sum());
+        logger.debug("Created index for {} chromosomes totalling {} regions", regionIndex.size(), size);
 
-        return new ChromosomalRegionIndex<>(intervalTreeIndex);
+        return new ChromosomalRegionIndex<>(index, size);
     }
 
     /**
@@ -81,8 +94,15 @@ public static <T extends ChromosomalRegion> ChromosomalRegionIndex<T> empty() {
         return (ChromosomalRegionIndex<T>) EMPTY;
     }
 
+    private ChromosomeRegions<T> getChromosomeRegions(int chromosome) {
+        if (chromosome < 0 || chromosome >= index.length) {
+            return null;
+        }
+        return index[chromosome];
+    }
+
     public boolean hasRegionContainingVariant(VariantCoordinates variant) {
-        return !getRegionsContainingVariant(variant).isEmpty();
+        return hasRegionContainingPosition(variant.getChromosome(), variant.getPosition());
     }
 
     /**
@@ -93,7 +113,8 @@ public boolean hasRegionContainingVariant(VariantCoordinates variant) {
      * @since 11.0.0
      */
     public boolean hasRegionContainingPosition(int chromosome, int position) {
-        return !getRegionsOverlappingPosition(chromosome, position).isEmpty();
+        ChromosomeRegions<T> chromosomeRegions = getChromosomeRegions(chromosome);
+        return chromosomeRegions != null && chromosomeRegions.containsPosition(position);
     }
 
     public List<T> getRegionsContainingVariant(VariantCoordinates variantCoordinates) {
@@ -103,19 +124,29 @@ public List<T> getRegionsContainingVariant(VariantCoordinates variantCoordinates
     }
 
     /**
-     * Use one-based co-ordinates for this method.
+     * Use one-based co-ordinates for this method. The regions are returned in order of their start position.
      *
      * @param chromosome
      * @param position
      * @return
      */
     public List<T> getRegionsOverlappingPosition(int chromosome, int position) {
-        IntervalArray<T> intervalTree = index.get(chromosome);
-        if (intervalTree == null) {
+        ChromosomeRegions<T> chromosomeRegions = getChromosomeRegions(chromosome);
+        if (chromosomeRegions == null) {
             return Collections.emptyList();
         }
-        IntervalArray<T>.QueryResult queryResult = intervalTree.findOverlappingWithPoint(position - 1);
-        return queryResult.getEntries();
+        return chromosomeRegions.getRegionsOverlappingPosition(position);
+    }
+
+    /**
+     * Returns a new {@link Sweep} for answering a series of queries in genomic order in linear time. Each
+     * {@link Sweep} holds its own position in the index so should only be used by a single thread.
+     *
+     * @return a new {@link Sweep} over this index
+     * @since 12.1.0
+     */
+    public Sweep<T> sweep() {
+        return new Sweep<>(this);
     }
 
     /**
@@ -124,7 +155,7 @@ public List<T> getRegionsOverlappingPosition(int chromosome, int position) {
      * @since 11.0.0
      */
     public int size() {
-        return index.values().stream().mapToInt(IntervalArray::size).sum();
+        return size;
     }
 
     @Override
@@ -132,25 +163,217 @@ public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChromosomalRegionIndex<?> that = (ChromosomalRegionIndex<?>) o;
-        return Objects.equals(index, that.index);
+        return size == that.size && Arrays.equals(index, that.index);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(index);
+        return Arrays.hashCode(index);
+    }
+
+    /**
+     * Stateful cursor over a {@link ChromosomalRegionIndex} for answering queries in genomic order. Regions are added to
+     * the set of active regions as the cursor moves past their start and are dropped once it has moved past their end,
+     * so a full pass over a sorted set of positions touches each region at most twice. Should a query move backwards or
+     * switch to a different chromosome, the cursor repositions itself using a binary search.
+     * <p>
+     * This class is not thread-safe.
+     *
+     * @since 12.1.0
+     */
+    public static final class Sweep<T extends ChromosomalRegion> {
+
+        private final ChromosomalRegionIndex<T> index;
+
+        private ChromosomeRegions<T> currentRegions = null;
+        private int currentChromosome = -1;
+        private int currentPosition = Integer.MIN_VALUE;
+        // index of the first region with a start after the current position
+        private int nextRegion = 0;
+        // indices of the regions which have started and not yet ended, in order of start position
+        private int[] active = new int[8];
+        private int numActive = 0;
+
+        private Sweep(ChromosomalRegionIndex<T> index) {
+            this.index = index;
+        }
+
+        public List<T> getRegionsContainingVariant(VariantCoordinates variantCoordinates) {
+            return getRegionsOverlappingPosition(variantCoordinates.getChromosome(), variantCoordinates.getPosition());
+        }
+
+        /**
+         * Use one-based co-ordinates for this method. The regions are returned in order of their start position.
+         */
+        public List<T> getRegionsOverlappingPosition(int chromosome, int position) {
+            if (chromosome != currentChromosome || position < currentPosition) {
+                reposition(chromosome, position);
+            }
+            currentPosition = position;
+            if (currentRegions == null) {
+                return Collections.emptyList();
+            }
+            advanceTo(position);
+            if (numActive == 0) {
+                return Collections.emptyList();
+            }
+            List<T> regions = new ArrayList<>(numActive);
+            for (int i = 0; i < numActive; i++) {
+                regions.add(currentRegions.getRegion(active[i]));
+            }
+            return regions;
+        }
+
+        private void reposition(int chromosome, int position) {
+            currentChromosome = chromosome;
+            currentRegions = index.getChromosomeRegions(chromosome);
+            numActive = 0;
+            nextRegion = 0;
+            if (currentRegions != null) {
+                // jump straight to the position rather than sweeping through all the preceding regions
+                nextRegion = currentRegions.numRegionsStartingAtOrBefore(position);
+                for (int i = currentRegions.firstCandidate(position, nextRegion); i < nextRegion; i++) {
+                    addActive(i);
+                }
+            }
+        }
+
+        private void advanceTo(int position) {
+            while (nextRegion < currentRegions.size() && currentRegions.getStart(nextRegion) <= position) {
+                addActive(nextRegion++);
+            }
+            // drop any regions which end before the position, preserving the order of the remainder
+            int retained = 0;
+            for (int i = 0; i < numActive; i++) {
+                int region = active[i];
+                if (currentRegions.getEnd(region) >= position) {
+                    active[retained++] = region;
+                }
+            }
+            numActive = retained;
+        }
+
+        private void addActive(int region) {
+            if (numActive == active.length) {
+                active = Arrays.copyOf(active, numActive * 2);
+            }
+            active[numActive++] = region;
+        }
     }
 
-    private static class ChromosomalRegionEndExtractor<T extends ChromosomalRegion> implements IntervalEndExtractor<T> {
+    /**
+     * The regions of a single chromosome sorted by start, then end position. The maxEnds array holds the greatest end
+     * position of all the regions up to and including that index which allows a backwards scan from the query position
+     * to stop as soon as no earlier region could possibly overlap the position.
+     */
+    private static final class ChromosomeRegions<T extends ChromosomalRegion> {
+
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] maxEnds;
+        private final Object[] regions;
+
+        private ChromosomeRegions(List<T> chromosomeRegions) {
+            List<T> sorted = new ArrayList<>(chromosomeRegions);
+            sorted.sort(Comparator.comparingInt(ChromosomalRegion::getStart).thenComparingInt(ChromosomalRegion::getEnd));
+            int numRegions = sorted.size();
+            starts = new int[numRegions];
+            ends = new int[numRegions];
+            maxEnds = new int[numRegions];
+            regions = new Object[numRegions];
+            int maxEnd = Integer.MIN_VALUE;
+            for (int i = 0; i < numRegions; i++) {
+                T region = sorted.get(i);
+                starts[i] = region.getStart();
+                ends[i] = region.getEnd();
+                maxEnd = Math.max(maxEnd, ends[i]);
+                maxEnds[i] = maxEnd;
+                regions[i] = region;
+            }
+        }
+
+        int size() {
+            return regions.length;
+        }
+
+        int getStart(int i) {
+            return starts[i];
+        }
+
+        int getEnd(int i) {
+            return ends[i];
+        }
+
+        @SuppressWarnings("unchecked")
+        T getRegion(int i) {
+            return (T) regions[i];
+        }
+
+        /**
+         * @return the number of regions with a start position less than or equal to the position, i.e. the index of the
+         * first region starting after the position.
+         */
+        int numRegionsStartingAtOrBefore(int position) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= position) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * @return the index of the earliest region which could overlap the position, using the running maximum end.
+         */
+        int firstCandidate(int position, int numStartingBefore) {
+            int i = numStartingBefore - 1;
+            while (i >= 0 && maxEnds[i] >= position) {
+                i--;
+            }
+            return i + 1;
+        }
+
+        boolean containsPosition(int position) {
+            int numStartingBefore = numRegionsStartingAtOrBefore(position);
+            for (int i = numStartingBefore - 1; i >= 0 && maxEnds[i] >= position; i--) {
+                if (ends[i] >= position) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<T> getRegionsOverlappingPosition(int position) {
+            int numStartingBefore = numRegionsStartingAtOrBefore(position);
+            int first = firstCandidate(position, numStartingBefore);
+            List<T> overlapping = Collections.emptyList();
+            for (int i = first; i < numStartingBefore; i++) {
+                if (ends[i] >= position) {
+                    if (overlapping.isEmpty()) {
+                        overlapping = new ArrayList<>(numStartingBefore - i);
+                    }
+                    overlapping.add(getRegion(i));
+                }
+            }
+            return overlapping;
+        }
 
         @Override
-        public int getBegin(T region) {
-            return region.getStart() - 1;
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ChromosomeRegions<?> that = (ChromosomeRegions<?>) o;
+            return Arrays.equals(regions, that.regions);
         }
 
         @Override
-        public int getEnd(T region) {
-            return region.getEnd();
+        public int hashCode() {
+            return Arrays.hashCode(regions);
         }
     }
-
 }
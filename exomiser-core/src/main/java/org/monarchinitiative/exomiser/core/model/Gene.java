@@ -23,6 +23,7 @@
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
 import org.monarchinitiative.exomiser.core.filters.FilterResult;
@@ -75,19 +76,23 @@ public class Gene implements Comparable<Gene>, Filterable, Inheritable {
     @JsonIgnore //cut down on repeated fields
     private final int entrezGeneId;
 
-    private final Set<FilterType> failedFilterTypes = new LinkedHashSet<>();
-    private final Set<FilterType> passedFilterTypes = new LinkedHashSet<>();
-    private final Map<FilterType, FilterResult> filterResults = new EnumMap<>(FilterType.class);
+    // A new Gene is created for every known gene in every analysis, the vast majority of which will never have any
+    // variants, filter results or scores added to them. The mutable state is therefore only allocated on first use.
+    // FilterType ordinals
+    private int failedFilterTypes = 0;
+    private int passedFilterTypes = 0;
+    private Map<FilterType, FilterResult> filterResults = Collections.emptyMap();
 
-    private GeneScore topGeneScore;
-    private final Map<ModeOfInheritance, GeneScore> geneScoreMap = new EnumMap<>(ModeOfInheritance.class);
+    // lazily created from the geneIdentifier if no GeneScore has been added
+    private volatile GeneScore topGeneScore;
+    private Map<ModeOfInheritance, GeneScore> geneScoreMap = Collections.emptyMap();
 
-    private final Map<PriorityType, PriorityResult> priorityResultsMap = new EnumMap<>(PriorityType.class);
+    private Map<PriorityType, PriorityResult> priorityResultsMap = Collections.emptyMap();
     /**
      * A list of all of the variants that affect this gene.
      */
-    private final List<VariantEvaluation> variantEvaluations = new ArrayList<>();
-    private Set<ModeOfInheritance> inheritanceModes = EnumSet.noneOf(ModeOfInheritance.class);
+    private List<VariantEvaluation> variantEvaluations = Collections.emptyList();
+    private volatile Set<ModeOfInheritance> inheritanceModes = ImmutableSet.of();
 
     /**
      * Preferred constructor. Given the {@link GeneIdentifier} contains all the data it can
@@ -103,8 +108,6 @@ public Gene(GeneIdentifier geneIdentifier) {
 
         this.geneSymbol = geneIdentifier.getGeneSymbol();
         this.entrezGeneId = geneIdentifier.getEntrezIdAsInteger();
-
-        this.topGeneScore = GeneScore.builder().geneIdentifier(geneIdentifier).build();
     }
 
     /**
@@ -208,6 +211,9 @@ public boolean hasVariants() {
     public final void addVariant(VariantEvaluation var) {
         Objects.requireNonNull(var);
         addGeneFilterResultsToVariant(var);
+        if (variantEvaluations.isEmpty()) {
+            variantEvaluations = new ArrayList<>();
+        }
         variantEvaluations.add(var);
     }
 
@@ -304,6 +310,9 @@ public boolean isYChromosomal() {
      */
     public void addPriorityResult(PriorityResult priorityResult) {
         Objects.requireNonNull(priorityResult);
+        if (priorityResultsMap.isEmpty()) {
+            priorityResultsMap = new EnumMap<>(PriorityType.class);
+        }
         priorityResultsMap.put(priorityResult.getPriorityType(), priorityResult);
     }
 
@@ -332,13 +341,26 @@ public Map<PriorityType, PriorityResult> getPriorityResults() {
      */
     public synchronized void addGeneScore(GeneScore geneScore) {
         Objects.requireNonNull(geneScore);
+        if (geneScoreMap.isEmpty()) {
+            geneScoreMap = new EnumMap<>(ModeOfInheritance.class);
+        }
         geneScoreMap.put(geneScore.getModeOfInheritance(), geneScore);
-        topGeneScore = GeneScore.max(topGeneScore, geneScore);
+        topGeneScore = GeneScore.max(getTopGeneScore(), geneScore);
     }
 
     @JsonIgnore
     public GeneScore getTopGeneScore() {
-        return topGeneScore;
+        GeneScore score = topGeneScore;
+        if (score == null) {
+            // must hold the same lock as addGeneScore so that an added score is never replaced by the empty one
+            synchronized (this) {
+                if (topGeneScore == null) {
+                    topGeneScore = GeneScore.builder().geneIdentifier(geneIdentifier).build();
+                }
+                score = topGeneScore;
+            }
+        }
+        return score;
     }
 
     public List<GeneScore> getGeneScores() {
@@ -359,7 +381,7 @@ public GeneScore getGeneScoreForMode(ModeOfInheritance modeOfInheritance) {
      *
      */
     public float getPriorityScore() {
-        return topGeneScore.getPhenotypeScore();
+        return getTopGeneScore().getPhenotypeScore();
     }
 
     /**
@@ -378,7 +400,7 @@ public float getPriorityScoreForMode(ModeOfInheritance modeOfInheritance) {
      * Get the variant score for the gene.
      */
     public float getVariantScore() {
-        return topGeneScore.getVariantScore();
+        return getTopGeneScore().getVariantScore();
     }
 
     /**
@@ -391,7 +413,7 @@ public float getVariantScoreForMode(ModeOfInheritance modeOfInheritance) {
     }
 
     public float getCombinedScore() {
-        return topGeneScore.getCombinedScore();
+        return getTopGeneScore().getCombinedScore();
     }
 
     /**
@@ -413,11 +435,11 @@ public float getCombinedScoreForMode(ModeOfInheritance modeOfInheritance) {
      */
     @Override
     public boolean passedFilters() {
-        return isUnfiltered() || failedFilterTypes.isEmpty() && atLeastOneVariantPassedFilters();
+        return isUnfiltered() || failedFilterTypes == 0 && atLeastOneVariantPassedFilters();
     }
 
     private boolean isUnfiltered() {
-        return failedFilterTypes.isEmpty() && variantEvaluations.isEmpty();
+        return failedFilterTypes == 0 && variantEvaluations.isEmpty();
     }
 
     private boolean atLeastOneVariantPassedFilters() {
@@ -432,7 +454,8 @@ private boolean atLeastOneVariantPassedFilters() {
     @Override
     public boolean passedFilter(FilterType filterType) {
         Objects.requireNonNull(filterType);
-        if (!failedFilterTypes.contains(filterType) && passedFilterTypes.contains(filterType)) {
+        int filterTypeBit = 1 << filterType.ordinal();
+        if ((failedFilterTypes & filterTypeBit) == 0 && (passedFilterTypes & filterTypeBit) != 0) {
             return true;
         }
         return atLeastOneVariantPassedFilter(filterType);
@@ -457,6 +480,9 @@ private FilterStatus getFilterStatus() {
     @Override
     public boolean addFilterResult(FilterResult filterResult) {
         Objects.requireNonNull(filterResult);
+        if (filterResults.isEmpty()) {
+            filterResults = new EnumMap<>(FilterType.class);
+        }
         filterResults.put(filterResult.getFilterType(), filterResult);
         if (filterResult.passed()) {
             return addPassedFilterResult(filterResult);
@@ -465,12 +491,12 @@ public boolean addFilterResult(FilterResult filterResult) {
     }
 
     private boolean addPassedFilterResult(FilterResult filterResult) {
-        passedFilterTypes.add(filterResult.getFilterType());
+        passedFilterTypes |= 1 << filterResult.getFilterType().ordinal();
         return true;
     }
 
     private boolean addFailedFilterResult(FilterResult filterResult) {
-        failedFilterTypes.add(filterResult.getFilterType());
+        failedFilterTypes |= 1 << filterResult.getFilterType().ordinal();
         return false;
     }
 
@@ -525,13 +551,23 @@ public static Comparator<Gene> comparingScoreForInheritanceMode(ModeOfInheritanc
      */
     @Override
     public int compareTo(Gene otherGene) {
-        return GeneScore.compare(topGeneScore, otherGene.topGeneScore);
+        return GeneScore.compare(getTopGeneScore(), otherGene.getTopGeneScore());
     }
 
 
     @Override
     public String toString() {
-        return String.format("%s entrezId=%d compatibleWith=%s geneScores=%s variants=%d filterStatus=%s failedFilters=%s passedFilters=%s", geneSymbol, entrezGeneId, inheritanceModes, geneScoreMap.values(), variantEvaluations.size(), getFilterStatus(), failedFilterTypes, passedFilterTypes);
+        return String.format("%s entrezId=%d compatibleWith=%s geneScores=%s variants=%d filterStatus=%s failedFilters=%s passedFilters=%s", geneSymbol, entrezGeneId, inheritanceModes, geneScoreMap.values(), variantEvaluations.size(), getFilterStatus(), toFilterTypes(failedFilterTypes), toFilterTypes(passedFilterTypes));
+    }
+
+    private static Set<FilterType> toFilterTypes(int filterTypeBits) {
+        Set<FilterType> filterTypes = EnumSet.noneOf(FilterType.class);
+        for (FilterType filterType : FilterType.values()) {
+            if ((filterTypeBits & (1 << filterType.ordinal())) != 0) {
+                filterTypes.add(filterType);
+            }
+        }
+        return filterTypes;
     }
 
 }
@@ -228,6 +228,31 @@ public boolean isEmpty() {
         return alleleCalls.length == 0;
     }
 
+    /**
+     * @return the number of allele calls in the genotype, e.g. 2 for a diploid genotype
+     * @since 12.1.0
+     */
+    @JsonIgnore
+    public int getPloidy() {
+        return alleleCalls.length;
+    }
+
+    /**
+     * Tests whether the current {@link SampleGenotype} contains the given {@link AlleleCall}. Unlike
+     * {@code getCalls().contains(alleleCall)} this does not copy the calls.
+     *
+     * @return true if the genotype contains the allele call, otherwise false
+     * @since 12.1.0
+     */
+    public boolean hasCall(AlleleCall alleleCall) {
+        for (AlleleCall call : alleleCalls) {
+            if (call == alleleCall) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,363 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.model;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact, immutable, insertion-ordered {@link Map} of sample name to {@link SampleGenotype}. In a multi-sample analysis
+ * every {@link VariantEvaluation} holds the genotypes of the same samples, almost all of which will be one of a handful
+ * of patterns such as 0/1, 1/1, 0/0 or ./. Rather than a map and an array of {@link AlleleCall} per variant, the sample
+ * names are interned to an index shared by all the variants from the same samples and each genotype is stored as a
+ * single byte code into a shared dictionary of immutable {@link SampleGenotype}.
+ * <p>
+ * Instances should be created using the {@link #builder()} or {@link #copyOf(Map)} methods. In the unlikely event that
+ * there are more distinct genotypes than can be encoded in the dictionary these will return an {@link ImmutableMap}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public final class SampleGenotypes extends AbstractMap<String, SampleGenotype> {
+
+    private static final Interner<SampleNames> SAMPLE_NAMES_INTERNER = Interners.newWeakInterner();
+    private static final GenotypeDictionary GENOTYPE_DICTIONARY = new GenotypeDictionary();
+
+    private static final SampleGenotypes EMPTY = new SampleGenotypes(new SampleNames(new String[0]), new byte[0]);
+
+    private final SampleNames sampleNames;
+    private final byte[] genotypeCodes;
+
+    private SampleGenotypes(SampleNames sampleNames, byte[] genotypeCodes) {
+        this.sampleNames = sampleNames;
+        this.genotypeCodes = genotypeCodes;
+    }
+
+    public static Map<String, SampleGenotype> empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns an immutable, dictionary-encoded copy of the input map, preserving the iteration order.
+     *
+     * @param sampleGenotypes an ordered map of sample name to {@link SampleGenotype}
+     * @return an immutable copy of the input map
+     */
+    public static Map<String, SampleGenotype> copyOf(Map<String, SampleGenotype> sampleGenotypes) {
+        if (sampleGenotypes instanceof SampleGenotypes) {
+            return sampleGenotypes;
+        }
+        Builder builder = new Builder(sampleGenotypes.size());
+        sampleGenotypes.forEach(builder::put);
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder(4);
+    }
+
+    /**
+     * Returns a builder which will share the supplied {@link SampleNames} with all the other maps built from them,
+     * rather than resolving the sample names for each map. The genotypes are expected to be put in the same order as
+     * the sample names. Should they not be, the sample names are resolved as for {@link #builder()}.
+     *
+     * @param sampleNames the sample names, as returned from {@link #sampleNames(List)}
+     * @since 12.1.0
+     */
+    public static Builder builder(SampleNames sampleNames) {
+        Objects.requireNonNull(sampleNames);
+        return new Builder(sampleNames);
+    }
+
+    /**
+     * Resolves the shared instance of the ordered sample names. This should be called once for the samples of a VCF
+     * file and the result used to create a {@link #builder(SampleNames)} for each of its variants.
+     *
+     * @param sampleNames the names of the samples in the order in which they are found in the VCF file
+     * @throws IllegalArgumentException if the sample names contain duplicates
+     * @since 12.1.0
+     */
+    public static SampleNames sampleNames(List<String> sampleNames) {
+        return SAMPLE_NAMES_INTERNER.intern(new SampleNames(sampleNames.toArray(new String[0])));
+    }
+
+    @Override
+    public int size() {
+        return genotypeCodes.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return genotypeCodes.length == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return sampleNames.indexOf(key) >= 0;
+    }
+
+    @Override
+    public SampleGenotype get(Object key) {
+        int index = sampleNames.indexOf(key);
+        return index < 0 ? null : GENOTYPE_DICTIONARY.decode(genotypeCodes[index]);
+    }
+
+    /**
+     * Returns the shared sample names of this map, so that the index of a sample can be resolved once and used for all
+     * the maps with the same names.
+     *
+     * @since 12.1.0
+     */
+    public SampleNames getSampleNames() {
+        return sampleNames;
+    }
+
+    /**
+     * Returns the {@link SampleGenotype} at the given index of the {@link SampleNames}. This is deliberately not named
+     * {@code get} as an overload of {@link Map#get(Object)} would be silently bypassed by a boxed index.
+     *
+     * @param index the index of the sample, as returned from {@link SampleNames#indexOf(String)}
+     * @since 12.1.0
+     */
+    public SampleGenotype getSampleGenotypeAt(int index) {
+        return GENOTYPE_DICTIONARY.decode(genotypeCodes[index]);
+    }
+
+    @Override
+    public Set<Entry<String, SampleGenotype>> entrySet() {
+        return new AbstractSet<Entry<String, SampleGenotype>>() {
+            @Override
+            public Iterator<Entry<String, SampleGenotype>> iterator() {
+                return new Iterator<Entry<String, SampleGenotype>>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < genotypeCodes.length;
+                    }
+
+                    @Override
+                    public Entry<String, SampleGenotype> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, SampleGenotype> entry = new SimpleImmutableEntry<>(sampleNames.get(index), GENOTYPE_DICTIONARY
+                                .decode(genotypeCodes[index]));
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return genotypeCodes.length;
+            }
+        };
+    }
+
+    /**
+     * Builder for creating an ordered {@link Map} of sample name to {@link SampleGenotype}. Duplicate sample names are
+     * not permitted.
+     */
+    public static class Builder {
+
+        private String[] names;
+        private SampleGenotype[] genotypes;
+        private byte[] codes;
+        private int size = 0;
+        // false in the rare case that the dictionary is full
+        private boolean encodable = true;
+        // the shared sample names - null unless all the samples put so far have matched these in order
+        private SampleNames sampleNames;
+
+        private Builder(int expectedSize) {
+            this.names = new String[expectedSize];
+            this.genotypes = new SampleGenotype[expectedSize];
+            this.codes = new byte[expectedSize];
+        }
+
+        private Builder(SampleNames sampleNames) {
+            this(Math.max(1, sampleNames.size()));
+            this.sampleNames = sampleNames;
+        }
+
+        public Builder put(String sampleName, SampleGenotype sampleGenotype) {
+            Objects.requireNonNull(sampleName);
+            Objects.requireNonNull(sampleGenotype);
+            int code = GENOTYPE_DICTIONARY.encode(sampleGenotype);
+            if (code < 0) {
+                encodable = false;
+            }
+            if (size == names.length) {
+                int newLength = Math.max(4, size * 2);
+                names = Arrays.copyOf(names, newLength);
+                genotypes = Arrays.copyOf(genotypes, newLength);
+                codes = Arrays.copyOf(codes, newLength);
+            }
+            if (sampleNames != null && (size == sampleNames.size() || !sampleNames.get(size).equals(sampleName))) {
+                sampleNames = null;
+            }
+            names[size] = sampleName;
+            genotypes[size] = sampleGenotype;
+            codes[size] = (byte) code;
+            size++;
+            return this;
+        }
+
+        public Map<String, SampleGenotype> build() {
+            if (!encodable) {
+                ImmutableMap.Builder<String, SampleGenotype> builder = ImmutableMap.builder();
+                for (int i = 0; i < size; i++) {
+                    builder.put(names[i], genotypes[i]);
+                }
+                return builder.build();
+            }
+            if (size == 0) {
+                return EMPTY;
+            }
+            if (sampleNames != null && sampleNames.size() == size) {
+                return new SampleGenotypes(sampleNames, codes.length == size ? codes : Arrays.copyOf(codes, size));
+            }
+            SampleNames internedNames = SAMPLE_NAMES_INTERNER.intern(new SampleNames(Arrays.copyOf(names, size)));
+            return new SampleGenotypes(internedNames, Arrays.copyOf(codes, size));
+        }
+    }
+
+    /**
+     * Interned, ordered sample names and their index. All the variants from the same set of samples will share a single
+     * instance of this.
+     *
+     * @since 12.1.0
+     */
+    public static final class SampleNames {
+
+        private final String[] names;
+        private final Map<String, Integer> index;
+
+        private SampleNames(String[] names) {
+            this.names = names;
+            Map<String, Integer> nameIndex = new HashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                if (nameIndex.put(names[i], i) != null) {
+                    throw new IllegalArgumentException("Duplicate sample name " + names[i]);
+                }
+            }
+            this.index = nameIndex;
+        }
+
+        public int size() {
+            return names.length;
+        }
+
+        public String get(int i) {
+            return names[i];
+        }
+
+        /**
+         * Returns the index of the sample, or -1 if it is not one of these samples.
+         */
+        public int indexOf(String name) {
+            return indexOf((Object) name);
+        }
+
+        int indexOf(Object name) {
+            Integer i = index.get(name);
+            return i == null ? -1 : i;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            SampleNames that = (SampleNames) o;
+            return Arrays.equals(names, that.names);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(names);
+        }
+    }
+
+    /**
+     * Append-only dictionary of {@link SampleGenotype} shared by all instances. Codes are assigned in the order in which
+     * genotypes are first seen and there is space for 256 distinct genotypes, which is far more than is ever
+     * encountered in practice.
+     */
+    private static final class GenotypeDictionary {
+
+        private static final int MAX_SIZE = 256;
+
+        private final Map<SampleGenotype, Byte> codes = new ConcurrentHashMap<>();
+        // copy-on-write so that decoding never needs to lock
+        private volatile SampleGenotype[] genotypes = new SampleGenotype[0];
+
+        private GenotypeDictionary() {
+            encode(SampleGenotype.empty());
+            encode(SampleGenotype.noCall());
+            encode(SampleGenotype.het());
+            encode(SampleGenotype.homRef());
+            encode(SampleGenotype.homAlt());
+            encode(SampleGenotype.phased(AlleleCall.NO_CALL, AlleleCall.NO_CALL));
+            encode(SampleGenotype.phased(AlleleCall.REF, AlleleCall.ALT));
+            encode(SampleGenotype.phased(AlleleCall.ALT, AlleleCall.REF));
+            encode(SampleGenotype.phased(AlleleCall.REF, AlleleCall.REF));
+            encode(SampleGenotype.phased(AlleleCall.ALT, AlleleCall.ALT));
+        }
+
+        /**
+         * @return the code for the genotype in the range 0-255 or -1 if the dictionary is full.
+         */
+        int encode(SampleGenotype sampleGenotype) {
+            Byte code = codes.get(sampleGenotype);
+            if (code != null) {
+                return code & 0xFF;
+            }
+            return register(sampleGenotype);
+        }
+
+        private synchronized int register(SampleGenotype sampleGenotype) {
+            Byte code = codes.get(sampleGenotype);
+            if (code != null) {
+                return code & 0xFF;
+            }
+            int next = genotypes.length;
+            if (next == MAX_SIZE) {
+                return -1;
+            }
+            SampleGenotype[] updated = Arrays.copyOf(genotypes, next + 1);
+            updated[next] = sampleGenotype;
+            // publish the genotype before the code so that any code handed out can always be decoded
+            genotypes = updated;
+            codes.put(sampleGenotype, (byte) next);
+            return next;
+        }
+
+        SampleGenotype decode(byte code) {
+            return genotypes[code & 0xFF];
+        }
+    }
+}
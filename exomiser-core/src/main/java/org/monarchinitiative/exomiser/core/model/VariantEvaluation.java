@@ -39,6 +39,8 @@
 import org.monarchinitiative.exomiser.core.model.pathogenicity.VariantEffectPathogenicityScore;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 /**
  * This class is a wrapper for the {@code Variant} class from the jannovar
@@ -54,6 +56,16 @@ public class VariantEvaluation implements Comparable<VariantEvaluation>, Filtera
     //threshold over which a variant effect score is considered pathogenic
     private static final float DEFAULT_PATHOGENICITY_THRESHOLD = 0.5f;
 
+    // the passed FilterType ordinals are packed into the lower 32 bits of the filterBits and the failed FilterType
+    // ordinals into the upper 32 bits. These are updated lock-free using compare-and-set.
+    private static final int FAILED_FILTER_OFFSET = 32;
+    private static final long PASSED_FILTER_MASK = 0xFFFFFFFFL;
+    private static final FilterType[] FILTER_TYPES = FilterType.values();
+    private static final AtomicLongFieldUpdater<VariantEvaluation> FILTER_BITS_UPDATER = AtomicLongFieldUpdater.newUpdater(VariantEvaluation.class, "filterBits");
+    // the ModeOfInheritance ordinals under which the variant contributes to the gene score, updated in the same way
+    private static final ModeOfInheritance[] MODES_OF_INHERITANCE = ModeOfInheritance.values();
+    private static final AtomicIntegerFieldUpdater<VariantEvaluation> CONTRIBUTING_MODE_BITS_UPDATER = AtomicIntegerFieldUpdater.newUpdater(VariantEvaluation.class, "contributingModeBits");
+
     // HTSJDK {@link VariantContext} instance of this allele
     @JsonIgnore
     private final VariantContext variantContext;
@@ -86,17 +98,19 @@ public class VariantEvaluation implements Comparable<VariantEvaluation>, Filtera
     private String geneId;
 
     // results from filters
-    // mutable
-    private final Set<FilterType> passedFilterTypes;
-    private final Set<FilterType> failedFilterTypes;
+    // mutable - see FILTER_BITS_UPDATER
+    @JsonIgnore
+    private volatile long filterBits;
 
     // score-related stuff - these are mutable
     private boolean whiteListed;
     private FrequencyData frequencyData;
     private PathogenicityData pathogenicityData;
-    @JsonProperty("contributingInheritanceModes")
-    private Set<ModeOfInheritance> contributingModes = EnumSet.noneOf(ModeOfInheritance.class);
-    private Set<ModeOfInheritance> compatibleInheritanceModes = EnumSet.noneOf(ModeOfInheritance.class);
+    // mutable - see CONTRIBUTING_MODE_BITS_UPDATER
+    @JsonIgnore
+    private volatile int contributingModeBits;
+    // these are set during the per-gene inheritance mode analysis and scoring, which may be run on another thread
+    private volatile Set<ModeOfInheritance> compatibleInheritanceModes = EnumSet.noneOf(ModeOfInheritance.class);
 
     private VariantEvaluation(Builder builder) {
         genomeAssembly = builder.genomeAssembly;
@@ -115,11 +129,11 @@ private VariantEvaluation(Builder builder) {
 //        vcfString = builder.vcfString;
         variantContext = builder.variantContext;
         altAlleleId = builder.altAlleleId;
-        // IMPORTANT! This map *MUST* be an ordered map
-        sampleGenotypes = ImmutableMap.copyOf(builder.sampleGenotypes);
+        // IMPORTANT! This map *MUST* be an ordered map. The sample names and genotypes are dictionary-encoded to save
+        // memory in multi-sample analyses.
+        sampleGenotypes = SampleGenotypes.copyOf(builder.sampleGenotypes);
 
-        passedFilterTypes = EnumSet.copyOf(builder.passedFilterTypes);
-        failedFilterTypes = EnumSet.copyOf(builder.failedFilterTypes);
+        filterBits = packFilterTypes(builder.passedFilterTypes, builder.failedFilterTypes);
 
         whiteListed = builder.whiteListed;
         frequencyData = builder.frequencyData;
@@ -307,22 +321,61 @@ public boolean addFilterResult(FilterResult filterResult) {
         return addFailedFilterResult(filterResult);
     }
 
-    private synchronized boolean addPassedFilterResult(FilterResult filterResult) {
-        passedFilterTypes.add(filterResult.getFilterType());
+    private boolean addPassedFilterResult(FilterResult filterResult) {
+        setFilterBit(passedBit(filterResult.getFilterType()));
         return true;
     }
 
-    private synchronized boolean addFailedFilterResult(FilterResult filterResult) {
-        failedFilterTypes.add(filterResult.getFilterType());
+    private boolean addFailedFilterResult(FilterResult filterResult) {
+        setFilterBit(failedBit(filterResult.getFilterType()));
         return false;
     }
 
+    private void setFilterBit(long bit) {
+        long current;
+        do {
+            current = filterBits;
+            if ((current & bit) != 0) {
+                return;
+            }
+        } while (!FILTER_BITS_UPDATER.compareAndSet(this, current, current | bit));
+    }
+
+    private static long passedBit(FilterType filterType) {
+        return 1L << filterType.ordinal();
+    }
+
+    private static long failedBit(FilterType filterType) {
+        return 1L << (filterType.ordinal() + FAILED_FILTER_OFFSET);
+    }
+
+    private static long packFilterTypes(Set<FilterType> passedFilterTypes, Set<FilterType> failedFilterTypes) {
+        long bits = 0;
+        for (FilterType filterType : passedFilterTypes) {
+            bits |= passedBit(filterType);
+        }
+        for (FilterType filterType : failedFilterTypes) {
+            bits |= failedBit(filterType);
+        }
+        return bits;
+    }
+
+    private static EnumSet<FilterType> unpackFilterTypes(long bits, int offset) {
+        EnumSet<FilterType> filterTypes = EnumSet.noneOf(FilterType.class);
+        for (FilterType filterType : FILTER_TYPES) {
+            if ((bits & (1L << (filterType.ordinal() + offset))) != 0) {
+                filterTypes.add(filterType);
+            }
+        }
+        return filterTypes;
+    }
+
     /**
      * @return the set of FilterResult objects that represent the result of
      * filtering
      */
     public Set<FilterType> getPassedFilterTypes() {
-        return EnumSet.copyOf(passedFilterTypes);
+        return unpackFilterTypes(filterBits & PASSED_FILTER_MASK, 0);
     }
 
     /**
@@ -330,7 +383,7 @@ public Set<FilterType> getPassedFilterTypes() {
      * failed to pass.
      */
     public Set<FilterType> getFailedFilterTypes() {
-        return EnumSet.copyOf(failedFilterTypes);
+        return unpackFilterTypes(filterBits, FAILED_FILTER_OFFSET);
     }
 
     /**
@@ -342,8 +395,8 @@ public Set<FilterType> getFailedFilterTypes() {
      * @param modeOfInheritance the mode of inheritance under which the failed filters are required.
      * @return a set of failed {@code FilterType} for the variant under the {@code ModeOfInheritance} input model.
      */
-    public synchronized Set<FilterType> getFailedFilterTypesForMode(ModeOfInheritance modeOfInheritance){
-        EnumSet<FilterType> failedFiltersCopy = EnumSet.copyOf(failedFilterTypes);
+    public Set<FilterType> getFailedFilterTypesForMode(ModeOfInheritance modeOfInheritance){
+        EnumSet<FilterType> failedFiltersCopy = unpackFilterTypes(filterBits, FAILED_FILTER_OFFSET);
         if (!isCompatibleWith(modeOfInheritance)) {
             failedFiltersCopy.add(FilterType.INHERITANCE_FILTER);
             return failedFiltersCopy;
@@ -363,17 +416,18 @@ public synchronized Set<FilterType> getFailedFilterTypesForMode(ModeOfInheritanc
      * @return
      */
     @Override
-    public synchronized boolean passedFilters() {
-        return failedFilterTypes.isEmpty();
+    public boolean passedFilters() {
+        return (filterBits & ~PASSED_FILTER_MASK) == 0;
     }
 
     @Override
-    public synchronized boolean passedFilter(FilterType filterType) {
-        return !failedFilterTypes.contains(filterType) && passedFilterTypes.contains(filterType);
+    public boolean passedFilter(FilterType filterType) {
+        long bits = filterBits;
+        return (bits & failedBit(filterType)) == 0 && (bits & passedBit(filterType)) != 0;
     }
 
-    private synchronized boolean isUnFiltered() {
-        return failedFilterTypes.isEmpty() && passedFilterTypes.isEmpty();
+    private boolean isUnFiltered() {
+        return filterBits == 0;
     }
 
     public FilterStatus getFilterStatus() {
@@ -501,15 +555,35 @@ public void setWhiteListed(boolean whiteListed) {
     }
 
     public void setContributesToGeneScoreUnderMode(ModeOfInheritance modeOfInheritance) {
-        contributingModes.add(modeOfInheritance);
+        int bit = 1 << modeOfInheritance.ordinal();
+        int current;
+        do {
+            current = contributingModeBits;
+            if ((current & bit) != 0) {
+                return;
+            }
+        } while (!CONTRIBUTING_MODE_BITS_UPDATER.compareAndSet(this, current, current | bit));
     }
 
     public boolean contributesToGeneScore() {
-        return !contributingModes.isEmpty();
+        return contributingModeBits != 0;
     }
 
     public boolean contributesToGeneScoreUnderMode(ModeOfInheritance modeOfInheritance) {
-        return modeOfInheritance == ModeOfInheritance.ANY && !contributingModes.isEmpty() || contributingModes.contains(modeOfInheritance);
+        int bits = contributingModeBits;
+        return modeOfInheritance == ModeOfInheritance.ANY && bits != 0 || (bits & (1 << modeOfInheritance.ordinal())) != 0;
+    }
+
+    @JsonProperty("contributingInheritanceModes")
+    private Set<ModeOfInheritance> getContributingInheritanceModes() {
+        int bits = contributingModeBits;
+        Set<ModeOfInheritance> contributingModes = EnumSet.noneOf(ModeOfInheritance.class);
+        for (ModeOfInheritance modeOfInheritance : MODES_OF_INHERITANCE) {
+            if ((bits & (1 << modeOfInheritance.ordinal())) != 0) {
+                contributingModes.add(modeOfInheritance);
+            }
+        }
+        return contributingModes;
     }
 
     @Override
@@ -611,10 +685,10 @@ public String toString() {
         // expose frequency and pathogenicity scores?
         if(contributesToGeneScore()) {
             //Add a star to the output string between the variantEffect and the score
-            return "VariantEvaluation{assembly=" + genomeAssembly + " chr=" + chr + " pos=" + pos + " ref=" + ref + " alt=" + alt + " qual=" + phredScore + " " + variantEffect + " * score=" + getVariantScore() + " " + getFilterStatus() + " failedFilters=" + failedFilterTypes + " passedFilters=" + passedFilterTypes
+            return "VariantEvaluation{assembly=" + genomeAssembly + " chr=" + chr + " pos=" + pos + " ref=" + ref + " alt=" + alt + " qual=" + phredScore + " " + variantEffect + " * score=" + getVariantScore() + " " + getFilterStatus() + " failedFilters=" + getFailedFilterTypes() + " passedFilters=" + getPassedFilterTypes()
                     + " compatibleWith=" + compatibleInheritanceModes + " sampleGenotypes=" + sampleGenotypes + "}";
         }
-        return "VariantEvaluation{assembly=" + genomeAssembly + " chr=" + chr + " pos=" + pos + " ref=" + ref + " alt=" + alt + " qual=" + phredScore + " " + variantEffect + " score=" + getVariantScore() + " " + getFilterStatus() + " failedFilters=" + failedFilterTypes + " passedFilters=" + passedFilterTypes
+        return "VariantEvaluation{assembly=" + genomeAssembly + " chr=" + chr + " pos=" + pos + " ref=" + ref + " alt=" + alt + " qual=" + phredScore + " " + variantEffect + " score=" + getVariantScore() + " " + getFilterStatus() + " failedFilters=" + getFailedFilterTypes() + " passedFilters=" + getPassedFilterTypes()
                 + " compatibleWith=" + compatibleInheritanceModes + " sampleGenotypes=" + sampleGenotypes + "}";
     }
 
@@ -28,8 +28,11 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.EnumSet;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Facade for handling writing out {@link org.monarchinitiative.exomiser.core.analysis.AnalysisResults}
@@ -47,10 +50,15 @@ public static void writeToFile(Analysis analysis, AnalysisResults analysisResult
         ResultsWriterFactory resultsWriterFactory = new ResultsWriterFactory();
         logger.info("Writing results...");
 
+        // The genes are never re-sorted in place. Instead each mode of inheritance gets its own immutable, ranked
+        // snapshot of the results which can be written independently of the others.
+        AnalysisResults anyMoiResults = snapshotOf(analysisResults, new ArrayList<>(analysisResults.getGenes()));
+        List<WriteTask> writeTasks = new ArrayList<>();
+
         Set<OutputFormat> outputFormatsForAnyMoi = EnumSet.noneOf(OutputFormat.class);
         for (OutputFormat outputFormat : outputSettings.getOutputFormats()) {
             if (outputFormat == OutputFormat.HTML || outputFormat == OutputFormat.JSON) {
-                writeResultsToFileForMoiWithFormat(ModeOfInheritance.ANY, outputFormat, analysis, analysisResults, outputSettings, resultsWriterFactory);
+                writeTasks.add(new WriteTask(ModeOfInheritance.ANY, resultsWriterFactory.getResultsWriter(outputFormat), anyMoiResults));
             } else {
                 outputFormatsForAnyMoi.add(outputFormat);
             }
@@ -58,28 +66,97 @@ public static void writeToFile(Analysis analysis, AnalysisResults analysisResult
 
         InheritanceModeOptions inheritanceModeOptions = analysis.getInheritanceModeOptions();
         if (inheritanceModeOptions.isEmpty()) {
-            writeForInheritanceMode(ModeOfInheritance.ANY, outputFormatsForAnyMoi, analysis, analysisResults, outputSettings, resultsWriterFactory);
+            addWriteTasks(writeTasks, ModeOfInheritance.ANY, outputFormatsForAnyMoi, anyMoiResults, resultsWriterFactory);
         } else {
+            AnalysisResults previous = anyMoiResults;
             for (ModeOfInheritance modeOfInheritance : inheritanceModeOptions.getDefinedModes()) {
-                logger.debug("Writing {} results:", modeOfInheritance);
-                // Can't do this in parallel because theses are mutated each time for a different mode here.
-                // AnalysisResults could return a view for a ModeOfInheritance which can be called by the Writer
-                // without interfering with other writes for different modes. Check RAM requirements.
-                // Will only save a few seconds, so is not a rate-limiting step.
-                analysisResults.getGenes().sort(Gene.comparingScoreForInheritanceMode(modeOfInheritance));
-                writeForInheritanceMode(modeOfInheritance, outputFormatsForAnyMoi, analysis, analysisResults, outputSettings, resultsWriterFactory);
+                // Each ranking starts from the previous one, exactly as the sequential in-place sort did, so that genes
+                // with equal scores keep the same relative order in the output.
+                AnalysisResults moiResults = rankedSnapshotForMode(previous, modeOfInheritance);
+                addWriteTasks(writeTasks, modeOfInheritance, outputFormatsForAnyMoi, moiResults, resultsWriterFactory);
+                previous = moiResults;
             }
         }
+
+        runWriteTasks(writeTasks, analysis, outputSettings);
+    }
+
+    private static void addWriteTasks(List<WriteTask> writeTasks, ModeOfInheritance modeOfInheritance, Set<OutputFormat> outputFormats, AnalysisResults moiResults, ResultsWriterFactory resultsWriterFactory) {
+        for (OutputFormat outputFormat : outputFormats) {
+            // writers are not thread-safe, so each task gets its own instance created here on the calling thread
+            writeTasks.add(new WriteTask(modeOfInheritance, resultsWriterFactory.getResultsWriter(outputFormat), moiResults));
+        }
     }
 
-    private static void writeForInheritanceMode(ModeOfInheritance modeOfInheritance, Set<OutputFormat> outputFormats, Analysis analysis, AnalysisResults analysisResults, OutputSettings outputSettings, ResultsWriterFactory resultsWriterFactory) {
-        for (OutputFormat outFormat : outputFormats) {
-            writeResultsToFileForMoiWithFormat(modeOfInheritance, outFormat, analysis, analysisResults, outputSettings, resultsWriterFactory);
+    private static void runWriteTasks(List<WriteTask> writeTasks, Analysis analysis, OutputSettings outputSettings) {
+        int numThreads = Math.min(writeTasks.size(), Runtime.getRuntime().availableProcessors());
+        if (numThreads <= 1) {
+            writeTasks.forEach(writeTask -> writeTask.write(analysis, outputSettings));
+            return;
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(writeTasks.size());
+            for (WriteTask writeTask : writeTasks) {
+                futures.add(executorService.submit(() -> writeTask.write(analysis, outputSettings)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing results", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            executorService.shutdownNow();
         }
     }
 
-    private static void writeResultsToFileForMoiWithFormat(ModeOfInheritance modeOfInheritance, OutputFormat outputFormat, Analysis analysis, AnalysisResults analysisResults, OutputSettings outputSettings, ResultsWriterFactory resultsWriterFactory) {
-        ResultsWriter resultsWriter = resultsWriterFactory.getResultsWriter(outputFormat);
-        resultsWriter.writeFile(modeOfInheritance, analysis, analysisResults, outputSettings);
+    /**
+     * Returns an immutable copy of the results with the genes ranked for the given {@link ModeOfInheritance}. The
+     * {@link Gene} and {@link org.monarchinitiative.exomiser.core.model.VariantEvaluation} instances are shared with the
+     * input, only their order differs.
+     */
+    static AnalysisResults rankedSnapshotForMode(AnalysisResults analysisResults, ModeOfInheritance modeOfInheritance) {
+        List<Gene> rankedGenes = new ArrayList<>(analysisResults.getGenes());
+        rankedGenes.sort(Gene.comparingScoreForInheritanceMode(modeOfInheritance));
+        return snapshotOf(analysisResults, rankedGenes);
+    }
+
+    private static AnalysisResults snapshotOf(AnalysisResults analysisResults, List<Gene> genes) {
+        return AnalysisResults.builder()
+                .probandSampleName(analysisResults.getProbandSampleName())
+                .sampleNames(Collections.unmodifiableList(analysisResults.getSampleNames()))
+                .variantEvaluations(Collections.unmodifiableList(analysisResults.getVariantEvaluations()))
+                .genes(Collections.unmodifiableList(genes))
+                .variantEffectCounter(analysisResults.getVariantEffectCounter().orElse(null))
+                .notEvaluatedGenes(Collections.unmodifiableList(analysisResults.getNotEvaluatedGenes()))
+                .build();
+    }
+
+    private static class WriteTask {
+
+        private final ModeOfInheritance modeOfInheritance;
+        private final ResultsWriter resultsWriter;
+        private final AnalysisResults analysisResults;
+
+        private WriteTask(ModeOfInheritance modeOfInheritance, ResultsWriter resultsWriter, AnalysisResults analysisResults) {
+            this.modeOfInheritance = modeOfInheritance;
+            this.resultsWriter = resultsWriter;
+            this.analysisResults = analysisResults;
+        }
+
+        private void write(Analysis analysis, OutputSettings outputSettings) {
+            logger.debug("Writing {} results for {}", resultsWriter.getClass().getSimpleName(), modeOfInheritance);
+            resultsWriter.writeFile(modeOfInheritance, analysis, analysisResults, outputSettings);
+        }
     }
 }
@@ -25,6 +25,9 @@
  */
 package org.monarchinitiative.exomiser.core.writers;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -43,63 +46,201 @@
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
 /**
+ * Writes the results as a self-contained HTML page. When the {@link OutputSettings#getHtmlPageSize()} is set, only the
+ * first page of genes is rendered into the main results page and the remaining genes are rendered into separate pages
+ * in a {@code <results>_genes} directory next to it, along with an {@code index.json} describing those pages. The
+ * results page loads these pages on request, so very large result sets do not need to be loaded by the browser in one
+ * go. Each page is a complete document sharing the head of the results page, so it can also be opened on its own. Any
+ * gene pages left by a previous run with the same output prefix are deleted first.
+ *
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  */
 public class HtmlResultsWriter implements ResultsWriter {
 
     private static final Logger logger = LoggerFactory.getLogger(HtmlResultsWriter.class);
 
-    private final TemplateEngine templateEngine;
-
     private static final OutputFormat OUTPUT_FORMAT = OutputFormat.HTML;
 
+    static final String GENE_PAGE_INDEX_FILE_NAME = "index.json";
+    private static final String GENE_PAGE_FILES_GLOB = "{page-*.html," + GENE_PAGE_INDEX_FILE_NAME + "}";
+
+    private static final ObjectMapper SETTINGS_MAPPER = settingsMapper();
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final TemplateEngine templateEngine;
+
     public HtmlResultsWriter() {
         Locale.setDefault(Locale.UK);
         this.templateEngine = ThymeleafConfig.coreTemplateEngine();
     }
 
+    private static ObjectMapper settingsMapper() {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        //required for correct output of Path types
+        mapper.registerModule(new Jdk7Module());
+        mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
+        //avoids issues where there are oddities in the analysisSteps - none of these properly de/serialise at present
+        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        return mapper;
+    }
+
     @Override
     public void writeFile(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
         logger.debug("Writing HTML results");
         String outFileName = ResultsWriterUtils.makeOutputFilename(analysis.getVcfPath(), settings.getOutputPrefix(), OUTPUT_FORMAT, modeOfInheritance);
         Path outFile = Paths.get(outFileName);
-        try (BufferedWriter writer = Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)) {
-            Context context = buildContext(modeOfInheritance, analysis, analysisResults, settings);
-            templateEngine.process("results", context, writer);
+        List<Gene> passedGenes = ResultsWriterUtils.getMaxPassedGenes(analysisResults.getGenes(), settings.getNumberOfGenesToShow());
+        int pageSize = settings.getHtmlPageSize();
+        try {
+            List<Gene> inlineGenes = passedGenes;
+            List<GenePage> genePages = Collections.emptyList();
+            String genePageIndex = "";
+            Path genePageDir = genePageDir(outFile);
+            // the pages of a previous run with the same output prefix would otherwise be left alongside these results
+            deleteGenePages(genePageDir);
+            if (pageSize > 0 && passedGenes.size() > pageSize) {
+                genePages = writeGenePages(genePageDir, passedGenes, pageSize);
+                inlineGenes = passedGenes.subList(0, pageSize);
+                genePageIndex = genePageDir.getFileName() + "/" + GENE_PAGE_INDEX_FILE_NAME;
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)) {
+                Context context = buildContext(modeOfInheritance, analysis, analysisResults, settings, inlineGenes);
+                context.setVariable("genePages", genePages);
+                context.setVariable("genePageIndex", genePageIndex);
+                context.setVariable("numPagedGenes", passedGenes.size() - inlineGenes.size());
+                templateEngine.process("results", context, writer);
+            }
         } catch (IOException ex) {
             logger.error("Unable to write results to file {}", outFileName, ex);
         }
         logger.debug("{} ALL results written to file {}", OUTPUT_FORMAT, outFileName);
     }
 
+    /**
+     * Writes all of the passed genes into the returned HTML string. The {@link OutputSettings#getHtmlPageSize()} is
+     * ignored here as the gene pages can only be written as separate files.
+     */
     @Override
     public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
         logger.debug("Writing HTML results");
-        Context context = buildContext(modeOfInheritance, analysis, analysisResults, settings);
+        List<Gene> passedGenes = ResultsWriterUtils.getMaxPassedGenes(analysisResults.getGenes(), settings.getNumberOfGenesToShow());
+        Context context = buildContext(modeOfInheritance, analysis, analysisResults, settings, passedGenes);
+        context.setVariable("genePages", Collections.emptyList());
         return templateEngine.process("results", context);
     }
 
-    private Context buildContext(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
+    /**
+     * Returns the directory into which the gene pages for the given results page are written, e.g. for
+     * {@code results/sample.html} this will be {@code results/sample_genes}.
+     */
+    static Path genePageDir(Path outFile) {
+        String fileName = outFile.getFileName().toString();
+        String extension = "." + OUTPUT_FORMAT.getFileExtension();
+        String baseName = fileName.endsWith(extension) ? fileName.substring(0, fileName.length() - extension.length()) : fileName;
+        return outFile.resolveSibling(baseName + "_genes");
+    }
+
+    /**
+     * Deletes the gene pages and their index from the directory, followed by the directory itself if it is then empty.
+     * Any other files in the directory are left untouched.
+     */
+    static void deleteGenePages(Path genePageDir) throws IOException {
+        if (!Files.isDirectory(genePageDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> genePageFiles = Files.newDirectoryStream(genePageDir, GENE_PAGE_FILES_GLOB)) {
+            for (Path genePageFile : genePageFiles) {
+                Files.delete(genePageFile);
+            }
+        }
+        try (DirectoryStream<Path> remainingFiles = Files.newDirectoryStream(genePageDir)) {
+            if (!remainingFiles.iterator().hasNext()) {
+                Files.delete(genePageDir);
+            }
+        }
+    }
+
+    /**
+     * Renders the passed genes following the first page into separate page files of {@code pageSize} genes, followed
+     * by an index of those pages.
+     */
+    private List<GenePage> writeGenePages(Path genePageDir, List<Gene> passedGenes, int pageSize) throws IOException {
+        Files.createDirectories(genePageDir);
+        String dirName = genePageDir.getFileName().toString();
+        List<GenePage> genePages = new ArrayList<>();
+        int pageNumber = 1;
+        for (int fromIndex = pageSize; fromIndex < passedGenes.size(); fromIndex += pageSize) {
+            int toIndex = Math.min(fromIndex + pageSize, passedGenes.size());
+            List<Gene> pageGenes = passedGenes.subList(fromIndex, toIndex);
+            String pageFileName = "page-" + pageNumber + ".html";
+
+            Context context = new Context();
+            addGeneVariables(context, pageGenes);
+            context.setVariable("pageNumber", pageNumber);
+            try (BufferedWriter writer = Files.newBufferedWriter(genePageDir.resolve(pageFileName), StandardCharsets.UTF_8)) {
+                templateEngine.process("gene-page", context, writer);
+            }
+            // ranks are 1-based
+            genePages.add(new GenePage(pageNumber, pageFileName, dirName + "/" + pageFileName, fromIndex + 1, toIndex, pageGenes));
+            pageNumber++;
+        }
+        writeGenePageIndex(genePageDir.resolve(GENE_PAGE_INDEX_FILE_NAME), passedGenes.size(), pageSize, genePages);
+        logger.debug("Written {} genes to {} pages in {}", passedGenes.size() - pageSize, genePages.size(), genePageDir);
+        return genePages;
+    }
+
+    private void writeGenePageIndex(Path indexFile, int numGenes, int pageSize, List<GenePage> genePages) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(indexFile);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("numGenes", numGenes);
+            generator.writeNumberField("pageSize", pageSize);
+            generator.writeArrayFieldStart("pages");
+            for (GenePage genePage : genePages) {
+                generator.writeStartObject();
+                generator.writeNumberField("page", genePage.getPage());
+                generator.writeStringField("file", genePage.getFileName());
+                generator.writeNumberField("firstRank", genePage.getFirstRank());
+                generator.writeNumberField("lastRank", genePage.getLastRank());
+                generator.writeArrayFieldStart("genes");
+                int rank = genePage.getFirstRank();
+                for (Gene gene : genePage.getGenes()) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("rank", rank++);
+                    generator.writeStringField("geneSymbol", gene.getGeneSymbol());
+                    generator.writeStringField("geneId", gene.getGeneId());
+                    generator.writeNumberField("combinedScore", gene.getCombinedScore());
+                    generator.writeNumberField("priorityScore", gene.getPriorityScore());
+                    generator.writeNumberField("variantScore", gene.getVariantScore());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private Context buildContext(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings, List<Gene> genes) {
         Context context = new Context();
         //write the settings
-        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-        //required for correct output of Path types
-        mapper.registerModule(new Jdk7Module());
-        mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
-        //avoids issues where there are oddities in the analysisSteps - none of these properly de/serialise at present
-        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
         StringBuilder jsonSettings = new StringBuilder();
         try {
-            jsonSettings.append(mapper.writeValueAsString(analysis));
-            jsonSettings.append(mapper.writeValueAsString(settings));
+            jsonSettings.append(SETTINGS_MAPPER.writeValueAsString(analysis));
+            jsonSettings.append(SETTINGS_MAPPER.writeValueAsString(settings));
         } catch (JsonProcessingException ex) {
             logger.error("Unable to process JSON settings", ex);
         }
@@ -108,14 +249,15 @@ private Context buildContext(ModeOfInheritance modeOfInheritance, Analysis analy
         //make the user aware of any unanalysed variants
         List<VariantEvaluation> unAnalysedVarEvals = analysisResults.getUnAnnotatedVariantEvaluations();
         context.setVariable("unAnalysedVarEvals", unAnalysedVarEvals);
+        //and the genes which were not evaluated, as these will not appear in the ranked genes
+        context.setVariable("notEvaluatedGenes", analysisResults.getNotEvaluatedGenes());
 
         //write out the analysis reports section
         List<FilterReport> analysisStepReports = ResultsWriterUtils.makeFilterReports(analysis, analysisResults);
         context.setVariable("filterReports", analysisStepReports);
         //write out the variant type counters
         List<String> sampleNames = analysisResults.getSampleNames();
-        List<VariantEffectCount> variantTypeCounters = ResultsWriterUtils.makeVariantEffectCounters(sampleNames, analysisResults
-                .getVariantEvaluations());
+        List<VariantEffectCount> variantTypeCounters = ResultsWriterUtils.makeVariantEffectCounters(analysisResults);
         String sampleName = "Anonymous";
         if (!analysis.getProbandSampleName().isEmpty()) {
             sampleName = analysis.getProbandSampleName();
@@ -125,16 +267,70 @@ private Context buildContext(ModeOfInheritance modeOfInheritance, Analysis analy
         context.setVariable("variantTypeCounters", variantTypeCounters);
 
         context.setVariable("modeOfInheritance", modeOfInheritance);
-        List<Gene> passedGenes = ResultsWriterUtils.getMaxPassedGenes(analysisResults.getGenes(), settings.getNumberOfGenesToShow());
-        context.setVariable("genes", passedGenes);
+        addGeneVariables(context, genes);
+        return context;
+    }
 
+    private void addGeneVariables(Context context, List<Gene> genes) {
+        context.setVariable("genes", genes);
         //this will change the links to the relevant resource.
         // For the time being we're going to maintain the original behaviour (UCSC)
         // Need to wire it up through the system or it might be easiest to autodetect this from the transcripts of passed variants.
         // One of UCSC, ENSEMBL or REFSEQ
         context.setVariable("transcriptDb", "ENSEMBL");
         context.setVariable("variantRankComparator", new VariantEvaluation.RankBasedComparator());
-        return context;
+    }
+
+    /**
+     * Describes a page of genes written to a separate file. This needs to be public for access from the templates.
+     */
+    public static class GenePage {
+
+        private final int page;
+        private final String fileName;
+        private final String file;
+        private final int firstRank;
+        private final int lastRank;
+        private final List<Gene> genes;
+
+        private GenePage(int page, String fileName, String file, int firstRank, int lastRank, List<Gene> genes) {
+            this.page = page;
+            this.fileName = fileName;
+            this.file = file;
+            this.firstRank = firstRank;
+            this.lastRank = lastRank;
+            this.genes = genes;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        /**
+         * @return the name of the page file, relative to the gene page directory
+         */
+        public String getFileName() {
+            return fileName;
+        }
+
+        /**
+         * @return the path of the page file, relative to the main results page
+         */
+        public String getFile() {
+            return file;
+        }
+
+        public int getFirstRank() {
+            return firstRank;
+        }
+
+        public int getLastRank() {
+            return lastRank;
+        }
+
+        public List<Gene> getGenes() {
+            return genes;
+        }
     }
 
 }
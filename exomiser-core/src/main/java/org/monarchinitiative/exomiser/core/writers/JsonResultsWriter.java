@@ -20,8 +20,10 @@
 
 package org.monarchinitiative.exomiser.core.writers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
 import org.monarchinitiative.exomiser.core.analysis.Analysis;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
@@ -37,10 +39,6 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
-
-import static java.util.stream.Collectors.toList;
 
 /**
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
@@ -52,13 +50,16 @@ public class JsonResultsWriter implements ResultsWriter {
 
     private static final OutputFormat OUTPUT_FORMAT = OutputFormat.JSON;
 
+    // thread-safe once configured. Flushing after every gene would defeat the buffering of the output file.
+    private static final ObjectWriter OBJECT_WRITER = new ObjectMapper().writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
     @Override
     public void writeFile(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
         String outFileName = ResultsWriterUtils.makeOutputFilename(analysis.getVcfPath(), settings.getOutputPrefix(), OUTPUT_FORMAT, modeOfInheritance);
         Path outFile = Paths.get(outFileName);
-        ObjectWriter objectWriter = new ObjectMapper().writer();
         try (Writer bufferedWriter = Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)) {
-            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), objectWriter, bufferedWriter);
+            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), false, bufferedWriter);
         } catch (IOException ex) {
             logger.error("Unable to write results to file {}", outFileName, ex);
         }
@@ -69,9 +70,8 @@ public void writeFile(ModeOfInheritance modeOfInheritance, Analysis analysis, An
     @Override
     public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
         //Add prettyPrintJson option to outputSettings?
-        ObjectWriter objectWriter = new ObjectMapper().writerWithDefaultPrettyPrinter();
         try (Writer stringWriter = new StringWriter()) {
-            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), objectWriter, stringWriter);
+            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), true, stringWriter);
             stringWriter.flush();
             logger.info("{} {} results written to string", OUTPUT_FORMAT, (modeOfInheritance.getAbbreviation() == null) ? "ALL" : modeOfInheritance
                     .getAbbreviation());
@@ -82,36 +82,37 @@ public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis
         return "";
     }
 
-    private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, boolean writeOnlyContributingVariants, ObjectWriter objectWriter, Writer writer) throws IOException {
-        List<Gene> compatibleGenes = getCompatibleGene(modeOfInheritance, analysisResults.getGenes());
-
+    /**
+     * Streams the genes out to the writer one at a time, rather than handing Jackson the whole list, so that at most one
+     * contributing-only copy of a gene is held in memory at any time. The output is identical to serialising the list.
+     */
+    private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, boolean writeOnlyContributingVariants, boolean prettyPrint, Writer writer) throws IOException {
         if (writeOnlyContributingVariants) {
             logger.debug("Writing out only CONTRIBUTING variants");
-            List<Gene> passedGenes = makePassedGenes(modeOfInheritance, compatibleGenes);
-            objectWriter.writeValue(writer, passedGenes);
-        } else {
-            objectWriter.writeValue(writer, compatibleGenes);
         }
-    }
-
-    private List<Gene> getCompatibleGene(ModeOfInheritance modeOfInheritance, List<Gene> genes) {
-        if (modeOfInheritance == ModeOfInheritance.ANY) {
-            return genes;
+        // n.b. the generator is deliberately not closed here as that would also close the writer
+        JsonGenerator generator = OBJECT_WRITER.getFactory().createGenerator(writer);
+        if (prettyPrint) {
+            // this has to be set on the generator, rather than the ObjectWriter, otherwise the indentation is reset for
+            // each gene
+            generator.useDefaultPrettyPrinter();
         }
-        return genes.stream()
-                .filter(gene -> gene.isCompatibleWith(modeOfInheritance))
-                .collect(toList());
-    }
-
-    private List<Gene> makePassedGenes(ModeOfInheritance modeOfInheritance, List<Gene> compatibleGenes) {
-        List<Gene> passedGenes = new ArrayList<>();
-        for (Gene gene : compatibleGenes) {
-            if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
-                Gene makePassOnlyGene = makeContributingOnlyGene(modeOfInheritance, gene);
-                passedGenes.add(makePassOnlyGene);
+        generator.writeStartArray();
+        for (Gene gene : analysisResults.getGenes()) {
+            if (isCompatibleGene(modeOfInheritance, gene)) {
+                if (!writeOnlyContributingVariants) {
+                    OBJECT_WRITER.writeValue(generator, gene);
+                } else if (gene.passedFilters()) {
+                    OBJECT_WRITER.writeValue(generator, makeContributingOnlyGene(modeOfInheritance, gene));
+                }
             }
         }
-        return passedGenes;
+        generator.writeEndArray();
+        generator.flush();
+    }
+
+    private boolean isCompatibleGene(ModeOfInheritance modeOfInheritance, Gene gene) {
+        return modeOfInheritance == ModeOfInheritance.ANY || gene.isCompatibleWith(modeOfInheritance);
     }
 
     private Gene makeContributingOnlyGene(ModeOfInheritance modeOfInheritance, Gene gene) {
@@ -34,6 +34,7 @@ public enum OutputFormat {
 
     HTML("html"),
     VCF("vcf"),
+    VCF_GZ("vcf.gz"),
     TSV_GENE("genes.tsv"),
     TSV_VARIANT("variants.tsv"),
     PHENOGRID("phenogrid.json"),
@@ -46,12 +46,15 @@ public class OutputSettings {
     private final boolean outputContributingVariantsOnly;
     @JsonProperty("numGenes")
     private final int numberOfGenesToShow;
+    @JsonProperty
+    private final int htmlPageSize;
     private final String outputPrefix;
     private final Set<OutputFormat> outputFormats;
 
     private OutputSettings(Builder builder) {
         this.outputContributingVariantsOnly = builder.outputContributinVariantsOnly;
         this.numberOfGenesToShow = builder.numberOfGenesToShow;
+        this.htmlPageSize = builder.htmlPageSize;
         this.outputPrefix = builder.outputPrefix;
         this.outputFormats = builder.outputFormats;
     }
@@ -64,6 +67,7 @@ public static class Builder {
 
         private boolean outputContributinVariantsOnly = false;
         private int numberOfGenesToShow = 0;
+        private int htmlPageSize = 0;
         private String outputPrefix = "";
         private Set<OutputFormat> outputFormats = EnumSet.of(OutputFormat.HTML);
 
@@ -85,6 +89,21 @@ public Builder numberOfGenesToShow(int numberOfGenesToShow) {
             return this;
         }
 
+        /**
+         * Sets the number of genes rendered in the main HTML results page. Any remaining genes are written to separate
+         * pages of this size which are loaded by the browser on request. A value of 0 (the default) renders all the
+         * genes in the main page.
+         *
+         * @param htmlPageSize the number of genes per HTML page, or 0 to disable paging
+         * @return this builder
+         * @since 12.1.0
+         */
+        @JsonSetter
+        public Builder htmlPageSize(int htmlPageSize) {
+            this.htmlPageSize = htmlPageSize;
+            return this;
+        }
+
         @JsonSetter
         public Builder outputPrefix(String outputPrefix) {
             this.outputPrefix = outputPrefix;
@@ -106,6 +125,10 @@ public int getNumberOfGenesToShow() {
         return numberOfGenesToShow;
     }
 
+    public int getHtmlPageSize() {
+        return htmlPageSize;
+    }
+
     public Set<OutputFormat> getOutputFormats() {
         return outputFormats;
     }
@@ -119,6 +142,7 @@ public int hashCode() {
         int hash = 7;
         hash = 79 * hash + (this.outputContributingVariantsOnly ? 1 : 0);
         hash = 79 * hash + this.numberOfGenesToShow;
+        hash = 79 * hash + this.htmlPageSize;
         hash = 79 * hash + Objects.hashCode(this.outputPrefix);
         hash = 79 * hash + Objects.hashCode(this.outputFormats);
         return hash;
@@ -139,6 +163,9 @@ public boolean equals(Object obj) {
         if (this.numberOfGenesToShow != other.numberOfGenesToShow) {
             return false;
         }
+        if (this.htmlPageSize != other.htmlPageSize) {
+            return false;
+        }
         if (!Objects.equals(this.outputPrefix, other.outputPrefix)) {
             return false;
         }
@@ -147,7 +174,7 @@ public boolean equals(Object obj) {
 
     @Override
     public String toString() {
-        return "OutputOptions{" + "outputContributingVariantsOnly=" + outputContributingVariantsOnly + ", numberOfGenesToShow=" + numberOfGenesToShow + ", outputPrefix=" + outputPrefix + ", outputFormats=" + outputFormats + '}';
+        return "OutputOptions{" + "outputContributingVariantsOnly=" + outputContributingVariantsOnly + ", numberOfGenesToShow=" + numberOfGenesToShow + ", htmlPageSize=" + htmlPageSize + ", outputPrefix=" + outputPrefix + ", outputFormats=" + outputFormats + '}';
     }
 
 }
@@ -49,6 +49,8 @@ public ResultsWriter getResultsWriter(OutputFormat outputFormat) {
                 return new TsvVariantResultsWriter();
             case VCF:
                 return new VcfResultsWriter();
+            case VCF_GZ:
+                return new VcfResultsWriter(OutputFormat.VCF_GZ);
             case PHENOGRID:
                 return new PhenogridWriter();
             case JSON:
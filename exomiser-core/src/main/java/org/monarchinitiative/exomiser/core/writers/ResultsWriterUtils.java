@@ -50,6 +50,29 @@ public class ResultsWriterUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(ResultsWriterUtils.class);
 
+    // all used Jannovar VariantEffects
+    private static final Set<VariantEffect> VARIANT_EFFECTS = ImmutableSet.of(
+            VariantEffect.FRAMESHIFT_ELONGATION,
+            VariantEffect.FRAMESHIFT_TRUNCATION, VariantEffect.FRAMESHIFT_VARIANT,
+            VariantEffect.INTERNAL_FEATURE_ELONGATION, VariantEffect.FEATURE_TRUNCATION, VariantEffect.MNV,
+            VariantEffect.STOP_GAINED, VariantEffect.STOP_LOST, VariantEffect.START_LOST,
+            VariantEffect.SPLICE_ACCEPTOR_VARIANT, VariantEffect.SPLICE_DONOR_VARIANT,
+            VariantEffect.MISSENSE_VARIANT,
+            VariantEffect.INFRAME_INSERTION, VariantEffect.DISRUPTIVE_INFRAME_INSERTION,
+            VariantEffect.INFRAME_DELETION, VariantEffect.DISRUPTIVE_INFRAME_DELETION,
+            VariantEffect.SPLICE_REGION_VARIANT, VariantEffect.STOP_RETAINED_VARIANT,
+            VariantEffect.INITIATOR_CODON_VARIANT, VariantEffect.SYNONYMOUS_VARIANT,
+            VariantEffect.FIVE_PRIME_UTR_TRUNCATION,
+            VariantEffect.FIVE_PRIME_UTR_INTRON_VARIANT,
+            VariantEffect.FIVE_PRIME_UTR_INTRON_VARIANT,
+            VariantEffect.THREE_PRIME_UTR_TRUNCATION,
+            VariantEffect.THREE_PRIME_UTR_INTRON_VARIANT,
+            VariantEffect.THREE_PRIME_UTR_EXON_VARIANT,
+            VariantEffect.CODING_TRANSCRIPT_INTRON_VARIANT, VariantEffect.NON_CODING_TRANSCRIPT_EXON_VARIANT,
+            VariantEffect.NON_CODING_TRANSCRIPT_INTRON_VARIANT, VariantEffect.UPSTREAM_GENE_VARIANT,
+            VariantEffect.DOWNSTREAM_GENE_VARIANT, VariantEffect.INTERGENIC_VARIANT,
+            VariantEffect.REGULATORY_REGION_VARIANT);
+
     private static final FilterReportFactory filterReportFactory = new FilterReportFactory();
 
     private static final String DEFAULT_OUTPUT_DIR = "results";
@@ -82,6 +105,19 @@ private static String moiAbbreviation(ModeOfInheritance modeOfInheritance) {
         return moiAbbreviation == null ? "" : "_" + moiAbbreviation;
     }
 
+    /**
+     * Returns the counts of each {@link VariantEffect} per sample from the {@link VariantEffectCounter} accumulated
+     * while the variants were loaded. Should these not be available, the counts are made from the
+     * {@link AnalysisResults#getVariantEvaluations()}.
+     *
+     * @since 12.1.0
+     */
+    public static List<VariantEffectCount> makeVariantEffectCounters(AnalysisResults analysisResults) {
+        VariantEffectCounter variantEffectCounter = analysisResults.getVariantEffectCounter()
+                .orElseGet(() -> new VariantEffectCounter(analysisResults.getSampleNames(), analysisResults.getVariantEvaluations()));
+        return variantEffectCounter.getVariantEffectCounts(VARIANT_EFFECTS);
+    }
+
     /**
      * Make a {@code VariantTypeCounter} object from the list of
      * {@code VariantEvaluation}. We use this to print out a table of variant
@@ -91,32 +127,8 @@ private static String moiAbbreviation(ModeOfInheritance modeOfInheritance) {
      * @return
      */
     public static List<VariantEffectCount> makeVariantEffectCounters(List<String> sampleNames, List<VariantEvaluation> variantEvaluations) {
-
-        // all used Jannovar VariantEffects
-        final Set<VariantEffect> variantEffects = ImmutableSet.of(
-                VariantEffect.FRAMESHIFT_ELONGATION,
-                VariantEffect.FRAMESHIFT_TRUNCATION, VariantEffect.FRAMESHIFT_VARIANT,
-                VariantEffect.INTERNAL_FEATURE_ELONGATION, VariantEffect.FEATURE_TRUNCATION, VariantEffect.MNV,
-                VariantEffect.STOP_GAINED, VariantEffect.STOP_LOST, VariantEffect.START_LOST,
-                VariantEffect.SPLICE_ACCEPTOR_VARIANT, VariantEffect.SPLICE_DONOR_VARIANT,
-                VariantEffect.MISSENSE_VARIANT,
-                VariantEffect.INFRAME_INSERTION, VariantEffect.DISRUPTIVE_INFRAME_INSERTION,
-                VariantEffect.INFRAME_DELETION, VariantEffect.DISRUPTIVE_INFRAME_DELETION,
-                VariantEffect.SPLICE_REGION_VARIANT, VariantEffect.STOP_RETAINED_VARIANT,
-                VariantEffect.INITIATOR_CODON_VARIANT, VariantEffect.SYNONYMOUS_VARIANT,
-                VariantEffect.FIVE_PRIME_UTR_TRUNCATION,
-                VariantEffect.FIVE_PRIME_UTR_INTRON_VARIANT,
-                VariantEffect.FIVE_PRIME_UTR_INTRON_VARIANT,
-                VariantEffect.THREE_PRIME_UTR_TRUNCATION,
-                VariantEffect.THREE_PRIME_UTR_INTRON_VARIANT,
-                VariantEffect.THREE_PRIME_UTR_EXON_VARIANT,
-                VariantEffect.CODING_TRANSCRIPT_INTRON_VARIANT, VariantEffect.NON_CODING_TRANSCRIPT_EXON_VARIANT,
-                VariantEffect.NON_CODING_TRANSCRIPT_INTRON_VARIANT, VariantEffect.UPSTREAM_GENE_VARIANT,
-                VariantEffect.DOWNSTREAM_GENE_VARIANT, VariantEffect.INTERGENIC_VARIANT,
-                VariantEffect.REGULATORY_REGION_VARIANT);
-
         VariantEffectCounter variantEffectCounter = new VariantEffectCounter(sampleNames, variantEvaluations);
-        return variantEffectCounter.getVariantEffectCounts(variantEffects);
+        return variantEffectCounter.getVariantEffectCounts(VARIANT_EFFECTS);
     }
 
     public static List<FilterReport> makeFilterReports(Analysis analysis, AnalysisResults analysisResults) {
@@ -124,27 +136,25 @@ public static List<FilterReport> makeFilterReports(Analysis analysis, AnalysisRe
     }
 
     public static List<Gene> getMaxPassedGenes(List<Gene> genes, int maxGenes) {
-        List<Gene> passedGenes = getPassedGenes(genes);
         if (maxGenes == 0) {
+            List<Gene> passedGenes = getPassedGenes(genes);
             logger.debug("Maximum gene limit set to {} - Returning all {} genes which have passed filtering.", maxGenes, passedGenes.size());
             return passedGenes;
         }
-        return getMaxGenes(passedGenes, maxGenes);
-    }
-
-    private static List<Gene> getPassedGenes(List<Gene> genes) {
+        // stop as soon as enough genes have been found rather than collecting all of the passed genes first
         List<Gene> passedGenes = genes.stream()
                 .filter(Gene::passedFilters)
+                .limit(maxGenes)
                 .collect(Collectors.toList());
-        logger.debug("{} of {} genes passed filters", passedGenes.size(), genes.size());
+        logger.debug("Maximum gene limit set to {} - Returning first {} of {} genes which have passed filtering.", maxGenes, passedGenes.size(), genes.size());
         return passedGenes;
     }
 
-    private static List<Gene> getMaxGenes(List<Gene> genes, int maxGenes) {
+    private static List<Gene> getPassedGenes(List<Gene> genes) {
         List<Gene> passedGenes = genes.stream()
-                .limit(maxGenes)
+                .filter(Gene::passedFilters)
                 .collect(Collectors.toList());
-        logger.debug("Maximum gene limit set to {} - Returning first {} of {} genes which have passed filtering.", maxGenes, maxGenes, genes.size());
+        logger.debug("{} of {} genes passed filters", passedGenes.size(), genes.size());
         return passedGenes;
     }
 
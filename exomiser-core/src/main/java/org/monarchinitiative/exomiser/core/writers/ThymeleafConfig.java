@@ -35,7 +35,22 @@ public class ThymeleafConfig {
     private ThymeleafConfig() {
     }
 
+    /**
+     * Returns the shared core {@link TemplateEngine}. The engine is thread-safe and caches the parsed templates, so
+     * re-using a single instance means the templates are only read and parsed once per JVM rather than once for every
+     * results file written.
+     *
+     * @return the shared core template engine
+     */
     public static TemplateEngine coreTemplateEngine() {
+        return CoreTemplateEngineHolder.TEMPLATE_ENGINE;
+    }
+
+    private static class CoreTemplateEngineHolder {
+        private static final TemplateEngine TEMPLATE_ENGINE = newCoreTemplateEngine();
+    }
+
+    private static TemplateEngine newCoreTemplateEngine() {
         TemplateEngine templateEngine = new TemplateEngine();
         templateEngine.setTemplateResolver(templateResolver());
         return templateEngine;
@@ -57,11 +57,14 @@ public class TsvGeneResultsWriter implements ResultsWriter {
 
     private static final OutputFormat OUTPUT_FORMAT = OutputFormat.TSV_GENE;
 
+    private static final String NOT_SCORED = ".";
+
     private final CSVFormat format = CSVFormat
             .newFormat('\t')
             .withQuote(null)
             .withRecordSeparator("\n")
             .withIgnoreSurroundingSpaces(true)
+            .withCommentMarker('#')
             .withHeader("#GENE_SYMBOL",
                     "ENTREZ_GENE_ID",
                     "EXOMISER_GENE_PHENO_SCORE",
@@ -114,13 +117,30 @@ public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis
     private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, CSVPrinter printer) throws IOException {
         for (Gene gene : analysisResults.getGenes()) {
             if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
-                List<String> geneRecord = makeGeneRecord(modeOfInheritance, gene);
+                List<String> geneRecord = makeGeneRecord(modeOfInheritance, gene, true);
                 printer.printRecord(geneRecord);
             }
         }
+        writeNotEvaluatedGenes(modeOfInheritance, analysisResults.getNotEvaluatedGenes(), printer);
+    }
+
+    /**
+     * The genes which were not evaluated are written as comments following the results so that they are reported
+     * without breaking the column types for anything parsing the file. These genes have only been prioritised, so the
+     * Exomiser gene scores are written as '.' and only the prioritiser scores are given.
+     */
+    private void writeNotEvaluatedGenes(ModeOfInheritance modeOfInheritance, List<Gene> notEvaluatedGenes, CSVPrinter printer) throws IOException {
+        if (notEvaluatedGenes.isEmpty()) {
+            return;
+        }
+        printer.printComment("NOT_EVALUATED - the variants of these genes were not evaluated as the genes cannot be ranked in the top genes");
+        for (Gene gene : notEvaluatedGenes) {
+            List<String> geneRecord = makeGeneRecord(modeOfInheritance, gene, false);
+            printer.printComment(String.join("\t", geneRecord));
+        }
     }
 
-    private List<String> makeGeneRecord(ModeOfInheritance modeOfInheritance, Gene gene) {
+    private List<String> makeGeneRecord(ModeOfInheritance modeOfInheritance, Gene gene, boolean evaluated) {
         double humanPhenScore = 0;
         double mousePhenScore = 0;
         double fishPhenScore = 0;
@@ -156,9 +176,9 @@ private List<String> makeGeneRecord(ModeOfInheritance modeOfInheritance, Gene ge
 
         values.add(gene.getGeneSymbol());
         values.add(Integer.toString(gene.getEntrezGeneID()));
-        values.add(decimalFormat.format(gene.getPriorityScoreForMode(modeOfInheritance)));
-        values.add(decimalFormat.format(gene.getVariantScoreForMode(modeOfInheritance)));
-        values.add(decimalFormat.format(gene.getCombinedScoreForMode(modeOfInheritance)));
+        values.add(evaluated ? decimalFormat.format(gene.getPriorityScoreForMode(modeOfInheritance)) : NOT_SCORED);
+        values.add(evaluated ? decimalFormat.format(gene.getVariantScoreForMode(modeOfInheritance)) : NOT_SCORED);
+        values.add(evaluated ? decimalFormat.format(gene.getCombinedScoreForMode(modeOfInheritance)) : NOT_SCORED);
         values.add(decimalFormat.format(humanPhenScore));
         values.add(decimalFormat.format(mousePhenScore));
         values.add(decimalFormat.format(fishPhenScore));
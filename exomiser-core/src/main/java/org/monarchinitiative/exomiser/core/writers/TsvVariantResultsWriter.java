@@ -70,6 +70,15 @@ public class TsvVariantResultsWriter implements ResultsWriter {
 
     private final DecimalFormat formatter = new DecimalFormat(".##");
 
+    // Don't change the order of these - it's necessary for the data to end up in the correct column
+    private static final FrequencySource[] EXPERIMENTAL_FREQUENCY_SOURCES = {
+            // "DBSNP_FREQUENCY",
+            FrequencySource.THOUSAND_GENOMES,
+            // "EVS_EA_FREQUENCY", "EVS_AA_FREQUENCY",
+            FrequencySource.ESP_EUROPEAN_AMERICAN, FrequencySource.ESP_AFRICAN_AMERICAN,
+            // "EXAC_AFR_FREQ", "EXAC_AMR_FREQ", "EXAC_EAS_FREQ", "EXAC_FIN_FREQ", "EXAC_NFE_FREQ", "EXAC_SAS_FREQ", "EXAC_OTH_FREQ",
+            FrequencySource.EXAC_AFRICAN_INC_AFRICAN_AMERICAN, FrequencySource.EXAC_AMERICAN, FrequencySource.EXAC_EAST_ASIAN, FrequencySource.EXAC_FINNISH, FrequencySource.EXAC_NON_FINNISH_EUROPEAN, FrequencySource.EXAC_SOUTH_ASIAN, FrequencySource.EXAC_OTHER};
+
     public TsvVariantResultsWriter() {
         Locale.setDefault(Locale.UK);
     }
@@ -99,38 +108,44 @@ public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis
 
     private void writeData(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults,
                            boolean writeOnlyContributingVariants, CSVPrinter printer) throws IOException {
+        // the rows are written as they are built, only one is ever held in memory
+        List<Object> record = new ArrayList<>(format.getHeader().length);
         if (writeOnlyContributingVariants) {
             logger.debug("Writing out only CONTRIBUTING variants");
             for (Gene gene : analysisResults.getGenes()) {
                 if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
-                    writeOnlyContributingVariantsOfGene(modeOfInheritance, gene, printer);
+                    writeOnlyContributingVariantsOfGene(modeOfInheritance, gene, record, printer);
                 }
             }
         } else {
             for (Gene gene : analysisResults.getGenes()) {
-                writeAllVariantsOfGene(modeOfInheritance, gene, printer);
+                writeAllVariantsOfGene(modeOfInheritance, gene, record, printer);
             }
         }
     }
 
-    private void writeOnlyContributingVariantsOfGene(ModeOfInheritance modeOfInheritance, Gene gene, CSVPrinter printer) throws IOException {
+    private void writeOnlyContributingVariantsOfGene(ModeOfInheritance modeOfInheritance, Gene gene, List<Object> record, CSVPrinter printer) throws IOException {
         GeneScore geneScore = gene.getGeneScoreForMode(modeOfInheritance);
         for (VariantEvaluation ve : geneScore.getContributingVariants()) {
-            List<Object> record = buildVariantRecord(modeOfInheritance, ve, gene);
+            buildVariantRecord(modeOfInheritance, ve, gene, record);
             printer.printRecord(record);
         }
     }
 
-    private void writeAllVariantsOfGene(ModeOfInheritance modeOfInheritance, Gene gene, CSVPrinter printer) throws IOException {
+    private void writeAllVariantsOfGene(ModeOfInheritance modeOfInheritance, Gene gene, List<Object> record, CSVPrinter printer) throws IOException {
         for (VariantEvaluation ve : gene.getVariantEvaluations()) {
             //don't check that the variant is compatible under a particular mode of inheritance as otherwise a failing variant won't appear in the output.
-            List<Object> record = buildVariantRecord(modeOfInheritance, ve, gene);
+            buildVariantRecord(modeOfInheritance, ve, gene, record);
             printer.printRecord(record);
         }
     }
 
-    private List<Object> buildVariantRecord(ModeOfInheritance modeOfInheritance, VariantEvaluation ve, Gene gene) {
-        List<Object> record = new ArrayList<>();
+    /**
+     * Fills the record with the values for the variant. The record is cleared first so that the same buffer can be
+     * re-used for every row written.
+     */
+    private void buildVariantRecord(ModeOfInheritance modeOfInheritance, VariantEvaluation ve, Gene gene, List<Object> record) {
+        record.clear();
         VariantContext variantContext = ve.getVariantContext();
         // CHROM
         record.add(ve.getChromosomeName());
@@ -178,7 +193,6 @@ private List<Object> buildVariantRecord(ModeOfInheritance modeOfInheritance, Var
         record.add(dotIfNull(gene.getCombinedScoreForMode(modeOfInheritance)));
         // EXOMISER_CONTRIBUTES_TO_SCORE
         record.add(ve.contributesToGeneScoreUnderMode(modeOfInheritance) ? "CONTRIBUTING_VARIANT" : ".");
-        return record;
     }
 
     private void addFrequencyData(FrequencyData frequencyData, List<Object> record) {
@@ -186,15 +200,7 @@ private void addFrequencyData(FrequencyData frequencyData, List<Object> record)
         record.add(dotIfNull(frequencyData.getRsId()));
         // MAX_FREQUENCY
         record.add(dotIfNull(frequencyData.getMaxFreq()));
-        // Don't change the order of these - it's necessary for the data to end up in the correct column
-        FrequencySource[] experimentalFrequencySources = {
-                // "DBSNP_FREQUENCY",
-                FrequencySource.THOUSAND_GENOMES,
-                // "EVS_EA_FREQUENCY", "EVS_AA_FREQUENCY",
-                FrequencySource.ESP_EUROPEAN_AMERICAN, FrequencySource.ESP_AFRICAN_AMERICAN,
-                // "EXAC_AFR_FREQ", "EXAC_AMR_FREQ", "EXAC_EAS_FREQ", "EXAC_FIN_FREQ", "EXAC_NFE_FREQ", "EXAC_SAS_FREQ", "EXAC_OTH_FREQ",
-                FrequencySource.EXAC_AFRICAN_INC_AFRICAN_AMERICAN, FrequencySource.EXAC_AMERICAN, FrequencySource.EXAC_EAST_ASIAN, FrequencySource.EXAC_FINNISH, FrequencySource.EXAC_NON_FINNISH_EUROPEAN, FrequencySource.EXAC_SOUTH_ASIAN, FrequencySource.EXAC_OTHER};
-        for (FrequencySource source : experimentalFrequencySources) {
+        for (FrequencySource source : EXPERIMENTAL_FREQUENCY_SOURCES) {
             record.add(dotIfFrequencyNull(frequencyData.getFrequencyForSource(source)));
         }
     }
@@ -20,78 +20,83 @@
 
 package org.monarchinitiative.exomiser.core.writers;
 
-import com.google.common.collect.ImmutableList;
 import de.charite.compbio.jannovar.annotation.VariantEffect;
 import org.monarchinitiative.exomiser.core.model.AlleleCall;
 import org.monarchinitiative.exomiser.core.model.SampleGenotype;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 
-import java.util.EnumMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.stream.IntStream;
-
-import static java.util.stream.Collectors.toList;
 
+/**
+ * Counts the number of variants of each {@link VariantEffect} called as diploid with an ALT allele in each sample. The
+ * counts can either be made from a list of variants once an analysis has finished, or accumulated one variant at a
+ * time using {@link #countVariant(VariantEvaluation)} as the variants are loaded. The latter means the variants do not
+ * have to be retained for the sake of these counts. Instances are not thread-safe.
+ */
 public class VariantEffectCounter {
 
-    private final List<VariantEffectCount> variantEffectCounts;
+    private static final VariantEffect[] VARIANT_EFFECTS = VariantEffect.values();
 
-    public VariantEffectCounter(List<String> sampleNames, List<VariantEvaluation> variantEvaluations) {
-        variantEffectCounts = setup(sampleNames.size(), variantEvaluations);
-    }
+    private final int numSamples;
+    // one row of numSamples counts per VariantEffect, indexed by the VariantEffect ordinal
+    private final int[] counts;
 
-    private List<VariantEffectCount> setup(int numSamples, List<VariantEvaluation> variantEvaluations) {
-        Map<VariantEffect, int[]> tempCounts = countVariantEffects(numSamples, variantEvaluations);
-
-        return tempCounts.entrySet()
-                .stream()
-                .map(entry -> {
-                    VariantEffect variantEffect = entry.getKey();
-                    List<Integer> counts = IntStream.of(entry.getValue())
-                            .boxed()
-                            .collect(toList());
-                    return new VariantEffectCount(variantEffect, counts);
-                })
-                .collect(toList());
+    /**
+     * @param numSamples the number of samples in the {@link VariantEvaluation} sample genotypes to be counted
+     * @since 12.1.0
+     */
+    public VariantEffectCounter(int numSamples) {
+        this.numSamples = numSamples;
+        this.counts = new int[VARIANT_EFFECTS.length * numSamples];
     }
 
-    private Map<VariantEffect, int[]> countVariantEffects(int numSamples, List<VariantEvaluation> variantEvaluations) {
-        Map<VariantEffect, int[]> tempCounts = new EnumMap<>(VariantEffect.class);
-        // ensure all cases are created as the input set may not contain them all
-        for (VariantEffect variantEffect : VariantEffect.values()) {
-            tempCounts.put(variantEffect, zeroes(numSamples));
+    public VariantEffectCounter(List<String> sampleNames, List<VariantEvaluation> variantEvaluations) {
+        this(sampleNames.size());
+        for (VariantEvaluation variantEvaluation : variantEvaluations) {
+            countVariant(variantEvaluation);
         }
+    }
 
-        for (VariantEvaluation variant : variantEvaluations) {
-            Map<String, SampleGenotype> sampleGenotypes = variant.getSampleGenotypes();
-            // this is always an ordered map in the order of the sample names declared in the VCF header
-            List<SampleGenotype> genotypes = ImmutableList.copyOf(sampleGenotypes.values());
-            VariantEffect effect = variant.getVariantEffect();
-            int[] effectCounts = tempCounts.get(effect);
-            for (int i = 0; i < genotypes.size(); i++) {
-                SampleGenotype sampleGenotype = genotypes.get(i);
-                List<AlleleCall> calls = sampleGenotype.getCalls();
-                if (calls.size() == 2 && calls.contains(AlleleCall.ALT)) {
-                    effectCounts[i]++;
-                }
+    /**
+     * Adds the sample genotypes of the variant to the counts for its {@link VariantEffect}.
+     *
+     * @param variant the variant to count
+     * @since 12.1.0
+     */
+    public void countVariant(VariantEvaluation variant) {
+        int offset = variant.getVariantEffect().ordinal() * numSamples;
+        // this is always an ordered map in the order of the sample names declared in the VCF header
+        int sample = 0;
+        for (SampleGenotype sampleGenotype : variant.getSampleGenotypes().values()) {
+            if (sample == numSamples) {
+                break;
             }
+            if (sampleGenotype.getPloidy() == 2 && sampleGenotype.hasCall(AlleleCall.ALT)) {
+                counts[offset + sample]++;
+            }
+            sample++;
         }
-        return tempCounts;
     }
 
-    private int[] zeroes(int numSamples) {
-        int[] zeroes = new int[numSamples];
-        for (int i = 0; i < numSamples; i++) {
-            zeroes[i] = 0;
+    public List<VariantEffectCount> getVariantEffectCounts(Set<VariantEffect> variantEffects) {
+        List<VariantEffectCount> variantEffectCounts = new ArrayList<>(variantEffects.size());
+        // returned in VariantEffect order
+        for (VariantEffect variantEffect : VARIANT_EFFECTS) {
+            if (variantEffects.contains(variantEffect)) {
+                variantEffectCounts.add(new VariantEffectCount(variantEffect, getSampleCounts(variantEffect)));
+            }
         }
-        return zeroes;
+        return variantEffectCounts;
     }
 
-    public List<VariantEffectCount> getVariantEffectCounts(Set<VariantEffect> variantEffects) {
-        return variantEffectCounts.stream()
-                .filter(variantEffectCount -> variantEffects.contains(variantEffectCount.getVariantType()))
-                .collect(toList());
+    private List<Integer> getSampleCounts(VariantEffect variantEffect) {
+        int offset = variantEffect.ordinal() * numSamples;
+        List<Integer> sampleCounts = new ArrayList<>(numSamples);
+        for (int i = 0; i < numSamples; i++) {
+            sampleCounts.add(counts[offset + i]);
+        }
+        return sampleCounts;
     }
 }
@@ -20,11 +20,10 @@
 
 package org.monarchinitiative.exomiser.core.writers;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Lists;
-import com.google.common.collect.Multimap;
 import de.charite.compbio.jannovar.htsjdk.VariantContextWriterConstructionHelper;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.VariantContextBuilder;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
@@ -33,7 +32,7 @@
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
 import org.monarchinitiative.exomiser.core.analysis.util.InheritanceModeAnalyser;
 import org.monarchinitiative.exomiser.core.filters.FilterType;
-import org.monarchinitiative.exomiser.core.genome.VcfFiles;
+import org.monarchinitiative.exomiser.core.genome.Contig;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 import org.slf4j.Logger;
@@ -41,15 +40,17 @@
 
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.Consumer;
 
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 /**
  * Generate results in VCF format using HTS-JDK.
+ * <p>
+ * When created for the {@link OutputFormat#VCF_GZ} format the records are written in coordinate order to a bgzipped
+ * file along with a tabix index, so that the output can be queried by region without any further processing. Plain
+ * {@link OutputFormat#VCF} output is written in ranked gene order.
  *
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  * @author Manuel Holtgrewe <manuel.holtgrewe@charite.de>
@@ -100,55 +101,147 @@ VCFHeaderLine getVcfHeaderLine() {
 
     private static final Logger logger = LoggerFactory.getLogger(VcfResultsWriter.class);
 
-    private static final OutputFormat OUTPUT_FORMAT = OutputFormat.VCF;
+    // the alleles of a multi-allelic site are written on the same line, so they need to be grouped together
+    private static final Comparator<VariantEvaluation> VCF_RECORD_ORDER = Comparator
+            .comparingInt(VariantEvaluation::getChromosome)
+            .thenComparingInt(variantEvaluation -> variantEvaluation.getVariantContext().getStart());
+
+    private final OutputFormat outputFormat;
+
+    public VcfResultsWriter() {
+        this(OutputFormat.VCF);
+    }
 
     /**
-     * Initialize the object, given the original {@link VCFFileReader} from the
-     * input.
+     * @param outputFormat either {@link OutputFormat#VCF} or {@link OutputFormat#VCF_GZ}
+     * @since 12.1.0
      */
-    public VcfResultsWriter() {
+    public VcfResultsWriter(OutputFormat outputFormat) {
+        if (outputFormat != OutputFormat.VCF && outputFormat != OutputFormat.VCF_GZ) {
+            throw new IllegalArgumentException("Unsupported VCF output format " + outputFormat);
+        }
+        this.outputFormat = outputFormat;
         Locale.setDefault(Locale.UK);
     }
 
+    private boolean isCoordinateSorted() {
+        return outputFormat == OutputFormat.VCF_GZ;
+    }
+
     @Override
     public void writeFile(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
         // create a VariantContextWriter writing to the output file path
-        String outFileName = ResultsWriterUtils.makeOutputFilename(analysis.getVcfPath(), settings.getOutputPrefix(), OUTPUT_FORMAT, modeOfInheritance);
-        Path outFile = Paths.get(outFileName);
-        VCFHeader vcfHeader = getVcfHeader(analysis);
-        try (VariantContextWriter writer = VariantContextWriterConstructionHelper.openVariantContextWriter(
-                vcfHeader,
-                outFile.toString(),
-                getAdditionalHeaderLines(),
-                false)) {
-            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), writer);
-        }
-        logger.debug("{} {} results written to file {}.", OUTPUT_FORMAT, modeOfInheritance.getAbbreviation(), outFileName);
+        String outFileName = ResultsWriterUtils.makeOutputFilename(analysis.getVcfPath(), settings.getOutputPrefix(), outputFormat, modeOfInheritance);
+        VCFHeader vcfHeader = getVcfHeader(analysis, analysisResults);
+        if (isCoordinateSorted()) {
+            List<VariantContext> records = new ArrayList<>();
+            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), records::add);
+            sortByCoordinate(vcfHeader, records);
+            // the file extension tells HTSJDK to write BGZF and the index will be a tabix .tbi file
+            try (VariantContextWriter writer = VariantContextWriterConstructionHelper.openVariantContextWriter(
+                    vcfHeader,
+                    outFileName,
+                    getAdditionalHeaderLines(),
+                    true)) {
+                records.forEach(writer::add);
+            }
+        } else {
+            try (VariantContextWriter writer = VariantContextWriterConstructionHelper.openVariantContextWriter(
+                    vcfHeader,
+                    outFileName,
+                    getAdditionalHeaderLines(),
+                    false)) {
+                writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), writer::add);
+            }
+        }
+        logger.debug("{} {} results written to file {}.", outputFormat, modeOfInheritance.getAbbreviation(), outFileName);
     }
 
-    private VCFHeader getVcfHeader(Analysis analysis) {
-        Path vcfPath = analysis.getVcfPath();
+    private VCFHeader getVcfHeader(Analysis analysis, AnalysisResults analysisResults) {
         try {
-            return VcfFiles.readVcfHeader(vcfPath);
+            return restrictToAnalysedSamples(analysis.getVcfHeader(), analysisResults);
         } catch (Exception e) {
             logger.error("Unable to read vcf file - using empty header instead", e);
         }
         return new VCFHeader();
     }
 
+    /**
+     * Only the genotypes of the analysed samples are decoded from the input VCF, so the output header must only contain
+     * these samples otherwise the genotype columns will not match those of the header. The input header is shared by
+     * all the writers for an analysis, so a new copy is always returned.
+     */
+    private VCFHeader restrictToAnalysedSamples(VCFHeader vcfHeader, AnalysisResults analysisResults) {
+        List<String> analysedSampleNames = analysisResults.getSampleNames();
+        if (analysedSampleNames.isEmpty()) {
+            return new VCFHeader(vcfHeader.getMetaDataInInputOrder(), vcfHeader.getGenotypeSamples());
+        }
+        return new VCFHeader(vcfHeader.getMetaDataInInputOrder(), analysedSampleNames);
+    }
+
+    /**
+     * Sorts the records into the order of the contigs in the header sequence dictionary, followed by any other contigs
+     * in chromosome number order. Any contigs missing from the header are added to its sequence dictionary as these are
+     * required in order to index the output.
+     */
+    private void sortByCoordinate(VCFHeader vcfHeader, List<VariantContext> records) {
+        SAMSequenceDictionary headerDictionary = vcfHeader.getSequenceDictionary();
+        Map<String, Integer> contigRanks = new HashMap<>();
+        List<SAMSequenceRecord> sequences = new ArrayList<>();
+        if (headerDictionary != null) {
+            for (SAMSequenceRecord sequence : headerDictionary.getSequences()) {
+                contigRanks.put(sequence.getSequenceName(), sequences.size());
+                sequences.add(sequence.clone());
+            }
+        }
+        int numHeaderContigs = sequences.size();
+        records.sort(Comparator
+                .comparingInt((VariantContext record) -> contigRank(contigRanks, numHeaderContigs, record.getContig()))
+                .thenComparing(VariantContext::getContig)
+                .thenComparingInt(VariantContext::getStart));
+
+        boolean addedContigs = false;
+        for (VariantContext record : records) {
+            String contig = record.getContig();
+            if (!contigRanks.containsKey(contig)) {
+                contigRanks.put(contig, sequences.size());
+                sequences.add(new SAMSequenceRecord(contig, SAMSequenceRecord.UNKNOWN_SEQUENCE_LENGTH));
+                addedContigs = true;
+            }
+        }
+        if (headerDictionary == null || addedContigs) {
+            vcfHeader.setSequenceDictionary(new SAMSequenceDictionary(sequences));
+        }
+    }
+
+    private static int contigRank(Map<String, Integer> headerContigRanks, int numHeaderContigs, String contig) {
+        Integer headerRank = headerContigRanks.get(contig);
+        if (headerRank != null) {
+            return headerRank;
+        }
+        // unrecognised contigs have an id of 0, these go after chrMT (25)
+        int contigId = Contig.parseId(contig);
+        return numHeaderContigs + (contigId == 0 ? 26 : contigId);
+    }
+
     @Override
     public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
-        VCFHeader vcfHeader = VcfFiles.readVcfHeader(analysis.getVcfPath());
+        VCFHeader vcfHeader = restrictToAnalysedSamples(analysis.getVcfHeader(), analysisResults);
+        List<VariantContext> records = new ArrayList<>();
+        writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), records::add);
+        if (isCoordinateSorted()) {
+            sortByCoordinate(vcfHeader, records);
+        }
         // create a VariantContextWriter writing to a buffer
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         try (VariantContextWriter writer = VariantContextWriterConstructionHelper.openVariantContextWriter(vcfHeader, baos, getAdditionalHeaderLines())) {
-            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), writer);
+            records.forEach(writer::add);
         }
-        logger.info("{} results written to string buffer", OUTPUT_FORMAT);
+        logger.info("{} results written to string buffer", outputFormat);
         return new String(baos.toByteArray(), StandardCharsets.UTF_8);
     }
 
-    private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, boolean writeOnlyContributingVariants, VariantContextWriter writer) {
+    private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, boolean writeOnlyContributingVariants, Consumer<VariantContext> writer) {
         writeUnannotatedVariants(modeOfInheritance, analysisResults, writer);
         // actually write the data and close writer again
         if (writeOnlyContributingVariants) {
@@ -159,17 +252,15 @@ private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults anal
         }
     }
 
-    private void writeUnannotatedVariants(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, VariantContextWriter writer) {
-        List<VariantContext> updatedRecords = updateGeneVariantRecords(modeOfInheritance, null, analysisResults.getUnAnnotatedVariantEvaluations());
-        updatedRecords.forEach(writer::add);
+    private void writeUnannotatedVariants(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, Consumer<VariantContext> writer) {
+        writeGeneVariantRecords(modeOfInheritance, null, analysisResults.getUnAnnotatedVariantEvaluations(), writer);
     }
 
-    private void writeOnlyContributingData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, VariantContextWriter writer) {
+    private void writeOnlyContributingData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, Consumer<VariantContext> writer) {
         for (Gene gene : analysisResults.getGenes()) {
             if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
                 List<VariantEvaluation> compatibleVariants = gene.getGeneScoreForMode(modeOfInheritance).getContributingVariants();
-                List<VariantContext> updatedRecords = updateGeneVariantRecords(modeOfInheritance, gene, compatibleVariants);
-                updatedRecords.forEach(writer::add);
+                writeGeneVariantRecords(modeOfInheritance, gene, compatibleVariants, writer);
             }
         }
     }
@@ -184,53 +275,71 @@ private void writeOnlyContributingData(ModeOfInheritance modeOfInheritance, Anal
      * @param analysisResults data set to write out
      * @param writer          writer to write to
      */
-    private void writeAllSampleData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, VariantContextWriter writer) {
+    private void writeAllSampleData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, Consumer<VariantContext> writer) {
         for (Gene gene : analysisResults.getGenes()) {
-                logger.debug("updating variant records for gene {}", gene);
-                List<VariantContext> updatedRecords = updateGeneVariantRecords(modeOfInheritance, gene, gene.getVariantEvaluations());
-                updatedRecords.forEach(writer::add);
+            logger.debug("updating variant records for gene {}", gene);
+            writeGeneVariantRecords(modeOfInheritance, gene, gene.getVariantEvaluations(), writer);
         }
     }
 
-    //this needs a MultiMap<VariantContext, VariantEvaluation> (see InheritanceModeAnalyser for this)
-    private List<VariantContext> updateGeneVariantRecords(ModeOfInheritance modeOfInheritance, Gene gene, List<VariantEvaluation> variants) {
+    /**
+     * Writes one record for each VCF line the variants came from. The records of a gene are written in coordinate
+     * order with the alleles of a multi-allelic site kept in the order they were given, which must match the order of
+     * the ALT field.
+     */
+    private void writeGeneVariantRecords(ModeOfInheritance modeOfInheritance, Gene gene, List<VariantEvaluation> variants, Consumer<VariantContext> writer) {
         if (variants.isEmpty()) {
-            return Collections.emptyList();
-        }
-//        maybe check if the variant is multi-allelic first?
-        Multimap<String, VariantEvaluation> variantContextToEvaluations = mapVariantEvaluationsToVariantContextString(variants);
-        return variantContextToEvaluations.asMap()
-                .values()
-                .stream()
-                .map(variantEvaluations -> updateRecord(Lists.newArrayList(variantEvaluations), gene, modeOfInheritance))
-                .collect(toList());
+            return;
+        }
+        if (variants.size() == 1) {
+            writer.accept(updateRecord(variants, gene, modeOfInheritance));
+            return;
+        }
+        List<VariantEvaluation> sortedVariants = new ArrayList<>(variants);
+        sortedVariants.sort(VCF_RECORD_ORDER);
+        List<List<VariantEvaluation>> records = new ArrayList<>();
+        // records for the current VCF position, only these can share alleles with the next variant
+        int positionStart = 0;
+        VariantContext previous = null;
+        for (VariantEvaluation variantEvaluation : sortedVariants) {
+            VariantContext variantContext = variantEvaluation.getVariantContext();
+            if (previous == null || variantContext.getStart() != previous.getStart() || !variantContext.getContig().equals(previous.getContig())) {
+                positionStart = records.size();
+            }
+            List<VariantEvaluation> alleles = findRecordAlleles(records, positionStart, variantContext);
+            if (alleles == null) {
+                alleles = new ArrayList<>(2);
+                records.add(alleles);
+            }
+            alleles.add(variantEvaluation);
+            previous = variantContext;
+        }
+        for (List<VariantEvaluation> alleles : records) {
+            writer.accept(updateRecord(alleles, gene, modeOfInheritance));
+        }
     }
 
-    private Multimap<String, VariantEvaluation> mapVariantEvaluationsToVariantContextString(List<VariantEvaluation> variantEvaluations) {
-        //using ArrayListMultimap is important as the order of the values (alleles) must be preserved so that they match the order listed in the ALT field
-        ArrayListMultimap<String, VariantEvaluation> geneVariants = ArrayListMultimap.create();
-        for (VariantEvaluation variantEvaluation : variantEvaluations) {
-            geneVariants.put(variantContextKeyValue(variantEvaluation.getVariantContext()), variantEvaluation);
+    private List<VariantEvaluation> findRecordAlleles(List<List<VariantEvaluation>> records, int fromIndex, VariantContext variantContext) {
+        for (int i = fromIndex; i < records.size(); i++) {
+            List<VariantEvaluation> alleles = records.get(i);
+            if (isSameVcfRecord(alleles.get(0).getVariantContext(), variantContext)) {
+                return alleles;
+            }
         }
-        return geneVariants;
+        return null;
     }
 
     /**
-     * A {@link VariantContext} cannot be used directly as a key in a Map or put into a Set as it does not override equals or hashCode.
-     * Also simply using toString isn't an option as the compatible variants returned from the
-     * {@link InheritanceModeAnalyser#checkInheritanceCompatibilityOfPassedVariants(Gene)}
-     * are different instances and have had their genotype strings changed. This method solves these problems.
+     * A {@link VariantContext} cannot be compared directly as it does not override equals or hashCode. Also the
+     * compatible variants returned from the {@link InheritanceModeAnalyser#checkInheritanceCompatibilityOfPassedVariants(Gene)}
+     * are different instances and have had their genotype strings changed, so the position and alleles are compared
+     * instead.
      */
-    private String variantContextKeyValue(VariantContext variantContext) {
-        //using StringBuilder instead of String.format as the performance is better and we're going to be doing this for every variant in the VCF
-        // chr10-123256215-T*-[G, A]
-        // chr5-11-AC*-[AT]
-        StringJoiner stringJoiner = new StringJoiner("-");
-        stringJoiner.add(variantContext.getContig());
-        stringJoiner.add(String.valueOf(variantContext.getStart()));
-        stringJoiner.add(variantContext.getReference().toString());
-        stringJoiner.add(variantContext.getAlternateAlleles().toString());
-        return stringJoiner.toString();
+    private static boolean isSameVcfRecord(VariantContext some, VariantContext other) {
+        return some == other || (some.getStart() == other.getStart()
+                && some.getContig().equals(other.getContig())
+                && some.getReference().equals(other.getReference())
+                && some.getAlternateAlleles().equals(other.getAlternateAlleles()));
     }
 
     private VariantContext updateRecord(List<VariantEvaluation> variantEvaluations, Gene gene, ModeOfInheritance modeOfInheritance) {
@@ -186,6 +186,22 @@ public void testParseAnalysisPassOnlyAnalysisMode() {
         assertThat(analysis.getAnalysisMode(), equalTo(AnalysisMode.PASS_ONLY));
     }
 
+    @Test
+    public void testParseAnalysisNumGenesToEvaluateDefaultsToZero() {
+        Analysis analysis = instance.parseAnalysis(addStepToAnalysis(""));
+        assertThat(analysis.getNumGenesToEvaluate(), equalTo(0));
+    }
+
+    @Test
+    public void testParseAnalysisNumGenesToEvaluate() {
+        Analysis analysis = instance.parseAnalysis(
+                "analysis:\n"
+                        + "    vcf: test.vcf\n"
+                        + "    numGenesToEvaluate: 20\n"
+                        + "    ");
+        assertThat(analysis.getNumGenesToEvaluate(), equalTo(20));
+    }
+
     @Test
     public void testParseAnalysisSparseAnalysisModeReturnsPassOnlyDefault() {
         Analysis analysis = instance.parseAnalysis(
@@ -641,6 +657,18 @@ public void testParseOutputSettingsNumGenesToShow() {
         assertThat(outputSettings.getNumberOfGenesToShow(), equalTo(1));
     }
 
+    @Test
+    public void testParseOutputSettingsHtmlPageSize() {
+        OutputSettings outputSettings = instance.parseOutputSettings(
+                "outputOptions:\n"
+                + "    outputPassVariantsOnly: true\n"
+                + "    numGenes: 0\n"
+                + "    htmlPageSize: 100\n"
+                + "    outputPrefix: results/Pfeiffer-hiphive\n"
+                + "    outputFormats: [HTML]\n");
+        assertThat(outputSettings.getHtmlPageSize(), equalTo(100));
+    }
+
     @Test
     public void testParseOutputSettingsOutputPrefix() {
         OutputSettings outputSettings = instance.parseOutputSettings(
@@ -664,6 +692,15 @@ public void testParseOutputSettingsAllSupportedOutputFormats() {
         assertThat(outputSettings.getOutputFormats(), equalTo((outputFormats)));
     }
 
+    @Test
+    public void testParseOutputSettingsCompressedVcfOutputFormat() {
+        OutputSettings outputSettings = instance.parseOutputSettings(
+                "outputOptions:\n"
+                + "    outputFormats: [VCF, VCF_GZ]\n");
+        Set<OutputFormat> outputFormats = EnumSet.of(OutputFormat.VCF, OutputFormat.VCF_GZ);
+        assertThat(outputSettings.getOutputFormats(), equalTo((outputFormats)));
+    }
+
     @Test
     public void testParseOutputSettingsNoOutputFormats() {
         OutputSettings outputSettings = instance.parseOutputSettings(
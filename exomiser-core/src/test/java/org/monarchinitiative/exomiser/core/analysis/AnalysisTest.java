@@ -72,6 +72,14 @@ public void testCanSetAndGetVcfFilePath() {
         assertThat(instance.getVcfPath(), equalTo(vcfPath));
     }
 
+    @Test
+    public void testVcfHeaderIsOnlyReadOnce() {
+        Analysis instance = newBuilder()
+                .vcfPath(Paths.get("src/test/resources/smallTest.vcf"))
+                .build();
+        assertThat(instance.getVcfHeader(), sameInstance(instance.getVcfHeader()));
+    }
+
     @Test
     public void testCanSetAndGetPedigree() {
         Pedigree pedigree = Pedigree.empty();
@@ -98,6 +106,20 @@ public void canSetGenomeAssembly() {
         assertThat(instance.getGenomeAssembly(), equalTo(GenomeAssembly.HG19));
     }
 
+    @Test
+    public void numGenesToEvaluateDefaultsToZero() {
+        assertThat(DEFAULT_ANALYSIS.getNumGenesToEvaluate(), equalTo(0));
+    }
+
+    @Test
+    public void canSetNumGenesToEvaluate() {
+        Analysis instance = newBuilder()
+                .numGenesToEvaluate(20)
+                .build();
+        assertThat(instance.getNumGenesToEvaluate(), equalTo(20));
+        assertThat(instance.copy().build(), equalTo(instance));
+    }
+
     @Test
     public void modeOfInheritanceDefaultsToEmpty() {
         assertThat(DEFAULT_ANALYSIS.getInheritanceModeOptions(), equalTo(InheritanceModeOptions.empty()));
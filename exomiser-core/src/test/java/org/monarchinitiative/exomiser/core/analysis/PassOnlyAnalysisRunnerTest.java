@@ -29,6 +29,7 @@
 import org.monarchinitiative.exomiser.core.prioritisers.MockPrioritiser;
 import org.monarchinitiative.exomiser.core.prioritisers.Prioritiser;
 import org.monarchinitiative.exomiser.core.prioritisers.PriorityType;
+import org.monarchinitiative.exomiser.core.writers.ResultsWriterUtils;
 
 import java.nio.file.Paths;
 import java.util.HashMap;
@@ -125,6 +126,21 @@ public void testRunAnalysisFailVariantFilterOnlyOneVariantPasses() {
         assertThat(passedVariant.getAlt(), equalTo("C"));
     }
 
+    @Test
+    public void testRunAnalysisVariantEffectCountsIncludeFailedVariants() {
+        VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
+
+        Analysis analysis = makeAnalysis(vcfPath, intervalFilter);
+        AnalysisResults passOnlyResults = instance.run(analysis);
+        AnalysisResults fullResults = new SimpleAnalysisRunner(genomeAnalysisService).run(analysis);
+        assertThat(passOnlyResults.getVariantEvaluations().size() < fullResults.getVariantEvaluations().size(), is(true));
+
+        // the counts are made as the variants are loaded, so are the same as those made from all the variants in a full run
+        assertThat(ResultsWriterUtils.makeVariantEffectCounters(passOnlyResults), equalTo(ResultsWriterUtils.makeVariantEffectCounters(fullResults)));
+        assertThat(ResultsWriterUtils.makeVariantEffectCounters(passOnlyResults),
+                equalTo(ResultsWriterUtils.makeVariantEffectCounters(fullResults.getSampleNames(), fullResults.getVariantEvaluations())));
+    }
+
     @Test
     public void testRunAnalysisTwoVariantFiltersAllVariantsFail() {
         VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
@@ -423,4 +439,60 @@ public void testRunAnalysisAutosomalRecessiveTrioInheritanceFilter() {
         assertThat(passedGene.getVariantEvaluations().get(0).getPosition(), equalTo(123239370));
     }
 
+    @Test
+    public void testRunAnalysisNumGenesToEvaluateOnlyEvaluatesTopGenes() {
+        Map<String, Float> hiPhiveGeneScores = new HashMap<>();
+        hiPhiveGeneScores.put("RBM8A", 1.0f);
+        Analysis analysis = Analysis.builder()
+                .vcfPath(TestPedigrees.trioVcfPath())
+                .pedigree(TestPedigrees.trioChildAffected())
+                .probandSampleName("Seth")
+                .inheritanceModeOptions(InheritanceModeOptions.defaultForModes(ModeOfInheritance.AUTOSOMAL_RECESSIVE))
+                .addStep(new MockPrioritiser(PriorityType.HIPHIVE_PRIORITY, hiPhiveGeneScores))
+                .addStep(new QualityFilter(5))
+                .addStep(new InheritanceFilter(ModeOfInheritance.AUTOSOMAL_RECESSIVE))
+                .build();
+
+        AnalysisResults fullResults = instance.run(analysis);
+        AnalysisResults topResults = instance.run(analysis.copy().numGenesToEvaluate(1).build());
+        printResults(topResults);
+
+        assertThat(fullResults.getNotEvaluatedGenes().isEmpty(), is(true));
+        Gene topGene = fullResults.getGenes().get(0);
+        assertThat(topGene.getGeneSymbol(), equalTo("RBM8A"));
+
+        assertThat(topResults.getGenes().size(), equalTo(1));
+        Gene evaluatedTopGene = topResults.getGenes().get(0);
+        assertThat(evaluatedTopGene.getGeneSymbol(), equalTo("RBM8A"));
+        assertThat(evaluatedTopGene.getCombinedScore(), equalTo(topGene.getCombinedScore()));
+
+        Map<String, Gene> notEvaluatedGenes = makeResults(topResults.getNotEvaluatedGenes());
+        assertThat(notEvaluatedGenes.containsKey("FGFR2"), is(true));
+        assertThat(notEvaluatedGenes.containsKey("RBM8A"), is(false));
+        for (VariantEvaluation variantEvaluation : topResults.getVariantEvaluations()) {
+            assertThat(variantEvaluation.getGeneSymbol(), equalTo("RBM8A"));
+        }
+    }
+
+    @Test
+    public void testRunAnalysisNumGenesToEvaluateIsIgnoredWhenPrioritisersDoNotRunFirst() {
+        Map<String, Float> hiPhiveGeneScores = new HashMap<>();
+        hiPhiveGeneScores.put("RBM8A", 1.0f);
+        Analysis analysis = Analysis.builder()
+                .vcfPath(TestPedigrees.trioVcfPath())
+                .pedigree(TestPedigrees.trioChildAffected())
+                .probandSampleName("Seth")
+                .inheritanceModeOptions(InheritanceModeOptions.defaultForModes(ModeOfInheritance.AUTOSOMAL_RECESSIVE))
+                .addStep(new QualityFilter(5))
+                .addStep(new MockPrioritiser(PriorityType.HIPHIVE_PRIORITY, hiPhiveGeneScores))
+                .addStep(new InheritanceFilter(ModeOfInheritance.AUTOSOMAL_RECESSIVE))
+                .build();
+
+        AnalysisResults fullResults = instance.run(analysis);
+        AnalysisResults results = instance.run(analysis.copy().numGenesToEvaluate(1).build());
+
+        assertThat(results.getNotEvaluatedGenes().isEmpty(), is(true));
+        assertThat(results.getGenes().size(), equalTo(fullResults.getGenes().size()));
+    }
+
 }
@@ -0,0 +1,119 @@
+
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.filters.FilterResult;
+import org.monarchinitiative.exomiser.core.filters.FilterType;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.GeneScore;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class TopGeneScoresTest {
+
+    private static int geneId = 0;
+
+    private Gene scoredGene(ModeOfInheritance modeOfInheritance, float combinedScore) {
+        geneId++;
+        Gene gene = new Gene("GENE" + geneId, geneId);
+        if (modeOfInheritance != ModeOfInheritance.ANY) {
+            gene.setCompatibleInheritanceModes(Collections.singleton(modeOfInheritance));
+        }
+        gene.addGeneScore(GeneScore.builder()
+                .geneIdentifier(gene.getGeneIdentifier())
+                .modeOfInheritance(modeOfInheritance)
+                .combinedScore(combinedScore)
+                .build());
+        return gene;
+    }
+
+    @Test
+    public void throwsExceptionWithZeroGenes() {
+        assertThrows(IllegalArgumentException.class, () -> new TopGeneScores(0, Collections.emptySet()));
+    }
+
+    @Test
+    public void thresholdIsNegativeInfinityUntilEnoughGenes() {
+        TopGeneScores instance = new TopGeneScores(2, Collections.emptySet());
+        assertThat(instance.getThreshold(), equalTo(Float.NEGATIVE_INFINITY));
+
+        instance.add(scoredGene(ModeOfInheritance.ANY, 0.5f));
+        assertThat(instance.getThreshold(), equalTo(Float.NEGATIVE_INFINITY));
+
+        instance.add(scoredGene(ModeOfInheritance.ANY, 0.7f));
+        assertThat(instance.getThreshold(), equalTo(0.5f));
+    }
+
+    @Test
+    public void thresholdIsLowestOfTopScores() {
+        TopGeneScores instance = new TopGeneScores(2, Collections.emptySet());
+        instance.add(scoredGene(ModeOfInheritance.ANY, 0.5f));
+        instance.add(scoredGene(ModeOfInheritance.ANY, 0.9f));
+        instance.add(scoredGene(ModeOfInheritance.ANY, 0.7f));
+        instance.add(scoredGene(ModeOfInheritance.ANY, 0.1f));
+        assertThat(instance.getThreshold(), equalTo(0.7f));
+    }
+
+    @Test
+    public void thresholdIsLowestOfTopScoresInAnyOrder() {
+        TopGeneScores instance = new TopGeneScores(5, Collections.emptySet());
+        float[] scores = {0.3f, 0.95f, 0.1f, 0.6f, 0.8f, 0.2f, 0.7f, 0.9f, 0.4f, 0.5f, 0.85f, 0.05f};
+        for (float score : scores) {
+            instance.add(scoredGene(ModeOfInheritance.ANY, score));
+        }
+        // top five are 0.95, 0.9, 0.85, 0.8, 0.7
+        assertThat(instance.getThreshold(), equalTo(0.7f));
+    }
+
+    @Test
+    public void failedGenesAreIgnored() {
+        TopGeneScores instance = new TopGeneScores(1, Collections.emptySet());
+        Gene failedGene = scoredGene(ModeOfInheritance.ANY, 0.9f);
+        failedGene.addFilterResult(FilterResult.fail(FilterType.PRIORITY_SCORE_FILTER));
+        instance.add(failedGene);
+        assertThat(instance.getThreshold(), equalTo(Float.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    public void thresholdIsLowestOfAllModes() {
+        TopGeneScores instance = new TopGeneScores(1, EnumSet.of(ModeOfInheritance.AUTOSOMAL_DOMINANT, ModeOfInheritance.AUTOSOMAL_RECESSIVE));
+        instance.add(scoredGene(ModeOfInheritance.AUTOSOMAL_DOMINANT, 0.9f));
+        // no genes compatible with AUTOSOMAL_RECESSIVE yet
+        assertThat(instance.getThreshold(), equalTo(Float.NEGATIVE_INFINITY));
+
+        instance.add(scoredGene(ModeOfInheritance.AUTOSOMAL_RECESSIVE, 0.6f));
+        assertThat(instance.getThreshold(), equalTo(0.6f));
+
+        instance.add(scoredGene(ModeOfInheritance.AUTOSOMAL_RECESSIVE, 0.8f));
+        assertThat(instance.getThreshold(), equalTo(0.8f));
+    }
+}
@@ -175,4 +175,41 @@ public void testGetTadsContainingVariantTwoOverlappingTadsVariantInOne() {
         assertThat(instance.getRegionsContainingVariant(variant), equalTo(ImmutableList.of(tad)));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSweepReturnsSameRegionsAsIndexForSortedPositions() {
+        TopologicalDomain tad = new TopologicalDomain(1, 1, 100, ImmutableMap.of());
+        TopologicalDomain tad1 = new TopologicalDomain(1, 75, 200, ImmutableMap.of());
+        TopologicalDomain tad2 = new TopologicalDomain(1, 150, 160, ImmutableMap.of());
+        TopologicalDomain tad3 = new TopologicalDomain(2, 50, 60, ImmutableMap.of());
+        ChromosomalRegionIndex<TopologicalDomain> instance = ChromosomalRegionIndex.of(ImmutableList.of(tad3, tad2, tad1, tad));
+
+        ChromosomalRegionIndex.Sweep<TopologicalDomain> sweep = instance.sweep();
+        assertThat(sweep.getRegionsOverlappingPosition(1, 50), equalTo(ImmutableList.of(tad)));
+        assertThat(sweep.getRegionsOverlappingPosition(1, 80), equalTo(ImmutableList.of(tad, tad1)));
+        assertThat(sweep.getRegionsOverlappingPosition(1, 155), equalTo(ImmutableList.of(tad1, tad2)));
+        assertThat(sweep.getRegionsOverlappingPosition(1, 201), equalTo(ImmutableList.of()));
+        assertThat(sweep.getRegionsOverlappingPosition(2, 55), equalTo(ImmutableList.of(tad3)));
+        assertThat(sweep.getRegionsOverlappingPosition(3, 55), equalTo(ImmutableList.of()));
+    }
+
+    @Test
+    public void testSweepRepositionsForUnsortedPositions() {
+        TopologicalDomain tad = new TopologicalDomain(1, 1, 100, ImmutableMap.of());
+        TopologicalDomain tad1 = new TopologicalDomain(1, 75, 200, ImmutableMap.of());
+        ChromosomalRegionIndex<TopologicalDomain> instance = ChromosomalRegionIndex.of(ImmutableList.of(tad, tad1));
+
+        ChromosomalRegionIndex.Sweep<TopologicalDomain> sweep = instance.sweep();
+        assertThat(sweep.getRegionsOverlappingPosition(1, 150), equalTo(ImmutableList.of(tad1)));
+        assertThat(sweep.getRegionsOverlappingPosition(1, 80), equalTo(ImmutableList.of(tad, tad1)));
+        assertThat(sweep.getRegionsOverlappingPosition(1, 10), equalTo(ImmutableList.of(tad)));
+    }
+
+    @Test
+    public void testDuplicateRegionsAreIndexedOnce() {
+        TopologicalDomain tad = new TopologicalDomain(1, 1, 100, ImmutableMap.of());
+        ChromosomalRegionIndex<TopologicalDomain> instance = ChromosomalRegionIndex.of(ImmutableList.of(tad, tad));
+
+        assertThat(instance.size(), equalTo(1));
+        assertThat(instance.getRegionsContainingVariant(variant), equalTo(ImmutableList.of(tad)));
+    }
+}
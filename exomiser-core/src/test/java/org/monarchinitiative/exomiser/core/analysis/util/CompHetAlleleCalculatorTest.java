@@ -20,6 +20,7 @@
 
 package org.monarchinitiative.exomiser.core.analysis.util;
 
+import de.charite.compbio.jannovar.mendel.GenotypeCalls;
 import htsjdk.variant.variantcontext.Allele;
 import htsjdk.variant.variantcontext.Genotype;
 import htsjdk.variant.variantcontext.GenotypeType;
@@ -38,6 +39,7 @@
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.monarchinitiative.exomiser.core.analysis.util.TestAlleleFactory.*;
 
@@ -116,4 +118,61 @@ public void testFindCompHetCompatibleAllelesTwoAffectedSibsUnaffectedMotherhMiss
         assertThat(compHetAlleles.get(1), equalTo(Arrays.asList(var98518683, var97723020)));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testFindCompHetCompatibleAllelesSharesGenotypeCallsOfGene() {
+        VariantEvaluation allHet1 = buildAffectedSibsVariant(98518683, true);
+        VariantEvaluation allHet2 = buildAffectedSibsVariant(98518687, true);
+        VariantEvaluation motherHomRef = buildAffectedSibsVariant(97723020, false);
+
+        Individual probandIndividual = Individual.builder().id("Cain").motherId("Eve").sex(Sex.MALE).status(Status.AFFECTED).build();
+        Individual brotherIndividual = Individual.builder().id("Abel").motherId("Eve").sex(Sex.MALE).status(Status.AFFECTED).build();
+        Individual motherIndividual = Individual.builder().id("Eve").sex(Sex.FEMALE).status(Status.UNAFFECTED).build();
+
+        Pedigree pedigree = Pedigree.of(probandIndividual, motherIndividual, brotherIndividual);
+
+        InheritanceModeAnnotator inheritanceModeAnnotator = new InheritanceModeAnnotator(pedigree, InheritanceModeOptions.defaults());
+        CompHetAlleleCalculator instance = new CompHetAlleleCalculator(inheritanceModeAnnotator);
+        List<VariantEvaluation> variantEvaluations = Arrays.asList(allHet1, allHet2, motherHomRef);
+
+        GeneGenotypeCalls geneGenotypeCalls = new GeneGenotypeCalls(inheritanceModeAnnotator);
+        List<List<VariantEvaluation>> compHetAlleles = instance.findCompatibleCompHetAlleles(variantEvaluations, geneGenotypeCalls);
+
+        assertThat(compHetAlleles, equalTo(instance.findCompatibleCompHetAlleles(variantEvaluations)));
+        GenotypeCalls motherHomRefCalls = geneGenotypeCalls.get(motherHomRef);
+        instance.findCompatibleCompHetAlleles(variantEvaluations, geneGenotypeCalls);
+        assertThat(geneGenotypeCalls.get(motherHomRef), sameInstance(motherHomRefCalls));
+    }
+
+    @Test
+    public void testFindCompHetCompatibleAllelesRepeatedGenotypePatternsReturnedInInputOrder() {
+        // both affected sibs and the unaffected mother are het - these can't be comp het with each other
+        VariantEvaluation allHet1 = buildAffectedSibsVariant(98518683, true);
+        VariantEvaluation allHet2 = buildAffectedSibsVariant(98518687, true);
+        VariantEvaluation allHet3 = buildAffectedSibsVariant(98518690, true);
+        // the sibs are het and the mother is hom ref - compatible with any of the above
+        VariantEvaluation motherHomRef = buildAffectedSibsVariant(97723020, false);
+
+        Individual probandIndividual = Individual.builder().id("Cain").motherId("Eve").sex(Sex.MALE).status(Status.AFFECTED).build();
+        Individual brotherIndividual = Individual.builder().id("Abel").motherId("Eve").sex(Sex.MALE).status(Status.AFFECTED).build();
+        Individual motherIndividual = Individual.builder().id("Eve").sex(Sex.FEMALE).status(Status.UNAFFECTED).build();
+
+        Pedigree pedigree = Pedigree.of(probandIndividual, motherIndividual, brotherIndividual);
+
+        CompHetAlleleCalculator instance = new CompHetAlleleCalculator(new InheritanceModeAnnotator(pedigree, InheritanceModeOptions.defaults()));
+        List<List<VariantEvaluation>> compHetAlleles = instance.findCompatibleCompHetAlleles(Arrays.asList(allHet1, allHet2, motherHomRef, allHet3));
+
+        assertThat(compHetAlleles.size(), equalTo(3));
+        assertThat(compHetAlleles.get(0), equalTo(Arrays.asList(allHet1, motherHomRef)));
+        assertThat(compHetAlleles.get(1), equalTo(Arrays.asList(allHet2, motherHomRef)));
+        assertThat(compHetAlleles.get(2), equalTo(Arrays.asList(motherHomRef, allHet3)));
+    }
+
+    private VariantEvaluation buildAffectedSibsVariant(int pos, boolean motherHet) {
+        List<Allele> alleles = buildAlleles("T", "A");
+        Genotype proband = buildPhasedSampleGenotype("Cain", alleles.get(0), alleles.get(1));
+        Genotype brother = buildPhasedSampleGenotype("Abel", alleles.get(0), alleles.get(1));
+        Genotype mother = buildPhasedSampleGenotype("Eve", alleles.get(0), motherHet ? alleles.get(1) : alleles.get(0));
+        VariantContext variantContext = buildVariantContext(1, pos, alleles, proband, brother, mother);
+        return filteredVariant(1, pos, "T", "A", FilterResult.pass(FilterType.FREQUENCY_FILTER), variantContext);
+    }
+}
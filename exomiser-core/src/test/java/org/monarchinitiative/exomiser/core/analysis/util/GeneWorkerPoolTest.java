@@ -0,0 +1,121 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis.util;
+
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.GeneScore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class GeneWorkerPoolTest {
+
+    private List<Gene> makeGenes(int numGenes) {
+        List<Gene> genes = new ArrayList<>(numGenes);
+        for (int i = 1; i <= numGenes; i++) {
+            genes.add(new Gene("GENE" + i, i));
+        }
+        return genes;
+    }
+
+    @Test
+    void singleThreadedForZeroOrOneThreads() {
+        assertThat(GeneWorkerPool.of(0), sameInstance(GeneWorkerPool.singleThreaded()));
+        assertThat(GeneWorkerPool.of(1), sameInstance(GeneWorkerPool.singleThreaded()));
+        assertThat(GeneWorkerPool.singleThreaded().isParallel(), is(false));
+    }
+
+    @Test
+    void parallel() {
+        GeneWorkerPool instance = GeneWorkerPool.of(4);
+        assertThat(instance.getNumThreads(), equalTo(4));
+        assertThat(instance.isParallel(), is(true));
+    }
+
+    @Test
+    void forEachVisitsAllGenes() {
+        List<Gene> genes = makeGenes(1000);
+        GeneWorkerPool instance = GeneWorkerPool.of(4);
+        instance.forEach(genes, gene -> gene.setCompatibleInheritanceModes(Collections.singleton(ModeOfInheritance.AUTOSOMAL_DOMINANT)));
+        for (Gene gene : genes) {
+            assertThat(gene.isCompatibleWith(ModeOfInheritance.AUTOSOMAL_DOMINANT), is(true));
+        }
+    }
+
+    @Test
+    void forEachRethrowsExceptions() {
+        List<Gene> genes = makeGenes(10);
+        GeneWorkerPool instance = GeneWorkerPool.of(2);
+        assertThrows(IllegalArgumentException.class, () -> instance.forEach(genes, gene -> {
+            throw new IllegalArgumentException();
+        }));
+    }
+
+    @Test
+    void forEachReusesTheSamePool() {
+        GeneWorkerPool instance = GeneWorkerPool.of(2);
+        Set<ForkJoinPool> pools = ConcurrentHashMap.newKeySet();
+        instance.forEach(makeGenes(100), gene -> pools.add(ForkJoinTask.getPool()));
+        instance.forEach(makeGenes(100), gene -> pools.add(ForkJoinTask.getPool()));
+
+        assertThat(pools.size(), equalTo(1));
+        assertThat(pools.contains(ForkJoinPool.commonPool()), is(false));
+    }
+
+    @Test
+    void forEachThrowsExceptionAfterShutdown() {
+        GeneWorkerPool instance = GeneWorkerPool.of(2);
+        instance.shutdown();
+        assertThrows(RejectedExecutionException.class, () -> instance.forEach(makeGenes(10), gene -> {}));
+    }
+
+    @Test
+    void scoreGenesInParallelSameAsSingleThreaded() {
+        GeneScorer geneScorer = () -> gene -> Collections.singletonList(GeneScore.builder()
+                .geneIdentifier(gene.getGeneIdentifier())
+                .modeOfInheritance(ModeOfInheritance.ANY)
+                // lots of ties to check the sort order is stable
+                .combinedScore((gene.getEntrezGeneID() % 10) / 10f)
+                .build());
+
+        List<Gene> singleThreaded = geneScorer.scoreGenes(makeGenes(1000), GeneWorkerPool.singleThreaded());
+        List<Gene> parallel = geneScorer.scoreGenes(makeGenes(1000), GeneWorkerPool.of(4));
+
+        assertThat(parallel, equalTo(singleThreaded));
+    }
+}
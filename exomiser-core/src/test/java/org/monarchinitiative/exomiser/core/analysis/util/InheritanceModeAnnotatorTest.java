@@ -89,6 +89,29 @@ public void testAutosomalDominantIndividual() {
         assertThat(results, equalTo(expected));
     }
 
+    @Test
+    public void testAutosomalDominantIndividualIgnoresSamplesNotInPedigreeAndRepeatedCallsGiveSameResult() {
+        List<Allele> alleles = buildAlleles("A", "T");
+
+        Genotype genotype = buildPhasedSampleGenotype("Adam", alleles.get(0), alleles.get(1));
+        // not in the pedigree, so shouldn't be taken into account
+        Genotype otherGenotype = buildUnPhasedSampleGenotype("Eva", alleles.get(1), alleles.get(1));
+
+        VariantContext variantContext = buildVariantContext(1, 12345, alleles, genotype, otherGenotype);
+        VariantEvaluation variant = filteredVariant(1, 12345, "A", "T", FilterResult.pass(FilterType.FREQUENCY_FILTER), variantContext);
+
+        Pedigree pedigree = singleAffectedSample("Adam");
+
+        InheritanceModeAnnotator instance = new InheritanceModeAnnotator(pedigree, InheritanceModeOptions.defaults());
+
+        Map<ModeOfInheritance, List<VariantEvaluation>> expected = ImmutableMap.of(
+                ModeOfInheritance.AUTOSOMAL_DOMINANT, ImmutableList.of(variant)
+        );
+
+        assertThat(instance.computeCompatibleInheritanceModes(ImmutableList.of(variant)), equalTo(expected));
+        assertThat(instance.computeCompatibleInheritanceModes(ImmutableList.of(variant)), equalTo(expected));
+    }
+
     @Test
     public void testAutosomalRecessiveIndividual() {
         List<Allele> alleles = buildAlleles("A", "T");
@@ -29,6 +29,9 @@
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
 import org.monarchinitiative.exomiser.core.model.frequency.RsId;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PolyPhenScore;
 
 import java.util.Collections;
 import java.util.EnumSet;
@@ -140,6 +143,40 @@ public void testFrequencyDataOnlyContainsSpecifiedSourcesTwoSourcesSpecifiedAllD
         assertThat(variant.getFrequencyData(), equalTo(FrequencyData.of(RsId.of(123456), espAll, exacAfr)));
     }
     
+    @Test
+    public void testRunFilterPreloadsPathogenicityDataForPassedVariant() {
+        FrequencyData frequencyData = FrequencyData.of(RsId.of(123456), Frequency.of(ESP_ALL, 0.01f));
+        PathogenicityData pathogenicityData = PathogenicityData.of(PolyPhenScore.of(1f));
+        VariantDataService variantDataService = TestVariantDataService.builder()
+                .put(variant, frequencyData)
+                .put(variant, pathogenicityData)
+                .build();
+
+        instance = new FrequencyDataProvider(variantDataService, EnumSet.of(ESP_ALL), EnumSet.of(PathogenicitySource.POLYPHEN), new FrequencyFilter(1f));
+
+        FilterResult filterResult = instance.runFilter(variant);
+        FilterTestHelper.assertPassed(filterResult);
+        assertThat(variant.getFrequencyData(), equalTo(frequencyData));
+        assertThat(variant.getPathogenicityData(), equalTo(pathogenicityData));
+    }
+
+    @Test
+    public void testRunFilterDoesNotPreloadPathogenicityDataForFailedVariant() {
+        FrequencyData frequencyData = FrequencyData.of(RsId.of(123456), Frequency.of(ESP_ALL, 5f));
+        VariantDataService variantDataService = TestVariantDataService.builder()
+                .put(variant, frequencyData)
+                .put(variant, PathogenicityData.of(PolyPhenScore.of(1f)))
+                .build();
+
+        instance = new FrequencyDataProvider(variantDataService, EnumSet.of(ESP_ALL), EnumSet.of(PathogenicitySource.POLYPHEN), new FrequencyFilter(1f));
+
+        FilterResult filterResult = instance.runFilter(variant);
+        FilterTestHelper.assertFailed(filterResult);
+        // the failed variant is output exactly as it would be without the preloading
+        assertThat(variant.getFrequencyData(), equalTo(frequencyData));
+        assertThat(variant.getPathogenicityData(), equalTo(PathogenicityData.empty()));
+    }
+
     @Test
     public void testGetDecoratedFilter() {
         VariantFilter decoratedFilter = new KnownVariantFilter();
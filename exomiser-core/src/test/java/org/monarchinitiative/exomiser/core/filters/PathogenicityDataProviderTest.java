@@ -30,6 +30,10 @@
 import org.monarchinitiative.exomiser.core.genome.TestVariantDataService;
 import org.monarchinitiative.exomiser.core.model.FilterStatus;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.frequency.RsId;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.*;
 
 import java.util.Collections;
@@ -73,6 +77,37 @@ public void testProvideVariantData() {
         assertThat(variant.getPathogenicityData(), equalTo(EXPECTED_PATH_DATA));
     }
     
+    @Test
+    public void testProvideVariantDataPreloadsFrequencyData() {
+        FrequencyData frequencyData = FrequencyData.of(RsId.of(12345), Frequency.of(FrequencySource.THOUSAND_GENOMES, 0.1f));
+        variantDataService.put(variant, frequencyData);
+        instance = new PathogenicityDataProvider(variantDataService, EnumSet.of(POLYPHEN, SIFT, MUTATION_TASTER), EnumSet.of(FrequencySource.THOUSAND_GENOMES), new StubPassAllVariantFilter(FilterType.PATHOGENICITY_FILTER));
+
+        instance.provideVariantData(variant);
+        assertThat(variant.getPathogenicityData(), equalTo(EXPECTED_PATH_DATA));
+        assertThat(variant.getFrequencyData(), equalTo(frequencyData));
+    }
+
+    @Test
+    public void testRunFilterDoesNotPreloadFrequencyDataForFailedVariant() {
+        FrequencyData originalFrequencyData = FrequencyData.of(RsId.of(12345));
+        variant.setFrequencyData(originalFrequencyData);
+        variantDataService.put(variant, FrequencyData.of(RsId.of(12345), Frequency.of(FrequencySource.THOUSAND_GENOMES, 0.1f)));
+        VariantFilter failAllFilter = new PathogenicityFilter(false) {
+            @Override
+            public FilterResult runFilter(VariantEvaluation variantEvaluation) {
+                return FilterResult.fail(getFilterType());
+            }
+        };
+        instance = new PathogenicityDataProvider(variantDataService, EnumSet.of(POLYPHEN, SIFT, MUTATION_TASTER), EnumSet.of(FrequencySource.THOUSAND_GENOMES), failAllFilter);
+
+        FilterResult filterResult = instance.runFilter(variant);
+        FilterTestHelper.assertFailed(filterResult);
+        // the failed variant is output exactly as it would be without the preloading
+        assertThat(variant.getPathogenicityData(), equalTo(EXPECTED_PATH_DATA));
+        assertThat(variant.getFrequencyData(), equalTo(originalFrequencyData));
+    }
+
     @Test
     public void testRunFilter() {
         FilterType variantFilterType = FilterType.PATHOGENICITY_FILTER;
@@ -31,9 +31,10 @@
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.GeneIdentifier;
 
+import java.util.List;
 import java.util.Set;
 
-import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 /**
@@ -60,4 +61,20 @@ public void testCreateKnownGenes() {
         assertThat(knownGenes, equalTo(expected));
     }
 
+    @Test
+    public void testGeneIdentifiersAreSharedBetweenCalls() {
+        assertThat(instance.getGeneIdentifiers(), sameInstance(instance.getGeneIdentifiers()));
+    }
+
+    @Test
+    public void testCreateKnownGenesReturnsNewGenesEachTime() {
+        List<Gene> first = instance.createKnownGenes();
+        List<Gene> second = instance.createKnownGenes();
+        assertThat(first, equalTo(second));
+        for (int i = 0; i < first.size(); i++) {
+            assertThat(first.get(i), not(sameInstance(second.get(i))));
+            assertThat(first.get(i).getGeneIdentifier(), sameInstance(second.get(i).getGeneIdentifier()));
+        }
+    }
+
 }
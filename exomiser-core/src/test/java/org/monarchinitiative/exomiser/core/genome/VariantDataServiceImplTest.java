@@ -37,6 +37,7 @@
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
 import org.monarchinitiative.exomiser.core.model.frequency.RsId;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.*;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
 
 import java.util.Collections;
 import java.util.EnumSet;
@@ -253,6 +254,42 @@ public void serviceReturnsEmptyFrequencyDataWhenSpecifiedFrequencyDataIsUnavaila
         assertThat(result, equalTo(FrequencyData.empty()));
     }
 
+    @Test
+    void serviceReturnsFrequencyAndPathogenicityDataFromSingleAllelePropertiesLookup() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .setRsId("rs1234567")
+                .putProperties("KG", 0.04f)
+                .putProperties("ESP_AA", 0.1f)
+                .putProperties("POLYPHEN", 1f)
+                .putProperties("SIFT", 0f)
+                .build();
+        AllelePropertiesDao allelePropertiesDao = Mockito.mock(AllelePropertiesDao.class);
+        Mockito.when(allelePropertiesDao.getAlleleProperties(variant)).thenReturn(alleleProperties);
+
+        VariantDataServiceImpl instance = VariantDataServiceImpl.builder()
+                .defaultFrequencyDao(defaultFrequencyDao)
+                .defaultPathogenicityDao(defaultPathogenicityDao)
+                .allelePropertiesDao(allelePropertiesDao)
+                .localFrequencyDao(localFrequencyDao)
+                .caddDao(mockCaddDao)
+                .build();
+
+        VariantData result = instance.getVariantData(variant, EnumSet.of(FrequencySource.THOUSAND_GENOMES, FrequencySource.LOCAL), EnumSet.of(PathogenicitySource.SIFT, PathogenicitySource.CADD));
+
+        FrequencyData expectedFrequencyData = FrequencyData.of(RsId.of("rs1234567"), Frequency.of(FrequencySource.THOUSAND_GENOMES, 0.04f));
+        PathogenicityData expectedPathogenicityData = PathogenicityData.of(SiftScore.of(0f), CaddScore.of(15f));
+        assertThat(result, equalTo(VariantData.of(expectedFrequencyData, expectedPathogenicityData)));
+
+        Mockito.verify(allelePropertiesDao, Mockito.times(1)).getAlleleProperties(variant);
+        Mockito.verifyZeroInteractions(defaultFrequencyDao, defaultPathogenicityDao);
+    }
+
+    @Test
+    void serviceReturnsVariantDataFromSeparateDaosWhenNoAllelePropertiesDaoIsDefined() {
+        VariantData result = instance.getVariantData(variant, EnumSet.of(FrequencySource.ESP_AFRICAN_AMERICAN), EnumSet.of(PathogenicitySource.POLYPHEN, PathogenicitySource.MUTATION_TASTER, PathogenicitySource.SIFT));
+        assertThat(result, equalTo(VariantData.of(FREQ_DATA, PATH_DATA)));
+    }
+
     @Test
     void serviceReturnsDataAboutWhiteList() {
         assertThat(instance.variantIsWhiteListed(variant), is(false));
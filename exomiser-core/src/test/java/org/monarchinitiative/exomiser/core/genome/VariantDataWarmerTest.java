@@ -0,0 +1,142 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+class VariantDataWarmerTest {
+
+    private static final AlleleKey X_KEY = AlleleKey.newBuilder().setChr(23).setPosition(12345).setRef("A").setAlt("T").build();
+    private static final AlleleKey ONE_KEY = AlleleKey.newBuilder().setChr(1).setPosition(54321).setRef("AC").setAlt("A").build();
+
+    @Test
+    void readAlleleKeys() throws Exception {
+        Path allelesPath = Files.createTempFile("exomiser_alleles", ".tsv");
+        try {
+            List<String> lines = ImmutableList.of(
+                    "#chr\tpos\tref\talt",
+                    "chrX\t12345\tA\tT",
+                    "1\t54321\tAC\tA",
+                    "",
+                    "wibble\t1\tA\tT",
+                    "1\tnotANumber\tA\tT",
+                    "1\t1\tA"
+            );
+            Files.write(allelesPath, lines, StandardCharsets.UTF_8);
+            assertThat(VariantDataWarmer.readAlleleKeys(allelesPath), equalTo(ImmutableList.of(X_KEY, ONE_KEY)));
+        } finally {
+            Files.deleteIfExists(allelesPath);
+        }
+    }
+
+    @Test
+    void writeThenReadAlleleKeys() throws Exception {
+        Path allelesPath = Files.createTempFile("exomiser_alleles", ".tsv");
+        try {
+            List<AlleleKey> alleleKeys = ImmutableList.of(ONE_KEY, X_KEY);
+            VariantDataWarmer.writeAlleleKeys(allelesPath, alleleKeys);
+            assertThat(VariantDataWarmer.readAlleleKeys(allelesPath), equalTo(alleleKeys));
+        } finally {
+            Files.deleteIfExists(allelesPath);
+        }
+    }
+
+    @Test
+    void warmUpLooksUpVariantStoreSourcesOnly() {
+        RecordingVariantDataService recordingService = new RecordingVariantDataService();
+        VariantDataWarmer instance = new VariantDataWarmer(recordingService, GenomeAssembly.HG38);
+
+        assertThat(instance.warmUp(ImmutableList.of(X_KEY, ONE_KEY)), equalTo(2));
+        assertThat(recordingService.variants.size(), equalTo(2));
+
+        Variant first = recordingService.variants.get(0);
+        assertThat(first.getChromosome(), equalTo(23));
+        assertThat(first.getPosition(), equalTo(12345));
+        assertThat(first.getGenomeAssembly(), equalTo(GenomeAssembly.HG38));
+
+        assertThat(recordingService.frequencySources, not(hasItem(FrequencySource.LOCAL)));
+        assertThat(recordingService.frequencySources, hasItem(FrequencySource.GNOMAD_E_NFE));
+        assertThat(recordingService.pathogenicitySources, not(hasItem(PathogenicitySource.CADD)));
+        assertThat(recordingService.pathogenicitySources, not(hasItem(PathogenicitySource.REMM)));
+        assertThat(recordingService.pathogenicitySources, hasItem(PathogenicitySource.POLYPHEN));
+    }
+
+    @Test
+    void warmUpContinuesAfterFailedLookUp() {
+        VariantDataService failingService = new RecordingVariantDataService() {
+            @Override
+            public FrequencyData getVariantFrequencyData(Variant variant, Set<FrequencySource> frequencySources) {
+                if (variant.getChromosome() == 23) {
+                    throw new IllegalStateException("Boom!");
+                }
+                return super.getVariantFrequencyData(variant, frequencySources);
+            }
+        };
+        VariantDataWarmer instance = new VariantDataWarmer(failingService, GenomeAssembly.HG19);
+        assertThat(instance.warmUp(ImmutableList.of(X_KEY, ONE_KEY)), equalTo(1));
+    }
+
+    private static class RecordingVariantDataService implements VariantDataService {
+
+        private final List<Variant> variants = new ArrayList<>();
+        private final Set<FrequencySource> frequencySources = EnumSet.noneOf(FrequencySource.class);
+        private final Set<PathogenicitySource> pathogenicitySources = EnumSet.noneOf(PathogenicitySource.class);
+
+        @Override
+        public boolean variantIsWhiteListed(Variant variant) {
+            return false;
+        }
+
+        @Override
+        public FrequencyData getVariantFrequencyData(Variant variant, Set<FrequencySource> frequencySources) {
+            variants.add(variant);
+            this.frequencySources.addAll(frequencySources);
+            return FrequencyData.empty();
+        }
+
+        @Override
+        public PathogenicityData getVariantPathogenicityData(Variant variant, Set<PathogenicitySource> pathogenicitySources) {
+            this.pathogenicitySources.addAll(pathogenicitySources);
+            return PathogenicityData.empty();
+        }
+    }
+}
@@ -20,6 +20,7 @@
 
 package org.monarchinitiative.exomiser.core.genome;
 
+import com.google.common.collect.ImmutableList;
 import de.charite.compbio.jannovar.data.JannovarData;
 import org.h2.mvstore.MVStore;
 import org.junit.jupiter.api.Disabled;
@@ -30,13 +31,19 @@
 import org.monarchinitiative.exomiser.core.model.*;
 import org.monarchinitiative.exomiser.core.proto.AlleleProto;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
@@ -95,6 +102,53 @@ public void testGenome() {
 
     }
 
+    /**
+     * Comparative performance test for decoding all the genotypes in a wide joint-called VCF versus only those of a
+     * trio. Ignored by default as this takes a few minutes.
+     */
+    @Disabled("Performance test - won't run on CI server")
+    @Test
+    public void testWideVcfSampleSubset() throws IOException {
+        int numSamples = 800;
+        Path vcfPath = writeWideVcf(numSamples, 50_000);
+        List<String> trio = ImmutableList.of("sample_1", "sample_400", "sample_800");
+
+        VariantFactory variantFactory = new VariantFactoryImpl(new StubVariantAnnotator());
+        for (int i = 0; i < 4; i++) {
+            Instant start = Instant.now();
+            long numVariants = variantFactory.createVariantEvaluations(vcfPath).count();
+            long ms = Duration.between(start, Instant.now()).toMillis();
+            System.out.printf("Read %d variants decoding all %d samples in %d ms%n", numVariants, numSamples, ms);
+
+            start = Instant.now();
+            numVariants = variantFactory.createVariantEvaluations(vcfPath, trio).count();
+            ms = Duration.between(start, Instant.now()).toMillis();
+            System.out.printf("Read %d variants decoding %d samples %s in %d ms%n", numVariants, trio.size(), trio, ms);
+        }
+        Files.deleteIfExists(vcfPath);
+    }
+
+    private Path writeWideVcf(int numSamples, int numRecords) throws IOException {
+        Path vcfPath = Files.createTempFile("wide", ".vcf");
+        List<String> sampleNames = IntStream.rangeClosed(1, numSamples)
+                .mapToObj(i -> "sample_" + i)
+                .collect(Collectors.toList());
+        try (BufferedWriter writer = Files.newBufferedWriter(vcfPath)) {
+            writer.write("##fileformat=VCFv4.2\n");
+            writer.write("##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">\n");
+            writer.write("##FORMAT=<ID=DP,Number=1,Type=Integer,Description=\"Read Depth\">\n");
+            writer.write("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\t" + String.join("\t", sampleNames) + "\n");
+            for (int record = 1; record <= numRecords; record++) {
+                StringBuilder line = new StringBuilder("1\t").append(record * 10).append("\t.\tA\tT\t100\tPASS\t.\tGT:DP");
+                for (int sample = 0; sample < numSamples; sample++) {
+                    line.append((sample + record) % 3 == 0 ? "\t0/1:30" : "\t0/0:30");
+                }
+                writer.write(line.append('\n').toString());
+            }
+        }
+        return vcfPath;
+    }
+
     private long countVariants(VariantFactory variantFactory, Path vcfPath, AllelePropertiesDao allelePropertiesDao) {
         return variantFactory.createVariantEvaluations(vcfPath)
                 .map(annotateVariant(allelePropertiesDao))
@@ -21,7 +21,9 @@
 package org.monarchinitiative.exomiser.core.genome;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import htsjdk.tribble.TribbleException;
+import htsjdk.variant.variantcontext.Genotype;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFHeader;
 import org.junit.jupiter.api.Test;
@@ -86,4 +88,29 @@ public void testReadVcfHeader() {
         VCFHeader header = VcfFiles.readVcfHeader(vcfPath);
         assertThat(header.getGenotypeSamples(), equalTo(ImmutableList.of("sample")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReadVariantContextsForSamplesSubset() {
+        Path vcfPath = Paths.get("src/test/resources/multiSampleWithProbandHomRef.vcf");
+        List<VariantContext> variants;
+        try (Stream<VariantContext> variantStream = VcfFiles.readVariantContexts(vcfPath, ImmutableSet.of("Eva", "Adam"))) {
+            variants = variantStream.collect(toList());
+        }
+        assertThat(variants.size(), equalTo(VcfFiles.readVariantContexts(vcfPath).collect(toList()).size()));
+
+        VariantContext first = variants.get(0);
+        assertThat(first.getSampleNamesOrderedByName(), equalTo(ImmutableList.of("Adam", "Eva")));
+        Genotype adam = first.getGenotype("Adam");
+        assertThat(adam.isHet(), equalTo(true));
+        Genotype eva = first.getGenotype("Eva");
+        assertThat(eva.isHomRef(), equalTo(true));
+    }
+
+    @Test
+    public void testReadVariantContextsForAllSamples() {
+        Path vcfPath = Paths.get("src/test/resources/multiSampleWithProbandHomRef.vcf");
+        List<VariantContext> variants = VcfFiles.readVariantContexts(vcfPath, ImmutableSet.of("Seth", "Adam", "Eva"))
+                .collect(toList());
+        assertThat(variants.get(0).getNSamples(), equalTo(3));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class VcfSampleColumnFilterTest {
+
+    private static final List<String> VCF_SAMPLES = ImmutableList.of("Seth", "Adam", "Eva");
+    private static final String LINE = "10\t123239370\t.\tG\tA\t260.15\tPASS\tGENE=FGFR2\tGT:DP\t1/1:21\t0/1:33\t0/0:30";
+
+    @Test
+    public void retainsAllSamples() {
+        VcfSampleColumnFilter instance = VcfSampleColumnFilter.of(VCF_SAMPLES, ImmutableSet.of("Eva", "Seth", "Adam"));
+        assertThat(instance.retainsAllSamples(), is(true));
+        assertThat(instance.getRetainedSampleNames(), equalTo(VCF_SAMPLES));
+        assertThat(instance.filterLine(LINE), equalTo(LINE));
+    }
+
+    @Test
+    public void retainsSamplesInVcfOrder() {
+        VcfSampleColumnFilter instance = VcfSampleColumnFilter.of(VCF_SAMPLES, ImmutableSet.of("Eva", "Seth"));
+        assertThat(instance.retainsAllSamples(), is(false));
+        assertThat(instance.getRetainedSampleNames(), equalTo(ImmutableList.of("Seth", "Eva")));
+        assertThat(instance.filterLine(LINE), equalTo("10\t123239370\t.\tG\tA\t260.15\tPASS\tGENE=FGFR2\tGT:DP\t1/1:21\t0/0:30"));
+    }
+
+    @Test
+    public void retainsFirstSampleOnly() {
+        VcfSampleColumnFilter instance = VcfSampleColumnFilter.of(VCF_SAMPLES, ImmutableSet.of("Seth"));
+        assertThat(instance.filterLine(LINE), equalTo("10\t123239370\t.\tG\tA\t260.15\tPASS\tGENE=FGFR2\tGT:DP\t1/1:21"));
+    }
+
+    @Test
+    public void retainsMiddleSampleOnly() {
+        VcfSampleColumnFilter instance = VcfSampleColumnFilter.of(VCF_SAMPLES, ImmutableSet.of("Adam"));
+        assertThat(instance.filterLine(LINE), equalTo("10\t123239370\t.\tG\tA\t260.15\tPASS\tGENE=FGFR2\tGT:DP\t0/1:33"));
+    }
+
+    @Test
+    public void ignoresUnknownSamples() {
+        VcfSampleColumnFilter instance = VcfSampleColumnFilter.of(VCF_SAMPLES, ImmutableSet.of("Adam", "Cain"));
+        assertThat(instance.getRetainedSampleNames(), equalTo(ImmutableList.of("Adam")));
+    }
+
+    @Test
+    public void sitesOnlyLineIsUnchanged() {
+        VcfSampleColumnFilter instance = VcfSampleColumnFilter.of(VCF_SAMPLES, ImmutableSet.of("Adam"));
+        String sitesOnly = "10\t123239370\t.\tG\tA\t260.15\tPASS\tGENE=FGFR2";
+        assertThat(instance.filterLine(sitesOnly), equalTo(sitesOnly));
+    }
+}
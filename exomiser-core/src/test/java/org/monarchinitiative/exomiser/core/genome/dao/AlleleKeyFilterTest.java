@@ -0,0 +1,175 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import com.google.common.hash.Hashing;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class AlleleKeyFilterTest {
+
+    private static AlleleKey alleleKey(int chr, int pos, String ref, String alt) {
+        return AlleleKey.newBuilder().setChr(chr).setPosition(pos).setRef(ref).setAlt(alt).build();
+    }
+
+    @Test
+    public void throwsExceptionWithInvalidFalsePositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> AlleleKeyFilter.create(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> AlleleKeyFilter.create(100, 1));
+    }
+
+    @Test
+    public void acceptAll() {
+        AlleleKeyFilter instance = AlleleKeyFilter.acceptAll();
+        assertThat(instance.mightContain(alleleKey(1, 12345, "A", "T")), is(true));
+        assertThrows(IllegalStateException.class, () -> instance.put(alleleKey(1, 12345, "A", "T")));
+    }
+
+    @Test
+    public void mightContain() {
+        AlleleKeyFilter instance = AlleleKeyFilter.create(1000, 0.0001);
+        instance.put(alleleKey(1, 12345, "A", "T"));
+        instance.put(alleleKey(1, 12345, "A", "TA"));
+
+        assertThat(instance.mightContain(alleleKey(1, 12345, "A", "T")), is(true));
+        assertThat(instance.mightContain(alleleKey(1, 12345, "A", "TA")), is(true));
+        assertThat(instance.mightContain(alleleKey(1, 12345, "AT", "A")), is(false));
+        assertThat(instance.mightContain(alleleKey(2, 12345, "A", "T")), is(false));
+    }
+
+    @Test
+    public void createFileOpen() throws Exception {
+        Path filterPath = Files.createTempFile("exomiser_test", ".bloom");
+        // mapped files cannot be deleted on all platforms until the mapping has been garbage collected
+        filterPath.toFile().deleteOnExit();
+        AlleleKeyFilter.Fingerprint fingerprint = AlleleKeyFilter.Fingerprint.of(1000, "build-1");
+        AlleleKeyFilter instance = AlleleKeyFilter.create(filterPath, fingerprint, 0.01);
+        for (int pos = 1; pos <= 1000; pos++) {
+            instance.put(alleleKey(1, pos, "A", "T"));
+        }
+        instance.flush();
+
+        AlleleKeyFilter read = AlleleKeyFilter.open(filterPath);
+        for (int pos = 1; pos <= 1000; pos++) {
+            assertThat(read.mightContain(alleleKey(1, pos, "A", "T")), is(true));
+        }
+        assertThat(read.getFingerprint(), equalTo(fingerprint));
+        assertThat(read.expectedFalsePositiveRate(), equalTo(instance.expectedFalsePositiveRate()));
+        assertThat(read.expectedFalsePositiveRate() < 0.02, is(true));
+    }
+
+    @Test
+    public void setsSameBitsAsGuavaMurmur3() throws Exception {
+        Path filterPath = Files.createTempFile("exomiser_test", ".bloom");
+        filterPath.toFile().deleteOnExit();
+        AlleleKeyFilter instance = AlleleKeyFilter.create(filterPath, AlleleKeyFilter.Fingerprint.of(1000, ""), 0.01);
+        List<AlleleKey> alleleKeys = new ArrayList<>();
+        Random random = new Random(42);
+        String bases = "ACGTN";
+        for (int i = 0; i < 1000; i++) {
+            StringBuilder ref = new StringBuilder();
+            StringBuilder alt = new StringBuilder();
+            // covers both the full 16 byte blocks and all the lengths of the remaining bytes
+            int refLength = 1 + random.nextInt(30);
+            int altLength = 1 + random.nextInt(30);
+            for (int b = 0; b < refLength; b++) {
+                ref.append(bases.charAt(random.nextInt(bases.length())));
+            }
+            for (int b = 0; b < altLength; b++) {
+                alt.append(bases.charAt(random.nextInt(bases.length())));
+            }
+            alleleKeys.add(alleleKey(1 + random.nextInt(25), random.nextInt(Integer.MAX_VALUE), ref.toString(), alt.toString()));
+        }
+        // non-ASCII alleles are hashed by Guava
+        alleleKeys.add(alleleKey(1, 12345, "\u00c5", "T"));
+        alleleKeys.forEach(instance::put);
+        instance.flush();
+
+        ByteBuffer file = ByteBuffer.wrap(Files.readAllBytes(filterPath));
+        int numHashFunctions = file.getInt(2 * Integer.BYTES);
+        long numBits = file.getLong(3 * Integer.BYTES);
+        // the fixed header ends with the length of the build id, which is empty
+        int headerBytes = 4 * Integer.BYTES + 3 * Long.BYTES;
+
+        Set<Long> expectedBits = new HashSet<>();
+        for (AlleleKey alleleKey : alleleKeys) {
+            byte[] hash = Hashing.murmur3_128().newHasher()
+                    .putInt(alleleKey.getChr())
+                    .putInt(alleleKey.getPosition())
+                    .putInt(alleleKey.getRef().length())
+                    .putString(alleleKey.getRef(), StandardCharsets.UTF_8)
+                    .putString(alleleKey.getAlt(), StandardCharsets.UTF_8)
+                    .hash()
+                    .asBytes();
+            long hash1 = ByteBuffer.wrap(hash, 0, Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).getLong();
+            long hash2 = ByteBuffer.wrap(hash, Long.BYTES, Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).getLong();
+            long combinedHash = hash1;
+            for (int i = 0; i < numHashFunctions; i++) {
+                expectedBits.add((combinedHash & Long.MAX_VALUE) % numBits);
+                combinedHash += hash2;
+            }
+        }
+
+        Set<Long> setBits = new HashSet<>();
+        for (long bitIndex = 0; bitIndex < numBits; bitIndex++) {
+            long word = file.getLong(headerBytes + (int) ((bitIndex >>> 6) << 3));
+            if ((word & (1L << bitIndex)) != 0) {
+                setBits.add(bitIndex);
+            }
+        }
+        assertThat(setBits, equalTo(expectedBits));
+    }
+
+    @Test
+    public void openThrowsExceptionForInvalidFile() throws Exception {
+        Path filterPath = Files.createTempFile("exomiser_test", ".bloom");
+        Files.write(filterPath, "not a filter".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalStateException.class, () -> AlleleKeyFilter.open(filterPath));
+        Files.delete(filterPath);
+    }
+
+    @Test
+    public void openThrowsExceptionForIncompleteFile() throws Exception {
+        Path filterPath = Files.createTempFile("exomiser_test", ".bloom");
+        filterPath.toFile().deleteOnExit();
+        AlleleKeyFilter instance = AlleleKeyFilter.create(filterPath, AlleleKeyFilter.Fingerprint.of(1000, "build-1"), 0.01);
+        instance.flush();
+        byte[] bytes = Files.readAllBytes(filterPath);
+        Files.write(filterPath, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IllegalStateException.class, () -> AlleleKeyFilter.open(filterPath));
+    }
+}
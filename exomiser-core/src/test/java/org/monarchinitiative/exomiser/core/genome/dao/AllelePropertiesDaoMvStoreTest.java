@@ -0,0 +1,69 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import com.google.common.collect.ImmutableMap;
+import org.h2.mvstore.MVStore;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class AllelePropertiesDaoMvStoreTest {
+
+    private static final AlleleKey PRESENT_KEY = AlleleKey.newBuilder().setChr(1).setPosition(12345).setRef("A").setAlt("T").build();
+    private static final AlleleProperties PRESENT_PROPERTIES = AlleleProperties.newBuilder().setRsId("rs123456").build();
+    private static final AlleleKey ABSENT_KEY = AlleleKey.newBuilder().setChr(1).setPosition(12345).setRef("A").setAlt("G").build();
+
+    private final MVStore mvStore = MvAlleleStoreTestUtil.newMvStoreWithData(ImmutableMap.of(PRESENT_KEY, PRESENT_PROPERTIES));
+
+    @Test
+    public void getAlleleProperties() {
+        AllelePropertiesDaoMvStore instance = new AllelePropertiesDaoMvStore(mvStore);
+        assertThat(instance.getAlleleProperties(PRESENT_KEY, GenomeAssembly.HG19), equalTo(PRESENT_PROPERTIES));
+        assertThat(instance.getAlleleProperties(ABSENT_KEY, GenomeAssembly.HG19), equalTo(AlleleProperties.getDefaultInstance()));
+    }
+
+    @Test
+    public void getAllelePropertiesWithAlleleKeyFilter() {
+        AlleleKeyFilter alleleKeyFilter = AlleleKeyFilter.create(10, 0.001);
+        alleleKeyFilter.put(PRESENT_KEY);
+        AllelePropertiesDaoMvStore instance = new AllelePropertiesDaoMvStore(mvStore, alleleKeyFilter, false);
+        assertThat(instance.getAlleleProperties(PRESENT_KEY, GenomeAssembly.HG19), equalTo(PRESENT_PROPERTIES));
+        assertThat(instance.getAlleleProperties(ABSENT_KEY, GenomeAssembly.HG19), equalTo(AlleleProperties.getDefaultInstance()));
+    }
+
+    @Test
+    public void verifyModeReturnsStoredDataForMismatchedFilter() {
+        // filter built from different data to the store
+        AlleleKeyFilter alleleKeyFilter = AlleleKeyFilter.create(10, 0.001);
+        alleleKeyFilter.put(ABSENT_KEY);
+        AllelePropertiesDaoMvStore instance = new AllelePropertiesDaoMvStore(mvStore, alleleKeyFilter, true);
+        assertThat(instance.getAlleleProperties(PRESENT_KEY, GenomeAssembly.HG19), equalTo(PRESENT_PROPERTIES));
+    }
+}
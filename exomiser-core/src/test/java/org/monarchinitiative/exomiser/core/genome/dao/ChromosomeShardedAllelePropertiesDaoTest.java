@@ -0,0 +1,72 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import com.google.common.collect.ImmutableMap;
+import org.h2.mvstore.MVStore;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class ChromosomeShardedAllelePropertiesDaoTest {
+
+    private static final AlleleKey CHR1_KEY = AlleleKey.newBuilder().setChr(1).setPosition(12345).setRef("A").setAlt("T").build();
+    private static final AlleleProperties CHR1_PROPERTIES = AlleleProperties.newBuilder().setRsId("rs1").build();
+    private static final AlleleKey CHR3_KEY = AlleleKey.newBuilder().setChr(3).setPosition(12345).setRef("A").setAlt("T").build();
+    private static final AlleleProperties CHR3_PROPERTIES = AlleleProperties.newBuilder().setRsId("rs3").build();
+
+    private final Map<Integer, MVStore> mvStores = ImmutableMap.of(
+            1, MvAlleleStoreTestUtil.newMvStoreWithData(ImmutableMap.of(CHR1_KEY, CHR1_PROPERTIES)),
+            3, MvAlleleStoreTestUtil.newMvStoreWithData(ImmutableMap.of(CHR3_KEY, CHR3_PROPERTIES))
+    );
+
+    private final ChromosomeShardedAllelePropertiesDao instance = new ChromosomeShardedAllelePropertiesDao(mvStores);
+
+    @Test
+    public void routesToChromosomeStore() {
+        assertThat(instance.getAlleleProperties(CHR1_KEY, GenomeAssembly.HG19), equalTo(CHR1_PROPERTIES));
+        assertThat(instance.getAlleleProperties(CHR3_KEY, GenomeAssembly.HG19), equalTo(CHR3_PROPERTIES));
+    }
+
+    @Test
+    public void routesVariantToChromosomeStore() {
+        assertThat(instance.getAlleleProperties(VariantEvaluation.builder(3, 12345, "A", "T").build()), equalTo(CHR3_PROPERTIES));
+    }
+
+    @Test
+    public void chromosomeWithoutStore() {
+        AlleleKey chr2Key = AlleleKey.newBuilder().setChr(2).setPosition(12345).setRef("A").setAlt("T").build();
+        AlleleKey chrXKey = AlleleKey.newBuilder().setChr(23).setPosition(12345).setRef("A").setAlt("T").build();
+        assertThat(instance.getAlleleProperties(chr2Key, GenomeAssembly.HG19), equalTo(AlleleProperties.getDefaultInstance()));
+        assertThat(instance.getAlleleProperties(chrXKey, GenomeAssembly.HG19), equalTo(AlleleProperties.getDefaultInstance()));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.model.RegulatoryFeature;
+import org.monarchinitiative.exomiser.core.model.RegulatoryFeature.FeatureType;
+import org.monarchinitiative.exomiser.core.model.TopologicalDomain;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+class GenomeRegionFilesTest {
+
+    private Path regionsPath;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        regionsPath = Files.createTempFile("exomiser_regions", ".bin");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(regionsPath);
+    }
+
+    @Test
+    void writeThenReadTads() {
+        Map<String, Integer> genes1 = new LinkedHashMap<>();
+        genes1.put("ISG15", 9636);
+        genes1.put("TNFRSF4", 7293);
+        Map<String, Integer> genes2 = new LinkedHashMap<>();
+        genes2.put(null, 0);
+        List<TopologicalDomain> tads = ImmutableList.of(
+                new TopologicalDomain(1, 770137, 1250137, genes1),
+                new TopologicalDomain(23, 1250137, 1850137, genes2),
+                new TopologicalDomain(2, 100, 200, Collections.emptyMap())
+        );
+        GenomeRegionFiles.writeTads(tads, regionsPath);
+
+        assertThat(GenomeRegionFiles.readTads(regionsPath), equalTo(tads));
+        assertThat(new TadDao(regionsPath).getAllTads(), equalTo(tads));
+    }
+
+    @Test
+    void writeThenReadRegulatoryFeatures() {
+        List<RegulatoryFeature> regulatoryFeatures = ImmutableList.of(
+                new RegulatoryFeature(1, 10000, 10600, FeatureType.ENHANCER),
+                new RegulatoryFeature(1, 20000, 20600, FeatureType.CTCF_BINDING_SITE),
+                new RegulatoryFeature(25, 10, 60, FeatureType.FANTOM_PERMISSIVE)
+        );
+        GenomeRegionFiles.writeRegulatoryFeatures(regulatoryFeatures, regionsPath);
+
+        assertThat(GenomeRegionFiles.readRegulatoryFeatures(regionsPath), equalTo(regulatoryFeatures));
+        assertThat(new RegulatoryFeatureDao(regionsPath).getRegulatoryFeatures(), equalTo(regulatoryFeatures));
+    }
+
+    @Test
+    void writeThenReadEmptyRegulatoryFeatures() {
+        GenomeRegionFiles.writeRegulatoryFeatures(Collections.emptyList(), regionsPath);
+        assertThat(GenomeRegionFiles.readRegulatoryFeatures(regionsPath), equalTo(Collections.emptyList()));
+    }
+
+    @Test
+    void throwsExceptionReadingWrongFileType() {
+        GenomeRegionFiles.writeRegulatoryFeatures(Collections.emptyList(), regionsPath);
+        assertThrows(IllegalStateException.class, () -> GenomeRegionFiles.readTads(regionsPath));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+class MemoryMappedVariantWhiteListTest {
+
+    private static final String LONG_REF = "ACGTACGTACGTACGTACGT";
+
+    private Path whiteListPath;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        whiteListPath = Files.createTempFile("exomiser_whitelist", ".bin");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(whiteListPath);
+    }
+
+    private static AlleleKey alleleKey(int chr, int pos, String ref, String alt) {
+        return AlleleKey.newBuilder().setChr(chr).setPosition(pos).setRef(ref).setAlt(alt).build();
+    }
+
+    private static Variant variant(int chr, int pos, String ref, String alt) {
+        return VariantEvaluation.builder(chr, pos, ref, alt).build();
+    }
+
+    @Test
+    void testContains() {
+        MemoryMappedVariantWhiteList.write(ImmutableList.of(
+                alleleKey(1, 234567, "A", "G"),
+                alleleKey(23, 12345, "AT", "A"),
+                alleleKey(2, 100, "C", "T"),
+                // duplicate
+                alleleKey(1, 234567, "A", "G"),
+                alleleKey(17, 41276045, LONG_REF, "A")
+        ), whiteListPath);
+
+        MemoryMappedVariantWhiteList instance = MemoryMappedVariantWhiteList.open(whiteListPath);
+        assertThat(instance.size(), equalTo(4));
+
+        assertThat(instance.contains(variant(1, 234567, "A", "G")), is(true));
+        assertThat(instance.contains(variant(23, 12345, "AT", "A")), is(true));
+        assertThat(instance.contains(variant(2, 100, "C", "T")), is(true));
+        assertThat(instance.contains(variant(17, 41276045, LONG_REF, "A")), is(true));
+        assertThat(instance.contains(17, 41276045, LONG_REF, "A"), is(true));
+
+        assertThat(instance.contains(variant(1, 234567, "A", "T")), is(false));
+        assertThat(instance.contains(variant(1, 234568, "A", "G")), is(false));
+        assertThat(instance.contains(variant(2, 234567, "A", "G")), is(false));
+        assertThat(instance.contains(variant(17, 41276045, LONG_REF, "T")), is(false));
+        assertThat(instance.contains(variant(1, 234567, "A", "<DEL>")), is(false));
+    }
+
+    @Test
+    void emptyWhiteList() {
+        MemoryMappedVariantWhiteList.write(Collections.emptyList(), whiteListPath);
+
+        MemoryMappedVariantWhiteList instance = MemoryMappedVariantWhiteList.open(whiteListPath);
+        assertThat(instance.size(), equalTo(0));
+        assertThat(instance.contains(variant(1, 234567, "A", "G")), is(false));
+        assertThat(instance.contains(variant(17, 41276045, LONG_REF, "A")), is(false));
+    }
+
+    @Test
+    void throwsExceptionWithUnrecognisedFile() throws Exception {
+        Files.write(whiteListPath, ImmutableList.of("1\t234567\tA\tG"), StandardCharsets.UTF_8);
+        assertThrows(IllegalStateException.class, () -> MemoryMappedVariantWhiteList.open(whiteListPath));
+    }
+
+    @Test
+    void encodeKeyIsStable() {
+        // these keys are written to the whitelist files, so must not change without changing the file format version
+        assertThat(MemoryMappedVariantWhiteList.encodeKey(1, 12345, "A", "T"), equalTo(576487263123275795L));
+        assertThat(MemoryMappedVariantWhiteList.encodeKey(23, 12345, "AT", "A"), equalTo(-5188120259776741300L));
+        assertThat(MemoryMappedVariantWhiteList.encodeKey(17, 41276045, LONG_REF, "A"), equalTo(MemoryMappedVariantWhiteList.UNENCODABLE));
+        assertThat(MemoryMappedVariantWhiteList.encodeKey(1, 12345, "A", "<DEL>"), equalTo(MemoryMappedVariantWhiteList.UNENCODABLE));
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.frequency.RsId;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.CaddScore;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.RemmScore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class PersistentVariantDataCacheTest {
+
+    private static final Variant VARIANT = VariantEvaluation.builder(10, 123256215, "T", "G").build();
+    private static final FrequencyData FREQUENCY_DATA = FrequencyData.of(RsId.of(121918506), Frequency.of(FrequencySource.LOCAL, 0.02f));
+    private static final PathogenicityData PATHOGENICITY_DATA = PathogenicityData.of(CaddScore.of(23.5f), RemmScore.of(0.8f));
+
+    private Path cacheDir;
+    private Path cacheFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        cacheDir = Files.createTempDirectory("exomiser_test");
+        cacheFile = cacheDir.resolve("variant-cache.mv.db");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(cacheFile);
+        Files.deleteIfExists(cacheDir);
+    }
+
+    @Test
+    public void throwsExceptionWithTooFewEntries() {
+        assertThrows(IllegalArgumentException.class, () -> PersistentVariantDataCache.open(cacheFile, 1));
+    }
+
+    @Test
+    public void encodeDecodeFrequencyData() {
+        byte[] bytes = PersistentVariantDataCache.encodeFrequencyData(FREQUENCY_DATA);
+        assertThat(PersistentVariantDataCache.decodeFrequencyData(bytes), equalTo(FREQUENCY_DATA));
+    }
+
+    @Test
+    public void encodeDecodeEmptyFrequencyData() {
+        byte[] bytes = PersistentVariantDataCache.encodeFrequencyData(FrequencyData.empty());
+        assertThat(PersistentVariantDataCache.decodeFrequencyData(bytes), equalTo(FrequencyData.empty()));
+    }
+
+    @Test
+    public void encodeDecodePathogenicityData() {
+        byte[] bytes = PersistentVariantDataCache.encodePathogenicityData(PATHOGENICITY_DATA);
+        assertThat(PersistentVariantDataCache.decodePathogenicityData(bytes), equalTo(PATHOGENICITY_DATA));
+    }
+
+    @Test
+    public void encodeDecodeEmptyPathogenicityData() {
+        byte[] bytes = PersistentVariantDataCache.encodePathogenicityData(PathogenicityData.empty());
+        assertThat(PersistentVariantDataCache.decodePathogenicityData(bytes), equalTo(PathogenicityData.empty()));
+    }
+
+    @Test
+    public void cachedFrequencyDataIsOnlyLoadedOnce() {
+        AtomicInteger numLoads = new AtomicInteger();
+        FrequencyDao frequencyDao = variant -> {
+            numLoads.incrementAndGet();
+            return FREQUENCY_DATA;
+        };
+        try (PersistentVariantDataCache instance = PersistentVariantDataCache.open(cacheFile, 100)) {
+            FrequencyDao cachingDao = instance.cachingFrequencyDao("local", frequencyDao, GenomeAssembly.HG19, "1");
+            assertThat(cachingDao.getFrequencyData(VARIANT), equalTo(FREQUENCY_DATA));
+            assertThat(cachingDao.getFrequencyData(VARIANT), equalTo(FREQUENCY_DATA));
+        }
+        assertThat(numLoads.get(), equalTo(1));
+    }
+
+    @Test
+    public void cachedPathogenicityDataIsPersistedBetweenRuns() {
+        AtomicInteger numLoads = new AtomicInteger();
+        PathogenicityDao pathogenicityDao = variant -> {
+            numLoads.incrementAndGet();
+            return PATHOGENICITY_DATA;
+        };
+        try (PersistentVariantDataCache instance = PersistentVariantDataCache.open(cacheFile, 100)) {
+            PathogenicityDao cachingDao = instance.cachingPathogenicityDao("cadd", pathogenicityDao, GenomeAssembly.HG19, "1");
+            assertThat(cachingDao.getPathogenicityData(VARIANT), equalTo(PATHOGENICITY_DATA));
+        }
+        try (PersistentVariantDataCache instance = PersistentVariantDataCache.open(cacheFile, 100)) {
+            PathogenicityDao cachingDao = instance.cachingPathogenicityDao("cadd", pathogenicityDao, GenomeAssembly.HG19, "1");
+            assertThat(cachingDao.getPathogenicityData(VARIANT), equalTo(PATHOGENICITY_DATA));
+        }
+        assertThat(numLoads.get(), equalTo(1));
+    }
+
+    @Test
+    public void cachedDataIsClearedWhenDataVersionChanges() {
+        AtomicInteger numLoads = new AtomicInteger();
+        PathogenicityDao pathogenicityDao = variant -> {
+            numLoads.incrementAndGet();
+            return PATHOGENICITY_DATA;
+        };
+        try (PersistentVariantDataCache instance = PersistentVariantDataCache.open(cacheFile, 100)) {
+            PathogenicityDao cachingDao = instance.cachingPathogenicityDao("cadd", pathogenicityDao, GenomeAssembly.HG19, "1");
+            cachingDao.getPathogenicityData(VARIANT);
+        }
+        try (PersistentVariantDataCache instance = PersistentVariantDataCache.open(cacheFile, 100)) {
+            PathogenicityDao cachingDao = instance.cachingPathogenicityDao("cadd", pathogenicityDao, GenomeAssembly.HG19, "2");
+            cachingDao.getPathogenicityData(VARIANT);
+        }
+        assertThat(numLoads.get(), equalTo(2));
+    }
+
+    @Test
+    public void oldestEntriesAreEvictedWhenFull() {
+        AtomicInteger numLoads = new AtomicInteger();
+        FrequencyDao frequencyDao = variant -> {
+            numLoads.incrementAndGet();
+            return FrequencyData.empty();
+        };
+        try (PersistentVariantDataCache instance = PersistentVariantDataCache.open(cacheFile, 4)) {
+            FrequencyDao cachingDao = instance.cachingFrequencyDao("local", frequencyDao, GenomeAssembly.HG19, "1");
+            for (int pos = 1; pos <= 5; pos++) {
+                cachingDao.getFrequencyData(VariantEvaluation.builder(1, pos, "A", "T").build());
+            }
+            assertThat(numLoads.get(), equalTo(5));
+            // the most recent entries are retained
+            cachingDao.getFrequencyData(VariantEvaluation.builder(1, 4, "A", "T").build());
+            assertThat(numLoads.get(), equalTo(5));
+            // the first entries have been evicted
+            cachingDao.getFrequencyData(VariantEvaluation.builder(1, 1, "A", "T").build());
+            assertThat(numLoads.get(), equalTo(6));
+        }
+    }
+}
@@ -20,6 +20,7 @@
 
 package org.monarchinitiative.exomiser.core.genome.dao;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.monarchinitiative.exomiser.core.model.RegulatoryFeature;
@@ -29,6 +30,7 @@
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.sql.DataSource;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,7 +41,7 @@
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  */
 @ExtendWith(SpringExtension.class)
-@ContextConfiguration(classes = {TestDataSourceConfig.class, RegulatoryFeatureDao.class})
+@ContextConfiguration(classes = TestDataSourceConfig.class)
 @Sql(scripts = {
         "file:src/test/resources/sql/create_regulatory_features.sql",
         "file:src/test/resources/sql/regulatoryFeatureTestData.sql"
@@ -47,8 +49,15 @@
 public class RegulatoryFeatureDaoTest {
 
     @Autowired
+    private DataSource dataSource;
+
     private RegulatoryFeatureDao instance;
 
+    @BeforeEach
+    public void setUp() {
+        instance = new RegulatoryFeatureDao(dataSource);
+    }
+
     @Test
     public void testGetAllRegulatoryFeatures() {
         List<RegulatoryFeature> regulatoryFeatures = new ArrayList<>();
@@ -20,6 +20,7 @@
 
 package org.monarchinitiative.exomiser.core.genome.dao;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.monarchinitiative.exomiser.core.model.TopologicalDomain;
@@ -29,6 +30,7 @@
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.sql.DataSource;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -41,13 +43,20 @@
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  */
 @ExtendWith(SpringExtension.class)
-@ContextConfiguration(classes = {TestDataSourceConfig.class, TadDao.class})
+@ContextConfiguration(classes = TestDataSourceConfig.class)
 @Sql(scripts = {"file:src/test/resources/sql/create_tad.sql", "file:src/test/resources/sql/tadDaoTestData.sql"})
 public class TadDaoTest {
 
     @Autowired
+    private DataSource dataSource;
+
     private TadDao instance;
 
+    @BeforeEach
+    public void setUp() {
+        instance = new TadDao(dataSource);
+    }
+
     @Test
     public void testGetAllTads() {
         //some real TADS (cut short)
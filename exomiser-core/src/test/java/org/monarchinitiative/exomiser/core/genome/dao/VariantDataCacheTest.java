@@ -0,0 +1,164 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.frequency.RsId;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class VariantDataCacheTest {
+
+    private static final FrequencyData FREQUENCY_DATA = FrequencyData.of(RsId.of(121918506), Frequency.of(FrequencySource.LOCAL, 0.02f));
+
+    private static Variant variant(int chr, int pos, String ref, String alt) {
+        return VariantEvaluation.builder(chr, pos, ref, alt).build();
+    }
+
+    private static AlleleKey alleleKey(int chr, int pos, String ref, String alt) {
+        return AlleleKey.newBuilder().setChr(chr).setPosition(pos).setRef(ref).setAlt(alt).build();
+    }
+
+    @Test
+    public void throwsExceptionWithZeroMaxSize() {
+        assertThrows(IllegalArgumentException.class, () -> VariantDataCache.withMaxSize(0));
+    }
+
+    @Test
+    public void encodeKeyDistinguishesAlleles() {
+        Set<Long> keys = new HashSet<>();
+        keys.add(VariantDataCache.encodeKey(variant(1, 12345, "A", "T")));
+        keys.add(VariantDataCache.encodeKey(variant(1, 12345, "A", "TA")));
+        keys.add(VariantDataCache.encodeKey(variant(1, 12345, "AT", "A")));
+        keys.add(VariantDataCache.encodeKey(variant(1, 12345, "T", "AA")));
+        keys.add(VariantDataCache.encodeKey(variant(1, 12345, "TA", "A")));
+        keys.add(VariantDataCache.encodeKey(variant(1, 12346, "A", "T")));
+        keys.add(VariantDataCache.encodeKey(variant(2, 12345, "A", "T")));
+        keys.add(VariantDataCache.encodeKey(variant(25, 12345, "A", "T")));
+        keys.add(VariantDataCache.encodeKey(variant(1, 12345, "A", "CA")));
+        keys.add(VariantDataCache.encodeKey(variant(1, 12345, "G", "A")));
+        assertThat(keys.size(), equalTo(10));
+        assertThat(keys.contains(VariantDataCache.UNENCODABLE), is(false));
+    }
+
+    @Test
+    public void decodeKey() {
+        assertThat(VariantDataCache.decodeKey(VariantDataCache.encodeKey(variant(10, 123256215, "T", "G"))), equalTo(alleleKey(10, 123256215, "T", "G")));
+        assertThat(VariantDataCache.decodeKey(VariantDataCache.encodeKey(variant(1, 12345, "A", "CA"))), equalTo(alleleKey(1, 12345, "A", "CA")));
+        assertThat(VariantDataCache.decodeKey(VariantDataCache.encodeKey(variant(25, 1, "AAAA", "A"))), equalTo(alleleKey(25, 1, "AAAA", "A")));
+        assertThat(VariantDataCache.decodeKey(VariantDataCache.encodeKey(variant(23, 268435455, "ACGTACGTACGT", "A"))), equalTo(alleleKey(23, 268435455, "ACGTACGTACGT", "A")));
+    }
+
+    @Test
+    public void getAlleleKeys() {
+        VariantDataCache<FrequencyData> cache = VariantDataCache.withMaxSize(100);
+        FrequencyDao instance = VariantDataCache.cachingFrequencyDao(variant -> FREQUENCY_DATA, cache);
+        instance.getFrequencyData(variant(1, 12345, "A", "T"));
+        instance.getFrequencyData(variant(2, 12345, "AT", "A"));
+        instance.getFrequencyData(variant(2, 12345, "AT", "<DEL>"));
+
+        assertThat(cache.getAlleleKeys(), containsInAnyOrder(alleleKey(1, 12345, "A", "T"), alleleKey(2, 12345, "AT", "A")));
+    }
+
+    @Test
+    public void encodeKeyIsStable() {
+        assertThat(VariantDataCache.encodeKey(variant(10, 123256215, "T", "G")), equalTo(VariantDataCache.encodeKey(variant(10, 123256215, "T", "G"))));
+        assertThat(VariantDataCache.encodeKey(variant(10, 123256215, "T", "G")), not(equalTo(VariantDataCache.UNENCODABLE)));
+    }
+
+    @Test
+    public void encodeKeyUnencodableVariants() {
+        assertThat(VariantDataCache.encodeKey(variant(1, 12345, "A", "<DEL>")), equalTo(VariantDataCache.UNENCODABLE));
+        assertThat(VariantDataCache.encodeKey(variant(1, 12345, "N", "A")), equalTo(VariantDataCache.UNENCODABLE));
+        assertThat(VariantDataCache.encodeKey(variant(1, 12345, "ACGTACGTACGTA", "A")), equalTo(VariantDataCache.UNENCODABLE));
+        assertThat(VariantDataCache.encodeKey(variant(0, 12345, "A", "T")), equalTo(VariantDataCache.UNENCODABLE));
+    }
+
+    @Test
+    public void cachedValueIsOnlyLoadedOnce() {
+        AtomicInteger numLoads = new AtomicInteger();
+        FrequencyDao frequencyDao = variant -> {
+            numLoads.incrementAndGet();
+            return FREQUENCY_DATA;
+        };
+        VariantDataCache<FrequencyData> cache = VariantDataCache.withMaxSize(100);
+        FrequencyDao instance = VariantDataCache.cachingFrequencyDao(frequencyDao, cache);
+
+        Variant variant = variant(10, 123256215, "T", "G");
+        assertThat(instance.getFrequencyData(variant), equalTo(FREQUENCY_DATA));
+        assertThat(instance.getFrequencyData(variant), equalTo(FREQUENCY_DATA));
+
+        assertThat(numLoads.get(), equalTo(1));
+        assertThat(cache.size(), equalTo(1L));
+        assertThat(cache.getHitCount(), equalTo(1L));
+        assertThat(cache.getMissCount(), equalTo(1L));
+        assertThat(cache.getHitRate(), equalTo(0.5));
+    }
+
+    @Test
+    public void unencodableVariantsAreNotCached() {
+        AtomicInteger numLoads = new AtomicInteger();
+        FrequencyDao frequencyDao = variant -> {
+            numLoads.incrementAndGet();
+            return FREQUENCY_DATA;
+        };
+        VariantDataCache<FrequencyData> cache = VariantDataCache.withMaxSize(100);
+        FrequencyDao instance = VariantDataCache.cachingFrequencyDao(frequencyDao, cache);
+
+        Variant variant = variant(1, 12345, "A", "<DEL>");
+        instance.getFrequencyData(variant);
+        instance.getFrequencyData(variant);
+
+        assertThat(numLoads.get(), equalTo(2));
+        assertThat(cache.size(), equalTo(0L));
+    }
+
+    @Test
+    public void sizeIsBounded() {
+        VariantDataCache<FrequencyData> cache = VariantDataCache.withMaxSize(160);
+        FrequencyDao instance = VariantDataCache.cachingFrequencyDao(variant -> FrequencyData.empty(), cache);
+        for (int pos = 1; pos <= 1000; pos++) {
+            instance.getFrequencyData(variant(1, pos, "A", "T"));
+        }
+        assertThat(cache.size() <= 160, is(true));
+        assertThat(cache.getMissCount(), equalTo(1000L));
+        assertThat(cache.getEvictionCount() > 0, is(true));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.dao.VariantStoreManifest.Shard;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class VariantStoreManifestTest {
+
+    private static final Shard CHR1 = Shard.of(1, "1902_hg19_variants_chr1.mv.db", 200, "build-1");
+    private static final Shard CHR2 = Shard.of(2, "1902_hg19_variants_chr2.mv.db", 100, "build-1");
+
+    @Test
+    public void throwsExceptionWithDuplicateShards() {
+        assertThrows(IllegalArgumentException.class, () -> VariantStoreManifest.of(Arrays.asList(CHR1, CHR1)));
+    }
+
+    @Test
+    public void getShards() {
+        VariantStoreManifest instance = VariantStoreManifest.of(Arrays.asList(CHR2, CHR1));
+        assertThat(instance.getShards(), equalTo(Arrays.asList(CHR1, CHR2)));
+        assertThat(instance.getShard(1), equalTo(Optional.of(CHR1)));
+        assertThat(instance.getShard(23), equalTo(Optional.empty()));
+        assertThat(instance.getNumAlleles(), equalTo(300L));
+        assertThat(instance.getBuildId(), equalTo(Optional.of("build-1")));
+    }
+
+    @Test
+    public void getBuildIdIsEmptyWithShardsFromDifferentBuilds() {
+        Shard rebuiltChr2 = Shard.of(2, "1902_hg19_variants_chr2.mv.db", 150, "build-2");
+        VariantStoreManifest instance = VariantStoreManifest.of(Arrays.asList(CHR1, CHR2))
+                .withShards(Collections.singletonList(rebuiltChr2));
+        assertThat(instance.getBuildId(), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void getBuildIdIsEmptyWithNoShards() {
+        assertThat(VariantStoreManifest.of(Collections.emptyList()).getBuildId(), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void withShardsReplacesExistingChromosomes() {
+        Shard rebuiltChr2 = Shard.of(2, "1902_hg19_variants_chr2.mv.db", 150, "build-1");
+        VariantStoreManifest instance = VariantStoreManifest.of(Arrays.asList(CHR1, CHR2))
+                .withShards(Collections.singletonList(rebuiltChr2));
+        assertThat(instance, equalTo(VariantStoreManifest.of(Arrays.asList(CHR1, rebuiltChr2))));
+    }
+
+    @Test
+    public void writeRead() throws Exception {
+        VariantStoreManifest instance = VariantStoreManifest.of(Arrays.asList(CHR1, CHR2));
+        Path manifestPath = Files.createTempFile("exomiser_test", ".manifest");
+        instance.write(manifestPath);
+        assertThat(VariantStoreManifest.read(manifestPath), equalTo(instance));
+        Files.delete(manifestPath);
+    }
+
+    @Test
+    public void readManifestWithoutBuildIds() throws Exception {
+        Path manifestPath = Files.createTempFile("exomiser_test", ".manifest");
+        Files.write(manifestPath, Arrays.asList("#chr\tfile\talleles", "1\t1902_hg19_variants_chr1.mv.db\t200"));
+        VariantStoreManifest instance = VariantStoreManifest.read(manifestPath);
+        assertThat(instance.getShards(), equalTo(Collections.singletonList(Shard.of(1, "1902_hg19_variants_chr1.mv.db", 200))));
+        assertThat(instance.getBuildId(), equalTo(Optional.of("")));
+        Files.delete(manifestPath);
+    }
+}
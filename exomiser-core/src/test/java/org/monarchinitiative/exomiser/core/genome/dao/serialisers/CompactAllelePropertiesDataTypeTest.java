@@ -0,0 +1,296 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.dao.serialisers;
+
+import org.h2.mvstore.WriteBuffer;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.ClinVar;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+class CompactAllelePropertiesDataTypeTest {
+
+    private static AlleleProperties roundTrip(CompactAllelePropertiesDataType dataType, AlleleProperties alleleProperties) {
+        return withPropertiesMap(read(dataType, write(dataType, alleleProperties)));
+    }
+
+    private static ByteBuffer write(CompactAllelePropertiesDataType dataType, AlleleProperties alleleProperties) {
+        WriteBuffer writeBuffer = new WriteBuffer();
+        dataType.write(writeBuffer, alleleProperties);
+        ByteBuffer buffer = writeBuffer.getBuffer();
+        buffer.flip();
+        return buffer;
+    }
+
+    private static AlleleProperties read(CompactAllelePropertiesDataType dataType, ByteBuffer buffer) {
+        return dataType.read(buffer);
+    }
+
+    /**
+     * Moves the decoded property values into the properties map, so that these can be compared with the original.
+     */
+    private static AlleleProperties withPropertiesMap(AlleleProperties alleleProperties) {
+        return CompactAllelePropertiesDataType.expandPropertyMask(alleleProperties);
+    }
+
+    private static int serialisedSize(org.h2.mvstore.type.DataType dataType, AlleleProperties alleleProperties) {
+        WriteBuffer writeBuffer = new WriteBuffer();
+        dataType.write(writeBuffer, alleleProperties);
+        return writeBuffer.position();
+    }
+
+    @Test
+    void roundTripEmpty() {
+        AlleleProperties empty = AlleleProperties.getDefaultInstance();
+        assertThat(roundTrip(CompactAllelePropertiesDataType.INSTANCE, empty), equalTo(empty));
+    }
+
+    @Test
+    void roundTripKnownProperties() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .setRsId("rs12345678")
+                .putProperties("KG", 0.04f)
+                .putProperties("GNOMAD_E_NFE", 0.0012f)
+                .putProperties("GNOMAD_G_SAS", 1.5f)
+                .putProperties("SIFT", 0.0f)
+                .putProperties("PRIMATE_AI", 0.876f)
+                .build();
+        assertThat(roundTrip(CompactAllelePropertiesDataType.INSTANCE, alleleProperties), equalTo(alleleProperties));
+    }
+
+    @Test
+    void roundTripUnknownPropertiesAndNonCanonicalRsId() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .setRsId("rs0123")
+                .putProperties("KG", 0.04f)
+                .putProperties("NEW_SCORE", 0.5f)
+                .build();
+        assertThat(roundTrip(CompactAllelePropertiesDataType.INSTANCE, alleleProperties), equalTo(alleleProperties));
+
+        AlleleProperties dotRsId = AlleleProperties.newBuilder().setRsId(".").build();
+        assertThat(roundTrip(CompactAllelePropertiesDataType.INSTANCE, dotRsId), equalTo(dotRsId));
+    }
+
+    @Test
+    void roundTripClinVar() {
+        ClinVar clinVar = ClinVar.newBuilder()
+                .setAlleleId("12345")
+                .setPrimaryInterpretation(ClinVar.ClinSig.PATHOGENIC)
+                .addSecondaryInterpretations(ClinVar.ClinSig.RISK_FACTOR)
+                .setReviewStatus("criteria_provided,_single_submitter")
+                .build();
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .setRsId("rs12345")
+                .putProperties("CADD", 23.4f)
+                .setClinVar(clinVar)
+                .build();
+        assertThat(roundTrip(CompactAllelePropertiesDataType.INSTANCE, alleleProperties), equalTo(alleleProperties));
+    }
+
+    @Test
+    void readKnownPropertiesIntoPropertyValues() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .putProperties("TOPMED", 0.04f)
+                .putProperties("KG", 0.01f)
+                .putProperties("NEW_SCORE", 0.5f)
+                .build();
+        AlleleProperties result = read(CompactAllelePropertiesDataType.INSTANCE, write(CompactAllelePropertiesDataType.INSTANCE, alleleProperties));
+        // KG and TOPMED are the first and second keys
+        assertThat(result.getPropertyMask(), equalTo(0b11L));
+        assertThat(result.getPropertyValuesList(), equalTo(Arrays.asList(0.01f, 0.04f)));
+        assertThat(result.getPropertiesMap(), equalTo(Collections.singletonMap("NEW_SCORE", 0.5f)));
+    }
+
+    @Test
+    void writeReadValueIsUnchanged() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .setRsId("rs12345678")
+                .putProperties("KG", 0.04f)
+                .putProperties("REVEL", 0.8f)
+                .build();
+        ByteBuffer written = write(CompactAllelePropertiesDataType.INSTANCE, alleleProperties);
+        AlleleProperties result = read(CompactAllelePropertiesDataType.INSTANCE, written.duplicate());
+        assertThat(write(CompactAllelePropertiesDataType.INSTANCE, result), equalTo(written));
+    }
+
+    @Test
+    void writeThrowsExceptionWithMismatchedPropertyValues() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .setPropertyMask(0b11L)
+                .addPropertyValues(0.01f)
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> write(CompactAllelePropertiesDataType.INSTANCE, alleleProperties));
+    }
+
+    @Test
+    void writeMixedPropertiesUsesPropertiesMapValueForDuplicateKey() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                // KG and TOPMED
+                .setPropertyMask(0b11L)
+                .addPropertyValues(0.01f)
+                .addPropertyValues(0.04f)
+                .putProperties("KG", 0.02f)
+                .build();
+        AlleleProperties expected = AlleleProperties.newBuilder()
+                .putProperties("KG", 0.02f)
+                .putProperties("TOPMED", 0.04f)
+                .build();
+        assertThat(roundTrip(CompactAllelePropertiesDataType.INSTANCE, alleleProperties), equalTo(expected));
+        assertThat(write(CompactAllelePropertiesDataType.INSTANCE, alleleProperties), equalTo(write(CompactAllelePropertiesDataType.INSTANCE, expected)));
+    }
+
+    @Test
+    void expandPropertyMaskWithoutMaskIsUnchanged() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .setRsId("rs12345")
+                .putProperties("KG", 0.01f)
+                .build();
+        assertThat(CompactAllelePropertiesDataType.expandPropertyMask(alleleProperties), sameInstance(alleleProperties));
+    }
+
+    @Test
+    void expandPropertyMaskEqualsPropertiesMapForm() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .setRsId("rs12345")
+                .putProperties("KG", 0.01f)
+                .putProperties("CADD", 23.4f)
+                .putProperties("NEW_SCORE", 0.5f)
+                .build();
+        AlleleProperties decoded = read(CompactAllelePropertiesDataType.INSTANCE, write(CompactAllelePropertiesDataType.INSTANCE, alleleProperties));
+        assertThat(decoded.equals(alleleProperties), is(false));
+        assertThat(CompactAllelePropertiesDataType.expandPropertyMask(decoded), equalTo(alleleProperties));
+    }
+
+    @Test
+    void expandPropertyMaskKeepsPropertiesMapValueForDuplicateKey() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .setPropertyMask(0b11L)
+                .addPropertyValues(0.01f)
+                .addPropertyValues(0.04f)
+                .putProperties("TOPMED", 0.05f)
+                .build();
+        AlleleProperties expected = AlleleProperties.newBuilder()
+                .putProperties("KG", 0.01f)
+                .putProperties("TOPMED", 0.05f)
+                .build();
+        assertThat(CompactAllelePropertiesDataType.expandPropertyMask(alleleProperties), equalTo(expected));
+    }
+
+    @Test
+    void expandPropertyMaskThrowsExceptionWithMismatchedPropertyValues() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .setPropertyMask(0b11L)
+                .addPropertyValues(0.01f)
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> CompactAllelePropertiesDataType.expandPropertyMask(alleleProperties));
+    }
+
+    @Test
+    void readThrowsExceptionWithUnknownProperties() {
+        WriteBuffer writeBuffer = new WriteBuffer();
+        writeBuffer.put((byte) 0);
+        writeBuffer.putVarLong(1L << 63);
+        ByteBuffer buffer = writeBuffer.getBuffer();
+        buffer.flip();
+        assertThrows(InvalidAlleleProtoException.class, () -> read(CompactAllelePropertiesDataType.INSTANCE, buffer));
+    }
+
+    @Test
+    void roundTripDefaultClinVar() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .setClinVar(ClinVar.getDefaultInstance())
+                .build();
+        AlleleProperties result = roundTrip(CompactAllelePropertiesDataType.INSTANCE, alleleProperties);
+        assertThat(result.hasClinVar(), equalTo(true));
+        assertThat(result, equalTo(alleleProperties));
+    }
+
+    @Test
+    void compactFormatIsSmallerThanProtobuf() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .setRsId("rs12345678")
+                .putProperties("GNOMAD_E_AFR", 0.04f)
+                .putProperties("GNOMAD_E_NFE", 0.0012f)
+                .putProperties("GNOMAD_G_NFE", 0.0015f)
+                .putProperties("EXAC_NFE", 0.0013f)
+                .build();
+        int protobufSize = serialisedSize(AllelePropertiesDataType.INSTANCE, alleleProperties);
+        int compactSize = serialisedSize(CompactAllelePropertiesDataType.INSTANCE, alleleProperties);
+        int float16Size = serialisedSize(CompactAllelePropertiesDataType.FLOAT16_INSTANCE, alleleProperties);
+        assertThat(compactSize, lessThan(protobufSize / 2));
+        assertThat(float16Size, lessThan(compactSize));
+    }
+
+    @Test
+    void roundTripFloat16() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .setRsId("rs12345678")
+                .putProperties("KG", 0.04f)
+                .putProperties("CADD", 23.4f)
+                .putProperties("SIFT", 0.0f)
+                .build();
+        AlleleProperties result = roundTrip(CompactAllelePropertiesDataType.FLOAT16_INSTANCE, alleleProperties);
+        assertThat(result.getRsId(), equalTo("rs12345678"));
+        assertThat(result.getPropertiesMap().keySet(), equalTo(alleleProperties.getPropertiesMap().keySet()));
+        assertThat((double) result.getPropertiesOrThrow("KG"), closeTo(0.04, 0.0001));
+        assertThat((double) result.getPropertiesOrThrow("CADD"), closeTo(23.4, 0.02));
+        assertThat(result.getPropertiesOrThrow("SIFT"), equalTo(0.0f));
+    }
+
+    @Test
+    void float16ExactValues() {
+        float[] exact = {0f, 1f, -2f, 0.5f, 0.25f, 65504f, 6.1035156E-5f, 5.9604645E-8f};
+        for (float value : exact) {
+            short half = CompactAllelePropertiesDataType.toFloat16(value);
+            assertThat(CompactAllelePropertiesDataType.fromFloat16(half), equalTo(value));
+        }
+    }
+
+    @Test
+    void float16SpecialValues() {
+        assertThat(CompactAllelePropertiesDataType.fromFloat16(CompactAllelePropertiesDataType.toFloat16(Float.POSITIVE_INFINITY)), equalTo(Float.POSITIVE_INFINITY));
+        assertThat(CompactAllelePropertiesDataType.fromFloat16(CompactAllelePropertiesDataType.toFloat16(100_000f)), equalTo(Float.POSITIVE_INFINITY));
+        assertThat(Float.isNaN(CompactAllelePropertiesDataType.fromFloat16(CompactAllelePropertiesDataType.toFloat16(Float.NaN))), equalTo(true));
+        assertThat(CompactAllelePropertiesDataType.fromFloat16(CompactAllelePropertiesDataType.toFloat16(1e-10f)), equalTo(0f));
+    }
+
+    @Test
+    void float16RelativeError() {
+        for (float value = 0.0001f; value < 60000f; value *= 1.37f) {
+            float result = CompactAllelePropertiesDataType.fromFloat16(CompactAllelePropertiesDataType.toFloat16(value));
+            assertThat((double) Math.abs(result - value) / value, lessThan(0.001));
+        }
+    }
+}
@@ -29,6 +29,7 @@
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
@@ -49,4 +50,48 @@ public void alleleMapBuilder() throws Exception {
         assertThat(alleleMapBuilder.getKeyType(), equalTo(AlleleKeyDataType.INSTANCE));
         assertThat(alleleMapBuilder.getValueType(), equalTo(AllelePropertiesDataType.INSTANCE));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void openAlleleMVMapWithoutRecordedFormatIsProtobuf() {
+        MVStore mvStore = new MVStore.Builder().open();
+        MvStoreUtil.openAlleleMVMap(mvStore);
+        assertThat(MvStoreUtil.getAllelePropertiesFormat(mvStore), equalTo(AllelePropertiesFormat.PROTOBUF));
+    }
+
+    @Test
+    public void openAlleleMVMapWithFormat() {
+        AlleleKey alleleKey = AlleleKey.newBuilder().setChr(1).setPosition(12345).setRef("A").setAlt("T").build();
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder().setRsId("rs123").putProperties("KG", 0.04f).build();
+
+        MVStore mvStore = new MVStore.Builder().open();
+        MVMap<AlleleKey, AlleleProperties> map = MvStoreUtil.openAlleleMVMap(mvStore, AllelePropertiesFormat.COMPACT);
+        map.put(alleleKey, alleleProperties);
+
+        assertThat(MvStoreUtil.getAllelePropertiesFormat(mvStore), equalTo(AllelePropertiesFormat.COMPACT));
+        MVMap<AlleleKey, AlleleProperties> reopened = MvStoreUtil.openAlleleMVMap(mvStore);
+        assertThat(reopened.get(alleleKey), equalTo(alleleProperties));
+    }
+
+    @Test
+    public void openAlleleMVMapWithDifferentFormatThrowsException() {
+        MVStore mvStore = new MVStore.Builder().open();
+        MvStoreUtil.openAlleleMVMap(mvStore, AllelePropertiesFormat.COMPACT);
+        assertThrows(IllegalStateException.class, () -> MvStoreUtil.openAlleleMVMap(mvStore, AllelePropertiesFormat.PROTOBUF));
+    }
+
+    @Test
+    public void alleleMapBuilderWithFormat() {
+        MVMap.Builder<AlleleKey, AlleleProperties> alleleMapBuilder = MvStoreUtil.alleleMapBuilder(AllelePropertiesFormat.COMPACT_FLOAT16);
+        assertThat(alleleMapBuilder.getValueType(), equalTo(CompactAllelePropertiesDataType.FLOAT16_INSTANCE));
+    }
+
+    @Test
+    public void buildId() {
+        MVStore mvStore = new MVStore.Builder().open();
+        assertThat(MvStoreUtil.getBuildId(mvStore), equalTo(""));
+        MvStoreUtil.openAlleleMVMap(mvStore, AllelePropertiesFormat.COMPACT);
+        MvStoreUtil.setBuildId(mvStore, "build-1");
+        assertThat(MvStoreUtil.getBuildId(mvStore), equalTo("build-1"));
+        assertThat(MvStoreUtil.getAllelePropertiesFormat(mvStore), equalTo(AllelePropertiesFormat.COMPACT));
+    }
+}
@@ -23,9 +23,11 @@
 import com.google.common.collect.ImmutableMap;
 import org.junit.jupiter.api.Test;
 import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.CompactAllelePropertiesDataType;
 import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.frequency.RsId;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.ClinVarData;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityScore;
@@ -34,6 +36,7 @@
 import org.monarchinitiative.exomiser.core.proto.AlleleProto.ClinVar;
 
 import java.util.EnumSet;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -139,6 +142,53 @@ public void testToPathDataCadd() {
         assertThat(AlleleProtoAdaptor.toPathogenicityData(alleleProperties), equalTo(PathogenicityData.of(PathogenicityScore.of(CADD, 0.7f))));
     }
 
+    @Test
+    public void testToFreqDataFromPropertyValues() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                .setRsId("rs12345")
+                // KG, TOPMED and SIFT
+                .setPropertyMask(0b11L | 1L << 28)
+                .addPropertyValues(0.7f)
+                .addPropertyValues(0.05f)
+                .addPropertyValues(0.2f)
+                .putProperties("GNOMAD_G_SAS", 0.01f)
+                .build();
+        assertThat(AlleleProtoAdaptor.toFrequencyData(alleleProperties),
+                equalTo(FrequencyData.of(RsId.of("rs12345"),
+                        Frequency.of(FrequencySource.THOUSAND_GENOMES, 0.7f),
+                        Frequency.of(FrequencySource.TOPMED, 0.05f),
+                        Frequency.of(FrequencySource.GNOMAD_G_SAS, 0.01f))
+                )
+        );
+        assertThat(AlleleProtoAdaptor.toPathogenicityData(alleleProperties), equalTo(PathogenicityData.of(PathogenicityScore.of(SIFT, 0.2f))));
+    }
+
+    @Test
+    public void testPropertiesMapValueIsUsedForKeyAlsoInPropertyValues() {
+        AlleleProperties alleleProperties = AlleleProperties.newBuilder()
+                // KG and SIFT
+                .setPropertyMask(1L | 1L << 28)
+                .addPropertyValues(0.7f)
+                .addPropertyValues(0.2f)
+                .putProperties("KG", 0.5f)
+                .putProperties("SIFT", 0.1f)
+                .build();
+        assertThat(AlleleProtoAdaptor.toFrequencyData(alleleProperties),
+                equalTo(FrequencyData.of(RsId.empty(), Frequency.of(FrequencySource.THOUSAND_GENOMES, 0.5f))));
+        assertThat(AlleleProtoAdaptor.toPathogenicityData(alleleProperties), equalTo(PathogenicityData.of(PathogenicityScore.of(SIFT, 0.1f))));
+    }
+
+    @Test
+    public void testPropertyValuesMatchPropertiesMapForAllKeys() {
+        List<String> propertyKeys = CompactAllelePropertiesDataType.getPropertyKeys();
+        for (int i = 0; i < propertyKeys.size(); i++) {
+            AlleleProperties mapProperties = AlleleProperties.newBuilder().putProperties(propertyKeys.get(i), 0.5f).build();
+            AlleleProperties maskProperties = AlleleProperties.newBuilder().setPropertyMask(1L << i).addPropertyValues(0.5f).build();
+            assertThat(AlleleProtoAdaptor.toFrequencyData(maskProperties), equalTo(AlleleProtoAdaptor.toFrequencyData(mapProperties)));
+            assertThat(AlleleProtoAdaptor.toPathogenicityData(maskProperties), equalTo(AlleleProtoAdaptor.toPathogenicityData(mapProperties)));
+        }
+    }
+
     @Test
     public void parseClinVarDataDefaultInstanceReturnsEmpty() {
         AlleleProperties alleleProperties = AlleleProperties.newBuilder().build();
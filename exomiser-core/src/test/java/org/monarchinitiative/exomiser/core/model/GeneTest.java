@@ -312,6 +312,19 @@ public void testPassedFilterTrueWhenGeneUnfilteredAndAtLeastOneVariantPassesFilt
         assertThat(instance.passedFilter(PASS_VARIANT_FILTER_RESULT.getFilterType()), is(true));
     }
 
+    @Test
+    public void testPassedFilterAllFilterTypes() {
+        for (FilterType filterType : FilterType.values()) {
+            Gene gene = newGeneOne();
+            assertThat(gene.passedFilter(filterType), is(false));
+            gene.addFilterResult(FilterResult.pass(filterType));
+            assertThat(gene.passedFilter(filterType), is(true));
+            gene.addFilterResult(FilterResult.fail(filterType));
+            assertThat(gene.passedFilter(filterType), is(false));
+            assertThat(gene.passedFilters(), is(false));
+        }
+    }
+
     @Test
     public void testPassesFiltersTrueWhenVariantPassesFilter() {
         variantEvaluation1.addFilterResult(PASS_VARIANT_FILTER_RESULT);
@@ -0,0 +1,146 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.model;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class SampleGenotypesTest {
+
+    private static final SampleGenotype OTHER_ALT_ALT = SampleGenotype.of(AlleleCall.OTHER_ALT, AlleleCall.ALT);
+
+    @Test
+    public void empty() {
+        assertThat(SampleGenotypes.builder().build(), equalTo(SampleGenotypes.empty()));
+        assertThat(SampleGenotypes.empty().isEmpty(), is(true));
+        assertThat(SampleGenotypes.empty(), equalTo(ImmutableMap.of()));
+    }
+
+    @Test
+    public void equalsImmutableMap() {
+        Map<String, SampleGenotype> expected = ImmutableMap.of("Seth", SampleGenotype.het(), "Adam", OTHER_ALT_ALT, "Eva", SampleGenotype.homRef());
+        Map<String, SampleGenotype> instance = SampleGenotypes.builder()
+                .put("Seth", SampleGenotype.het())
+                .put("Adam", OTHER_ALT_ALT)
+                .put("Eva", SampleGenotype.homRef())
+                .build();
+        assertThat(instance, equalTo(expected));
+        assertThat(expected, equalTo(instance));
+        assertThat(instance.hashCode(), equalTo(expected.hashCode()));
+        assertThat(instance.toString(), equalTo(expected.toString()));
+    }
+
+    @Test
+    public void preservesInsertionOrder() {
+        Map<String, SampleGenotype> instance = SampleGenotypes.copyOf(ImmutableMap.of("Seth", SampleGenotype.het(), "Adam", OTHER_ALT_ALT, "Eva", SampleGenotype.homRef()));
+        assertThat(new ArrayList<>(instance.keySet()), equalTo(ImmutableList.of("Seth", "Adam", "Eva")));
+        assertThat(new ArrayList<>(instance.values()), equalTo(ImmutableList.of(SampleGenotype.het(), OTHER_ALT_ALT, SampleGenotype.homRef())));
+    }
+
+    @Test
+    public void get() {
+        Map<String, SampleGenotype> instance = SampleGenotypes.copyOf(ImmutableMap.of("Adam", SampleGenotype.homAlt(), "Eva", SampleGenotype.noCall()));
+        assertThat(instance.get("Adam"), equalTo(SampleGenotype.homAlt()));
+        assertThat(instance.get("Eva"), equalTo(SampleGenotype.noCall()));
+        assertThat(instance.get("Cain"), is(nullValue()));
+        assertThat(instance.containsKey("Cain"), is(false));
+        assertThat(instance.getOrDefault("Cain", SampleGenotype.empty()), equalTo(SampleGenotype.empty()));
+    }
+
+    @Test
+    public void copyOfSampleGenotypesReturnsSameInstance() {
+        Map<String, SampleGenotype> instance = SampleGenotypes.copyOf(ImmutableMap.of("Adam", SampleGenotype.het()));
+        assertThat(SampleGenotypes.copyOf(instance), sameInstance(instance));
+    }
+
+    @Test
+    public void isImmutable() {
+        Map<String, SampleGenotype> instance = SampleGenotypes.copyOf(ImmutableMap.of("Adam", SampleGenotype.het()));
+        assertThrows(UnsupportedOperationException.class, () -> instance.put("Eva", SampleGenotype.het()));
+    }
+
+    @Test
+    public void duplicateSampleNamesNotPermitted() {
+        SampleGenotypes.Builder builder = SampleGenotypes.builder()
+                .put("Adam", SampleGenotype.het())
+                .put("Adam", SampleGenotype.homAlt());
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    public void sampleNamesAreShared() {
+        SampleGenotypes.SampleNames sampleNames = SampleGenotypes.sampleNames(ImmutableList.of("Seth", "Adam", "Eva"));
+        assertThat(SampleGenotypes.sampleNames(new ArrayList<>(ImmutableList.of("Seth", "Adam", "Eva"))), sameInstance(sampleNames));
+        assertThat(sampleNames.size(), equalTo(3));
+        assertThat(sampleNames.get(1), equalTo("Adam"));
+    }
+
+    @Test
+    public void builderWithSampleNames() {
+        SampleGenotypes.SampleNames sampleNames = SampleGenotypes.sampleNames(ImmutableList.of("Seth", "Adam", "Eva"));
+        Map<String, SampleGenotype> instance = SampleGenotypes.builder(sampleNames)
+                .put("Seth", SampleGenotype.het())
+                .put("Adam", OTHER_ALT_ALT)
+                .put("Eva", SampleGenotype.homRef())
+                .build();
+        assertThat(instance, equalTo(ImmutableMap.of("Seth", SampleGenotype.het(), "Adam", OTHER_ALT_ALT, "Eva", SampleGenotype.homRef())));
+    }
+
+    @Test
+    public void builderWithSampleNamesInDifferentOrder() {
+        SampleGenotypes.SampleNames sampleNames = SampleGenotypes.sampleNames(ImmutableList.of("Seth", "Adam", "Eva"));
+        Map<String, SampleGenotype> instance = SampleGenotypes.builder(sampleNames)
+                .put("Adam", OTHER_ALT_ALT)
+                .put("Seth", SampleGenotype.het())
+                .build();
+        assertThat(new ArrayList<>(instance.keySet()), equalTo(ImmutableList.of("Adam", "Seth")));
+        assertThat(instance.get("Seth"), equalTo(SampleGenotype.het()));
+        assertThat(instance.get("Eva"), is(nullValue()));
+    }
+
+    @Test
+    public void getByIndexOfSampleNames() {
+        SampleGenotypes.SampleNames sampleNames = SampleGenotypes.sampleNames(ImmutableList.of("Seth", "Adam", "Eva"));
+        SampleGenotypes instance = (SampleGenotypes) SampleGenotypes.builder(sampleNames)
+                .put("Seth", SampleGenotype.het())
+                .put("Adam", OTHER_ALT_ALT)
+                .put("Eva", SampleGenotype.homRef())
+                .build();
+        assertThat(instance.getSampleNames(), sameInstance(sampleNames));
+        assertThat(sampleNames.indexOf("Adam"), equalTo(1));
+        assertThat(sampleNames.indexOf("Cain"), equalTo(-1));
+        assertThat(instance.getSampleGenotypeAt(sampleNames.indexOf("Adam")), equalTo(OTHER_ALT_ALT));
+        // a boxed index is a Map key lookup, not an index lookup
+        Integer boxedIndex = sampleNames.indexOf("Adam");
+        assertThat(instance.get(boxedIndex), is(nullValue()));
+    }
+}
@@ -550,6 +550,36 @@ public void testFailsFiltersWhenPassedAndFailedFiltersHaveBeenApplied() {
         assertThat(instance.passedFilters(), is(false));
     }
 
+    @Test
+    public void testAllFilterTypesCanBePassedAndFailed() {
+        // filter results are packed into the lower and upper halves of a long
+        assertThat(FilterType.values().length <= 32, is(true));
+        for (FilterType filterType : FilterType.values()) {
+            instance.addFilterResult(FilterResult.pass(filterType));
+        }
+        assertThat(instance.getPassedFilterTypes(), equalTo(EnumSet.allOf(FilterType.class)));
+        assertThat(instance.getFailedFilterTypes().isEmpty(), is(true));
+
+        for (FilterType filterType : FilterType.values()) {
+            instance.addFilterResult(FilterResult.fail(filterType));
+            assertThat(instance.passedFilter(filterType), is(false));
+        }
+        assertThat(instance.getFailedFilterTypes(), equalTo(EnumSet.allOf(FilterType.class)));
+        assertThat(instance.passedFilters(), is(false));
+    }
+
+    @Test
+    public void testConcurrentlyAddedFilterResultsAreAllRecorded() {
+        Arrays.stream(FilterType.values())
+                .parallel()
+                .forEach(filterType -> {
+                    instance.addFilterResult(FilterResult.pass(filterType));
+                    instance.addFilterResult(FilterResult.fail(filterType));
+                });
+        assertThat(instance.getPassedFilterTypes(), equalTo(EnumSet.allOf(FilterType.class)));
+        assertThat(instance.getFailedFilterTypes(), equalTo(EnumSet.allOf(FilterType.class)));
+    }
+
     @Test
     public void testFilterStatusWhenNoFiltersHaveBeenApplied() {
         assertThat(instance.getFilterStatus(), equalTo(FilterStatus.UNFILTERED));
@@ -20,6 +20,7 @@
 
 package org.monarchinitiative.exomiser.core.writers;
 
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +29,7 @@
 import org.monarchinitiative.exomiser.core.analysis.util.InheritanceModeOptions;
 import org.monarchinitiative.exomiser.core.genome.TestFactory;
 import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.GeneScore;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -35,10 +37,13 @@
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
@@ -184,4 +189,51 @@ public void testWriteToFileDoesNotOutputsSingleHtmlFileIfAbsentFromSettings() th
         Path outputPath = Paths.get(String.format("%s.%s", outputPrefix, OutputFormat.HTML.getFileExtension()));
         assertThat(outputPath.toFile().exists(), is(false));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testWriteToFileDoesNotReorderInputGenes() throws Exception {
+        String outputPrefix = tempFile.toString();
+
+        OutputSettings settings = OutputSettings.builder()
+                .outputPrefix(outputPrefix)
+                .outputFormats(EnumSet.of(OutputFormat.TSV_GENE, OutputFormat.TSV_VARIANT, OutputFormat.JSON))
+                .build();
+
+        Analysis analysis = Analysis.builder()
+                .vcfPath(Paths.get("src/test/resources/smallTest.vcf"))
+                .inheritanceModeOptions(InheritanceModeOptions.defaults())
+                .build();
+        AnalysisResults analysisResults = newAnalysisResults();
+        List<Gene> originalOrder = Arrays.asList(analysisResults.getGenes().toArray(new Gene[0]));
+
+        AnalysisResultsWriter.writeToFile(analysis, analysisResults, settings);
+
+        assertThat(analysisResults.getGenes(), equalTo(originalOrder));
+        for (ModeOfInheritance modeOfInheritance : InheritanceModeOptions.defaults().getDefinedModes()) {
+            for (OutputFormat outputFormat : EnumSet.of(OutputFormat.TSV_GENE, OutputFormat.TSV_VARIANT)) {
+                String outputPath = ResultsWriterUtils.makeOutputFilename(analysis.getVcfPath(), outputPrefix, outputFormat, modeOfInheritance);
+                assertThat(Paths.get(outputPath).toFile().delete(), is(true));
+            }
+        }
+        String jsonOutputPath = ResultsWriterUtils.makeOutputFilename(analysis.getVcfPath(), outputPrefix, OutputFormat.JSON, ModeOfInheritance.ANY);
+        assertThat(Paths.get(jsonOutputPath).toFile().delete(), is(true));
+    }
+
+    @Test
+    public void testRankedSnapshotForMode() {
+        Gene first = new Gene("FIRST", 1);
+        Gene second = new Gene("SECOND", 2);
+        second.addGeneScore(GeneScore.builder()
+                .geneIdentifier(second.getGeneIdentifier())
+                .modeOfInheritance(ModeOfInheritance.AUTOSOMAL_DOMINANT)
+                .combinedScore(1f)
+                .build());
+        AnalysisResults analysisResults = AnalysisResults.builder().genes(Arrays.asList(first, second)).build();
+
+        AnalysisResults snapshot = AnalysisResultsWriter.rankedSnapshotForMode(analysisResults, ModeOfInheritance.AUTOSOMAL_DOMINANT);
+
+        assertThat(snapshot.getGenes(), equalTo(Arrays.asList(second, first)));
+        assertThat(analysisResults.getGenes(), equalTo(Arrays.asList(first, second)));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getGenes().add(first));
+    }
+}
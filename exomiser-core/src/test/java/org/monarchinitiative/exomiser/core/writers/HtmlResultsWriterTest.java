@@ -25,6 +25,8 @@
  */
 package org.monarchinitiative.exomiser.core.writers;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Lists;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
 import de.charite.compbio.jannovar.pedigree.Genotype;
@@ -49,12 +51,16 @@
 import org.monarchinitiative.exomiser.core.prioritisers.service.TestPriorityServiceFactory;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -218,4 +224,149 @@ public void testWriteTemplateWithFullDataAndFullAnalysis() throws Exception {
         assertTrue(output.contains("SHH"));
     }
 
+    @Test
+    public void testWriteStringReportsNotEvaluatedGenes() {
+        AnalysisResults analysisResults = AnalysisResults.builder()
+                .sampleNames(Lists.newArrayList("Slartibartfast"))
+                .genes(Lists.newArrayList(fgfr2Gene))
+                .notEvaluatedGenes(Lists.newArrayList(shhGene))
+                .build();
+        OutputSettings settings = OutputSettings.builder().build();
+
+        String output = instance.writeString(ModeOfInheritance.ANY, Analysis.builder().build(), analysisResults, settings);
+
+        assertTrue(output.contains("Not Evaluated Genes"));
+        assertTrue(output.contains("http://www.ncbi.nlm.nih.gov/gene/" + shhGene.getEntrezGeneID()));
+    }
+
+    @Test
+    public void testGenePageDir() {
+        assertThat(HtmlResultsWriter.genePageDir(Paths.get("results/sample.html")), equalTo(Paths.get("results/sample_genes")));
+        assertThat(HtmlResultsWriter.genePageDir(Paths.get("results/sample_AD.html")), equalTo(Paths.get("results/sample_AD_genes")));
+    }
+
+    @Test
+    public void testWriteFileWithHtmlPageSizeWritesRemainingGenesToPages() throws Exception {
+        List<Gene> genes = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            genes.add(new Gene("GENE" + i, i));
+        }
+        AnalysisResults analysisResults = buildAnalysisResults(genes, Collections.emptyList());
+
+        String testOutFilePrefix = testOutDir.resolve("testWriteFileWithHtmlPageSize").toString();
+        OutputSettings settings = OutputSettings.builder()
+                .outputPrefix(testOutFilePrefix)
+                .htmlPageSize(2)
+                .build();
+
+        instance.writeFile(ModeOfInheritance.ANY, Analysis.builder().build(), analysisResults, settings);
+
+        Path testOutFile = Paths.get(testOutFilePrefix + ".html");
+        String output = new String(Files.readAllBytes(testOutFile), StandardCharsets.UTF_8);
+        assertTrue(output.contains("GENE1"));
+        assertTrue(output.contains("GENE2"));
+        assertFalse(output.contains("GENE3"));
+        assertTrue(output.contains("testWriteFileWithHtmlPageSize_genes/page-1.html"));
+        assertTrue(output.contains("testWriteFileWithHtmlPageSize_genes/page-2.html"));
+
+        Path genePageDir = testOutDir.resolve("testWriteFileWithHtmlPageSize_genes");
+        Path page1 = genePageDir.resolve("page-1.html");
+        String page1Output = new String(Files.readAllBytes(page1), StandardCharsets.UTF_8);
+        assertTrue(page1Output.contains("GENE3"));
+        assertTrue(page1Output.contains("GENE4"));
+        assertFalse(page1Output.contains("GENE5"));
+        // each page is a complete document with the same head and styles as the results page
+        assertTrue(page1Output.contains("<html"));
+        assertTrue(page1Output.contains("<title>The Exomiser"));
+        assertTrue(page1Output.contains("Bootstrap v3.3.7"));
+
+        Path page2 = genePageDir.resolve("page-2.html");
+        String page2Output = new String(Files.readAllBytes(page2), StandardCharsets.UTF_8);
+        assertTrue(page2Output.contains("GENE5"));
+
+        Path index = genePageDir.resolve("index.json");
+        JsonNode indexJson = new ObjectMapper().readTree(index.toFile());
+        assertThat(indexJson.get("numGenes").asInt(), equalTo(5));
+        assertThat(indexJson.get("pageSize").asInt(), equalTo(2));
+        JsonNode pages = indexJson.get("pages");
+        assertThat(pages.size(), equalTo(2));
+        assertThat(pages.get(0).get("file").asText(), equalTo("page-1.html"));
+        assertThat(pages.get(0).get("firstRank").asInt(), equalTo(3));
+        assertThat(pages.get(0).get("lastRank").asInt(), equalTo(4));
+        assertThat(pages.get(1).get("genes").get(0).get("geneSymbol").asText(), equalTo("GENE5"));
+        assertThat(pages.get(1).get("genes").get(0).get("rank").asInt(), equalTo(5));
+
+        Files.delete(page1);
+        Files.delete(page2);
+        Files.delete(index);
+        Files.delete(genePageDir);
+        Files.delete(testOutFile);
+    }
+
+    @Test
+    public void testWriteFileRemovesGenePagesFromPreviousRun() throws Exception {
+        List<Gene> genes = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            genes.add(new Gene("GENE" + i, i));
+        }
+        String testOutFilePrefix = testOutDir.resolve("testWriteFileRemovesGenePages").toString();
+        Path testOutFile = Paths.get(testOutFilePrefix + ".html");
+        Path genePageDir = testOutDir.resolve("testWriteFileRemovesGenePages_genes");
+        OutputSettings pagedSettings = OutputSettings.builder()
+                .outputPrefix(testOutFilePrefix)
+                .htmlPageSize(2)
+                .build();
+
+        instance.writeFile(ModeOfInheritance.ANY, Analysis.builder().build(), buildAnalysisResults(genes, Collections.emptyList()), pagedSettings);
+        assertTrue(Files.exists(genePageDir.resolve("page-2.html")));
+
+        instance.writeFile(ModeOfInheritance.ANY, Analysis.builder().build(), buildAnalysisResults(genes.subList(0, 3), Collections.emptyList()), pagedSettings);
+        assertTrue(Files.exists(genePageDir.resolve("page-1.html")));
+        assertFalse(Files.exists(genePageDir.resolve("page-2.html")));
+
+        OutputSettings unpagedSettings = OutputSettings.builder()
+                .outputPrefix(testOutFilePrefix)
+                .build();
+        instance.writeFile(ModeOfInheritance.ANY, Analysis.builder().build(), buildAnalysisResults(genes, Collections.emptyList()), unpagedSettings);
+        assertFalse(Files.exists(genePageDir));
+
+        assertTrue(testOutFile.toFile().delete());
+    }
+
+    @Test
+    public void testDeleteGenePagesLeavesOtherFiles() throws Exception {
+        Path genePageDir = Files.createDirectory(testOutDir.resolve("testDeleteGenePages_genes"));
+        Path page = Files.createFile(genePageDir.resolve("page-1.html"));
+        Path index = Files.createFile(genePageDir.resolve(HtmlResultsWriter.GENE_PAGE_INDEX_FILE_NAME));
+        Path otherFile = Files.createFile(genePageDir.resolve("notes.txt"));
+
+        HtmlResultsWriter.deleteGenePages(genePageDir);
+
+        assertFalse(Files.exists(page));
+        assertFalse(Files.exists(index));
+        assertTrue(Files.exists(otherFile));
+        Files.delete(otherFile);
+        Files.delete(genePageDir);
+    }
+
+    @Test
+    public void testWriteFileWithHtmlPageSizeLargerThanNumberOfGenesDoesNotWritePages() throws Exception {
+        AnalysisResults analysisResults = buildAnalysisResults(Lists.newArrayList(fgfr2Gene, shhGene), Collections.emptyList());
+
+        String testOutFilePrefix = testOutDir.resolve("testWriteFileWithLargeHtmlPageSize").toString();
+        OutputSettings settings = OutputSettings.builder()
+                .outputPrefix(testOutFilePrefix)
+                .htmlPageSize(10)
+                .build();
+
+        instance.writeFile(ModeOfInheritance.ANY, Analysis.builder().build(), analysisResults, settings);
+
+        Path testOutFile = Paths.get(testOutFilePrefix + ".html");
+        String output = new String(Files.readAllBytes(testOutFile), StandardCharsets.UTF_8);
+        assertTrue(output.contains("FGFR2"));
+        assertTrue(output.contains("SHH"));
+        assertFalse(Files.exists(testOutDir.resolve("testWriteFileWithLargeHtmlPageSize_genes")));
+        assertTrue(testOutFile.toFile().delete());
+    }
+
 }
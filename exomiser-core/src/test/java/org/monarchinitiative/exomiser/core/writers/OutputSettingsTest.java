@@ -74,6 +74,20 @@ public void testThatBuilderCanSetNumberOfGenesToShow() {
         assertThat(instance.getNumberOfGenesToShow(), equalTo(numGenes));
     }
 
+    @Test
+    public void testThatDefaultHtmlPageSizeIsZero() {
+        OutputSettings instance = OutputSettings.builder().build();
+        assertThat(instance.getHtmlPageSize(), equalTo(0));
+    }
+
+    @Test
+    public void testThatBuilderCanSetHtmlPageSize() {
+        OutputSettings instance = OutputSettings.builder()
+                .htmlPageSize(100)
+                .build();
+        assertThat(instance.getHtmlPageSize(), equalTo(100));
+    }
+
     /**
      * Test of getOutputPrefix method, of class ExomiserSettings.
      */
@@ -66,6 +66,13 @@ public void testGetVcfResultsWriter() {
         assertThat(result, instanceOf(VcfResultsWriter.class));
     }
 
+    @Test
+    public void testGetCompressedVcfResultsWriter() {
+        OutputFormat outputFormat = OutputFormat.VCF_GZ;
+        ResultsWriter result = instance.getResultsWriter(outputFormat);
+        assertThat(result, instanceOf(VcfResultsWriter.class));
+    }
+
     @Test
     public void testGetPhenoGridResultsWriter() {
         OutputFormat outputFormat = OutputFormat.PHENOGRID;
@@ -124,4 +124,23 @@ public void testWriteStringStartsWithAHeaderLine() {
         assertThat(lines[0] + "\n", equalTo(HEADER));
     }
 
+    @Test
+    public void testWriteStringReportsNotEvaluatedGenesAsComments() {
+        OutputSettings settings = OutputSettings.builder()
+                .outputFormats(EnumSet.of(OutputFormat.TSV_GENE))
+                .build();
+        Gene fgfr2 = TestFactory.newGeneFGFR2();
+        fgfr2.setCompatibleInheritanceModes(EnumSet.of(ModeOfInheritance.AUTOSOMAL_DOMINANT));
+        AnalysisResults results = AnalysisResults.builder()
+                .genes(Arrays.asList(fgfr2))
+                .notEvaluatedGenes(Arrays.asList(TestFactory.newGeneRBM8A()))
+                .build();
+
+        String outString = instance.writeString(ModeOfInheritance.AUTOSOMAL_DOMINANT, analysis, results, settings);
+
+        String notEvaluated = "# NOT_EVALUATED - the variants of these genes were not evaluated as the genes cannot be ranked in the top genes\n" +
+                "# RBM8A	9939	.	.	.	0.0000	0.0000	0.0000	0.0000	0.0000	0.0000	0	\n";
+        assertThat(outString, equalTo(HEADER + FGFR2_GENE_STRING + notEvaluated));
+    }
+
 }
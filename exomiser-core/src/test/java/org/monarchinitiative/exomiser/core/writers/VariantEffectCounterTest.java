@@ -29,6 +29,7 @@
 
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -126,6 +127,35 @@ void multiSampleMultiVariantSingleType() {
                 .of(2, 1, 1)))));
     }
 
+    @Test
+    void countVariantIncrementallySameAsFromList() {
+        ImmutableMap<String, SampleGenotype> sampleGenotypes = ImmutableMap.of(
+                "Arthur", SampleGenotype.het(),
+                "Zaphod", SampleGenotype.homRef(),
+                "Trillian", SampleGenotype.homAlt()
+        );
+        VariantEvaluation missense = VariantEvaluation.builder(1, 12345, "A", "T")
+                .variantEffect(VariantEffect.MISSENSE_VARIANT)
+                .sampleGenotypes(sampleGenotypes)
+                .build();
+        VariantEvaluation stopGained = VariantEvaluation.builder(2, 54321, "C", "G")
+                .variantEffect(VariantEffect.STOP_GAINED)
+                .sampleGenotypes(sampleGenotypes)
+                .build();
+
+        VariantEffectCounter instance = new VariantEffectCounter(3);
+        instance.countVariant(missense);
+        instance.countVariant(stopGained);
+        instance.countVariant(missense);
+
+        Set<VariantEffect> variantEffects = EnumSet.of(VariantEffect.MISSENSE_VARIANT, VariantEffect.STOP_GAINED);
+        VariantEffectCounter fromList = new VariantEffectCounter(sampleGenotypes.keySet()
+                .asList(), ImmutableList.of(missense, stopGained, missense));
+        assertThat(instance.getVariantEffectCounts(variantEffects), equalTo(fromList.getVariantEffectCounts(variantEffects)));
+        assertThat(instance.getVariantEffectCounts(EnumSet.of(VariantEffect.MISSENSE_VARIANT)), equalTo(ImmutableList.of(
+                new VariantEffectCount(VariantEffect.MISSENSE_VARIANT, ImmutableList.of(2, 0, 2)))));
+    }
+
     @Test
     void multiSampleMultiVariantMultiType() {
 
@@ -44,6 +44,7 @@
 import org.monarchinitiative.exomiser.core.prioritisers.OmimPriorityResult;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
@@ -52,8 +53,12 @@
 import java.util.List;
 
 import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Tests for the {@link VcfResultsWriter} class.
@@ -198,8 +203,8 @@ public void testWriteAnnotatedVariantsNoFiltersApplied() {
 
         String vcf = instance.writeString(ModeOfInheritance.ANY, analysis, analysisResults, settings);
         final String expected = EXPECTED_HEADER
-                + "chr10\t123256215\t.\tT\tG\t2.20\t.\tExGeneSCombi=0.0;ExGeneSPheno=0.0;ExGeneSVar=0.0;ExGeneSymbId=2263;ExGeneSymbol=FGFR2;ExVarEff=missense_variant;ExVarHgvs=10:g.123256215T>G;ExVarScore=1.0;RD=30\tGT:RD\t0/1:30\n"
                 + "chr10\t123256214\t.\tA\tG\t2.20\t.\tExGeneSCombi=0.0;ExGeneSPheno=0.0;ExGeneSVar=0.0;ExGeneSymbId=2263;ExGeneSymbol=FGFR2;ExVarEff=missense_variant;ExVarHgvs=10:g.123256214A>G;ExVarScore=0.89;RD=30\tGT:RD\t0/1:30\n"
+                + "chr10\t123256215\t.\tT\tG\t2.20\t.\tExGeneSCombi=0.0;ExGeneSPheno=0.0;ExGeneSVar=0.0;ExGeneSymbId=2263;ExGeneSymbol=FGFR2;ExVarEff=missense_variant;ExVarHgvs=10:g.123256215T>G;ExVarScore=1.0;RD=30\tGT:RD\t0/1:30\n"
                 + "chr7\t155604800\t.\tC\tCTT\t1\t.\tExGeneSCombi=0.0;ExGeneSPheno=0.0;ExGeneSVar=0.0;ExGeneSymbId=6469;ExGeneSymbol=SHH;ExVarEff=frameshift_variant;ExVarHgvs=7:g.155604800C>CTT;ExVarScore=1.0;RD=30\tGT:RD\t0/1:30\n";
         assertThat(vcf, equalTo(expected));
     }
@@ -252,7 +257,8 @@ public void testWritePassVariants() {
         AnalysisResults analysisResults = buildAnalysisResults(fgfr2Gene);
 
         String vcf = instance.writeString(ModeOfInheritance.AUTOSOMAL_DOMINANT, analysis, analysisResults, settings);
-        String expected = EXPECTED_HEADER + CHR10_FGFR2_CONTRIBUTING_VARIANT + CHR10_FGFR2_PASS_VARIANT;
+        // the records of a gene are written in coordinate order
+        String expected = EXPECTED_HEADER + CHR10_FGFR2_PASS_VARIANT + CHR10_FGFR2_CONTRIBUTING_VARIANT;
         assertThat(vcf, equalTo(expected));
     }
 
@@ -386,4 +392,56 @@ public void testHomozygousAltAlleleOutputVcfContainsConcatenatedVariantScoresOnO
                 + "10\t123256215\t.\tT\tG,A\t100\t.\tExContribAltAllele=0;ExGeneSCombi=0.0;ExGeneSPheno=0.0;ExGeneSVar=0.0;ExGeneSymbId=2263;ExGeneSymbol=FGFR2;ExVarEff=frameshift_variant,missense_variant;ExVarHgvs=10:g.123256215T>G,10:g.123256215T>A;ExVarScore=1.0,0.6;GENE=FGFR2;INHERITANCE=AD;MIM=101600\tGT\t1/2\n";
         assertThat(output, equalTo(expected));
     }
+
+    @Test
+    public void testUnsupportedOutputFormat() {
+        assertThrows(IllegalArgumentException.class, () -> new VcfResultsWriter(OutputFormat.TSV_VARIANT));
+    }
+
+    @Test
+    public void testCompressedVcfRecordsAreWrittenInCoordinateOrder() {
+        fgfr2Gene.addVariant(fgfr2ContributingVariant);
+        // genes in rank order - FGFR2 is on chr10 so would normally be written before SHH on chr7
+        AnalysisResults analysisResults = buildAnalysisResults(fgfr2Gene, shhGene);
+
+        VcfResultsWriter compressedVcfWriter = new VcfResultsWriter(OutputFormat.VCF_GZ);
+        String vcf = compressedVcfWriter.writeString(ModeOfInheritance.ANY, analysis, analysisResults, settings);
+
+        // contigs missing from the input header are added so that the output can be indexed
+        assertThat(vcf, containsString("##contig=<ID=chr7"));
+        assertThat(vcf, containsString("##contig=<ID=chr10"));
+        assertThat(vcf, endsWith("sample\n"
+                + "chr7\t155604800\t.\tC\tCTT\t1\t.\tExGeneSCombi=0.0;ExGeneSPheno=0.0;ExGeneSVar=0.0;ExGeneSymbId=6469;ExGeneSymbol=SHH;ExVarEff=frameshift_variant;ExVarHgvs=7:g.155604800C>CTT;ExVarScore=1.0;RD=30\tGT:RD\t0/1:30\n"
+                + "chr10\t123256214\t.\tA\tG\t2.20\t.\tExGeneSCombi=0.0;ExGeneSPheno=0.0;ExGeneSVar=0.0;ExGeneSymbId=2263;ExGeneSymbol=FGFR2;ExVarEff=missense_variant;ExVarHgvs=10:g.123256214A>G;ExVarScore=0.89;RD=30\tGT:RD\t0/1:30\n"
+                + "chr10\t123256215\t.\tT\tG\t2.20\t.\tExGeneSCombi=0.0;ExGeneSPheno=0.0;ExGeneSVar=0.0;ExGeneSymbId=2263;ExGeneSymbol=FGFR2;ExVarEff=missense_variant;ExVarHgvs=10:g.123256215T>G;ExVarScore=1.0;RD=30\tGT:RD\t0/1:30\n"));
+    }
+
+    @Test
+    public void testWriteCompressedVcfFileWithTabixIndex() throws IOException {
+        fgfr2Gene.addVariant(fgfr2ContributingVariant);
+        AnalysisResults analysisResults = buildAnalysisResults(fgfr2Gene, shhGene);
+
+        Path outputDir = Files.createTempDirectory("exomiser_test");
+        OutputSettings compressedVcfSettings = OutputSettings.builder()
+                .outputFormats(EnumSet.of(OutputFormat.VCF_GZ))
+                .outputPrefix(outputDir.resolve("testWrite").toString())
+                .build();
+
+        VcfResultsWriter compressedVcfWriter = new VcfResultsWriter(OutputFormat.VCF_GZ);
+        compressedVcfWriter.writeFile(ModeOfInheritance.ANY, analysis, analysisResults, compressedVcfSettings);
+
+        Path vcfGzPath = outputDir.resolve("testWrite.vcf.gz");
+        Path tabixIndexPath = outputDir.resolve("testWrite.vcf.gz.tbi");
+        assertThat(Files.exists(vcfGzPath), is(true));
+        assertThat(Files.exists(tabixIndexPath), is(true));
+
+        try (VCFFileReader vcfFileReader = new VCFFileReader(vcfGzPath, true)) {
+            assertThat(vcfFileReader.query("chr10", 123256214, 123256215).stream().count(), equalTo(2L));
+            assertThat(vcfFileReader.query("chr7", 155604800, 155604800).stream().count(), equalTo(1L));
+        }
+
+        Files.delete(vcfGzPath);
+        Files.delete(tabixIndexPath);
+        Files.delete(outputDir);
+    }
 }
@@ -20,7 +20,9 @@
 
 package org.monarchinitiative.exomiser.data.genome;
 
+import org.monarchinitiative.exomiser.core.genome.Contig;
 import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.AllelePropertiesFormat;
 import org.monarchinitiative.exomiser.core.genome.jannovar.JannovarDataFactory;
 import org.monarchinitiative.exomiser.data.genome.model.AlleleResource;
 import org.monarchinitiative.exomiser.data.genome.model.BuildInfo;
@@ -32,10 +34,7 @@
 
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -76,6 +75,12 @@ public void run(ApplicationArguments args) throws Exception {
         // --version=1711
         // --resources=exac,gnomad-exome
         // --build-dir=
+        // --allele-filter-fpp=0.01
+        // --allele-format=compact or --allele-format=compact-float16 or --allele-format=protobuf
+        // --shard-chromosomes=all or --shard-chromosomes=1,2,X
+        // where specific chromosomes are given, only the stores for these chromosomes are rewritten and nothing else is
+        // built. If --resources is also given the stores are built directly from all of these resources, otherwise they
+        // are split from the existing variants.mv.db so that the allele filter continues to match them.
 
         if (!args.containsOption("assembly")){
             throw new IllegalArgumentException("Missing assembly argument");
@@ -98,6 +103,21 @@ public void run(ApplicationArguments args) throws Exception {
             Files.createDirectory(outPath);
         }
 
+        Set<Integer> shardChromosomes = args.containsOption("shard-chromosomes") ? getShardChromosomes(args) : Collections.emptySet();
+        if (!shardChromosomes.isEmpty()) {
+            List<AlleleResource> shardAlleleResources = Collections.emptyList();
+            if (args.containsOption("resources")) {
+                shardAlleleResources = getUserDefinedResources(args, getAlleleResourcesForAssembly(assembly));
+                logger.info("Downloading variant resources");
+                shardAlleleResources.parallelStream().forEach(AlleleResourceDownloader::download);
+            }
+            logger.info("Rewriting variant database for chromosomes {}...", shardChromosomes);
+            VariantStoreShardBuildRunner variantStoreShardBuildRunner = new VariantStoreShardBuildRunner(buildInfo, outPath, shardChromosomes, shardAlleleResources, getAllelePropertiesFormat(args));
+            variantStoreShardBuildRunner.run();
+            logger.info("Finished build {}", buildInfo.getBuildString());
+            return;
+        }
+
         logger.info("Building {}", buildInfo.getBuildString());
         Path genomePath = getGenomePathForAssembly(assembly);
         logger.info("Genome Path: {}", genomePath);
@@ -118,9 +138,17 @@ public void run(ApplicationArguments args) throws Exception {
         clinVarWhiteListBuildRunner.run();
 
         logger.info("Building variant database...");
-        VariantDatabaseBuildRunner variantDatabaseBuildRunner = new VariantDatabaseBuildRunner(buildInfo, outPath, userDefinedAlleleResources);
+        double alleleFilterFpp = getAlleleFilterFalsePositiveRate(args);
+        AllelePropertiesFormat allelePropertiesFormat = getAllelePropertiesFormat(args);
+        VariantDatabaseBuildRunner variantDatabaseBuildRunner = new VariantDatabaseBuildRunner(buildInfo, outPath, userDefinedAlleleResources, alleleFilterFpp, allelePropertiesFormat);
         variantDatabaseBuildRunner.run();
 
+        if (args.containsOption("shard-chromosomes")) {
+            logger.info("Splitting variant database by chromosome...");
+            VariantStoreShardBuildRunner variantStoreShardBuildRunner = new VariantStoreShardBuildRunner(buildInfo, outPath, Collections.emptySet());
+            variantStoreShardBuildRunner.run();
+        }
+
         logger.info("Building genome database...");
         GenomeDatabaseBuildRunner genomeDatabaseBuildRunner = new GenomeDatabaseBuildRunner(buildInfo, genomePath, outPath);
         genomeDatabaseBuildRunner.run();
@@ -128,6 +156,31 @@ public void run(ApplicationArguments args) throws Exception {
         logger.info("Finished build {}", buildInfo.getBuildString());
     }
 
+    private double getAlleleFilterFalsePositiveRate(ApplicationArguments args) {
+        if (args.containsOption("allele-filter-fpp")) {
+            return Double.parseDouble(args.getOptionValues("allele-filter-fpp").get(0));
+        }
+        return VariantDatabaseBuildRunner.DEFAULT_ALLELE_FILTER_FALSE_POSITIVE_RATE;
+    }
+
+    private AllelePropertiesFormat getAllelePropertiesFormat(ApplicationArguments args) {
+        if (args.containsOption("allele-format")) {
+            String format = args.getOptionValues("allele-format").get(0);
+            return AllelePropertiesFormat.valueOf(format.trim().toUpperCase().replace('-', '_'));
+        }
+        return VariantDatabaseBuildRunner.DEFAULT_ALLELE_PROPERTIES_FORMAT;
+    }
+
+    private Set<Integer> getShardChromosomes(ApplicationArguments args) {
+        List<String> values = args.getOptionValues("shard-chromosomes");
+        if (values.isEmpty() || values.get(0).isEmpty() || "all".equalsIgnoreCase(values.get(0))) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(values.get(0).split(","))
+                .map(Contig::parseId)
+                .collect(Collectors.toSet());
+    }
+
     private Path getGenomePathForAssembly(GenomeAssembly genomeAssembly) {
         return genomeAssembly == GenomeAssembly.HG19 ? this.hg19GenomePath : this.hg38GenomePath;
     }
@@ -27,7 +27,8 @@
 import htsjdk.tribble.index.tabix.TabixFormat;
 import htsjdk.tribble.index.tabix.TabixIndex;
 import htsjdk.tribble.readers.LineIterator;
-import org.monarchinitiative.exomiser.data.genome.indexers.AlleleIndexer;
+import org.monarchinitiative.exomiser.core.genome.dao.MemoryMappedVariantWhiteList;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
 import org.monarchinitiative.exomiser.data.genome.indexers.ClinVarWhiteListFileAlleleIndexer;
 import org.monarchinitiative.exomiser.data.genome.model.AlleleResource;
 import org.monarchinitiative.exomiser.data.genome.model.BuildInfo;
@@ -38,6 +39,8 @@
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Creates the standard variant whitelist from ClinVar data
@@ -67,13 +70,20 @@ public void run() {
         BlockCompressedOutputStream blockCompressedOutputStream = new BlockCompressedOutputStream(whiteListBgZipPath.toFile(), 6);
         OutputStreamWriter outputStreamWriter = new OutputStreamWriter(blockCompressedOutputStream);
 
+        List<AlleleKey> whiteListAlleleKeys = Collections.emptyList();
         try (BufferedWriter bgZipWriter = new BufferedWriter(outputStreamWriter)) {
-            AlleleIndexer alleleIndexer = new ClinVarWhiteListFileAlleleIndexer(bgZipWriter);
+            ClinVarWhiteListFileAlleleIndexer alleleIndexer = new ClinVarWhiteListFileAlleleIndexer(bgZipWriter);
             alleleIndexer.index(clinVarAlleleResource);
+            whiteListAlleleKeys = alleleIndexer.getAlleleKeys();
         } catch (IOException e) {
             logger.error("Unable to write bgzip. {}", e);
         }
 
+        // memory-mapped version of the whitelist, loaded in preference to the bgzip by the exomiser
+        Path whiteListBinaryPath = outPath.resolve(buildInfo.getBuildString() + "_clinvar_whitelist.bin");
+        logger.info("Writing {} whitelist alleles to {}", whiteListAlleleKeys.size(), whiteListBinaryPath);
+        MemoryMappedVariantWhiteList.write(whiteListAlleleKeys, whiteListBinaryPath);
+
         // use HTSJDK to create tabix index...
         Path whiteListIndexPath = outPath.resolve(whitelistFileName + ".tbi");
         try {
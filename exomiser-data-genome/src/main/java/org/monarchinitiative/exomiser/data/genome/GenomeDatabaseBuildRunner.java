@@ -24,6 +24,11 @@
 import org.apache.commons.io.FileUtils;
 import org.flywaydb.core.Flyway;
 import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.dao.GenomeRegionFiles;
+import org.monarchinitiative.exomiser.core.genome.dao.RegulatoryFeatureDao;
+import org.monarchinitiative.exomiser.core.genome.dao.TadDao;
+import org.monarchinitiative.exomiser.core.model.RegulatoryFeature;
+import org.monarchinitiative.exomiser.core.model.TopologicalDomain;
 import org.monarchinitiative.exomiser.data.genome.model.BuildInfo;
 import org.monarchinitiative.exomiser.data.genome.model.parsers.genome.EnsemblEnhancerParser;
 import org.monarchinitiative.exomiser.data.genome.model.parsers.genome.FantomEnhancerParser;
@@ -42,6 +47,7 @@
 import java.net.URLEncoder;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -86,10 +92,46 @@ public void run() {
 
         //build genome.h2.db
         Path databasePath = outputPath.resolve(String.format("%s_genome", buildInfo.getBuildString()));
-        DataSource dataSource = createDataSource(databasePath);
-        logger.info("Created database: {}", databasePath);
-        migrateDatabase(dataSource);
+        // closed before the database is re-opened read-only to write the region files
+        try (HikariDataSource dataSource = createDataSource(databasePath)) {
+            logger.info("Created database: {}", databasePath);
+            migrateDatabase(dataSource);
+        }
         logger.info("Finished importing genome data");
+
+        writeGenomeRegionFiles(databasePath);
+    }
+
+    /**
+     * Writes the TADs and regulatory features from the genome database to binary files so that these can be loaded
+     * by the exomiser without connecting to the database. The data is read using the same connection settings as the
+     * exomiser. Empty tables are not written so that the exomiser will fall back to the database.
+     */
+    private void writeGenomeRegionFiles(Path databasePath) {
+        String url = String.format("jdbc:h2:file:%s;MODE=PostgreSQL;SCHEMA=EXOMISER;DATABASE_TO_UPPER=FALSE;IFEXISTS=TRUE;ACCESS_MODE_DATA=r;", databasePath.toAbsolutePath());
+        try (HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username("sa")
+                .build()) {
+            Path tadsPath = outputPath.resolve(String.format("%s_tads.bin", buildInfo.getBuildString()));
+            List<TopologicalDomain> tads = new TadDao(dataSource).getAllTads();
+            if (tads.isEmpty()) {
+                logger.warn("No TADs found in genome database - not writing {}", tadsPath);
+            } else {
+                logger.info("Writing {} TADs to {}", tads.size(), tadsPath);
+                GenomeRegionFiles.writeTads(tads, tadsPath);
+            }
+
+            Path regulatoryFeaturesPath = outputPath.resolve(String.format("%s_regulatory_features.bin", buildInfo.getBuildString()));
+            List<RegulatoryFeature> regulatoryFeatures = new RegulatoryFeatureDao(dataSource).getRegulatoryFeatures();
+            if (regulatoryFeatures.isEmpty()) {
+                logger.warn("No regulatory features found in genome database - not writing {}", regulatoryFeaturesPath);
+            } else {
+                logger.info("Writing {} regulatory features to {}", regulatoryFeatures.size(), regulatoryFeaturesPath);
+                GenomeRegionFiles.writeRegulatoryFeatures(regulatoryFeatures, regulatoryFeaturesPath);
+            }
+        }
     }
 
     private String getMartQueryString(String martQueryResourcePath) {
@@ -139,7 +181,7 @@ private void downloadResource(URL source, Path destination) {
         }
     }
 
-    private DataSource createDataSource(Path databasePath) {
+    private HikariDataSource createDataSource(Path databasePath) {
         String initSql = "MODE=PostgreSQL;LOG=0;CACHE_SIZE=65536;LOCK_MODE=0;UNDO_LOG=0;MV_STORE=FALSE;";
         String url = String.format("jdbc:h2:file:%s;%s", databasePath.toAbsolutePath(), initSql);
         return DataSourceBuilder.create()
@@ -22,6 +22,8 @@
 
 import org.h2.mvstore.MVMap;
 import org.h2.mvstore.MVStore;
+import org.monarchinitiative.exomiser.core.genome.dao.AlleleKeyFilter;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.AllelePropertiesFormat;
 import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
 import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
 import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
@@ -35,6 +37,7 @@
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Main class for handling parsing of the {@link AlleleResource} and reading these into the variants.mv.db database.
@@ -45,14 +48,38 @@ public class VariantDatabaseBuildRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(VariantDatabaseBuildRunner.class);
 
+    public static final double DEFAULT_ALLELE_FILTER_FALSE_POSITIVE_RATE = 0.01;
+    public static final AllelePropertiesFormat DEFAULT_ALLELE_PROPERTIES_FORMAT = AllelePropertiesFormat.COMPACT;
+
     private final Path buildPath;
     private final BuildInfo buildInfo;
     private final List<AlleleResource> alleleResources;
+    private final double alleleFilterFalsePositiveRate;
+    private final AllelePropertiesFormat allelePropertiesFormat;
 
     public VariantDatabaseBuildRunner(BuildInfo buildInfo, Path buildPath, List<AlleleResource> alleleResources) {
+        this(buildInfo, buildPath, alleleResources, DEFAULT_ALLELE_FILTER_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * @param alleleFilterFalsePositiveRate false positive rate of the Bloom filter of the alleles written alongside
+     *                                      the variants database
+     * @since 12.1.0
+     */
+    public VariantDatabaseBuildRunner(BuildInfo buildInfo, Path buildPath, List<AlleleResource> alleleResources, double alleleFilterFalsePositiveRate) {
+        this(buildInfo, buildPath, alleleResources, alleleFilterFalsePositiveRate, DEFAULT_ALLELE_PROPERTIES_FORMAT);
+    }
+
+    /**
+     * @param allelePropertiesFormat format in which the allele properties are written to the final variants database
+     * @since 12.1.0
+     */
+    public VariantDatabaseBuildRunner(BuildInfo buildInfo, Path buildPath, List<AlleleResource> alleleResources, double alleleFilterFalsePositiveRate, AllelePropertiesFormat allelePropertiesFormat) {
         this.buildPath = buildPath;
         this.buildInfo = buildInfo;
         this.alleleResources = alleleResources;
+        this.alleleFilterFalsePositiveRate = alleleFilterFalsePositiveRate;
+        this.allelePropertiesFormat = allelePropertiesFormat;
     }
 
     public void run() {
@@ -79,6 +106,10 @@ public void run() {
         // will only contain one version of each allele. This leads to significant space savings on disk - e.g. 25 GB original
         // is only 12 GB when the final version is copied over. This operation takes about 40 min for 0.5 billion alleles.
         copyToNewInstance(mergeStore, finalStore);
+        // identifies this build of the store, so that a filter from a different build will not be used with it
+        MvStoreUtil.setBuildId(finalStore, UUID.randomUUID().toString());
+
+        writeAlleleFilter(finalStore, buildPath.resolve(buildInfo.getBuildString() + "_variants.bloom"));
 
         mergeStore.close();
         finalStore.close();
@@ -87,9 +118,9 @@ public void run() {
     private void copyToNewInstance(MVStore mvStore, MVStore newStore) {
         MVMap<AlleleKey, AlleleProperties> map = MvStoreUtil.openAlleleMVMap(mvStore);
 
-        MVMap<AlleleKey, AlleleProperties> newMap = MvStoreUtil.openAlleleMVMap(newStore);
+        MVMap<AlleleKey, AlleleProperties> newMap = MvStoreUtil.openAlleleMVMap(newStore, allelePropertiesFormat);
 
-        logger.info("Copying {} entries from temp store {} to final store {}", map.size(), mvStore.getFileStore().getFileName(), newStore.getFileStore().getFileName());
+        logger.info("Copying {} entries from temp store {} to final store {} in {} format", map.size(), mvStore.getFileStore().getFileName(), newStore.getFileStore().getFileName(), allelePropertiesFormat);
         int count = 0;
         for (Map.Entry<AlleleKey, AlleleProperties> entry : map.entrySet()) {
             newMap.put(entry.getKey(), entry.getValue());
@@ -100,4 +131,16 @@ private void copyToNewInstance(MVStore mvStore, MVStore newStore) {
         }
         logger.info("Finished copying {} entries to new map", newMap.size());
     }
+
+    private void writeAlleleFilter(MVStore mvStore, Path alleleFilterPath) {
+        MVMap<AlleleKey, AlleleProperties> map = MvStoreUtil.openAlleleMVMap(mvStore);
+        AlleleKeyFilter.Fingerprint fingerprint = AlleleKeyFilter.Fingerprint.of(map.sizeAsLong(), MvStoreUtil.getBuildId(mvStore));
+        logger.info("Writing filter of {} alleles with false positive rate {} to {}", map.sizeAsLong(), alleleFilterFalsePositiveRate, alleleFilterPath);
+        AlleleKeyFilter alleleKeyFilter = AlleleKeyFilter.create(alleleFilterPath, fingerprint, alleleFilterFalsePositiveRate);
+        for (AlleleKey alleleKey : map.keySet()) {
+            alleleKeyFilter.put(alleleKey);
+        }
+        alleleKeyFilter.flush();
+        logger.info("Finished writing allele filter {}", alleleKeyFilter);
+    }
 }
@@ -0,0 +1,218 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.data.genome;
+
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.monarchinitiative.exomiser.core.genome.dao.VariantStoreManifest;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.AllelePropertiesFormat;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.exomiser.data.genome.indexers.AlleleIndexer;
+import org.monarchinitiative.exomiser.data.genome.indexers.MvStoreAlleleIndexer;
+import org.monarchinitiative.exomiser.data.genome.model.AlleleResource;
+import org.monarchinitiative.exomiser.data.genome.model.BuildInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Splits the variants.mv.db built by the {@link VariantDatabaseBuildRunner} into one store per chromosome and writes a
+ * {@link VariantStoreManifest} describing them. Where only some chromosomes are specified, only the stores for those
+ * chromosomes are rewritten and the existing manifest is updated, leaving the other chromosomes untouched.
+ * <p>
+ * When allele resources are supplied the stores for the specified chromosomes are instead built directly from these
+ * resources, so that a single chromosome can be rebuilt when a resource changes without rebuilding the whole of the
+ * variants.mv.db. All the resources for the chromosome need to be supplied as the store is rebuilt from scratch. Note
+ * that each resource is still read in full, only the alleles on the specified chromosomes are written.
+ * <p>
+ * Each shard is recorded in the manifest with the build id of the store it was written from. The allele filter is
+ * built from the variants.mv.db, so it is only used with the shards when they all share its build id. Shards built
+ * from the allele resources are given a new build id, as are any remaining chromosomes split from an earlier build, so
+ * the allele filter will not be used until all chromosomes are rewritten from the same variants.mv.db.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class VariantStoreShardBuildRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(VariantStoreShardBuildRunner.class);
+
+    private final Path buildPath;
+    private final BuildInfo buildInfo;
+    private final Set<Integer> chromosomes;
+    private final List<AlleleResource> alleleResources;
+    private final AllelePropertiesFormat allelePropertiesFormat;
+
+    /**
+     * @param chromosomes the chromosome ids of the stores to be written. An empty set will write all chromosomes.
+     */
+    public VariantStoreShardBuildRunner(BuildInfo buildInfo, Path buildPath, Set<Integer> chromosomes) {
+        this(buildInfo, buildPath, chromosomes, Collections.emptyList(), VariantDatabaseBuildRunner.DEFAULT_ALLELE_PROPERTIES_FORMAT);
+    }
+
+    /**
+     * @param chromosomes            the chromosome ids of the stores to be built from the allele resources
+     * @param alleleResources        the resources from which to build the stores. An empty list will split the stores
+     *                               from the existing variants.mv.db
+     * @param allelePropertiesFormat format in which the allele properties are written when building from the allele
+     *                               resources
+     * @throws IllegalArgumentException if allele resources are supplied without any chromosomes
+     */
+    public VariantStoreShardBuildRunner(BuildInfo buildInfo, Path buildPath, Set<Integer> chromosomes, List<AlleleResource> alleleResources, AllelePropertiesFormat allelePropertiesFormat) {
+        if (!alleleResources.isEmpty() && chromosomes.isEmpty()) {
+            throw new IllegalArgumentException("Chromosomes must be specified to build stores from the allele resources - use the VariantDatabaseBuildRunner to build all chromosomes");
+        }
+        this.buildPath = buildPath;
+        this.buildInfo = buildInfo;
+        this.chromosomes = new TreeSet<>(chromosomes);
+        this.alleleResources = new ArrayList<>(alleleResources);
+        this.allelePropertiesFormat = allelePropertiesFormat;
+    }
+
+    public void run() {
+        if (alleleResources.isEmpty()) {
+            splitVariantStore();
+        } else {
+            buildFromAlleleResources();
+        }
+    }
+
+    private void splitVariantStore() {
+        Path variantStorePath = buildPath.resolve(buildInfo.getBuildString() + "_variants.mv.db");
+        if (!Files.exists(variantStorePath)) {
+            throw new IllegalStateException("Unable to split variants store " + variantStorePath + " as it does not exist - run a full build first");
+        }
+
+        MVStore variantStore = new MVStore.Builder()
+                .fileName(variantStorePath.toString())
+                .readOnly()
+                .open();
+        MVMap<AlleleKey, AlleleProperties> alleles = MvStoreUtil.openAlleleMVMap(variantStore);
+        AllelePropertiesFormat variantStoreFormat = MvStoreUtil.getAllelePropertiesFormat(variantStore);
+        String buildId = MvStoreUtil.getBuildId(variantStore);
+
+        Set<Integer> chromosomesToWrite = chromosomes.isEmpty() ? findChromosomes(alleles) : chromosomes;
+        List<VariantStoreManifest.Shard> shards = new ArrayList<>();
+        for (int chr : chromosomesToWrite) {
+            // the shards are written in the same format as the original store
+            shards.add(writeShard(alleles, variantStoreFormat, buildId, chr));
+        }
+        variantStore.close();
+        writeManifest(shards);
+    }
+
+    private void buildFromAlleleResources() {
+        Path tempStorePath = buildPath.resolve(buildInfo.getBuildString() + "_variants_shard_temp.mv.db");
+        deleteIfExists(tempStorePath);
+        MVStore tempStore = new MVStore.Builder()
+                .fileName(tempStorePath.toString())
+                .compress()
+                .open();
+        logger.info("Building stores for chromosomes {} from resources {}", chromosomes, alleleResources.stream().map(AlleleResource::getName).collect(toList()));
+        AlleleIndexer alleleIndexer = new MvStoreAlleleIndexer(tempStore, chromosomes);
+        alleleResources.forEach(alleleIndexer::index);
+
+        MVMap<AlleleKey, AlleleProperties> alleles = MvStoreUtil.openAlleleMVMap(tempStore);
+        // these are no longer from the same build as the variants.mv.db, so will not be used with its allele filter
+        String buildId = UUID.randomUUID().toString();
+        List<VariantStoreManifest.Shard> shards = new ArrayList<>();
+        for (int chr : chromosomes) {
+            shards.add(writeShard(alleles, allelePropertiesFormat, buildId, chr));
+        }
+        tempStore.close();
+        deleteIfExists(tempStorePath);
+        writeManifest(shards);
+    }
+
+    private void writeManifest(List<VariantStoreManifest.Shard> shards) {
+        Path manifestPath = buildPath.resolve(buildInfo.getBuildString() + "_variants.manifest");
+        VariantStoreManifest manifest = VariantStoreManifest.of(shards);
+        if (!chromosomes.isEmpty() && Files.exists(manifestPath)) {
+            manifest = VariantStoreManifest.read(manifestPath).withShards(shards);
+        }
+        manifest.write(manifestPath);
+        logger.info("Written manifest of {} chromosome stores containing {} alleles to {}", manifest.getShards().size(), manifest.getNumAlleles(), manifestPath);
+        if (!manifest.getBuildId().isPresent()) {
+            logger.warn("Chromosome stores in {} were written from different builds. The allele filter will not be used with these stores until all chromosomes are rewritten from the same variants store", manifestPath);
+        }
+    }
+
+    private Set<Integer> findChromosomes(MVMap<AlleleKey, AlleleProperties> alleles) {
+        // the keys are sorted by chromosome, so step through them one chromosome at a time
+        Set<Integer> found = new TreeSet<>();
+        AlleleKey key = alleles.firstKey();
+        while (key != null) {
+            found.add(key.getChr());
+            key = alleles.ceilingKey(chromosomeStart(key.getChr() + 1));
+        }
+        return found;
+    }
+
+    private VariantStoreManifest.Shard writeShard(MVMap<AlleleKey, AlleleProperties> alleles, AllelePropertiesFormat allelePropertiesFormat, String buildId, int chr) {
+        String fileName = String.format("%s_variants_chr%d.mv.db", buildInfo.getBuildString(), chr);
+        Path shardPath = buildPath.resolve(fileName);
+        deleteIfExists(shardPath);
+        logger.info("Writing alleles for chromosome {} to {}", chr, shardPath);
+
+        MVStore shardStore = new MVStore.Builder()
+                .fileName(shardPath.toString())
+                .compress()
+                .open();
+        MVMap<AlleleKey, AlleleProperties> shardAlleles = MvStoreUtil.openAlleleMVMap(shardStore, allelePropertiesFormat);
+        MvStoreUtil.setBuildId(shardStore, buildId);
+        long count = 0;
+        Cursor<AlleleKey, AlleleProperties> cursor = alleles.cursor(chromosomeStart(chr));
+        while (cursor.hasNext()) {
+            AlleleKey alleleKey = cursor.next();
+            if (alleleKey.getChr() != chr) {
+                break;
+            }
+            shardAlleles.put(alleleKey, cursor.getValue());
+            count++;
+        }
+        shardStore.close();
+        logger.info("Written {} alleles for chromosome {}", count, chr);
+        return VariantStoreManifest.Shard.of(chr, fileName, count, buildId);
+    }
+
+    private static AlleleKey chromosomeStart(int chr) {
+        return AlleleKey.newBuilder().setChr(chr).setPosition(0).setRef("").setAlt("").build();
+    }
+
+    private static void deleteIfExists(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to delete existing store " + path, e);
+        }
+    }
+}
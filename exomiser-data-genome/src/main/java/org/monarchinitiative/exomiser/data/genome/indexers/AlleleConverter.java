@@ -20,6 +20,7 @@
 
 package org.monarchinitiative.exomiser.data.genome.indexers;
 
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.CompactAllelePropertiesDataType;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.ClinVarData;
 import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
 import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
@@ -48,11 +49,15 @@ public static AlleleKey toAlleleKey(Allele allele) {
     }
 
     public static AlleleProperties mergeProperties(AlleleProperties originalProperties, AlleleProperties properties) {
-        String updatedRsId = (originalProperties.getRsId()
-                .isEmpty()) ? properties.getRsId() : originalProperties.getRsId();
+        // protobuf merging would concatenate the property_values and overwrite the property_mask of properties read
+        // in the compact format, so these are moved into the properties map first
+        AlleleProperties expandedOriginalProperties = CompactAllelePropertiesDataType.expandPropertyMask(originalProperties);
+        AlleleProperties expandedProperties = CompactAllelePropertiesDataType.expandPropertyMask(properties);
+        String updatedRsId = (expandedOriginalProperties.getRsId()
+                .isEmpty()) ? expandedProperties.getRsId() : expandedOriginalProperties.getRsId();
         return AlleleProperties.newBuilder()
-                .mergeFrom(originalProperties)
-                .mergeFrom(properties)
+                .mergeFrom(expandedOriginalProperties)
+                .mergeFrom(expandedProperties)
                 //original rsid would have been overwritten by the new one - we don't necessarily want that, so re-set it now.
                 .setRsId(updatedRsId)
                 .build();
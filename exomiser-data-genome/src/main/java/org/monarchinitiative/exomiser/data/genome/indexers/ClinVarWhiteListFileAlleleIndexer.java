@@ -21,12 +21,16 @@
 package org.monarchinitiative.exomiser.data.genome.indexers;
 
 import org.monarchinitiative.exomiser.core.model.pathogenicity.ClinVarData;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
 import org.monarchinitiative.exomiser.data.genome.model.Allele;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.StringJoiner;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -41,6 +45,8 @@ public class ClinVarWhiteListFileAlleleIndexer extends AbstractAlleleIndexer {
 
     private final BufferedWriter bufferedWriter;
     private final AtomicLong count = new AtomicLong(0);
+    // retained for writing the binary whitelist
+    private final List<AlleleKey> alleleKeys = Collections.synchronizedList(new ArrayList<>());
 
     public ClinVarWhiteListFileAlleleIndexer(BufferedWriter bufferedWriter) {
         this.bufferedWriter = bufferedWriter;
@@ -66,10 +72,26 @@ public void writeAllele(Allele allele) {
                 logger.error("Unable to write to allele index file", ex);
                 throw new RuntimeException(ex);
             }
+            alleleKeys.add(AlleleKey.newBuilder()
+                    .setChr(allele.getChr())
+                    .setPosition(allele.getPos())
+                    .setRef(allele.getRef())
+                    .setAlt(allele.getAlt())
+                    .build());
             count.incrementAndGet();
         }
     }
 
+    /**
+     * @return the keys of the whitelisted alleles written so far
+     * @since 12.1.0
+     */
+    public List<AlleleKey> getAlleleKeys() {
+        synchronized (alleleKeys) {
+            return new ArrayList<>(alleleKeys);
+        }
+    }
+
     private boolean hasAssertionCriteria(ClinVarData clinVarData) {
         // maps to the CLNREVSTAT subfield in the VCF INFO. Many alleles with 'no_assertion_criteria_provided'
         // or 'no_assertion_provided' have incredibly high MAF, some even as high as 98% in some populations.
@@ -27,6 +27,10 @@
 import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
 import org.monarchinitiative.exomiser.data.genome.model.Allele;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * {@link MVStore} backed {@link AlleleIndexer} implementation.
  *
@@ -36,14 +40,27 @@ public class MvStoreAlleleIndexer extends AbstractAlleleIndexer {
 
     private final MVStore mvStore;
     private final MVMap<AlleleKey, AlleleProperties> map;
+    private final Set<Integer> chromosomes;
 
     public MvStoreAlleleIndexer(MVStore mvStore) {
+        this(mvStore, Collections.emptySet());
+    }
+
+    /**
+     * @param chromosomes the chromosome ids of the alleles to be written. An empty set will write all alleles.
+     * @since 12.1.0
+     */
+    public MvStoreAlleleIndexer(MVStore mvStore, Set<Integer> chromosomes) {
         this.mvStore = mvStore;
         this.map = MvStoreUtil.openAlleleMVMap(mvStore);
+        this.chromosomes = new HashSet<>(chromosomes);
     }
 
     @Override
     public void writeAllele(Allele allele) {
+        if (!chromosomes.isEmpty() && !chromosomes.contains(allele.getChr())) {
+            return;
+        }
         AlleleKey key = AlleleConverter.toAlleleKey(allele);
         AlleleProperties properties = AlleleConverter.toAlleleProperties(allele);
         map.merge(key, properties, AlleleConverter::mergeProperties);
@@ -103,6 +103,31 @@ public void mergeProperties() {
         assertThat(AlleleConverter.mergeProperties(ALLELE_PROPERTIES, toMerge), equalTo(expected));
     }
 
+    @Test
+    public void mergePropertiesExpandsPropertyMask() {
+        // as read from a store in the compact format - KG and TOPMED
+        AlleleProperties original = AlleleProperties.newBuilder()
+                .setRsId("rs678910")
+                .setPropertyMask(0b11L)
+                .addPropertyValues(0.01f)
+                .addPropertyValues(0.04f)
+                .build();
+        AlleleProperties toMerge = AlleleProperties.newBuilder()
+                .setPropertyMask(0b10L)
+                .addPropertyValues(0.05f)
+                .putProperties("POLYPHEN", 1f)
+                .build();
+
+        AlleleProperties expected = AlleleProperties.newBuilder()
+                .setRsId("rs678910")
+                .putProperties("KG", 0.01f)
+                .putProperties("TOPMED", 0.05f)
+                .putProperties("POLYPHEN", 1f)
+                .build();
+
+        assertThat(AlleleConverter.mergeProperties(original, toMerge), equalTo(expected));
+    }
+
     @Test
     public void mergePropertiesUsesOriginalRsidWhenPresent() {
         AlleleProperties toMerge = AlleleProperties.newBuilder()
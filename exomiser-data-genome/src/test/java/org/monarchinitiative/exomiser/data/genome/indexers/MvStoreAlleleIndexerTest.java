@@ -128,6 +128,24 @@ public void writeSingleAlleleNoInfo() throws Exception {
         assertThat(alleleMap.get(alleleKey), equalTo(alleleProperties));
     }
 
+    @Test
+    public void writesOnlyAllelesOnSpecifiedChromosomes() throws Exception {
+        MVStore mvStore = newMvStore();
+
+        MvStoreAlleleIndexer instance = new MvStoreAlleleIndexer(mvStore, Collections.singleton(2));
+
+        Allele chr1Allele = new Allele(1, 12345, "A", "T");
+        instance.writeAllele(chr1Allele);
+        Allele chr2Allele = new Allele(2, 12345, "A", "T");
+        instance.writeAllele(chr2Allele);
+
+        assertThat(instance.count(), equalTo(1L));
+
+        MVMap<AlleleKey, AlleleProperties> alleleMap = mvStore.openMap("alleles");
+        assertThat(alleleMap.containsKey(AlleleConverter.toAlleleKey(chr1Allele)), is(false));
+        assertThat(alleleMap.containsKey(AlleleConverter.toAlleleKey(chr2Allele)), is(true));
+    }
+
     @Test
     public void writeSingleAlleleWithJustRsId() throws Exception {
         MVStore mvStore = newMvStore();
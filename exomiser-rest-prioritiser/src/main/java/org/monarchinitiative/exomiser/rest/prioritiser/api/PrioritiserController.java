@@ -20,6 +20,7 @@
 
 package org.monarchinitiative.exomiser.rest.prioritiser.api;
 
+import com.google.common.collect.ImmutableList;
 import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.GeneIdentifier;
@@ -41,7 +42,6 @@
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
@@ -56,15 +56,19 @@ public class PrioritiserController {
     private static final Logger logger = LoggerFactory.getLogger(PrioritiserController.class);
 
     private final PriorityFactory priorityFactory;
-    private final Map<Integer, GeneIdentifier> geneIdentifiers;
+    // Prioritiser.prioritise only reads the genes, so these are created once and shared between requests. They must
+    // never be passed to Prioritiser.prioritizeGenes, which adds the results to the genes.
+    private final Map<Integer, Gene> genes;
+    private final List<Gene> allGenes;
 
     @Autowired
     public PrioritiserController(PriorityFactory priorityFactory, GenomeAnalysisService hg38GenomeAnalysisService) {
         this.priorityFactory = priorityFactory;
-        this.geneIdentifiers = hg38GenomeAnalysisService.getKnownGeneIdentifiers().stream()
+        this.genes = hg38GenomeAnalysisService.getKnownGeneIdentifiers().stream()
                 .filter(GeneIdentifier::hasEntrezId)
-                .collect(toImmutableMap(GeneIdentifier::getEntrezIdAsInteger, Function.identity()));
-        logger.info("Created GeneIdentifier cache with {} entries", geneIdentifiers.size());
+                .collect(toImmutableMap(GeneIdentifier::getEntrezIdAsInteger, Gene::new));
+        this.allGenes = ImmutableList.copyOf(genes.values());
+        logger.info("Created Gene cache with {} entries", genes.size());
     }
 
     @GetMapping(value = "about")
@@ -124,20 +128,17 @@ private List<Gene> makeGenesFromIdentifiers(List<Integer> genesIds) {
         if (genesIds.isEmpty()) {
             logger.info("Gene identifiers not specified - will compare against all known genes.");
             //If not specified, we'll assume they want to use the whole genome. Should save people a lot of typing.
-            //n.b. Gene is mutable so these can't be cached and returned.
-            return geneIdentifiers.values().parallelStream()
-                    .map(Gene::new)
-                    .collect(toImmutableList());
+            return allGenes;
         }
         // This is a hack - really the Prioritiser should only work on GeneIds, but currently this isn't possible as
         // OmimPrioritiser uses some properties of Gene
         return genesIds.stream()
-                .map(id -> new Gene(geneIdentifiers.getOrDefault(id, unrecognisedGeneIdentifier(id))))
+                .map(id -> genes.getOrDefault(id, unrecognisedGene(id)))
                 .collect(toImmutableList());
     }
 
-    private GeneIdentifier unrecognisedGeneIdentifier(Integer id) {
-        return GeneIdentifier.builder().geneSymbol("GENE:" + id).build();
+    private Gene unrecognisedGene(Integer id) {
+        return new Gene(GeneIdentifier.builder().geneSymbol("GENE:" + id).build());
     }
 
     private List<PriorityResult> runLimitAndCollectResults(Prioritiser prioritiser, List<String> phenotypes, List<Gene> genes, int limit) {
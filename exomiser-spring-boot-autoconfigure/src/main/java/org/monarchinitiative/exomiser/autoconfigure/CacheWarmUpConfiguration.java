@@ -0,0 +1,269 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.monarchinitiative.exomiser.autoconfigure.genome.GenomeAnalysisServiceConfigurer;
+import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisServiceProvider;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.VariantDataService;
+import org.monarchinitiative.exomiser.core.genome.VariantDataWarmer;
+import org.monarchinitiative.exomiser.core.phenotype.Organism;
+import org.monarchinitiative.exomiser.core.phenotype.service.OntologyService;
+import org.monarchinitiative.exomiser.core.prioritisers.service.PriorityService;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.util.ClassUtils;
+
+import javax.annotation.PreDestroy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Optionally warms-up the variant data and phenotype caches in the background once the application context has
+ * started, so that the first analyses do not pay the full cost of loading the data from disk. Variant data is loaded
+ * for the alleles listed in the exomiser.hg19.cache-warm-up-path and exomiser.hg38.cache-warm-up-path files, which can
+ * be created by specifying the exomiser.hg19.cache-hot-keys-path and exomiser.hg38.cache-hot-keys-path. These files
+ * are written on shutdown with the alleles held in the variant data caches.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+@Configuration
+public class CacheWarmUpConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmUpConfiguration.class);
+
+    private static final boolean CAFFEINE_PRESENT = ClassUtils.isPresent("com.github.benmanes.caffeine.cache.Cache", CacheWarmUpConfiguration.class.getClassLoader());
+
+    private final ExomiserProperties exomiserProperties;
+    private final ObjectProvider<GenomeAnalysisServiceConfigurer> genomeAnalysisServiceConfigurers;
+    private final ObjectProvider<GenomeAnalysisServiceProvider> genomeAnalysisServiceProvider;
+    private final ObjectProvider<PriorityService> priorityService;
+    private final ObjectProvider<OntologyService> ontologyService;
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    // resolved on start-up as the beans may no longer be available once the context is closing
+    private List<GenomeAnalysisServiceConfigurer> configurers = Collections.emptyList();
+    private CacheManager springCacheManager;
+    private ThreadPoolExecutor executor;
+
+    public CacheWarmUpConfiguration(ExomiserProperties exomiserProperties, ObjectProvider<GenomeAnalysisServiceConfigurer> genomeAnalysisServiceConfigurers, ObjectProvider<GenomeAnalysisServiceProvider> genomeAnalysisServiceProvider, ObjectProvider<PriorityService> priorityService, ObjectProvider<OntologyService> ontologyService, ObjectProvider<CacheManager> cacheManager) {
+        this.exomiserProperties = exomiserProperties;
+        this.genomeAnalysisServiceConfigurers = genomeAnalysisServiceConfigurers;
+        this.genomeAnalysisServiceProvider = genomeAnalysisServiceProvider;
+        this.priorityService = priorityService;
+        this.ontologyService = ontologyService;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Starts the warm-up on a bounded pool of daemon threads. This is triggered by the context refresh rather than the
+     * application being ready, as command line runners are called before the latter.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void warmUpCaches() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        configurers = genomeAnalysisServiceConfigurers.orderedStream().collect(Collectors.toList());
+        springCacheManager = cacheManager.getIfAvailable();
+
+        List<Runnable> tasks = new ArrayList<>();
+        GenomeAnalysisServiceProvider serviceProvider = genomeAnalysisServiceProvider.getIfAvailable();
+        if (serviceProvider != null) {
+            for (GenomeAssembly assembly : serviceProvider.getProvidedAssemblies()) {
+                String warmUpPath = cacheWarmUpPath(assembly);
+                if (!warmUpPath.isEmpty()) {
+                    VariantDataService variantDataService = serviceProvider.get(assembly);
+                    tasks.add(() -> warmUpVariantData(assembly, variantDataService, Paths.get(warmUpPath)));
+                }
+            }
+        }
+        if (exomiserProperties.getPhenotype().isCacheWarmUp()) {
+            tasks.add(this::warmUpPhenotypeData);
+        }
+        if (tasks.isEmpty()) {
+            return;
+        }
+        int numThreads = Math.max(1, exomiserProperties.getCacheWarmUpThreads());
+        logger.info("Warming-up caches using {} threads", numThreads);
+        executor = new ThreadPoolExecutor(numThreads, numThreads, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), warmUpThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        tasks.forEach(executor::execute);
+    }
+
+    private static ThreadFactory warmUpThreadFactory() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "cache-warm-up-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+    }
+
+    /**
+     * Reads the alleles and splits them between the warm-up threads.
+     */
+    private void warmUpVariantData(GenomeAssembly assembly, VariantDataService variantDataService, Path allelesPath) {
+        if (!Files.isReadable(allelesPath)) {
+            logger.warn("Unable to warm-up {} variant data cache - cannot read {}", assembly, allelesPath);
+            return;
+        }
+        List<AlleleKey> alleleKeys = VariantDataWarmer.readAlleleKeys(allelesPath);
+        logger.info("Warming-up {} variant data cache with {} alleles from {}", assembly, alleleKeys.size(), allelesPath);
+        VariantDataWarmer variantDataWarmer = new VariantDataWarmer(variantDataService, assembly);
+        int numPartitions = Math.max(1, exomiserProperties.getCacheWarmUpThreads());
+        int partitionSize = Math.max(1, (alleleKeys.size() + numPartitions - 1) / numPartitions);
+        AtomicInteger remaining = new AtomicInteger((alleleKeys.size() + partitionSize - 1) / partitionSize);
+        AtomicInteger numWarmed = new AtomicInteger();
+        Instant start = Instant.now();
+        for (int from = 0; from < alleleKeys.size(); from += partitionSize) {
+            List<AlleleKey> partition = alleleKeys.subList(from, Math.min(from + partitionSize, alleleKeys.size()));
+            try {
+                executor.execute(() -> {
+                    numWarmed.addAndGet(variantDataWarmer.warmUp(partition));
+                    if (remaining.decrementAndGet() == 0) {
+                        logger.info("Finished warming-up {} variant data cache with {} alleles in {} ms", assembly, numWarmed.get(), Duration.between(start, Instant.now()).toMillis());
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                logger.debug("Stopped warming-up {} variant data cache as the application is shutting down", assembly);
+                return;
+            }
+        }
+    }
+
+    private void warmUpPhenotypeData() {
+        Instant start = Instant.now();
+        OntologyService ontologyServiceBean = ontologyService.getIfAvailable();
+        if (ontologyServiceBean != null) {
+            ontologyServiceBean.getHpoTerms();
+            ontologyServiceBean.getMpoTerms();
+            ontologyServiceBean.getZpoTerms();
+        }
+        PriorityService priorityServiceBean = priorityService.getIfAvailable();
+        if (priorityServiceBean != null) {
+            for (Organism organism : Organism.values()) {
+                priorityServiceBean.getModelsForOrganism(organism);
+            }
+        }
+        logger.info("Finished warming-up phenotype caches in {} ms", Duration.between(start, Instant.now()).toMillis());
+    }
+
+    /**
+     * Writes the alleles held in the variant data caches to the exomiser.hg19.cache-hot-keys-path and
+     * exomiser.hg38.cache-hot-keys-path files, where specified.
+     */
+    @PreDestroy
+    public void exportHotKeys() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (GenomeAnalysisServiceConfigurer configurer : configurers) {
+            GenomeAssembly assembly = configurer.getGenomeAssembly();
+            String hotKeysPath = cacheHotKeysPath(assembly);
+            if (hotKeysPath.isEmpty()) {
+                continue;
+            }
+            Set<AlleleKey> hotKeys = new LinkedHashSet<>(configurer.getCachedAlleleKeys());
+            hotKeys.addAll(springCacheAlleleKeys(assembly + ".allele"));
+            try {
+                VariantDataWarmer.writeAlleleKeys(Paths.get(hotKeysPath), hotKeys);
+                logger.info("Written {} {} cached alleles to {}", hotKeys.size(), assembly, hotKeysPath);
+            } catch (RuntimeException e) {
+                logger.warn("Unable to write {} cached alleles to {}", assembly, hotKeysPath, e);
+            }
+        }
+    }
+
+    /**
+     * Only the entries cached by {@link org.monarchinitiative.exomiser.core.model.Variant} are keyed by an
+     * {@link AlleleKey}, so the remaining entries are ignored.
+     */
+    private Set<AlleleKey> springCacheAlleleKeys(String cacheName) {
+        if (springCacheManager == null) {
+            return Collections.emptySet();
+        }
+        org.springframework.cache.Cache cache = springCacheManager.getCache(cacheName);
+        if (cache == null) {
+            return Collections.emptySet();
+        }
+        Collection<?> keys = nativeCacheKeys(cache.getNativeCache());
+        Set<AlleleKey> alleleKeys = new LinkedHashSet<>();
+        for (Object key : keys) {
+            if (key instanceof AlleleKey) {
+                alleleKeys.add((AlleleKey) key);
+            }
+        }
+        return alleleKeys;
+    }
+
+    private static Collection<?> nativeCacheKeys(Object nativeCache) {
+        if (nativeCache instanceof Map) {
+            return new ArrayList<>(((Map<?, ?>) nativeCache).keySet());
+        }
+        if (CAFFEINE_PRESENT) {
+            return CaffeineKeys.keys(nativeCache);
+        }
+        logger.debug("Unable to read the keys of cache {}", nativeCache.getClass().getName());
+        return Collections.emptyList();
+    }
+
+    private String cacheWarmUpPath(GenomeAssembly assembly) {
+        return assembly == GenomeAssembly.HG38 ? exomiserProperties.getHg38().getCacheWarmUpPath() : exomiserProperties.getHg19().getCacheWarmUpPath();
+    }
+
+    private String cacheHotKeysPath(GenomeAssembly assembly) {
+        return assembly == GenomeAssembly.HG38 ? exomiserProperties.getHg38().getCacheHotKeysPath() : exomiserProperties.getHg19().getCacheHotKeysPath();
+    }
+
+    // Caffeine is optional, so it is only referenced from here to prevent it being loaded when it is not present
+    private static class CaffeineKeys {
+
+        private static Collection<?> keys(Object nativeCache) {
+            if (nativeCache instanceof Cache) {
+                return new ArrayList<>(((Cache<?, ?>) nativeCache).asMap().keySet());
+            }
+            return Collections.emptyList();
+        }
+    }
+}
@@ -24,8 +24,11 @@
 import org.monarchinitiative.exomiser.autoconfigure.phenotype.PrioritiserAutoConfiguration;
 import org.monarchinitiative.exomiser.core.Exomiser;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisFactory;
+import org.monarchinitiative.exomiser.core.analysis.util.GeneWorkerPool;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -38,9 +41,19 @@
 @EnableConfigurationProperties({ExomiserProperties.class})
 @Import({
         PrioritiserAutoConfiguration.class,
-        GenomeAnalysisServiceAutoConfiguration.class
+        GenomeAnalysisServiceAutoConfiguration.class,
+        CacheWarmUpConfiguration.class
 })
 @ComponentScan(basePackageClasses = {Exomiser.class}, basePackages = {"org.monarchinitiative.exomiser.core.analysis"})
 public class ExomiserAutoConfiguration {
 
+    /**
+     * Optionally configure the number of threads used to analyse and score the genes using the
+     * exomiser.gene-analysis-threads property.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public GeneWorkerPool geneWorkerPool(ExomiserProperties exomiserProperties) {
+        return GeneWorkerPool.of(exomiserProperties.getGeneAnalysisThreads());
+    }
 }
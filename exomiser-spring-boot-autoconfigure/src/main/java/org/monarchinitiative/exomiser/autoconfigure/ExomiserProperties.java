@@ -37,6 +37,27 @@ public class ExomiserProperties {
 
     private String workingDirectory;
 
+    /**
+     * Number of threads used for the per-gene inheritance mode analysis and gene scoring. Defaults to 1.
+     */
+    private int geneAnalysisThreads = 1;
+
+    /**
+     * Optional path of a file used to cache the variant data between runs. Defaults to empty, which disables the
+     * cache. Only one process can use the file at any one time.
+     */
+    private String variantCachePath = "";
+
+    /**
+     * Maximum number of alleles held in the variant cache file for each data source and genome assembly.
+     */
+    private long variantCacheMaxEntries = 10_000_000L;
+
+    /**
+     * Number of background threads used to warm-up the caches on start-up. Defaults to 2.
+     */
+    private int cacheWarmUpThreads = 2;
+
     //exomiser.phenotype...
     @NestedConfigurationProperty
     private PhenotypeProperties phenotype = new PhenotypeProperties();
@@ -64,6 +85,38 @@ public void setWorkingDirectory(String workingDirectory) {
         this.workingDirectory = workingDirectory;
     }
 
+    public int getGeneAnalysisThreads() {
+        return geneAnalysisThreads;
+    }
+
+    public void setGeneAnalysisThreads(int geneAnalysisThreads) {
+        this.geneAnalysisThreads = geneAnalysisThreads;
+    }
+
+    public String getVariantCachePath() {
+        return variantCachePath;
+    }
+
+    public void setVariantCachePath(String variantCachePath) {
+        this.variantCachePath = variantCachePath;
+    }
+
+    public long getVariantCacheMaxEntries() {
+        return variantCacheMaxEntries;
+    }
+
+    public void setVariantCacheMaxEntries(long variantCacheMaxEntries) {
+        this.variantCacheMaxEntries = variantCacheMaxEntries;
+    }
+
+    public int getCacheWarmUpThreads() {
+        return cacheWarmUpThreads;
+    }
+
+    public void setCacheWarmUpThreads(int cacheWarmUpThreads) {
+        this.cacheWarmUpThreads = cacheWarmUpThreads;
+    }
+
     public PhenotypeProperties getPhenotype() {
         return phenotype;
     }
@@ -0,0 +1,101 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure;
+
+import java.util.Objects;
+
+/**
+ * Page cache settings for a read-only {@link org.h2.mvstore.MVStore} data source.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class MvStoreProperties {
+
+    /**
+     * Size of the on-heap page cache in MB. The default of 0 uses the MVStore default of 16 MB.
+     */
+    private int cacheSize = 0;
+
+    /**
+     * Number of independently locked segments of the page cache. The default of 0 uses the MVStore default of 16.
+     */
+    private int cacheConcurrency = 0;
+
+    /**
+     * Reads the store through a memory-mapped file, so that pages missing from the cache are served from the operating
+     * system page cache rather than read into a new on-heap buffer. Only files under 2 GB can be mapped - larger files
+     * are read as normal.
+     */
+    private boolean memoryMapped = false;
+
+    public static MvStoreProperties defaults() {
+        return new MvStoreProperties();
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public int getCacheConcurrency() {
+        return cacheConcurrency;
+    }
+
+    public void setCacheConcurrency(int cacheConcurrency) {
+        this.cacheConcurrency = cacheConcurrency;
+    }
+
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MvStoreProperties that = (MvStoreProperties) o;
+        return cacheSize == that.cacheSize &&
+                cacheConcurrency == that.cacheConcurrency &&
+                memoryMapped == that.memoryMapped;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cacheSize, cacheConcurrency, memoryMapped);
+    }
+
+    @Override
+    public String toString() {
+        return "MvStoreProperties{" +
+                "cacheSize=" + cacheSize +
+                ", cacheConcurrency=" + cacheConcurrency +
+                ", memoryMapped=" + memoryMapped +
+                '}';
+    }
+}
@@ -21,6 +21,7 @@
 package org.monarchinitiative.exomiser.autoconfigure.genome;
 
 import org.monarchinitiative.exomiser.autoconfigure.DataSourceProperties;
+import org.monarchinitiative.exomiser.autoconfigure.MvStoreProperties;
 import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
 import org.monarchinitiative.exomiser.core.genome.jannovar.TranscriptSource;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
@@ -53,6 +54,27 @@ public abstract class AbstractGenomeProperties implements GenomeProperties {
     // datastore
     private String testPathogenicityScorePath = "";
 
+    // Maximum number of variants held in memory for each variant data source. The default of 0 disables this cache. When
+    // enabled, the variant data is no longer held in the Spring caches.
+    private int variantDataCacheSize = 0;
+
+    // Checks the variants store for alleles rejected by the allele filter and logs an error should any be found
+    private boolean verifyAlleleFilter = false;
+
+    // Size in MB of the read cache for each chromosome store, where the variants store is split by chromosome. The
+    // default of 0 uses the MVStore default.
+    private int variantStoreShardCacheSize = 0;
+
+    // Page cache settings for the variants store. These also apply to the chromosome stores, apart from the cache size.
+    @NestedConfigurationProperty
+    private MvStoreProperties variantStore = MvStoreProperties.defaults();
+
+    // Optional file of alleles (chr, pos, ref, alt) whose variant data is looked-up in the background on start-up
+    private String cacheWarmUpPath = "";
+
+    // Optional file to which the alleles held in the variant data cache are written on shutdown
+    private String cacheHotKeysPath = "";
+
     @Override
     public Path getDataDirectory() {
         return dataDirectory;
@@ -149,4 +171,52 @@ public String getTestPathogenicityScorePath() {
     public void setTestPathogenicityScorePath(String testPathogenicityScorePath) {
         this.testPathogenicityScorePath = testPathogenicityScorePath;
     }
+
+    public int getVariantDataCacheSize() {
+        return variantDataCacheSize;
+    }
+
+    public void setVariantDataCacheSize(int variantDataCacheSize) {
+        this.variantDataCacheSize = variantDataCacheSize;
+    }
+
+    public boolean isVerifyAlleleFilter() {
+        return verifyAlleleFilter;
+    }
+
+    public void setVerifyAlleleFilter(boolean verifyAlleleFilter) {
+        this.verifyAlleleFilter = verifyAlleleFilter;
+    }
+
+    public int getVariantStoreShardCacheSize() {
+        return variantStoreShardCacheSize;
+    }
+
+    public void setVariantStoreShardCacheSize(int variantStoreShardCacheSize) {
+        this.variantStoreShardCacheSize = variantStoreShardCacheSize;
+    }
+
+    public MvStoreProperties getVariantStore() {
+        return variantStore;
+    }
+
+    public void setVariantStore(MvStoreProperties variantStore) {
+        this.variantStore = variantStore;
+    }
+
+    public String getCacheWarmUpPath() {
+        return cacheWarmUpPath;
+    }
+
+    public void setCacheWarmUpPath(String cacheWarmUpPath) {
+        this.cacheWarmUpPath = cacheWarmUpPath;
+    }
+
+    public String getCacheHotKeysPath() {
+        return cacheHotKeysPath;
+    }
+
+    public void setCacheHotKeysPath(String cacheHotKeysPath) {
+        this.cacheHotKeysPath = cacheHotKeysPath;
+    }
 }
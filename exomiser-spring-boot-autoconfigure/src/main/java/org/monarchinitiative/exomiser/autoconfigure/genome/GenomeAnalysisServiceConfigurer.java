@@ -22,16 +22,26 @@
 
 import de.charite.compbio.jannovar.data.JannovarData;
 import org.h2.mvstore.MVStore;
+import org.monarchinitiative.exomiser.autoconfigure.MvStoreProperties;
 import org.monarchinitiative.exomiser.core.genome.*;
 import org.monarchinitiative.exomiser.core.genome.dao.*;
 import org.monarchinitiative.exomiser.core.model.ChromosomalRegionIndex;
 import org.monarchinitiative.exomiser.core.model.RegulatoryFeature;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 
 /**
  * Acts as a manual version of Spring component discovery and DI. This is required as there can be more than one
@@ -46,10 +56,17 @@ public abstract class GenomeAnalysisServiceConfigurer implements GenomeAnalysisS
     private static final Logger logger = LoggerFactory.getLogger(GenomeAnalysisServiceConfigurer.class);
 
     private final GenomeProperties genomeProperties;
+    private final GenomeDataSources genomeDataSources;
+    // optional cache of the variant data which is persisted between runs - this can be null
+    private final PersistentVariantDataCache persistentVariantDataCache;
+    private final Map<String, VariantDataCache<?>> variantDataCaches = new LinkedHashMap<>();
 
     protected final DataSource dataSource;
     protected final JannovarData jannovarData;
     protected final MVStore mvStore;
+    protected final AlleleKeyFilter alleleKeyFilter;
+    // variant stores for each chromosome id - empty unless the data release is split by chromosome
+    protected final Map<Integer, MVStore> mvStoreShards;
 
     protected final VariantWhiteList variantWhiteList;
 
@@ -63,13 +80,25 @@ public abstract class GenomeAnalysisServiceConfigurer implements GenomeAnalysisS
     protected final TabixDataSource testPathogenicitySource;
 
     public GenomeAnalysisServiceConfigurer(GenomeProperties genomeProperties, Path exomiserDataDirectory) {
+        this(genomeProperties, exomiserDataDirectory, null);
+    }
+
+    /**
+     * @param persistentVariantDataCache optional cache of variant data to be used before the variant data sources.
+     *                                   This can be null.
+     * @since 12.1.0
+     */
+    public GenomeAnalysisServiceConfigurer(GenomeProperties genomeProperties, Path exomiserDataDirectory, PersistentVariantDataCache persistentVariantDataCache) {
         this.genomeProperties = genomeProperties;
+        this.persistentVariantDataCache = persistentVariantDataCache;
         logger.debug("Loading data sources for {} {} {}", genomeProperties.getDataVersion(), genomeProperties.getAssembly(), genomeProperties.getTranscriptSource());
-        GenomeDataSources genomeDataSources = GenomeDataSources.from(genomeProperties, exomiserDataDirectory);
-        GenomeDataSourceLoader genomeDataSourceLoader = GenomeDataSourceLoader.load(genomeDataSources);
+        this.genomeDataSources = GenomeDataSources.from(genomeProperties, exomiserDataDirectory);
+        GenomeDataSourceLoader genomeDataSourceLoader = GenomeDataSourceLoader.load(genomeDataSources, genomeProperties.getVariantStore());
         this.dataSource = genomeDataSourceLoader.getGenomeDataSource();
         this.jannovarData = genomeDataSourceLoader.getJannovarData();
         this.mvStore = genomeDataSourceLoader.getMvStore();
+        this.alleleKeyFilter = genomeDataSourceLoader.getAlleleKeyFilter();
+        this.mvStoreShards = openMvStoreShards(genomeDataSourceLoader, shardStoreProperties(genomeProperties));
 
         this.variantWhiteList = genomeDataSourceLoader.getVariantWhiteList();
 
@@ -86,9 +115,51 @@ public GenomeAnalysisServiceConfigurer(GenomeProperties genomeProperties, Path e
      */
     @PreDestroy
     public void closeMvStore() {
+        variantDataCaches.forEach((name, cache) -> logger.info("{} {} variant data cache hit rate {} {}", genomeProperties.getAssembly(), name, cache.getHitRate(), cache));
+        logger.info("{} variants store page cache used {} of {} MB", genomeProperties.getAssembly(), mvStore.getCacheSizeUsed(), mvStore.getCacheSize());
+        mvStoreShards.values().forEach(MVStore::close);
         mvStore.close();
     }
 
+    /**
+     * @since 12.1.0
+     */
+    public GenomeAssembly getGenomeAssembly() {
+        return genomeProperties.getAssembly();
+    }
+
+    /**
+     * @return the alleles held in the in-memory variant data cache of the variants store. This will be empty unless
+     * the variant-data-cache-size property has been set.
+     * @since 12.1.0
+     */
+    public List<AlleleKey> getCachedAlleleKeys() {
+        VariantDataCache<?> alleleCache = variantDataCaches.get("allele");
+        return alleleCache == null ? Collections.emptyList() : alleleCache.getAlleleKeys();
+    }
+
+    private static MvStoreProperties shardStoreProperties(GenomeProperties genomeProperties) {
+        MvStoreProperties variantStoreProperties = genomeProperties.getVariantStore();
+        MvStoreProperties shardStoreProperties = MvStoreProperties.defaults();
+        shardStoreProperties.setCacheSize(genomeProperties.getVariantStoreShardCacheSize());
+        shardStoreProperties.setCacheConcurrency(variantStoreProperties.getCacheConcurrency());
+        shardStoreProperties.setMemoryMapped(variantStoreProperties.isMemoryMapped());
+        return shardStoreProperties;
+    }
+
+    private static Map<Integer, MVStore> openMvStoreShards(GenomeDataSourceLoader genomeDataSourceLoader, MvStoreProperties shardStoreProperties) {
+        if (!genomeDataSourceLoader.getVariantStoreManifest().isPresent()) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, MVStore> shards = new TreeMap<>();
+        for (VariantStoreManifest.Shard shard : genomeDataSourceLoader.getVariantStoreManifest().get().getShards()) {
+            Path shardPath = genomeDataSourceLoader.resolveVariantStoreShardPath(shard);
+            logger.debug("Opening MVStore for chromosome {} from {}", shard.getChr(), shardPath);
+            shards.put(shard.getChr(), MvStoreDataSourceLoader.openMvStore(shardPath, shardStoreProperties));
+        }
+        return Collections.unmodifiableMap(shards);
+    }
+
     protected VariantAnnotator buildVariantAnnotator() {
         ChromosomalRegionIndex<RegulatoryFeature> regulatoryRegionIndex = genomeDataService().getRegulatoryRegionIndex();
         return new JannovarVariantAnnotator(genomeProperties.getAssembly(), jannovarData, regulatoryRegionIndex);
@@ -98,23 +169,124 @@ protected VariantFactory buildVariantFactory() {
         return new VariantFactoryImpl(variantAnnotator());
     }
 
+    protected AllelePropertiesDao buildAllelePropertiesDao() {
+        if (!mvStoreShards.isEmpty()) {
+            return new ChromosomeShardedAllelePropertiesDao(mvStoreShards, alleleKeyFilter, genomeProperties.isVerifyAlleleFilter());
+        }
+        return new AllelePropertiesDaoMvStore(mvStore, alleleKeyFilter, genomeProperties.isVerifyAlleleFilter());
+    }
+
+    protected LocalFrequencyDao buildLocalFrequencyDao() {
+        return new LocalFrequencyDao(localFrequencyTabixDataSource);
+    }
+
+    protected RemmDao buildRemmDao() {
+        return new RemmDao(remmTabixDataSource);
+    }
+
+    protected CaddDao buildCaddDao() {
+        return new CaddDao(caddIndelTabixDataSource, caddSnvTabixDataSource);
+    }
+
+    protected TestPathogenicityScoreDao buildTestPathScoreDao() {
+        return new TestPathogenicityScoreDao(testPathogenicitySource);
+    }
+
     //This method is calling the public interface of the concrete implementation so that the caching works on the DAOs
     protected VariantDataService buildVariantDataService() {
-        AllelePropertiesDaoAdapter allelePropertiesDaoAdapter = new AllelePropertiesDaoAdapter(allelePropertiesDao());
+        int variantDataCacheSize = genomeProperties.getVariantDataCacheSize();
+        // When the VariantDataCache is used, the DAOs are not the Spring proxies, otherwise the variant data would also
+        // be held in the Spring caches
+        boolean useVariantDataCache = variantDataCacheSize > 0;
+        AllelePropertiesDao allelePropertiesDao = useVariantDataCache ? buildAllelePropertiesDao() : allelePropertiesDao();
+        FrequencyDao localFrequencyDao = useVariantDataCache ? buildLocalFrequencyDao() : localFrequencyDao();
+        PathogenicityDao remmDao = useVariantDataCache ? buildRemmDao() : remmDao();
+        PathogenicityDao caddDao = useVariantDataCache ? buildCaddDao() : caddDao();
+        PathogenicityDao testPathScoreDao = useVariantDataCache ? buildTestPathScoreDao() : testPathScoreDao();
+
+        if (persistentVariantDataCache != null) {
+            // The cached data is cleared whenever the file of the data source changes
+            GenomeAssembly assembly = genomeProperties.getAssembly();
+            Path allelesPath = genomeDataSources.getVariantStoreManifestPath().filter(Files::exists).orElse(genomeDataSources.getMvStorePath());
+            String allelesVersion = genomeProperties.getDataVersion() + ':' + fileVersion(allelesPath);
+            allelePropertiesDao = persistentVariantDataCache.cachingAllelePropertiesDao(allelePropertiesDao, assembly, allelesVersion);
+            if (genomeDataSources.getLocalFrequencyPath().isPresent()) {
+                String localVersion = fileVersion(genomeDataSources.getLocalFrequencyPath().get());
+                localFrequencyDao = persistentVariantDataCache.cachingFrequencyDao("local", localFrequencyDao, assembly, localVersion);
+            }
+            if (genomeDataSources.getRemmPath().isPresent()) {
+                String remmVersion = fileVersion(genomeDataSources.getRemmPath().get());
+                remmDao = persistentVariantDataCache.cachingPathogenicityDao("remm", remmDao, assembly, remmVersion);
+            }
+            if (genomeDataSources.getCaddSnvPath().isPresent() || genomeDataSources.getCaddIndelPath().isPresent()) {
+                String caddVersion = genomeDataSources.getCaddSnvPath().map(GenomeAnalysisServiceConfigurer::fileVersion).orElse("") + ',' +
+                        genomeDataSources.getCaddIndelPath().map(GenomeAnalysisServiceConfigurer::fileVersion).orElse("");
+                caddDao = persistentVariantDataCache.cachingPathogenicityDao("cadd", caddDao, assembly, caddVersion);
+            }
+            if (genomeDataSources.getTestPathogenicityPath().isPresent()) {
+                String testVersion = fileVersion(genomeDataSources.getTestPathogenicityPath().get());
+                testPathScoreDao = persistentVariantDataCache.cachingPathogenicityDao("test", testPathScoreDao, assembly, testVersion);
+            }
+        }
+
+        if (useVariantDataCache) {
+            allelePropertiesDao = VariantDataCache.cachingAllelePropertiesDao(allelePropertiesDao, newVariantDataCache("allele", variantDataCacheSize));
+            if (genomeDataSources.getLocalFrequencyPath().isPresent()) {
+                localFrequencyDao = VariantDataCache.cachingFrequencyDao(localFrequencyDao, newVariantDataCache("local", variantDataCacheSize));
+            }
+            if (genomeDataSources.getRemmPath().isPresent()) {
+                remmDao = VariantDataCache.cachingPathogenicityDao(remmDao, newVariantDataCache("remm", variantDataCacheSize));
+            }
+            if (genomeDataSources.getCaddSnvPath().isPresent() || genomeDataSources.getCaddIndelPath().isPresent()) {
+                caddDao = VariantDataCache.cachingPathogenicityDao(caddDao, newVariantDataCache("cadd", variantDataCacheSize));
+            }
+            if (genomeDataSources.getTestPathogenicityPath().isPresent()) {
+                testPathScoreDao = VariantDataCache.cachingPathogenicityDao(testPathScoreDao, newVariantDataCache("test", variantDataCacheSize));
+            }
+        }
+
+        AllelePropertiesDaoAdapter allelePropertiesDaoAdapter = new AllelePropertiesDaoAdapter(allelePropertiesDao);
         return VariantDataServiceImpl.builder()
                 .defaultFrequencyDao(allelePropertiesDaoAdapter)
                 .defaultPathogenicityDao(allelePropertiesDaoAdapter)
-                .localFrequencyDao(localFrequencyDao())
-                .remmDao(remmDao())
-                .caddDao(caddDao())
-                .testPathScoreDao(testPathScoreDao())
+                .allelePropertiesDao(allelePropertiesDao)
+                .localFrequencyDao(localFrequencyDao)
+                .remmDao(remmDao)
+                .caddDao(caddDao)
+                .testPathScoreDao(testPathScoreDao)
                 .variantWhiteList(variantWhiteList)
                 .build();
     }
 
+    private <V> VariantDataCache<V> newVariantDataCache(String name, int maxSize) {
+        VariantDataCache<V> variantDataCache = VariantDataCache.withMaxSize(maxSize);
+        variantDataCaches.put(name, variantDataCache);
+        return variantDataCache;
+    }
+
+    private static String fileVersion(Path path) {
+        try {
+            return path.getFileName() + ":" + Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            logger.debug("Unable to read attributes of {}", path, e);
+            return path.toString();
+        }
+    }
+
     protected GenomeDataService buildGenomeDataService() {
-        RegulatoryFeatureDao regulatoryFeatureDao = new RegulatoryFeatureDao(dataSource);
-        TadDao tadDao = new TadDao(dataSource);
+        return buildGenomeDataService(genomeDataSources, jannovarData);
+    }
+
+    /**
+     * The binary TAD and regulatory feature files are used in preference to the genome database. As the connection
+     * pool of the genome database is started lazily, the database is never connected to when both files are present.
+     */
+    static GenomeDataService buildGenomeDataService(GenomeDataSources genomeDataSources, JannovarData jannovarData) {
+        DataSource genomeDataSource = genomeDataSources.getGenomeDataSource();
+        Optional<Path> regulatoryFeaturesPath = genomeDataSources.getRegulatoryFeaturesPath().filter(Files::exists);
+        RegulatoryFeatureDao regulatoryFeatureDao = regulatoryFeaturesPath.isPresent() ? new RegulatoryFeatureDao(regulatoryFeaturesPath.get()) : new RegulatoryFeatureDao(genomeDataSource);
+        Optional<Path> tadsPath = genomeDataSources.getTadsPath().filter(Files::exists);
+        TadDao tadDao = tadsPath.isPresent() ? new TadDao(tadsPath.get()) : new TadDao(genomeDataSource);
         GeneFactory geneFactory = new GeneFactory(jannovarData);
         return new GenomeDataServiceImpl(geneFactory, regulatoryFeatureDao, tadDao);
     }
@@ -23,11 +23,16 @@
 import com.google.common.collect.ImmutableSet;
 import de.charite.compbio.jannovar.data.JannovarData;
 import org.h2.mvstore.MVStore;
+import org.monarchinitiative.exomiser.autoconfigure.MvStoreProperties;
 import org.monarchinitiative.exomiser.core.genome.Contig;
+import org.monarchinitiative.exomiser.core.genome.dao.AlleleKeyFilter;
 import org.monarchinitiative.exomiser.core.genome.dao.ErrorThrowingTabixDataSource;
 import org.monarchinitiative.exomiser.core.genome.dao.InMemoryVariantWhiteList;
+import org.monarchinitiative.exomiser.core.genome.dao.MemoryMappedVariantWhiteList;
 import org.monarchinitiative.exomiser.core.genome.dao.TabixDataSource;
+import org.monarchinitiative.exomiser.core.genome.dao.VariantStoreManifest;
 import org.monarchinitiative.exomiser.core.genome.dao.VariantWhiteList;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
 import org.monarchinitiative.exomiser.core.genome.jannovar.JannovarDataSourceLoader;
 import org.monarchinitiative.exomiser.core.proto.AlleleProto;
 import org.slf4j.Logger;
@@ -54,6 +59,9 @@ public class GenomeDataSourceLoader {
     private final DataSource dataSource;
     private final JannovarData jannovarData;
     private final MVStore mvStore;
+    private final AlleleKeyFilter alleleKeyFilter;
+    private final Path variantStoreManifestPath;
+    private final VariantStoreManifest variantStoreManifest;
 
     private final VariantWhiteList variantWhiteList;
 
@@ -65,19 +73,44 @@ public class GenomeDataSourceLoader {
     private final TabixDataSource testPathogenicityTabixDataSource;
 
     public static GenomeDataSourceLoader load(GenomeDataSources genomeDataSources) {
-        return new GenomeDataSourceLoader(genomeDataSources);
+        return new GenomeDataSourceLoader(genomeDataSources, MvStoreProperties.defaults());
     }
 
-    private GenomeDataSourceLoader(GenomeDataSources genomeDataSources) {
+    /**
+     * @param variantStoreProperties page cache settings for the variants store
+     * @since 12.1.0
+     */
+    public static GenomeDataSourceLoader load(GenomeDataSources genomeDataSources, MvStoreProperties variantStoreProperties) {
+        return new GenomeDataSourceLoader(genomeDataSources, variantStoreProperties);
+    }
+
+    private GenomeDataSourceLoader(GenomeDataSources genomeDataSources, MvStoreProperties variantStoreProperties) {
         this.dataSource = genomeDataSources.getGenomeDataSource();
 
         Path transcriptFilePath = genomeDataSources.getTranscriptFilePath();
         logger.debug("Loading transcript data from {}", transcriptFilePath);
         this.jannovarData = JannovarDataSourceLoader.loadJannovarData(transcriptFilePath);
 
+        this.variantStoreManifestPath = genomeDataSources.getVariantStoreManifestPath()
+                .filter(Files::exists)
+                .orElse(null);
+        this.variantStoreManifest = loadVariantStoreManifest(variantStoreManifestPath);
+
         Path mvStoreAbsolutePath = genomeDataSources.getMvStorePath();
-        logger.debug("Opening MVStore from {}", mvStoreAbsolutePath);
-        this.mvStore = MvStoreDataSourceLoader.openMvStore(mvStoreAbsolutePath);
+        if (variantStoreManifest != null && !Files.exists(mvStoreAbsolutePath)) {
+            // data releases split by chromosome need not include the single store
+            logger.debug("No MVStore found at {} - using an empty in-memory store", mvStoreAbsolutePath);
+            this.mvStore = new MVStore.Builder().open();
+        } else {
+            logger.debug("Opening MVStore from {}", mvStoreAbsolutePath);
+            this.mvStore = MvStoreDataSourceLoader.openMvStore(mvStoreAbsolutePath, variantStoreProperties);
+        }
+        if (variantStoreManifest != null) {
+            // the alleles are read from the chromosome stores, so the filter must match these rather than the mvStore
+            this.alleleKeyFilter = loadAlleleKeyFilter(genomeDataSources.getAlleleFilterPath(), variantStoreManifest);
+        } else {
+            this.alleleKeyFilter = loadAlleleKeyFilter(genomeDataSources.getAlleleFilterPath(), variantStoreFingerprint(mvStore));
+        }
 
         this.variantWhiteList = loadVariantWhiteList(genomeDataSources.getVariantWhiteListPath());
 
@@ -88,9 +121,67 @@ private GenomeDataSourceLoader(GenomeDataSources genomeDataSources) {
         this.testPathogenicityTabixDataSource = getTabixDataSourceOrDefault("TEST", genomeDataSources.getTestPathogenicityPath());
     }
 
+    private VariantStoreManifest loadVariantStoreManifest(Path manifestPath) {
+        if (manifestPath == null) {
+            return null;
+        }
+        logger.info("Loading variant store manifest from: {}", manifestPath);
+        VariantStoreManifest manifest = VariantStoreManifest.read(manifestPath);
+        logger.info("Variant store is split into {} chromosomes containing {} alleles", manifest.getShards().size(), manifest.getNumAlleles());
+        return manifest;
+    }
+
+    private static AlleleKeyFilter.Fingerprint variantStoreFingerprint(MVStore mvStore) {
+        long numAlleles = MvStoreUtil.openAlleleMVMap(mvStore).sizeAsLong();
+        return AlleleKeyFilter.Fingerprint.of(numAlleles, MvStoreUtil.getBuildId(mvStore));
+    }
+
+    /**
+     * Loads the filter of the alleles in the chromosome stores described by the manifest. The filter is built from the
+     * single variants store, so it can only be used where all of the chromosome stores were split from that build.
+     */
+    static AlleleKeyFilter loadAlleleKeyFilter(Optional<Path> alleleFilterPath, VariantStoreManifest manifest) {
+        Optional<String> buildId = manifest.getBuildId();
+        if (!buildId.isPresent()) {
+            if (alleleFilterPath.filter(Files::exists).isPresent()) {
+                logger.warn("Not using allele filter {} as the chromosome stores were split from different builds of the variants store. All alleles will be looked-up in the variants store.", alleleFilterPath.get());
+            }
+            return AlleleKeyFilter.acceptAll();
+        }
+        return loadAlleleKeyFilter(alleleFilterPath, AlleleKeyFilter.Fingerprint.of(manifest.getNumAlleles(), buildId.get()));
+    }
+
+    /**
+     * Loads the filter of the alleles in the variants store, provided that it was built from the store described by
+     * the fingerprint. A filter built from any other store would reject alleles which are present in the store, so in
+     * this case all alleles are looked-up in the store.
+     */
+    static AlleleKeyFilter loadAlleleKeyFilter(Optional<Path> alleleFilterPath, AlleleKeyFilter.Fingerprint storeFingerprint) {
+        if (alleleFilterPath.isPresent() && Files.exists(alleleFilterPath.get())) {
+            Path filterPath = alleleFilterPath.get();
+            logger.info("Loading allele filter from: {}", filterPath);
+            AlleleKeyFilter filter = AlleleKeyFilter.open(filterPath);
+            if (!filter.getFingerprint().equals(storeFingerprint)) {
+                logger.warn("Not using allele filter {} as it was built from a different variants store - filter {}, store {}. All alleles will be looked-up in the variants store.", filterPath, filter.getFingerprint(), storeFingerprint);
+                return AlleleKeyFilter.acceptAll();
+            }
+            logger.info("Loaded allele filter with expected false positive rate {}", filter.expectedFalsePositiveRate());
+            return filter;
+        }
+        logger.debug("No allele filter found - all alleles will be looked-up in the variants store");
+        return AlleleKeyFilter.acceptAll();
+    }
+
     private VariantWhiteList loadVariantWhiteList(Optional<Path> variantWhiteListPath) {
         if (variantWhiteListPath.isPresent()) {
             Path whiteListPath = variantWhiteListPath.get();
+            Path binaryWhiteListPath = binaryWhiteListPath(whiteListPath);
+            if (Files.exists(binaryWhiteListPath)) {
+                logger.info("Loading variant whitelist from: {}", binaryWhiteListPath);
+                MemoryMappedVariantWhiteList whiteList = MemoryMappedVariantWhiteList.open(binaryWhiteListPath);
+                logger.info("Loaded {} variants into whitelist", whiteList.size());
+                return whiteList;
+            }
             logger.info("Loading variant whitelist from: {}", whiteListPath);
             // this should be a tabix-indexed gzip file
             ImmutableSet.Builder<AlleleProto.AlleleKey> whiteListBuilder = new ImmutableSet.Builder<>();
@@ -127,6 +218,19 @@ private VariantWhiteList loadVariantWhiteList(Optional<Path> variantWhiteListPat
         return InMemoryVariantWhiteList.empty();
     }
 
+    /**
+     * The binary whitelist is expected alongside the tabix file, e.g. 1902_hg19_clinvar_whitelist.bin for
+     * 1902_hg19_clinvar_whitelist.tsv.gz. A path which is already a binary whitelist is returned as-is.
+     */
+    static Path binaryWhiteListPath(Path whiteListPath) {
+        String fileName = whiteListPath.getFileName().toString();
+        if (fileName.endsWith(".bin")) {
+            return whiteListPath;
+        }
+        String baseName = fileName.replaceFirst("(\\.tsv)?\\.gz$", "");
+        return whiteListPath.resolveSibling(baseName + ".bin");
+    }
+
     private TabixDataSource getTabixDataSourceOrDefault(String dataSourceName, Optional<Path> tabixPath) {
         if (tabixPath.isPresent()) {
             Path path = tabixPath.get();
@@ -151,6 +255,24 @@ public MVStore getMvStore() {
         return mvStore;
     }
 
+    public AlleleKeyFilter getAlleleKeyFilter() {
+        return alleleKeyFilter;
+    }
+
+    /**
+     * @return the manifest of the variant stores for each chromosome, if the data release is split by chromosome.
+     */
+    public Optional<VariantStoreManifest> getVariantStoreManifest() {
+        return Optional.ofNullable(variantStoreManifest);
+    }
+
+    /**
+     * Resolves the path of the variant store for a chromosome listed in the {@link VariantStoreManifest}.
+     */
+    public Path resolveVariantStoreShardPath(VariantStoreManifest.Shard shard) {
+        return variantStoreManifestPath.resolveSibling(shard.getFileName());
+    }
+
     public VariantWhiteList getVariantWhiteList() {
         return variantWhiteList;
     }
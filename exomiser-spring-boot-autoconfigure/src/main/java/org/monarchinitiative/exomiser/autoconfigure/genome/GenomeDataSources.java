@@ -20,7 +20,6 @@
 
 package org.monarchinitiative.exomiser.autoconfigure.genome;
 
-import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.monarchinitiative.exomiser.core.genome.jannovar.TranscriptSource;
 import org.slf4j.Logger;
@@ -45,6 +44,10 @@ public class GenomeDataSources {
 
     private Path transcriptFilePath;
     private Path mvStorePath;
+    private Path alleleFilterPath;
+    private Path variantStoreManifestPath;
+    private Path tadsPath;
+    private Path regulatoryFeaturesPath;
     private DataSource genomeDataSource;
 
     private Path variantWhiteListPath;
@@ -73,6 +76,10 @@ public static GenomeDataSources from(GenomeProperties genomeProperties, Path exo
 
         Path transcriptFilePath = buildTranscriptPath(genomeProperties, genomeDataResolver);
         Path mvStoreFilePath = buildMvStorePath(genomeDataResolver);
+        Path alleleFilterPath = buildAlleleFilterPath(genomeDataResolver);
+        Path variantStoreManifestPath = buildVariantStoreManifestPath(genomeDataResolver);
+        Path tadsPath = buildTadsPath(genomeDataResolver);
+        Path regulatoryFeaturesPath = buildRegulatoryFeaturesPath(genomeDataResolver);
         DataSource genomeDataSource = buildGenomeDataSource(genomeProperties, genomeDataResolver);
 
         Path variantWhiteListPath = resolvePathOrNullIfEmpty(genomeProperties.getVariantWhiteListPath(), genomeDataResolver);
@@ -87,6 +94,10 @@ public static GenomeDataSources from(GenomeProperties genomeProperties, Path exo
         return GenomeDataSources.builder()
                 .transcriptFilePath(transcriptFilePath)
                 .mvStorePath(mvStoreFilePath)
+                .alleleFilterPath(alleleFilterPath)
+                .variantStoreManifestPath(variantStoreManifestPath)
+                .tadsPath(tadsPath)
+                .regulatoryFeaturesPath(regulatoryFeaturesPath)
                 .genomeDataSource(genomeDataSource)
                 .variantWhiteListPath(variantWhiteListPath)
                 .localFrequencyPath(localFreqPath)
@@ -110,6 +121,26 @@ private static Path buildMvStorePath(GenomeDataResolver genomeDataResolver) {
         return genomeDataResolver.resolveAbsoluteResourcePath(mvStoreFileName);
     }
 
+    private static Path buildAlleleFilterPath(GenomeDataResolver genomeDataResolver) {
+        String alleleFilterFileName = String.format("%s_variants.bloom", genomeDataResolver.getVersionAssemblyPrefix());
+        return genomeDataResolver.resolveAbsoluteResourcePath(alleleFilterFileName);
+    }
+
+    private static Path buildVariantStoreManifestPath(GenomeDataResolver genomeDataResolver) {
+        String manifestFileName = String.format("%s_variants.manifest", genomeDataResolver.getVersionAssemblyPrefix());
+        return genomeDataResolver.resolveAbsoluteResourcePath(manifestFileName);
+    }
+
+    private static Path buildTadsPath(GenomeDataResolver genomeDataResolver) {
+        String tadsFileName = String.format("%s_tads.bin", genomeDataResolver.getVersionAssemblyPrefix());
+        return genomeDataResolver.resolveAbsoluteResourcePath(tadsFileName);
+    }
+
+    private static Path buildRegulatoryFeaturesPath(GenomeDataResolver genomeDataResolver) {
+        String regulatoryFeaturesFileName = String.format("%s_regulatory_features.bin", genomeDataResolver.getVersionAssemblyPrefix());
+        return genomeDataResolver.resolveAbsoluteResourcePath(regulatoryFeaturesFileName);
+    }
+
     private static DataSource buildGenomeDataSource(GenomeProperties genomeProperties, GenomeDataResolver genomeDataResolver) {
         logger.debug("{}", genomeProperties.getDatasource());
         //omit the .h2.db extensions
@@ -118,15 +149,18 @@ private static DataSource buildGenomeDataSource(GenomeProperties genomePropertie
         String startUpArgs = ";MODE=PostgreSQL;SCHEMA=EXOMISER;DATABASE_TO_UPPER=FALSE;IFEXISTS=TRUE;AUTO_RECONNECT=TRUE;ACCESS_MODE_DATA=r;";
         String jdbcUrl = String.format("jdbc:h2:file:%s%s", dbPath, startUpArgs);
 
-        HikariConfig config = new HikariConfig();
-        config.setDriverClassName("org.h2.Driver");
-        config.setJdbcUrl(jdbcUrl);
-        config.setUsername("sa");
-        config.setPassword("");
-        config.setMaximumPoolSize(3);
-        config.setPoolName(String.format("exomiser-genome-%s-%s", genomeProperties.getAssembly(), genomeProperties.getDataVersion()));
-
-        return new HikariDataSource(config);
+        // The pool is only started on the first call to getConnection(), which will not happen if the TADs and
+        // regulatory features are loaded from their binary files. Hence the HikariConfig constructor, which starts the
+        // pool immediately, is not used here.
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setJdbcUrl(jdbcUrl);
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setMaximumPoolSize(3);
+        dataSource.setPoolName(String.format("exomiser-genome-%s-%s", genomeProperties.getAssembly(), genomeProperties.getDataVersion()));
+
+        return dataSource;
     }
 
     private static Path resolvePathOrNullIfEmpty(String pathToTabixGzFile, GenomeDataResolver genomeDataResolver) {
@@ -140,6 +174,10 @@ private GenomeDataSources(Builder builder) {
         this.transcriptFilePath = builder.transcriptFilePath;
         this.genomeDataSource = builder.genomeDataSource;
         this.mvStorePath = builder.mvStorePath;
+        this.alleleFilterPath = builder.alleleFilterPath;
+        this.variantStoreManifestPath = builder.variantStoreManifestPath;
+        this.tadsPath = builder.tadsPath;
+        this.regulatoryFeaturesPath = builder.regulatoryFeaturesPath;
 
         this.variantWhiteListPath = builder.variantWhiteListPath;
 
@@ -158,6 +196,46 @@ public Path getMvStorePath() {
         return mvStorePath;
     }
 
+    /**
+     * Optional path to the Bloom filter of the alleles in the variants MVStore. This file may not exist for older
+     * data releases.
+     *
+     * @since 12.1.0
+     */
+    public Optional<Path> getAlleleFilterPath() {
+        return Optional.ofNullable(alleleFilterPath);
+    }
+
+    /**
+     * Optional path to the manifest of a variants store split into one file per chromosome. This file will not exist
+     * for data releases with a single variants store.
+     *
+     * @since 12.1.0
+     */
+    public Optional<Path> getVariantStoreManifestPath() {
+        return Optional.ofNullable(variantStoreManifestPath);
+    }
+
+    /**
+     * Optional path to the binary file of the topologically associated domains. This file may not exist for older
+     * data releases, in which case the TADs are loaded from the genome database.
+     *
+     * @since 12.1.0
+     */
+    public Optional<Path> getTadsPath() {
+        return Optional.ofNullable(tadsPath);
+    }
+
+    /**
+     * Optional path to the binary file of the regulatory features. This file may not exist for older data releases,
+     * in which case the regulatory features are loaded from the genome database.
+     *
+     * @since 12.1.0
+     */
+    public Optional<Path> getRegulatoryFeaturesPath() {
+        return Optional.ofNullable(regulatoryFeaturesPath);
+    }
+
     public DataSource getGenomeDataSource() {
         return genomeDataSource;
     }
@@ -197,6 +275,10 @@ public boolean equals(Object o) {
         GenomeDataSources that = (GenomeDataSources) o;
         return Objects.equals(transcriptFilePath, that.transcriptFilePath) &&
                 Objects.equals(mvStorePath, that.mvStorePath) &&
+                Objects.equals(alleleFilterPath, that.alleleFilterPath) &&
+                Objects.equals(variantStoreManifestPath, that.variantStoreManifestPath) &&
+                Objects.equals(tadsPath, that.tadsPath) &&
+                Objects.equals(regulatoryFeaturesPath, that.regulatoryFeaturesPath) &&
                 Objects.equals(genomeDataSource, that.genomeDataSource) &&
                 Objects.equals(localFrequencyPath, that.localFrequencyPath) &&
                 Objects.equals(caddSnvPath, that.caddSnvPath) &&
@@ -206,7 +288,7 @@ public boolean equals(Object o) {
 
     @Override
     public int hashCode() {
-        return Objects.hash(transcriptFilePath, mvStorePath, genomeDataSource, localFrequencyPath, caddSnvPath, caddIndelPath, remmPath);
+        return Objects.hash(transcriptFilePath, mvStorePath, alleleFilterPath, variantStoreManifestPath, tadsPath, regulatoryFeaturesPath, genomeDataSource, localFrequencyPath, caddSnvPath, caddIndelPath, remmPath);
     }
 
     @Override
@@ -214,6 +296,10 @@ public String toString() {
         return "GenomeDataSources{" +
                 "transcriptFilePath=" + transcriptFilePath +
                 ", mvStorePath=" + mvStorePath +
+                ", alleleFilterPath=" + alleleFilterPath +
+                ", variantStoreManifestPath=" + variantStoreManifestPath +
+                ", tadsPath=" + tadsPath +
+                ", regulatoryFeaturesPath=" + regulatoryFeaturesPath +
                 ", genomeDataSource=" + genomeDataSource +
                 ", localFrequencyPath=" + localFrequencyPath +
                 ", caddSnvPath=" + caddSnvPath +
@@ -233,6 +319,10 @@ public static class Builder {
         private DataSource genomeDataSource;
 
         //These are all expected to be null as they are optional data sources
+        private Path alleleFilterPath = null;
+        private Path variantStoreManifestPath = null;
+        private Path tadsPath = null;
+        private Path regulatoryFeaturesPath = null;
         private Path variantWhiteListPath;
         private Path localFrequencyPath = null;
         private Path caddSnvPath = null;
@@ -252,6 +342,38 @@ public Builder mvStorePath(Path mvStorePath) {
             return this;
         }
 
+        /**
+         * Optional full system path to the Bloom filter of the alleles in the variants MVStore.
+         */
+        public Builder alleleFilterPath(Path alleleFilterPath) {
+            this.alleleFilterPath = alleleFilterPath;
+            return this;
+        }
+
+        /**
+         * Optional full system path to the manifest of a variants store split into one file per chromosome.
+         */
+        public Builder variantStoreManifestPath(Path variantStoreManifestPath) {
+            this.variantStoreManifestPath = variantStoreManifestPath;
+            return this;
+        }
+
+        /**
+         * Optional full system path to the binary file of the topologically associated domains.
+         */
+        public Builder tadsPath(Path tadsPath) {
+            this.tadsPath = tadsPath;
+            return this;
+        }
+
+        /**
+         * Optional full system path to the binary file of the regulatory features.
+         */
+        public Builder regulatoryFeaturesPath(Path regulatoryFeaturesPath) {
+            this.regulatoryFeaturesPath = regulatoryFeaturesPath;
+            return this;
+        }
+
         public Builder genomeDataSource(DataSource genomeDataSource) {
             Objects.requireNonNull(genomeDataSource);
             this.genomeDataSource = genomeDataSource;
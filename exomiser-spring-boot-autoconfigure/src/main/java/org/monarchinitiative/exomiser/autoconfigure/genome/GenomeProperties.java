@@ -21,6 +21,7 @@
 package org.monarchinitiative.exomiser.autoconfigure.genome;
 
 import org.monarchinitiative.exomiser.autoconfigure.DataSourceProperties;
+import org.monarchinitiative.exomiser.autoconfigure.MvStoreProperties;
 import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
 import org.monarchinitiative.exomiser.core.genome.jannovar.TranscriptSource;
 
@@ -82,4 +83,32 @@ interface GenomeProperties {
     public String getTestPathogenicityScorePath();
 
     public void setTestPathogenicityScorePath(String testPathogenicityScorePath);
+
+    //In-memory variant data caching
+
+    public int getVariantDataCacheSize();
+
+    public void setVariantDataCacheSize(int variantDataCacheSize);
+
+    public boolean isVerifyAlleleFilter();
+
+    public void setVerifyAlleleFilter(boolean verifyAlleleFilter);
+
+    public int getVariantStoreShardCacheSize();
+
+    public void setVariantStoreShardCacheSize(int variantStoreShardCacheSize);
+
+    public MvStoreProperties getVariantStore();
+
+    public void setVariantStore(MvStoreProperties variantStore);
+
+    //Cache warm-up
+
+    public String getCacheWarmUpPath();
+
+    public void setCacheWarmUpPath(String cacheWarmUpPath);
+
+    public String getCacheHotKeysPath();
+
+    public void setCacheHotKeysPath(String cacheHotKeysPath);
 }
@@ -25,6 +25,7 @@
 import org.monarchinitiative.exomiser.autoconfigure.DataDirectoryAutoConfiguration;
 import org.monarchinitiative.exomiser.core.genome.*;
 import org.monarchinitiative.exomiser.core.genome.dao.*;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -42,8 +43,8 @@
 @EnableConfigurationProperties(Hg19GenomeProperties.class)
 public class Hg19GenomeAnalysisServiceAutoConfiguration extends GenomeAnalysisServiceConfigurer {
 
-    public Hg19GenomeAnalysisServiceAutoConfiguration(Hg19GenomeProperties hg19GenomeProperties, Path exomiserDataDirectory) {
-        super(hg19GenomeProperties, exomiserDataDirectory);
+    public Hg19GenomeAnalysisServiceAutoConfiguration(Hg19GenomeProperties hg19GenomeProperties, Path exomiserDataDirectory, ObjectProvider<PersistentVariantDataCache> persistentVariantDataCache) {
+        super(hg19GenomeProperties, exomiserDataDirectory, persistentVariantDataCache.getIfAvailable());
     }
 
     @Bean("hg19jannovarData")
@@ -90,30 +91,30 @@ public GenomeAnalysisService genomeAnalysisService() {
     @Bean("hg19allelePropertiesDao")
     @Override
     public AllelePropertiesDao allelePropertiesDao() {
-        return new AllelePropertiesDaoMvStore(mvStore);
+        return buildAllelePropertiesDao();
     }
 
     @Bean("hg19localFrequencyDao")
     @Override
     public FrequencyDao localFrequencyDao() {
-        return new LocalFrequencyDao(localFrequencyTabixDataSource);
+        return buildLocalFrequencyDao();
     }
 
     @Bean("hg19remmDao")
     @Override
     public RemmDao remmDao() {
-        return new RemmDao(remmTabixDataSource);
+        return buildRemmDao();
     }
 
     @Bean("hg19caddDao")
     @Override
     public CaddDao caddDao() {
-        return new CaddDao(caddIndelTabixDataSource, caddSnvTabixDataSource);
+        return buildCaddDao();
     }
 
     @Bean("hg19testPathDao")
     @Override
     public PathogenicityDao testPathScoreDao() {
-        return new TestPathogenicityScoreDao(testPathogenicitySource);
+        return buildTestPathScoreDao();
     }
 }
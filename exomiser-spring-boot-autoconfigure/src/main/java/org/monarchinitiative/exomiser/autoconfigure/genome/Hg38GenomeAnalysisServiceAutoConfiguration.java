@@ -25,6 +25,7 @@
 import org.monarchinitiative.exomiser.autoconfigure.DataDirectoryAutoConfiguration;
 import org.monarchinitiative.exomiser.core.genome.*;
 import org.monarchinitiative.exomiser.core.genome.dao.*;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -42,8 +43,8 @@
 @EnableConfigurationProperties(Hg38GenomeProperties.class)
 public class Hg38GenomeAnalysisServiceAutoConfiguration extends GenomeAnalysisServiceConfigurer {
 
-    public Hg38GenomeAnalysisServiceAutoConfiguration(Hg38GenomeProperties hg38GenomeProperties, Path exomiserDataDirectory) {
-        super(hg38GenomeProperties, exomiserDataDirectory);
+    public Hg38GenomeAnalysisServiceAutoConfiguration(Hg38GenomeProperties hg38GenomeProperties, Path exomiserDataDirectory, ObjectProvider<PersistentVariantDataCache> persistentVariantDataCache) {
+        super(hg38GenomeProperties, exomiserDataDirectory, persistentVariantDataCache.getIfAvailable());
     }
 
     @Bean("hg38jannovarData")
@@ -90,30 +91,30 @@ public GenomeAnalysisService genomeAnalysisService() {
     @Bean("hg38allelePropertiesDao")
     @Override
     public AllelePropertiesDao allelePropertiesDao() {
-        return new AllelePropertiesDaoMvStore(mvStore);
+        return buildAllelePropertiesDao();
     }
 
     @Bean("hg38localFrequencyDao")
     @Override
     public FrequencyDao localFrequencyDao() {
-        return new LocalFrequencyDao(localFrequencyTabixDataSource);
+        return buildLocalFrequencyDao();
     }
 
     @Bean("hg38remmDao")
     @Override
     public RemmDao remmDao() {
-        return new RemmDao(remmTabixDataSource);
+        return buildRemmDao();
     }
 
     @Bean("hg38caddDao")
     @Override
     public CaddDao caddDao() {
-        return new CaddDao(caddIndelTabixDataSource, caddSnvTabixDataSource);
+        return buildCaddDao();
     }
 
     @Bean("hg38testPathDao")
     @Override
     public PathogenicityDao testPathScoreDao() {
-        return new TestPathogenicityScoreDao(testPathogenicitySource);
+        return buildTestPathScoreDao();
     }
 }
@@ -21,7 +21,12 @@
 package org.monarchinitiative.exomiser.autoconfigure.genome;
 
 import org.h2.mvstore.MVStore;
+import org.monarchinitiative.exomiser.autoconfigure.MvStoreProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 /**
@@ -29,6 +34,11 @@
  */
 public class MvStoreDataSourceLoader {
 
+    private static final Logger logger = LoggerFactory.getLogger(MvStoreDataSourceLoader.class);
+
+    // H2 maps the whole file into a single buffer, so larger files can't be memory-mapped
+    private static final long MAX_MAPPED_FILE_SIZE = Integer.MAX_VALUE;
+
     private MvStoreDataSourceLoader() {
     }
 
@@ -38,4 +48,54 @@ public static MVStore openMvStore(Path mvStoreAbsolutePath) {
                 .readOnly()
                 .open();
     }
+
+    /**
+     * @param cacheSizeMb size of the read cache in MB. Values less than 1 will use the MVStore default.
+     * @since 12.1.0
+     */
+    public static MVStore openMvStore(Path mvStoreAbsolutePath, int cacheSizeMb) {
+        MvStoreProperties mvStoreProperties = MvStoreProperties.defaults();
+        mvStoreProperties.setCacheSize(cacheSizeMb);
+        return openMvStore(mvStoreAbsolutePath, mvStoreProperties);
+    }
+
+    /**
+     * Opens a read-only {@link MVStore} with the page cache settings of the {@link MvStoreProperties}. Settings with a
+     * value less than 1 will use the MVStore defaults.
+     *
+     * @since 12.1.0
+     */
+    public static MVStore openMvStore(Path mvStoreAbsolutePath, MvStoreProperties mvStoreProperties) {
+        MVStore.Builder builder = new MVStore.Builder()
+                .fileName(fileName(mvStoreAbsolutePath, mvStoreProperties.isMemoryMapped()))
+                .readOnly();
+        if (mvStoreProperties.getCacheSize() > 0) {
+            builder.cacheSize(mvStoreProperties.getCacheSize());
+        }
+        if (mvStoreProperties.getCacheConcurrency() > 0) {
+            builder.cacheConcurrency(mvStoreProperties.getCacheConcurrency());
+        }
+        MVStore mvStore = builder.open();
+        logger.info("Opened MVStore {} with {} MB page cache ({})", mvStore.getFileStore().getFileName(), mvStore.getCacheSize(), mvStoreProperties);
+        return mvStore;
+    }
+
+    private static String fileName(Path mvStoreAbsolutePath, boolean memoryMapped) {
+        if (memoryMapped && isMappable(mvStoreAbsolutePath)) {
+            return "nioMapped:" + mvStoreAbsolutePath.toString();
+        }
+        return mvStoreAbsolutePath.toString();
+    }
+
+    private static boolean isMappable(Path mvStoreAbsolutePath) {
+        try {
+            if (Files.size(mvStoreAbsolutePath) <= MAX_MAPPED_FILE_SIZE) {
+                return true;
+            }
+            logger.warn("Unable to memory-map {} as it is larger than 2 GB - reading file as normal", mvStoreAbsolutePath);
+        } catch (IOException e) {
+            logger.debug("Unable to read size of {}", mvStoreAbsolutePath, e);
+        }
+        return false;
+    }
 }
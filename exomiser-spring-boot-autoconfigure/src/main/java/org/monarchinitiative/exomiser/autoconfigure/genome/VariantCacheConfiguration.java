@@ -20,21 +20,52 @@
 
 package org.monarchinitiative.exomiser.autoconfigure.genome;
 
+import org.monarchinitiative.exomiser.autoconfigure.ExomiserProperties;
+import org.monarchinitiative.exomiser.core.genome.dao.PersistentVariantDataCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Paths;
+
 /**
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(ExomiserProperties.class)
 public class VariantCacheConfiguration {
 
+    private static final Logger logger = LoggerFactory.getLogger(VariantCacheConfiguration.class);
+
     @Bean
     public KeyGenerator variantKeyGenerator() {
         return new VariantKeyGenerator();
     }
 
+    /**
+     * Optional cache of the variant data which persists between runs, enabled by setting the exomiser.variant-cache-path
+     * property. This is shared by the genome assemblies. Should the file be in use by another process the analysis
+     * will run without it.
+     */
+    @Bean
+    @ConditionalOnProperty("exomiser.variant-cache-path")
+    public PersistentVariantDataCache persistentVariantDataCache(ExomiserProperties exomiserProperties) {
+        String variantCachePath = exomiserProperties.getVariantCachePath();
+        if (variantCachePath.isEmpty()) {
+            return null;
+        }
+        try {
+            return PersistentVariantDataCache.open(Paths.get(variantCachePath), exomiserProperties.getVariantCacheMaxEntries());
+        } catch (IllegalStateException e) {
+            logger.warn("Unable to open variant cache {} - continuing without it. {}", variantCachePath, e.getMessage());
+            return null;
+        }
+    }
+
 }
@@ -21,6 +21,7 @@
 package org.monarchinitiative.exomiser.autoconfigure.phenotype;
 
 import org.monarchinitiative.exomiser.autoconfigure.DataSourceProperties;
+import org.monarchinitiative.exomiser.autoconfigure.MvStoreProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
@@ -46,6 +47,12 @@ public class PhenotypeProperties {
     private String randomWalkFileName = "rw_string_10.mv";
     private String randomWalkIndexFileName = "rw_string_9_05_id2index.gz";
     private boolean randomWalkPreload = false;
+    // Page cache settings for the random walk matrix store, where this is not pre-loaded
+    @NestedConfigurationProperty
+    private MvStoreProperties randomWalkStore = MvStoreProperties.defaults();
+
+    // Loads the ontology terms and disease/model phenotypes into their caches in the background on start-up
+    private boolean cacheWarmUp = false;
 
     //Phenix data
     private String phenixDataDir = "phenix";
@@ -100,6 +107,22 @@ public void setRandomWalkPreload(boolean randomWalkPreload) {
         this.randomWalkPreload = randomWalkPreload;
     }
 
+    public MvStoreProperties getRandomWalkStore() {
+        return randomWalkStore;
+    }
+
+    public void setRandomWalkStore(MvStoreProperties randomWalkStore) {
+        this.randomWalkStore = randomWalkStore;
+    }
+
+    public boolean isCacheWarmUp() {
+        return cacheWarmUp;
+    }
+
+    public void setCacheWarmUp(boolean cacheWarmUp) {
+        this.cacheWarmUp = cacheWarmUp;
+    }
+
     public String getPhenixDataDir() {
         return phenixDataDir;
     }
@@ -131,6 +154,8 @@ public String toString() {
                 ", datasource=" + datasource +
                 ", randomWalkFileName='" + randomWalkFileName + '\'' +
                 ", randomWalkIndexFileName='" + randomWalkIndexFileName + '\'' +
+                ", randomWalkStore=" + randomWalkStore +
+                ", cacheWarmUp=" + cacheWarmUp +
                 ", phenixDataDir='" + phenixDataDir + '\'' +
                 ", hpoFileName='" + hpoFileName + '\'' +
                 ", hpoAnnotationFile='" + hpoAnnotationFile + '\'' +
@@ -23,10 +23,13 @@
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.monarchinitiative.exomiser.autoconfigure.DataDirectoryAutoConfiguration;
+import org.monarchinitiative.exomiser.autoconfigure.MvStoreProperties;
 import org.monarchinitiative.exomiser.autoconfigure.UndefinedDataDirectoryException;
+import org.monarchinitiative.exomiser.autoconfigure.genome.MvStoreDataSourceLoader;
 import org.monarchinitiative.exomiser.core.prioritisers.PriorityFactory;
 import org.monarchinitiative.exomiser.core.prioritisers.util.DataMatrix;
 import org.monarchinitiative.exomiser.core.prioritisers.util.DataMatrixIO;
+import org.monarchinitiative.exomiser.core.prioritisers.util.OffHeapDataMatrix;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -172,7 +175,9 @@ public DataMatrix randomWalkMatrix() {
             logger.info("Pre-loading in-memory random-walk matrix from {}", randomWalkFilePath);
             return DataMatrixIO.loadInMemoryDataMatrix(randomWalkFilePath);
         }
-        return DataMatrixIO.loadOffHeapDataMatrix(randomWalkFilePath);
+        MvStoreProperties randomWalkStoreProperties = phenotypeProperties.getRandomWalkStore();
+        logger.debug("Loading off-heap random-walk matrix from {}", randomWalkFilePath);
+        return new OffHeapDataMatrix(MvStoreDataSourceLoader.openMvStore(randomWalkFilePath.toAbsolutePath(), randomWalkStoreProperties));
     }
 
     @Bean
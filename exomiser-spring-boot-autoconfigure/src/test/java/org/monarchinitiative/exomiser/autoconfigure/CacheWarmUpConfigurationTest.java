@@ -0,0 +1,261 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+import org.junitpioneer.jupiter.TempDirectory.TempDir;
+import org.monarchinitiative.exomiser.autoconfigure.genome.GenomeAnalysisServiceConfigurer;
+import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
+import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisServiceProvider;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.VariantDataWarmer;
+import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+public class CacheWarmUpConfigurationTest extends AbstractAutoConfigurationTest {
+
+    private static final AlleleKey CACHED_KEY = alleleKey(1, 12345, "A", "T");
+
+    private static final List<AlleleKey> WARM_UP_KEYS = Arrays.asList(
+            alleleKey(1, 23456, "A", "G"),
+            alleleKey(2, 34567, "C", "T"),
+            alleleKey(23, 45678, "G", "GA")
+    );
+
+    private static AlleleKey alleleKey(int chr, int pos, String ref, String alt) {
+        return AlleleKey.newBuilder().setChr(chr).setPosition(pos).setRef(ref).setAlt(alt).build();
+    }
+
+    private static String warmUpPathEnv(Path warmUpPath) {
+        return "exomiser.hg19.cache-warm-up-path=" + warmUpPath.toAbsolutePath();
+    }
+
+    private static String hotKeysPathEnv(Path hotKeysPath) {
+        return "exomiser.hg19.cache-hot-keys-path=" + hotKeysPath.toAbsolutePath();
+    }
+
+    private Path writeWarmUpFile(Path tempDir) {
+        Path warmUpPath = tempDir.resolve("hg19_warm_up_alleles.tsv");
+        VariantDataWarmer.writeAlleleKeys(warmUpPath, WARM_UP_KEYS);
+        return warmUpPath;
+    }
+
+    @Test
+    public void warmsUpFromAlleleFileAndExportsCachedAllelesOnClose(@TempDir Path tempDir) {
+        Path hotKeysPath = tempDir.resolve("hg19_hot_alleles.tsv");
+        load(CaffeineCacheConfiguration.class, warmUpPathEnv(writeWarmUpFile(tempDir)), hotKeysPathEnv(hotKeysPath), "exomiser.cache-warm-up-threads=2");
+
+        GenomeAnalysisService genomeAnalysisService = context.getBean(GenomeAnalysisService.class);
+        verify(genomeAnalysisService, timeout(5000).times(WARM_UP_KEYS.size())).getVariantData(any(), any(), any());
+
+        context.close();
+
+        Set<AlleleKey> expected = new HashSet<>(WARM_UP_KEYS);
+        expected.add(CACHED_KEY);
+        List<AlleleKey> exported = VariantDataWarmer.readAlleleKeys(hotKeysPath);
+        assertThat(exported.size(), equalTo(expected.size()));
+        assertThat(new HashSet<>(exported), equalTo(expected));
+    }
+
+    @Test
+    public void warmsUpAllAllelesWhenThereAreMoreThreadsThanAlleles(@TempDir Path tempDir) {
+        load(CaffeineCacheConfiguration.class, warmUpPathEnv(writeWarmUpFile(tempDir)), "exomiser.cache-warm-up-threads=8");
+
+        GenomeAnalysisService genomeAnalysisService = context.getBean(GenomeAnalysisService.class);
+        verify(genomeAnalysisService, timeout(5000).times(WARM_UP_KEYS.size())).getVariantData(any(), any(), any());
+
+        CacheManager cacheManager = context.getBean(CacheManager.class);
+        for (AlleleKey alleleKey : WARM_UP_KEYS) {
+            assertThat(cacheManager.getCache("hg19.allele").get(alleleKey), notNullValue());
+        }
+    }
+
+    @Test
+    public void onlyWarmsUpOnFirstContextRefresh(@TempDir Path tempDir) {
+        load(CaffeineCacheConfiguration.class, warmUpPathEnv(writeWarmUpFile(tempDir)), "exomiser.cache-warm-up-threads=1");
+
+        GenomeAnalysisService genomeAnalysisService = context.getBean(GenomeAnalysisService.class);
+        verify(genomeAnalysisService, timeout(5000).times(WARM_UP_KEYS.size())).getVariantData(any(), any(), any());
+
+        context.publishEvent(new ContextRefreshedEvent(context));
+        verify(genomeAnalysisService, after(200).times(WARM_UP_KEYS.size())).getVariantData(any(), any(), any());
+    }
+
+    @Test
+    public void doesNotWarmUpWhenAlleleFileCannotBeRead(@TempDir Path tempDir) {
+        load(CaffeineCacheConfiguration.class, warmUpPathEnv(tempDir.resolve("missing.tsv")));
+
+        GenomeAnalysisService genomeAnalysisService = context.getBean(GenomeAnalysisService.class);
+        verify(genomeAnalysisService, after(200).never()).getVariantData(any(), any(), any());
+    }
+
+    @Test
+    public void stopsWarmingUpWhenContextCloses(@TempDir Path tempDir) throws Exception {
+        load(BlockingWarmUpConfiguration.class, warmUpPathEnv(writeWarmUpFile(tempDir)), "exomiser.cache-warm-up-threads=1");
+
+        GenomeAnalysisService genomeAnalysisService = context.getBean(GenomeAnalysisService.class);
+        CountDownLatch warmUpStarted = context.getBean(CountDownLatch.class);
+        assertThat(warmUpStarted.await(5, TimeUnit.SECONDS), is(true));
+
+        context.close();
+
+        verify(genomeAnalysisService, after(200).times(1)).getVariantData(any(), any(), any());
+    }
+
+    @Test
+    public void exportsCachedAllelesFromMapBackedSpringCache(@TempDir Path tempDir) {
+        Path hotKeysPath = tempDir.resolve("hg19_hot_alleles.tsv");
+        load(ConcurrentMapCacheConfiguration.class, hotKeysPathEnv(hotKeysPath));
+
+        CacheManager cacheManager = context.getBean(CacheManager.class);
+        // an allele held in both caches is only exported once
+        cacheManager.getCache("hg19.allele").put(CACHED_KEY, AlleleProperties.getDefaultInstance());
+        WARM_UP_KEYS.forEach(alleleKey -> cacheManager.getCache("hg19.allele").put(alleleKey, AlleleProperties.getDefaultInstance()));
+        // only the entries keyed by an AlleleKey are exported
+        cacheManager.getCache("hg19.allele").put("not an allele", AlleleProperties.getDefaultInstance());
+
+        context.close();
+
+        Set<AlleleKey> expected = new HashSet<>(WARM_UP_KEYS);
+        expected.add(CACHED_KEY);
+        List<AlleleKey> exported = VariantDataWarmer.readAlleleKeys(hotKeysPath);
+        assertThat(exported.size(), equalTo(expected.size()));
+        assertThat(exported.get(0), equalTo(CACHED_KEY));
+        assertThat(new HashSet<>(exported), equalTo(expected));
+    }
+
+    @EnableConfigurationProperties(ExomiserProperties.class)
+    @Import(CacheWarmUpConfiguration.class)
+    protected abstract static class WarmUpTestConfiguration {
+
+        @Bean
+        public GenomeAnalysisServiceProvider genomeAnalysisServiceProvider(GenomeAnalysisService genomeAnalysisService) {
+            return new GenomeAnalysisServiceProvider(genomeAnalysisService);
+        }
+
+        /**
+         * Stands in for the VariantDataCache of the variants store, which already holds an allele.
+         */
+        @Bean
+        public GenomeAnalysisServiceConfigurer hg19GenomeAnalysisServiceConfigurer() {
+            GenomeAnalysisServiceConfigurer configurer = mock(GenomeAnalysisServiceConfigurer.class);
+            when(configurer.getGenomeAssembly()).thenReturn(GenomeAssembly.HG19);
+            when(configurer.getCachedAlleleKeys()).thenReturn(Collections.singletonList(CACHED_KEY));
+            return configurer;
+        }
+
+        /**
+         * Caches the looked-up alleles in the Spring hg19.allele cache, as the Spring proxied AllelePropertiesDao does.
+         */
+        @Bean
+        public GenomeAnalysisService hg19GenomeAnalysisService(CacheManager cacheManager) {
+            GenomeAnalysisService genomeAnalysisService = mock(GenomeAnalysisService.class);
+            when(genomeAnalysisService.getGenomeAssembly()).thenReturn(GenomeAssembly.HG19);
+            when(genomeAnalysisService.getVariantData(any(), any(), any())).thenAnswer(invocation -> {
+                Variant variant = invocation.getArgument(0);
+                cacheManager.getCache("hg19.allele").put(AlleleProtoAdaptor.toAlleleKey(variant), AlleleProperties.getDefaultInstance());
+                return null;
+            });
+            return genomeAnalysisService;
+        }
+    }
+
+    @Configuration
+    protected static class CaffeineCacheConfiguration extends WarmUpTestConfiguration {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new CaffeineCacheManager();
+        }
+    }
+
+    @Configuration
+    protected static class ConcurrentMapCacheConfiguration extends WarmUpTestConfiguration {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+
+    @Configuration
+    protected static class BlockingWarmUpConfiguration extends WarmUpTestConfiguration {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new CaffeineCacheManager();
+        }
+
+        @Bean
+        public CountDownLatch warmUpStarted() {
+            return new CountDownLatch(1);
+        }
+
+        /**
+         * Blocks the first look-up until the warm-up thread is interrupted by the context closing.
+         */
+        @Override
+        @Bean
+        public GenomeAnalysisService hg19GenomeAnalysisService(CacheManager cacheManager) {
+            CountDownLatch warmUpStarted = warmUpStarted();
+            GenomeAnalysisService genomeAnalysisService = mock(GenomeAnalysisService.class);
+            when(genomeAnalysisService.getGenomeAssembly()).thenReturn(GenomeAssembly.HG19);
+            when(genomeAnalysisService.getVariantData(any(), any(), any())).thenAnswer(invocation -> {
+                warmUpStarted.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            });
+            return genomeAnalysisService;
+        }
+    }
+}
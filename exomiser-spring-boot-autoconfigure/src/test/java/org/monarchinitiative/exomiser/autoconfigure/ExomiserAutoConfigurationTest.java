@@ -22,6 +22,7 @@
 
 import org.junit.jupiter.api.Test;
 import org.monarchinitiative.exomiser.core.Exomiser;
+import org.monarchinitiative.exomiser.core.analysis.util.GeneWorkerPool;
 import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisServiceProvider;
 import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
 import org.monarchinitiative.exomiser.core.phenotype.PhenotypeMatchService;
@@ -31,6 +32,7 @@
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
@@ -55,6 +57,9 @@ public void testAutoConfiguration() {
 
         PhenotypeMatchService phenotypeMatchService = (PhenotypeMatchService) context.getBean("phenotypeMatchService");
         assertThat(phenotypeMatchService, instanceOf(PhenotypeMatchService.class));
+
+        GeneWorkerPool geneWorkerPool = (GeneWorkerPool) context.getBean("geneWorkerPool");
+        assertThat(geneWorkerPool.getNumThreads(), equalTo(1));
     }
 
     @Configuration
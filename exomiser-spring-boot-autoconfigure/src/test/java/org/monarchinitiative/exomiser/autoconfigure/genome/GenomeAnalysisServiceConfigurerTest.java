@@ -0,0 +1,72 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants 
+ *                           
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *                           
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *                           
+ * This program is distributed in the hope that it will be useful, 
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *                           
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import com.zaxxer.hikari.HikariDataSource;
+import de.charite.compbio.jannovar.data.JannovarData;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.GenomeDataService;
+import org.monarchinitiative.exomiser.core.genome.dao.GenomeRegionFiles;
+import org.monarchinitiative.exomiser.core.genome.jannovar.JannovarDataSourceLoader;
+import org.monarchinitiative.exomiser.core.model.RegulatoryFeature;
+import org.monarchinitiative.exomiser.core.model.TopologicalDomain;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class GenomeAnalysisServiceConfigurerTest {
+
+    private static final JannovarData JANNOVAR_DATA = JannovarDataSourceLoader.loadJannovarData(Paths.get("src/test/resources/data/1710_hg19/1710_hg19_transcripts_ucsc.ser"));
+
+    @Test
+    public void genomeDataServiceDoesNotConnectToGenomeDatabaseWhenRegionFilesArePresent() throws Exception {
+        Path exomiserDataDirectory = Files.createTempDirectory("exomiser_test");
+        Path releaseDirectory = Files.createDirectory(exomiserDataDirectory.resolve("1710_hg19"));
+
+        List<TopologicalDomain> tads = Collections.singletonList(new TopologicalDomain(1, 770137, 1250137, Collections.singletonMap("ISG15", 9636)));
+        GenomeRegionFiles.writeTads(tads, releaseDirectory.resolve("1710_hg19_tads.bin"));
+        List<RegulatoryFeature> regulatoryFeatures = Collections.singletonList(new RegulatoryFeature(1, 10000, 10600, RegulatoryFeature.FeatureType.ENHANCER));
+        GenomeRegionFiles.writeRegulatoryFeatures(regulatoryFeatures, releaseDirectory.resolve("1710_hg19_regulatory_features.bin"));
+
+        GenomeProperties genomeProperties = new Hg19GenomeProperties();
+        genomeProperties.setDataVersion("1710");
+        // there is no genome database in this directory, so any attempt to connect to it would fail
+        GenomeDataSources genomeDataSources = GenomeDataSources.from(genomeProperties, exomiserDataDirectory);
+
+        GenomeDataService instance = GenomeAnalysisServiceConfigurer.buildGenomeDataService(genomeDataSources, JANNOVAR_DATA);
+
+        assertThat(instance.getTopologicallyAssociatedDomains(), equalTo(tads));
+        assertThat(instance.getRegulatoryFeatures(), equalTo(regulatoryFeatures));
+        HikariDataSource genomeDataSource = (HikariDataSource) genomeDataSources.getGenomeDataSource();
+        assertThat(genomeDataSource.getHikariPoolMXBean(), nullValue());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2018 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.dao.AlleleKeyFilter;
+import org.monarchinitiative.exomiser.core.genome.dao.VariantStoreManifest;
+import org.monarchinitiative.exomiser.core.genome.dao.VariantStoreManifest.Shard;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class GenomeDataSourceLoaderTest {
+
+    private static final AlleleKey ALLELE_KEY = AlleleKey.newBuilder().setChr(1).setPosition(12345).setRef("A").setAlt("T").build();
+
+    @Test
+    public void binaryWhiteListPathFromTabixPath() {
+        assertThat(GenomeDataSourceLoader.binaryWhiteListPath(Paths.get("data/1902_hg19_clinvar_whitelist.tsv.gz")), equalTo(Paths.get("data/1902_hg19_clinvar_whitelist.bin")));
+    }
+
+    @Test
+    public void binaryWhiteListPathFromGzipPath() {
+        assertThat(GenomeDataSourceLoader.binaryWhiteListPath(Paths.get("data/whitelist.gz")), equalTo(Paths.get("data/whitelist.bin")));
+    }
+
+    @Test
+    public void binaryWhiteListPathFromBinaryPath() {
+        assertThat(GenomeDataSourceLoader.binaryWhiteListPath(Paths.get("data/whitelist.bin")), equalTo(Paths.get("data/whitelist.bin")));
+    }
+
+    private static Path writeAlleleFilter(AlleleKeyFilter.Fingerprint fingerprint) throws Exception {
+        Path filterPath = Files.createTempFile("exomiser_test", ".bloom");
+        filterPath.toFile().deleteOnExit();
+        AlleleKeyFilter alleleKeyFilter = AlleleKeyFilter.create(filterPath, fingerprint, 0.01);
+        alleleKeyFilter.put(ALLELE_KEY);
+        alleleKeyFilter.flush();
+        return filterPath;
+    }
+
+    @Test
+    public void loadAlleleKeyFilterWithMatchingFingerprint() throws Exception {
+        AlleleKeyFilter.Fingerprint fingerprint = AlleleKeyFilter.Fingerprint.of(1, "build-1");
+        Path filterPath = writeAlleleFilter(fingerprint);
+
+        AlleleKeyFilter alleleKeyFilter = GenomeDataSourceLoader.loadAlleleKeyFilter(Optional.of(filterPath), fingerprint);
+        assertThat(alleleKeyFilter, not(sameInstance(AlleleKeyFilter.acceptAll())));
+        assertThat(alleleKeyFilter.getFingerprint(), equalTo(fingerprint));
+    }
+
+    @Test
+    public void loadAlleleKeyFilterFromDifferentBuildIsNotUsed() throws Exception {
+        Path filterPath = writeAlleleFilter(AlleleKeyFilter.Fingerprint.of(1, "build-1"));
+
+        AlleleKeyFilter alleleKeyFilter = GenomeDataSourceLoader.loadAlleleKeyFilter(Optional.of(filterPath), AlleleKeyFilter.Fingerprint.of(1, "build-2"));
+        assertThat(alleleKeyFilter, sameInstance(AlleleKeyFilter.acceptAll()));
+    }
+
+    @Test
+    public void loadAlleleKeyFilterWithDifferentNumberOfAllelesIsNotUsed() throws Exception {
+        Path filterPath = writeAlleleFilter(AlleleKeyFilter.Fingerprint.of(1, "build-1"));
+
+        AlleleKeyFilter alleleKeyFilter = GenomeDataSourceLoader.loadAlleleKeyFilter(Optional.of(filterPath), AlleleKeyFilter.Fingerprint.of(2, "build-1"));
+        assertThat(alleleKeyFilter, sameInstance(AlleleKeyFilter.acceptAll()));
+    }
+
+    @Test
+    public void loadAlleleKeyFilterWithoutFilter() {
+        AlleleKeyFilter alleleKeyFilter = GenomeDataSourceLoader.loadAlleleKeyFilter(Optional.empty(), AlleleKeyFilter.Fingerprint.of(1, "build-1"));
+        assertThat(alleleKeyFilter, sameInstance(AlleleKeyFilter.acceptAll()));
+    }
+
+    @Test
+    public void loadAlleleKeyFilterWithMatchingManifest() throws Exception {
+        AlleleKeyFilter.Fingerprint fingerprint = AlleleKeyFilter.Fingerprint.of(3, "build-1");
+        Path filterPath = writeAlleleFilter(fingerprint);
+        VariantStoreManifest manifest = VariantStoreManifest.of(Arrays.asList(
+                Shard.of(1, "1902_hg19_variants_chr1.mv.db", 2, "build-1"),
+                Shard.of(2, "1902_hg19_variants_chr2.mv.db", 1, "build-1")
+        ));
+
+        AlleleKeyFilter alleleKeyFilter = GenomeDataSourceLoader.loadAlleleKeyFilter(Optional.of(filterPath), manifest);
+        assertThat(alleleKeyFilter.getFingerprint(), equalTo(fingerprint));
+    }
+
+    @Test
+    public void loadAlleleKeyFilterWithManifestOfDifferentBuildsIsNotUsed() throws Exception {
+        Path filterPath = writeAlleleFilter(AlleleKeyFilter.Fingerprint.of(3, "build-2"));
+        // chromosome 2 was rewritten from a newer build, leaving chromosome 1 stale
+        VariantStoreManifest manifest = VariantStoreManifest.of(Arrays.asList(
+                Shard.of(1, "1902_hg19_variants_chr1.mv.db", 2, "build-1"),
+                Shard.of(2, "1902_hg19_variants_chr2.mv.db", 1, "build-2")
+        ));
+
+        AlleleKeyFilter alleleKeyFilter = GenomeDataSourceLoader.loadAlleleKeyFilter(Optional.of(filterPath), manifest);
+        assertThat(alleleKeyFilter, sameInstance(AlleleKeyFilter.acceptAll()));
+    }
+
+    @Test
+    public void loadAlleleKeyFilterWithManifestOfDifferentBuildIsNotUsed() throws Exception {
+        Path filterPath = writeAlleleFilter(AlleleKeyFilter.Fingerprint.of(3, "build-2"));
+        VariantStoreManifest manifest = VariantStoreManifest.of(Arrays.asList(
+                Shard.of(1, "1902_hg19_variants_chr1.mv.db", 2, "build-1"),
+                Shard.of(2, "1902_hg19_variants_chr2.mv.db", 1, "build-1")
+        ));
+
+        AlleleKeyFilter alleleKeyFilter = GenomeDataSourceLoader.loadAlleleKeyFilter(Optional.of(filterPath), manifest);
+        assertThat(alleleKeyFilter, sameInstance(AlleleKeyFilter.acceptAll()));
+    }
+}
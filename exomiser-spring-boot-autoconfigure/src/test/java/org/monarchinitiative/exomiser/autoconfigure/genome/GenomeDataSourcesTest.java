@@ -29,6 +29,7 @@
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -50,7 +51,14 @@ public void fromGenomeProperties() {
         Path expectedParent = exomiserDataPath.resolve("1710_hg19").toAbsolutePath();
         assertThat(instance.getTranscriptFilePath(), equalTo(expectedParent.resolve("1710_hg19_transcripts_refseq.ser")));
         assertThat(instance.getMvStorePath(), equalTo(expectedParent.resolve("1710_hg19_variants.mv.db")));
+        assertThat(instance.getAlleleFilterPath(), equalTo(Optional.of(expectedParent.resolve("1710_hg19_variants.bloom"))));
+        assertThat(instance.getVariantStoreManifestPath(), equalTo(Optional.of(expectedParent.resolve("1710_hg19_variants.manifest"))));
+        assertThat(instance.getTadsPath(), equalTo(Optional.of(expectedParent.resolve("1710_hg19_tads.bin"))));
+        assertThat(instance.getRegulatoryFeaturesPath(), equalTo(Optional.of(expectedParent.resolve("1710_hg19_regulatory_features.bin"))));
         assertThat(instance.getGenomeDataSource(), instanceOf(HikariDataSource.class));
+        // the connection pool is only started when a connection is first requested
+        HikariDataSource genomeDataSource = (HikariDataSource) instance.getGenomeDataSource();
+        assertThat(genomeDataSource.getHikariPoolMXBean(), nullValue());
 
         assertThat(instance.getCaddIndelPath(), equalTo(Optional.empty()));
         assertThat(instance.getCaddSnvPath(), equalTo(Optional.empty()));
@@ -107,5 +115,9 @@ public void minimalExpectedDataSources() {
         assertThat(instance.getCaddIndelPath(), equalTo(Optional.empty()));
         assertThat(instance.getRemmPath(), equalTo(Optional.empty()));
         assertThat(instance.getLocalFrequencyPath(), equalTo(Optional.empty()));
+        assertThat(instance.getAlleleFilterPath(), equalTo(Optional.empty()));
+        assertThat(instance.getVariantStoreManifestPath(), equalTo(Optional.empty()));
+        assertThat(instance.getTadsPath(), equalTo(Optional.empty()));
+        assertThat(instance.getRegulatoryFeaturesPath(), equalTo(Optional.empty()));
     }
 }
\ No newline at end of file
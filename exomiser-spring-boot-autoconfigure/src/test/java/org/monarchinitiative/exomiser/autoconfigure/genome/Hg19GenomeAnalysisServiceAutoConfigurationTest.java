@@ -26,10 +26,25 @@
 import org.monarchinitiative.exomiser.autoconfigure.AbstractAutoConfigurationTest;
 import org.monarchinitiative.exomiser.core.genome.*;
 import org.monarchinitiative.exomiser.core.genome.dao.*;
+import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.util.Collections;
+import java.util.EnumSet;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertThat;
 
@@ -69,7 +84,57 @@ public void genomeAnalysisServiceWithOptionalTestPathDao() throws Exception {
         assertThat(context.getBean("hg19testPathDao"), instanceOf(TestPathogenicityScoreDao.class));
     }
 
+    @Test
+    public void variantStoreCacheSize() {
+        load(EmptyConfiguration.class, TEST_DATA_ENV, "exomiser.hg19.data-version=1710", "exomiser.hg19.variant-store.cache-size=32");
+
+        MVStore mvStore = (MVStore) context.getBean("hg19mvStore");
+        assertThat(mvStore.getCacheSize(), equalTo(32));
+    }
+
+    @Test
+    public void variantDataIsHeldInSpringCacheWithoutVariantDataCache() {
+        load(SpringCacheConfiguration.class, TEST_DATA_ENV, "exomiser.hg19.data-version=1710");
+
+        Variant variant = lookUpVariantData();
+
+        Cache alleleCache = context.getBean(CacheManager.class).getCache("hg19.allele");
+        assertThat(alleleCache.get(AlleleProtoAdaptor.toAlleleKey(variant)), notNullValue());
+        GenomeAnalysisServiceConfigurer configurer = context.getBean(GenomeAnalysisServiceConfigurer.class);
+        assertThat(configurer.getCachedAlleleKeys().isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void variantDataIsOnlyHeldInVariantDataCacheWhenEnabled() {
+        load(SpringCacheConfiguration.class, TEST_DATA_ENV, "exomiser.hg19.data-version=1710", "exomiser.hg19.variant-data-cache-size=10");
+
+        Variant variant = lookUpVariantData();
+
+        Cache alleleCache = context.getBean(CacheManager.class).getCache("hg19.allele");
+        assertThat(alleleCache.get(AlleleProtoAdaptor.toAlleleKey(variant)), nullValue());
+        GenomeAnalysisServiceConfigurer configurer = context.getBean(GenomeAnalysisServiceConfigurer.class);
+        assertThat(configurer.getCachedAlleleKeys(), equalTo(Collections.singletonList(AlleleProtoAdaptor.toAlleleKey(variant))));
+    }
+
+    private Variant lookUpVariantData() {
+        VariantDataService variantDataService = (VariantDataService) context.getBean("hg19variantDataService");
+        Variant variant = VariantEvaluation.builder(1, 12345, "A", "T").genomeAssembly(GenomeAssembly.HG19).build();
+        variantDataService.getVariantData(variant, EnumSet.noneOf(FrequencySource.class), EnumSet.noneOf(PathogenicitySource.class));
+        return variant;
+    }
+
     @Configuration
     @ImportAutoConfiguration(value = Hg19GenomeAnalysisServiceAutoConfiguration.class)
     protected static class EmptyConfiguration {}
+
+    @Configuration
+    @ImportAutoConfiguration(value = Hg19GenomeAnalysisServiceAutoConfiguration.class)
+    @Import(VariantCacheConfiguration.class)
+    protected static class SpringCacheConfiguration {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
 }
\ No newline at end of file
@@ -22,11 +22,14 @@
 
 import org.h2.mvstore.MVStore;
 import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.autoconfigure.MvStoreProperties;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -42,6 +45,29 @@ public void loadsData() {
         assertThat(mvStore, instanceOf(MVStore.class));
     }
 
+    @Test
+    public void loadsDataWithCacheSize() {
+        Path mvStorePath = Paths.get("src/test/resources/data/1710_hg19/1710_hg19_variants.mv.db");
+        MvStoreProperties mvStoreProperties = MvStoreProperties.defaults();
+        mvStoreProperties.setCacheSize(32);
+        mvStoreProperties.setCacheConcurrency(4);
+        MVStore mvStore = MvStoreDataSourceLoader.openMvStore(mvStorePath, mvStoreProperties);
+        assertThat(mvStore.getCacheSize(), equalTo(32));
+        assertThat(mvStore.hasMap("alleles"), is(true));
+        mvStore.close();
+    }
+
+    @Test
+    public void loadsMemoryMappedData() {
+        Path mvStorePath = Paths.get("src/test/resources/data/1710_hg19/1710_hg19_variants.mv.db");
+        MvStoreProperties mvStoreProperties = MvStoreProperties.defaults();
+        mvStoreProperties.setMemoryMapped(true);
+        MVStore mvStore = MvStoreDataSourceLoader.openMvStore(mvStorePath, mvStoreProperties);
+        assertThat(mvStore.getFileStore().getFileName(), equalTo("nioMapped:" + mvStorePath));
+        assertThat(mvStore.hasMap("alleles"), is(true));
+        mvStore.close();
+    }
+
     @Test
     public void cannotLoadData() {
         Path mvStorePath = Paths.get("wibble");
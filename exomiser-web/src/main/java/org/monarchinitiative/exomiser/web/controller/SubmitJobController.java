@@ -290,8 +290,7 @@ private void buildResultsModel(Model model, Analysis analysis, AnalysisResults a
         model.addAttribute("sampleNames", sampleNames);
 
         //write out the variant type counters
-        List<VariantEvaluation> variantEvaluations = analysisResults.getVariantEvaluations();
-        List<VariantEffectCount> variantEffectCounters = ResultsWriterUtils.makeVariantEffectCounters(sampleNames, variantEvaluations);
+        List<VariantEffectCount> variantEffectCounters = ResultsWriterUtils.makeVariantEffectCounters(analysisResults);
         model.addAttribute("variantTypeCounters", variantEffectCounters);
 
         List<Gene> sampleGenes = analysisResults.getGenes();